@@ -0,0 +1,182 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.autocomplete.AutocompleteIndex;
+import de.russkaya.bot.autocomplete.AutocompleteLoader;
+import de.russkaya.bot.autocomplete.AutocompleteRepository;
+import de.russkaya.bot.cache.ActiveEntityIndex;
+import de.russkaya.bot.command.CommandReply;
+import de.russkaya.bot.core.Actor;
+import de.russkaya.bot.core.CommandCore;
+import de.russkaya.bot.core.EntityLocks;
+import de.russkaya.bot.core.HarvestRequest;
+import de.russkaya.bot.core.LogsRequest;
+import de.russkaya.bot.core.PlaceRequest;
+import de.russkaya.bot.core.StatsRequest;
+import de.russkaya.bot.core.StatusRequest;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.GuildSettingsCache;
+import de.russkaya.bot.guild.GuildSettingsRepository;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.plant.PlantRepository;
+import de.russkaya.bot.plant.PlantStatusSource;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderRepository;
+import de.russkaya.bot.reminder.ReminderService;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.solar.SolarPanelRepository;
+import de.russkaya.bot.solar.SolarPanelStatusSource;
+import de.russkaya.bot.stats.StatDimension;
+import de.russkaya.bot.stats.StatPeriod;
+import de.russkaya.bot.stats.StatsRebuilder;
+import de.russkaya.bot.stats.StatsRepository;
+import de.russkaya.bot.status.StatusMessage;
+import de.russkaya.bot.status.StatusPages;
+import de.russkaya.bot.storage.SqliteStorage;
+import de.russkaya.bot.storage.Storage;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Der Bot ohne Discord: geseedete Datenbank, Repositories, In-Memory Index,
+ * Erinnerungen, Ausgangsschlange und derselbe {@link CommandCore} wie im Bot.
+ */
+@State(Scope.Benchmark)
+public class BotState {
+
+    // Alle Daten der Benchmarks gehören einem Server
+    static final long GUILD_ID = 1_000_000_000_000_000L;
+    static final long CHANNEL_ID = 1L;
+    static final int STATUS_LIMIT = 10;
+    static final int LOG_LIMIT = 25;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    Database database;
+    PlantRepository plants;
+    SolarPanelRepository solarPanels;
+    ActivityRepository activity;
+    StatsRepository stats;
+    Storage storage;
+    ActiveEntityIndex<Plant> activePlants;
+    ActiveEntityIndex<SolarPanel> activePanels;
+    StatusPages<Plant> plantPages;
+    StatusPages<SolarPanel> solarPages;
+    ReminderService reminders;
+    OutboundQueue outbound;
+    ReminderMessageIndex reminderMessages;
+    EntityLocks locks;
+    AutocompleteIndex autocomplete;
+    CommandCore core;
+    long maxEventId;
+
+    private ScheduledExecutorService scheduler;
+    private final AtomicLong sessionIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        database = SeededDatabase.open(rows);
+        plants = new PlantRepository(database);
+        solarPanels = new SolarPanelRepository(database);
+        activity = new ActivityRepository(database);
+        stats = new StatsRepository(database, ZoneId.systemDefault());
+        // Vorlagen aus älteren Versionen haben noch keine Zähler
+        new StatsRebuilder(database, activity, stats).rebuildIfEmpty();
+
+        activePlants = new ActiveEntityIndex<>("plants", Plant::id);
+        activePanels = new ActiveEntityIndex<>("solar_panels", SolarPanel::id);
+        storage = new SqliteStorage(database, plants, solarPanels, activity, stats, new ReminderRepository(database));
+        activePlants.load(storage.activePlants(ShardRange.all(1)));
+        activePanels.load(storage.activePanels(ShardRange.all(1)));
+        autocomplete = new AutocompleteIndex();
+        AutocompleteLoader suggestions = new AutocompleteLoader(database, activity, new AutocompleteRepository(database), autocomplete);
+        suggestions.loadActive(ShardRange.all(1));
+        suggestions.loadHistory(ShardRange.all(1), suggestions.lastLogId());
+        plantPages = new StatusPages<>("pflanzen-status", STATUS_LIMIT, new PlantStatusSource(database, plants));
+        solarPages = new StatusPages<>("solar-status", STATUS_LIMIT, new SolarPanelStatusSource(database, solarPanels));
+
+        // Erinnerungen werden geplant und gespeichert, aber nie fällig
+        scheduler = Executors.newScheduledThreadPool(1);
+        reminders = new ReminderService(storage, scheduler, ShardRange.all(1), reminder -> true);
+        reminders.start();
+
+        outbound = new OutboundQueue();
+        reminderMessages = new ReminderMessageIndex();
+        locks = new EntityLocks(1024);
+        core = new CommandCore(storage, database, stats, new GuildSettingsCache(database, new GuildSettingsRepository(database)),
+                activePlants, activePanels, plantPages, solarPages, reminders, reminderMessages, locks, autocomplete);
+        maxEventId = database.read(connection -> {
+            List<ActivityEvent> newest = activity.page(connection, GUILD_ID, null, 1);
+            return newest.isEmpty() ? 0L : newest.get(0).id();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reminders.stop();
+        scheduler.shutdownNow();
+        outbound.close();
+        database.close();
+    }
+
+    static Actor actor(String userId, String username) {
+        return new Actor(GUILD_ID, CHANNEL_ID, userId, username);
+    }
+
+    CommandReply newReply() {
+        return new CommandReply(FakeInteraction.create(), outbound);
+    }
+
+    // wie der Dispatcher: schreibende Commands werden sofort deferred
+    Plant sow(String userId, String username, String location, CommandReply reply) throws SQLException {
+        reply.defer();
+        return core.sow(new PlaceRequest(actor(userId, username), location), reply);
+    }
+
+    Optional<Plant> harvest(int plantId, String userId, String username, String car, CommandReply reply) throws SQLException {
+        reply.defer();
+        return core.harvest(new HarvestRequest(actor(userId, username), plantId, car), reply);
+    }
+
+    // liefert die Sitzung zum Weiterblättern
+    long plantsStatus(CommandReply reply) throws SQLException {
+        long sessionId = sessionIds.incrementAndGet();
+        core.plantsStatus(new StatusRequest(actor(null, null), sessionId), reply);
+        return sessionId;
+    }
+
+    void solarStatus(CommandReply reply) throws SQLException {
+        core.solarStatus(new StatusRequest(actor(null, null), sessionIds.incrementAndGet()), reply);
+    }
+
+    // wie handleStatusComponent (ohne Bearbeiten der Nachricht)
+    StatusMessage plantsStatusClick(long sessionId, String action, String userId, String username) throws SQLException {
+        return plantPages.handle(plantPages.getPrefix() + ":" + sessionId + ":" + action, userId, username, List.of());
+    }
+
+    void logs(Long beforeId, CommandReply reply) throws SQLException {
+        core.logs(new LogsRequest(actor(null, null), beforeId, LOG_LIMIT), reply);
+    }
+
+    // /stats ohne Optionen: Übersicht der Woche nach Spielern plus Autos
+    void statsOverview(CommandReply reply) throws SQLException {
+        core.stats(new StatsRequest(actor(null, null), StatPeriod.WEEK, StatDimension.USER, null), reply);
+    }
+}
@@ -0,0 +1,35 @@
+package de.russkaya.bot.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zufällige, aber reproduzierbare Spieler/Orte/Autos pro Benchmark-Thread.
+ */
+@State(Scope.Thread)
+public class Caller {
+
+    private static int seeds;
+
+    final SplittableRandom random;
+
+    public Caller() {
+        synchronized (Caller.class) {
+            random = new SplittableRandom(1000 + seeds++);
+        }
+    }
+
+    int user() {
+        return random.nextInt(SeededDatabase.USERS);
+    }
+
+    String location() {
+        return SeededDatabase.LOCATIONS[random.nextInt(SeededDatabase.LOCATIONS.length)];
+    }
+
+    String car() {
+        return SeededDatabase.CARS[random.nextInt(SeededDatabase.CARS.length)];
+    }
+}
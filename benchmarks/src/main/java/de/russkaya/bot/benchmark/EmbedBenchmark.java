@@ -0,0 +1,85 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.embed.ActionEmbeds;
+import de.russkaya.bot.embed.StatusEmbeds;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.solar.SolarPanel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nur das Bauen der Embeds, ohne Datenbank. Die Allokationsrate liefert der
+ * GC-Profiler ({@code gc.alloc.rate.norm} = Bytes pro Embed), den
+ * {@link BenchmarkMain} standardmäßig einschaltet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmbedBenchmark {
+
+    private List<Plant> plants;
+    private List<SolarPanel> panels;
+    private List<ActivityEvent> events;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        ActivityAction[] actions = ActivityAction.values();
+        plants = new ArrayList<>();
+        panels = new ArrayList<>();
+        events = new ArrayList<>();
+        for (int i = 0; i < BotState.STATUS_LIMIT; i++) {
+            String location = SeededDatabase.LOCATIONS[i % SeededDatabase.LOCATIONS.length];
+            plants.add(new Plant(1000 + i, SeededDatabase.userId(i), SeededDatabase.user(i), location,
+                    now.minusSeconds(i * 60L), i % 2 == 0 ? SeededDatabase.user(i + 1) : null));
+            panels.add(new SolarPanel(2000 + i, SeededDatabase.userId(i), SeededDatabase.user(i), location,
+                    now.minusSeconds(i * 90L), i % 5));
+        }
+        for (int i = 0; i < BotState.LOG_LIMIT; i++) {
+            ActivityAction action = actions[i % actions.length];
+            events.add(new ActivityEvent(5000 - i, BotState.GUILD_ID, now.minusSeconds(i * 30L), action, 1000 + i, SeededDatabase.userId(i),
+                    SeededDatabase.user(i), SeededDatabase.LOCATIONS[i % SeededDatabase.LOCATIONS.length],
+                    action == ActivityAction.HARVEST || action == ActivityAction.COLLECT ? SeededDatabase.CARS[i % SeededDatabase.CARS.length] : null));
+        }
+    }
+
+    @Benchmark
+    public MessageEmbed plantsStatus() {
+        return StatusEmbeds.plants(plants);
+    }
+
+    @Benchmark
+    public MessageEmbed solarStatus() {
+        return StatusEmbeds.solarPanels(panels);
+    }
+
+    @Benchmark
+    public MessageEmbed logs() {
+        return StatusEmbeds.logs(events, BotState.LOG_LIMIT);
+    }
+
+    @Benchmark
+    public MessageEmbed fertilized() {
+        Plant plant = plants.get(0);
+        return ActionEmbeds.plantFertilized(plant.username(), plant.id(), plant.location());
+    }
+}
@@ -0,0 +1,72 @@
+package de.russkaya.bot.benchmark;
+
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Ersetzt die Discord-Interaktion: jeder Aufruf (reply, deferReply, Hook,
+ * setEphemeral, ...) liefert wieder einen Fake, {@code queue()} meldet sofort
+ * Erfolg. So läuft der echte Antwortweg inklusive {@code OutboundQueue}, nur
+ * ohne Netzwerk.
+ */
+final class FakeInteraction {
+
+    private static final LongAdder SENT = new LongAdder();
+
+    private FakeInteraction() {
+    }
+
+    static IReplyCallback create() {
+        return fake(IReplyCallback.class);
+    }
+
+    /**
+     * Anzahl der "gesendeten" Antworten seit dem Start.
+     */
+    static long sent() {
+        return SENT.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type) {
+        return (T) Proxy.newProxyInstance(FakeInteraction.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> answer(proxy, method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object answer(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return "FakeInteraction";
+            }
+            case "queue" -> {
+                SENT.increment();
+                if (args != null && args.length > 0 && args[0] instanceof Consumer<?> success) {
+                    ((Consumer<Object>) success).accept(null);
+                }
+                return null;
+            }
+            default -> {
+                Class<?> returnType = method.getReturnType();
+                if (returnType.isInterface()) return fake(returnType);
+                if (returnType == boolean.class) return false;
+                if (returnType == long.class) return 0L;
+                if (returnType == int.class) return 0;
+                if (returnType == void.class) return null;
+                if (RestAction.class.isAssignableFrom(returnType)) return fake(RestAction.class);
+                return null;
+            }
+        }
+    }
+}
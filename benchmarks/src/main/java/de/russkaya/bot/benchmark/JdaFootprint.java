@@ -0,0 +1,273 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.gateway.GatewayProfile;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.MetaConfig;
+import net.dv8tion.jda.internal.utils.config.SessionConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Misst, wie viel Heap JDAs Cache für große Server belegt - einmal mit
+ * {@link GatewayProfile#DEFAULT}, einmal mit {@link GatewayProfile#LEAN}, dazu
+ * als Referenz mit allen Mitgliedern (was Chunking kosten würde).
+ *
+ * Ohne Discord: Die Server werden aus einem synthetischen GUILD_CREATE direkt
+ * über JDAs EntityBuilder angelegt, genau wie beim Login. Beide Profile bekommen
+ * dieselben Daten - in Wirklichkeit schickt Discord ohne die Intents z.B. keine
+ * Sprachstatus mit, LEAN spart also eher mehr als hier gemessen.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar de.russkaya.bot.benchmark.JdaFootprint [server] [mitglieder]
+ * </pre>
+ */
+public final class JdaFootprint {
+
+    private static final int ROUNDS = 3;
+
+    // Ein großer Community-Server
+    private static final int ROLES = 250;
+    private static final int CATEGORIES = 25;
+    private static final int TEXT_CHANNELS = 375;
+    private static final int VOICE_CHANNELS = 100;
+    private static final int THREADS = 100;
+    private static final int EMOJIS = 250;
+    private static final int STICKERS = 60;
+    private static final int EVENTS = 20;
+    private static final double IN_VOICE = 0.02;
+
+    private static final long SELF_ID = 1L;
+
+    private JdaFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int guilds = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int members = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        List<Scenario> scenarios = List.of(
+            new Scenario("default", GatewayProfile.DEFAULT.cacheFlags(), GatewayProfile.DEFAULT.memberCachePolicy(), false),
+            new Scenario("lean", GatewayProfile.LEAN.cacheFlags(), GatewayProfile.LEAN.memberCachePolicy(), false),
+            new Scenario("alle Mitglieder", GatewayProfile.DEFAULT.cacheFlags(), MemberCachePolicy.ALL, true)
+        );
+
+        System.out.println("📦 " + guilds + " Server mit je " + members + " Mitgliedern, " + ROLES + " Rollen, "
+                + (CATEGORIES + TEXT_CHANNELS + VOICE_CHANNELS) + " Kanälen, " + EMOJIS + " Emojis, "
+                + (int) (members * IN_VOICE) + " im Sprachkanal");
+        System.out.printf("%-16s %12s %10s %10s %8s %8s   %s%n", "Profil", "Heap", "Mitglieder", "Nutzer", "Emojis", "Voice", "ggü. default");
+
+        long baseline = -1;
+        for (Scenario scenario : scenarios) {
+            Result best = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                Result result = measure(scenario, guilds, members);
+                if (best == null || result.bytes() < best.bytes()) best = result;
+            }
+            if (baseline < 0) baseline = best.bytes();
+            System.out.printf("%-16s %9.1f MB %10d %10d %8d %8d   %+.0f %%%n", scenario.name(), best.bytes() / 1048576.0,
+                    best.members(), best.users(), best.emojis(), best.voiceStates(), (best.bytes() - baseline) * 100.0 / baseline);
+        }
+    }
+
+    private static Result measure(Scenario scenario, int guilds, int members) {
+        JDAImpl jda = jda(scenario);
+        for (int i = 0; i < guilds; i++) {
+            long guildId = 1_000_000L * (i + 1);
+            SplittableRandom random = new SplittableRandom(guildId);
+            DataObject payload = guild(guildId, members, random);
+            jda.getEntityBuilder().createGuild(guildId, payload, members(payload, guildId, members, scenario.chunked(), random), members);
+        }
+
+        int cachedMembers = 0;
+        int voiceStates = 0;
+        for (Guild guild : jda.getGuildCache()) {
+            cachedMembers += (int) guild.getMemberCache().size();
+            voiceStates += (int) guild.getVoiceStates().stream().filter(state -> state.getChannel() != null).count();
+        }
+        int users = (int) jda.getUserCache().size();
+        int emojis = (int) jda.getEmojiCache().size();
+
+        // Heap mit und ohne JDA - die Eingabedaten sind dann schon weg (JDA verändert sie beim Einlesen)
+        long withJda = usedHeap();
+        Reference.reachabilityFence(jda);
+        jda = null;
+        long withoutJda = usedHeap();
+        return new Result(withJda - withoutJda, cachedMembers, users, emojis, voiceStates);
+    }
+
+    private static JDAImpl jda(Scenario scenario) {
+        EnumSet<CacheFlag> flags = scenario.cacheFlags();
+        JDAImpl jda = new JDAImpl(new AuthorizationConfig("footprint"), SessionConfig.getDefault(), ThreadingConfig.getDefault(),
+                new MetaConfig(2048, null, flags, ConfigFlag.getDefault()), null);
+        jda.setMemberCachePolicy(scenario.memberCachePolicy());
+        jda.setSelfUser(jda.getEntityBuilder().createSelfUser(user(SELF_ID).put("verified", true).put("mfa_enabled", false).put("bot", true)));
+        return jda;
+    }
+
+    // Ein GUILD_CREATE, wie Discord es für große Server ohne GUILD_MEMBERS schickt
+    private static DataObject guild(long guildId, int members, SplittableRandom random) {
+        DataArray roles = DataArray.empty();
+        for (int i = 0; i < ROLES; i++) {
+            long roleId = i == 0 ? guildId : guildId + 1 + i;
+            roles.add(DataObject.empty()
+                    .put("id", Long.toString(roleId)).put("name", i == 0 ? "@everyone" : "Rolle " + i)
+                    .put("color", random.nextInt(0xFFFFFF)).put("hoist", i % 10 == 0).put("position", i)
+                    .put("permissions", "1071698660929").put("managed", false).put("mentionable", false)
+                    .put("flags", 0));
+        }
+
+        DataArray channels = DataArray.empty();
+        long channelBase = guildId + 10_000;
+        for (int i = 0; i < CATEGORIES; i++) {
+            channels.add(channel(channelBase + i, 4, "kategorie-" + i, i, null, guildId, random));
+        }
+        for (int i = 0; i < TEXT_CHANNELS; i++) {
+            channels.add(channel(channelBase + CATEGORIES + i, 0, "kanal-" + i, i, channelBase + i % CATEGORIES, guildId, random)
+                    .put("topic", "Thema von Kanal " + i).put("nsfw", false).put("rate_limit_per_user", 0)
+                    .put("last_message_id", Long.toString(channelBase * 10 + i)));
+        }
+        long voiceBase = channelBase + CATEGORIES + TEXT_CHANNELS;
+        for (int i = 0; i < VOICE_CHANNELS; i++) {
+            channels.add(channel(voiceBase + i, 2, "sprache-" + i, i, channelBase + i % CATEGORIES, guildId, random)
+                    .put("bitrate", 64000).put("user_limit", 0));
+        }
+
+        DataArray threads = DataArray.empty();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(DataObject.empty()
+                    .put("id", Long.toString(guildId + 20_000 + i)).put("type", 11).put("guild_id", Long.toString(guildId))
+                    .put("parent_id", Long.toString(channelBase + CATEGORIES + i % TEXT_CHANNELS))
+                    .put("owner_id", Long.toString(member(guildId, random.nextInt(members)))).put("name", "thread-" + i)
+                    .put("message_count", 10).put("member_count", 5).put("rate_limit_per_user", 0).put("flags", 0)
+                    .put("thread_metadata", DataObject.empty().put("archived", false).put("auto_archive_duration", 1440)
+                            .put("archive_timestamp", "2024-05-01T12:00:00.000000+00:00").put("locked", false).put("invitable", true)));
+        }
+
+        DataArray emojis = DataArray.empty();
+        for (int i = 0; i < EMOJIS; i++) {
+            emojis.add(DataObject.empty()
+                    .put("id", Long.toString(guildId + 30_000 + i)).put("name", "emoji_" + i).put("roles", DataArray.empty())
+                    .put("animated", i % 5 == 0).put("available", true).put("managed", false).put("require_colons", true));
+        }
+
+        DataArray stickers = DataArray.empty();
+        for (int i = 0; i < STICKERS; i++) {
+            stickers.add(DataObject.empty()
+                    .put("id", Long.toString(guildId + 40_000 + i)).put("name", "sticker_" + i).put("description", "Sticker " + i)
+                    .put("tags", "sticker").put("type", 2).put("format_type", 1).put("available", true)
+                    .put("guild_id", Long.toString(guildId)));
+        }
+
+        DataArray events = DataArray.empty();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(DataObject.empty()
+                    .put("id", Long.toString(guildId + 50_000 + i)).put("guild_id", Long.toString(guildId))
+                    .put("channel_id", Long.toString(voiceBase + i % VOICE_CHANNELS)).put("name", "Event " + i)
+                    .put("description", "Beschreibung " + i).put("scheduled_start_time", "2030-05-01T20:00:00+00:00")
+                    .put("privacy_level", 2).put("status", 1).put("entity_type", 2).put("user_count", 0));
+        }
+
+        DataArray voiceStates = DataArray.empty();
+        int inVoice = (int) (members * IN_VOICE);
+        for (int i = 0; i < inVoice; i++) {
+            voiceStates.add(DataObject.empty()
+                    .put("user_id", Long.toString(member(guildId, i))).put("channel_id", Long.toString(voiceBase + i % VOICE_CHANNELS))
+                    .put("session_id", "session" + i).put("deaf", false).put("mute", false).put("self_deaf", false)
+                    .put("self_mute", i % 3 == 0).put("self_video", false).put("suppress", false));
+        }
+
+        return DataObject.empty()
+                .put("id", Long.toString(guildId)).put("name", "Server " + guildId).put("owner_id", Long.toString(member(guildId, 0)))
+                .put("roles", roles).put("channels", channels).put("threads", threads).put("emojis", emojis).put("stickers", stickers)
+                .put("guild_scheduled_events", events).put("voice_states", voiceStates).put("features", DataArray.empty())
+                .put("member_count", members).put("large", true).put("premium_tier", 2).put("premium_subscription_count", 14)
+                .put("afk_timeout", 300).put("verification_level", 1).put("default_message_notifications", 1)
+                .put("mfa_level", 0).put("explicit_content_filter", 2).put("nsfw_level", 0).put("max_members", 500_000)
+                .put("preferred_locale", "de");
+    }
+
+    // Ohne Chunking: nur der Bot und wer im Sprachkanal ist. Mit Chunking: alle.
+    private static TLongObjectMap<DataObject> members(DataObject guild, long guildId, int members, boolean chunked, SplittableRandom random) {
+        int included = chunked ? members : guild.getArray("voice_states").length();
+        TLongObjectMap<DataObject> map = new TLongObjectHashMap<>(included + 1);
+        map.put(SELF_ID, member(user(SELF_ID), guildId, random));
+        for (int i = 0; i < included; i++) {
+            long userId = member(guildId, i);
+            map.put(userId, member(user(userId), guildId, random));
+        }
+        return map;
+    }
+
+    private static DataObject member(DataObject user, long guildId, SplittableRandom random) {
+        DataArray roles = DataArray.empty();
+        for (int i = 0; i < 3; i++) roles.add(Long.toString(guildId + 2 + random.nextInt(ROLES - 1)));
+        return DataObject.empty()
+                .put("user", user).put("roles", roles).put("joined_at", "2023-01-01T12:00:00.000000+00:00")
+                .put("nick", random.nextInt(4) == 0 ? "Nick" + random.nextInt(100_000) : null)
+                .put("deaf", false).put("mute", false).put("flags", 0).put("pending", false);
+    }
+
+    private static DataObject user(long userId) {
+        return DataObject.empty()
+                .put("id", Long.toString(userId)).put("username", "spieler" + userId).put("global_name", "Spieler " + userId)
+                .put("discriminator", "0").put("avatar", null).put("bot", false);
+    }
+
+    private static DataObject channel(long id, int type, String name, int position, Long parentId, long guildId, SplittableRandom random) {
+        DataArray overwrites = DataArray.empty();
+        // Rollen-Overrides und ein paar mitgliederbezogene (fallen ohne MEMBER_OVERRIDES weg)
+        overwrites.add(overwrite(guildId, 0, random));
+        overwrites.add(overwrite(guildId + 2 + random.nextInt(ROLES - 1), 0, random));
+        overwrites.add(overwrite(guildId + 2 + random.nextInt(ROLES - 1), 0, random));
+        overwrites.add(overwrite(member(guildId, random.nextInt(1000)), 1, random));
+        overwrites.add(overwrite(member(guildId, random.nextInt(1000)), 1, random));
+        DataObject channel = DataObject.empty()
+                .put("id", Long.toString(id)).put("type", type).put("name", name).put("position", position)
+                .put("guild_id", Long.toString(guildId)).put("permission_overwrites", overwrites).put("flags", 0);
+        if (parentId != null) channel.put("parent_id", Long.toString(parentId));
+        return channel;
+    }
+
+    private static DataObject overwrite(long id, int type, SplittableRandom random) {
+        return DataObject.empty().put("id", Long.toString(id)).put("type", type)
+                .put("allow", Long.toString(random.nextLong(1L << 40))).put("deny", Long.toString(random.nextLong(1L << 40)));
+    }
+
+    private static long member(long guildId, int index) {
+        return guildId * 1_000_000L + 100 + index;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private record Scenario(String name, EnumSet<CacheFlag> cacheFlags, MemberCachePolicy memberCachePolicy, boolean chunked) {
+    }
+
+    private record Result(long bytes, int members, int users, int emojis, int voiceStates) {
+    }
+}
@@ -0,0 +1,462 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.core.Actor;
+import de.russkaya.bot.core.FertilizeRequest;
+import de.russkaya.bot.core.HarvestRequest;
+import de.russkaya.bot.core.PlaceRequest;
+import de.russkaya.bot.core.ReactionRequest;
+import de.russkaya.bot.core.Reply;
+import de.russkaya.bot.core.StatusRequest;
+import de.russkaya.bot.embed.ReminderEmbeds;
+import de.russkaya.bot.embed.Texts;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderType;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Spielt synthetischen Discord-Verkehr (Säen, Düngen, Ernten, Solar, Status,
+ * Reaktionen) gegen den {@code CommandCore} ab - mit geseedeter Datenbank,
+ * echten Erinnerungen und echter {@code OutboundQueue}. Statt Discord nimmt ein
+ * Platzhalter die REST-Aufrufe an und antwortet nach {@code rest-ms} (±50 %).
+ *
+ * Jede Stufe erzeugt Anfragen in festem Takt (offene Last): ist der Bot zu
+ * langsam, stauen sich die Anfragen, und die Wartezeit zählt zur Latenz. Die
+ * Stufe, ab der der erreichte Durchsatz hinter dem Ziel bleibt oder p99
+ * sprunghaft steigt, ist der Sättigungspunkt.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar de.russkaya.bot.benchmark.LoadGenerator [raten/s] [parallel] [sekunden] [rest-ms] [zeilen] [mix]
+ * java -cp target/benchmarks.jar de.russkaya.bot.benchmark.LoadGenerator 50,100,200,400,800 64 20 80 10000 status=50,sow=10
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    // Mehr wartende Anfragen gelten als verloren - bei Discord liefe längst die 3-Sekunden-Frist ab
+    private static final int MAX_BACKLOG = 10_000;
+    private static final long DRAIN_SECONDS = 30;
+
+    // Erinnerungen verteilen sich auf mehrere Kanäle, damit das Bearbeitungs-Limit pro Kanal nicht alles bestimmt
+    private static final int CHANNELS = 20;
+
+    // Ohne passende Pflanze bzw. Panel aus diesem Lauf wird stattdessen gesät bzw. aufgestellt
+    private enum Operation {
+        SOW(15), FERTILIZE(15), HARVEST(10), SOLAR_PLACE(5), SOLAR_COLLECT(5), STATUS(30), REACTION(20);
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private final BotState bot;
+    private final RestStandIn rest;
+    private final int concurrency;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+
+    // Gesäte, noch nicht gedüngte bzw. gedüngte Pflanzen und aufgestellte Panels aus diesem Lauf
+    private final ConcurrentLinkedQueue<Integer> sown = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> fertilized = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> panels = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final AtomicLong messageIds = new AtomicLong(1L << 40);
+
+    private LoadGenerator(BotState bot, RestStandIn rest, int concurrency, Map<Operation, Integer> mix) {
+        this.bot = bot;
+        this.rest = rest;
+        this.concurrency = concurrency;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] rates = Arrays.stream((args.length > 0 ? args[0] : "50,100,200,400,800").split(","))
+                .mapToInt(rate -> Integer.parseInt(rate.trim())).toArray();
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long restMs = args.length > 3 ? Long.parseLong(args[3]) : 80;
+        int rows = args.length > 4 ? Integer.parseInt(args[4]) : 10_000;
+        Map<Operation, Integer> mix = mix(args.length > 5 ? args[5] : "");
+
+        BotState bot = new BotState();
+        bot.rows = rows;
+        bot.setUp();
+        RestStandIn rest = new RestStandIn(restMs);
+        try {
+            System.out.println("🚦 " + rows + " Pflanzen/Panels, " + concurrency + " parallel, " + seconds + " s pro Stufe, REST "
+                    + restMs + " ms, Mix " + mix);
+            new LoadGenerator(bot, rest, concurrency, mix).run(rates, seconds);
+            // Bearbeitungen der Erinnerungen hängen am Limit pro Kanal und laufen nicht in die Latenz ein
+            System.out.println("📤 Ausgang (" + bot.outbound.getQueueDepth() + " wartend): " + bot.outbound.summary());
+            System.out.println("🔒 Entitäts-Locks: " + bot.locks.getAcquired() + " genommen, " + bot.locks.getContended() + " mit Warten");
+            // Nach dem Lauf muss der Index genau den aktiven Zeilen entsprechen
+            int plantMismatches = bot.activePlants.reconcile(bot.storage.activePlants(ShardRange.all(1)));
+            int panelMismatches = bot.activePanels.reconcile(bot.storage.activePanels(ShardRange.all(1)));
+            System.out.println((plantMismatches + panelMismatches == 0 ? "✅" : "❌") + " Index: " + plantMismatches
+                    + " Abweichungen bei Pflanzen, " + panelMismatches + " bei Solarpanels");
+        } finally {
+            bot.tearDown();
+            rest.close();
+        }
+    }
+
+    private void run(int[] rates, int seconds) throws InterruptedException {
+        System.out.printf("%-14s %8s %10s %9s %9s %9s %9s %8s %9s%n",
+                "Stufe", "Anfragen", "erreicht/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "Fehler", "abgelehnt");
+        for (int rate : rates) {
+            Step step = step(rate, seconds);
+            step.print(rate);
+        }
+    }
+
+    private Step step(int rate, int seconds) throws InterruptedException {
+        Step step = new Step();
+        Semaphore slots = new Semaphore(concurrency);
+        AtomicInteger backlog = new AtomicInteger();
+        long intervalNanos = 1_000_000_000L / rate;
+        long total = (long) rate * seconds;
+        SplittableRandom random = new SplittableRandom(rate);
+
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = started + i * intervalNanos;
+                long delay = intended - System.nanoTime();
+                if (delay > 0) LockSupport.parkNanos(delay);
+
+                Operation operation = pick(random);
+                Actor actor = actor(random);
+                if (backlog.incrementAndGet() > MAX_BACKLOG) {
+                    backlog.decrementAndGet();
+                    step.failed(operation);
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        slots.acquireUninterruptibly();
+                        try {
+                            execute(operation, actor, intended, step);
+                        } finally {
+                            slots.release();
+                        }
+                    } finally {
+                        backlog.decrementAndGet();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        // Antworten, die noch in der OutboundQueue oder beim REST-Platzhalter hängen
+        step.drain(TimeUnit.SECONDS.toNanos(DRAIN_SECONDS));
+        step.finish(elapsed);
+        return step;
+    }
+
+    private void execute(Operation operation, Actor actor, long intended, Step step) {
+        LocalReply reply = new LocalReply();
+        Operation executed = operation;
+        try {
+            executed = switch (operation) {
+                case SOW -> sow(actor, reply);
+                case FERTILIZE -> {
+                    Integer plantId = sown.poll();
+                    if (plantId == null) yield sow(actor, reply);
+                    if (bot.core.fertilize(new FertilizeRequest(actor, plantId), reply).isPresent()) fertilized.add(plantId);
+                    yield operation;
+                }
+                case HARVEST -> {
+                    Integer plantId = fertilized.poll();
+                    if (plantId == null) yield sow(actor, reply);
+                    bot.core.harvest(new HarvestRequest(actor, plantId, car()), reply);
+                    yield operation;
+                }
+                case SOLAR_PLACE -> placeSolar(actor, reply);
+                case SOLAR_COLLECT -> {
+                    Integer solarId = panels.poll();
+                    if (solarId == null) yield placeSolar(actor, reply);
+                    bot.core.collectSolar(new HarvestRequest(actor, solarId, car()), reply);
+                    yield operation;
+                }
+                case STATUS -> {
+                    bot.core.plantsStatus(new StatusRequest(actor, sessionIds.incrementAndGet()), reply);
+                    yield operation;
+                }
+                case REACTION -> {
+                    Integer plantId = sown.poll();
+                    if (plantId == null) yield sow(actor, reply);
+                    react(actor, plantId);
+                    // Reaktionen haben keine Antwort - fertig, sobald der Kern fertig ist
+                    reply.done.complete(true);
+                    yield operation;
+                }
+            };
+        } catch (Exception e) {
+            reply.done.completeExceptionally(e);
+        }
+        step.track(executed, intended, reply.done);
+    }
+
+    private Operation sow(Actor actor, Reply reply) throws Exception {
+        sown.add(bot.core.sow(new PlaceRequest(actor, location()), reply).id());
+        return Operation.SOW;
+    }
+
+    private Operation placeSolar(Actor actor, Reply reply) throws Exception {
+        panels.add(bot.core.placeSolar(new PlaceRequest(actor, location()), reply).id());
+        return Operation.SOLAR_PLACE;
+    }
+
+    // Wie der Digest: Nachricht mit einem Eintrag "verschicken", dann darauf reagieren
+    private void react(Actor actor, int plantId) throws Exception {
+        long messageId = messageIds.incrementAndGet();
+        ReminderMessageIndex.Ref ref = new ReminderMessageIndex.Ref(ReminderType.PLANT_FERTILIZE, plantId);
+        Optional<Plant> plant = bot.activePlants.get(plantId);
+        MessageEmbed embed = ReminderEmbeds.digest(1)
+                .addField(Texts.FERTILIZE_REMINDER, plant.map(Texts::fertilizeReminder).orElse("-"), false)
+                .build();
+        bot.core.reminderSent(messageId, embed, List.of(ref));
+
+        List<ReminderMessageIndex.Ref> open = bot.core.openReminders(messageId, ReminderType.PLANT_FERTILIZE.getReaction());
+        if (open.isEmpty()) return;
+        MessageEmbed updated = bot.core.react(new ReactionRequest(actor, messageId, open));
+        if (updated != null) {
+            fertilized.add(plantId);
+            bot.outbound.submitCoalescing(SendPriority.EDIT, Route.messageEdits(actor.channelId()), "edit:" + messageId, rest::action);
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        return Operation.STATUS;
+    }
+
+    private static Actor actor(SplittableRandom random) {
+        int user = random.nextInt(SeededDatabase.USERS);
+        return new Actor(BotState.GUILD_ID, 1 + random.nextInt(CHANNELS), SeededDatabase.userId(user), SeededDatabase.user(user));
+    }
+
+    private static String location() {
+        return SeededDatabase.LOCATIONS[ThreadLocalRandom.current().nextInt(SeededDatabase.LOCATIONS.length)];
+    }
+
+    private static String car() {
+        return SeededDatabase.CARS[ThreadLocalRandom.current().nextInt(SeededDatabase.CARS.length)];
+    }
+
+    // "status=50,sow=10" überschreibt einzelne Gewichte, der Rest bleibt
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) mix.put(operation, operation.defaultWeight);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) continue;
+            String[] pair = part.split("=");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT).replace('-', '_')), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Antwortet wie {@code CommandReply} über die OutboundQueue, aber an den
+     * REST-Platzhalter. Fertig ist die Anfrage, wenn der Platzhalter die Antwort
+     * bestätigt hat.
+     */
+    private final class LocalReply implements Reply {
+
+        final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        @Override
+        public void embed(MessageEmbed embed) {
+            send(true);
+        }
+
+        @Override
+        public void embed(MessageEmbed embed, List<? extends LayoutComponent> components) {
+            send(true);
+        }
+
+        @Override
+        public void error(String message) {
+            send(false);
+        }
+
+        private void send(boolean accepted) {
+            bot.outbound.submit(SendPriority.REPLY, Route.interaction(), rest::action, result -> done.complete(accepted));
+        }
+    }
+
+    /**
+     * Nimmt REST-Aufrufe an und meldet nach der eingestellten Zeit Erfolg.
+     */
+    private static final class RestStandIn implements AutoCloseable {
+
+        private final long latencyMs;
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rest-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        RestStandIn(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @SuppressWarnings("unchecked")
+        RestAction<Void> action() {
+            return (RestAction<Void>) Proxy.newProxyInstance(LoadGenerator.class.getClassLoader(), new Class<?>[] {RestAction.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("queue")) return null;
+                        Consumer<Object> success = args != null && args.length > 0 ? (Consumer<Object>) args[0] : null;
+                        long delay = latencyMs / 2 + (latencyMs > 0 ? ThreadLocalRandom.current().nextLong(latencyMs + 1) : 0);
+                        timer.schedule(() -> {
+                            if (success != null) success.accept(null);
+                        }, delay, TimeUnit.MILLISECONDS);
+                        return null;
+                    });
+        }
+
+        @Override
+        public void close() {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Ergebnisse einer Stufe: Latenzen ab dem geplanten Start, Fehler (Ausnahme,
+     * Stau, keine Antwort) und abgelehnte Anfragen (Fehlermeldung an den Nutzer).
+     */
+    private static final class Step {
+
+        private final Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> failures = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> rejected = new EnumMap<>(Operation.class);
+        private final ConcurrentLinkedQueue<CompletableFuture<Boolean>> pending = new ConcurrentLinkedQueue<>();
+        private long elapsedNanos;
+
+        Step() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Latencies());
+                failures.put(operation, new AtomicLong());
+                rejected.put(operation, new AtomicLong());
+            }
+        }
+
+        void track(Operation operation, long intended, CompletableFuture<Boolean> done) {
+            pending.add(done);
+            done.whenComplete((accepted, error) -> {
+                if (error != null) {
+                    failures.get(operation).incrementAndGet();
+                    return;
+                }
+                latencies.get(operation).add(System.nanoTime() - intended);
+                if (!accepted) rejected.get(operation).incrementAndGet();
+            });
+        }
+
+        void failed(Operation operation) {
+            failures.get(operation).incrementAndGet();
+        }
+
+        void drain(long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            for (CompletableFuture<Boolean> done : pending) {
+                try {
+                    done.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (Exception e) {
+                    done.completeExceptionally(e);
+                }
+            }
+        }
+
+        void finish(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void print(int rate) {
+            Latencies all = new Latencies();
+            long failed = 0;
+            long refused = 0;
+            for (Operation operation : Operation.values()) {
+                all.addAll(latencies.get(operation));
+                failed += failures.get(operation).get();
+                refused += rejected.get(operation).get();
+            }
+            print(rate + "/s", all, failed, refused);
+            for (Operation operation : Operation.values()) {
+                Latencies values = latencies.get(operation);
+                if (values.size() == 0 && failures.get(operation).get() == 0) continue;
+                print("  " + operation.name().toLowerCase(Locale.ROOT), values, failures.get(operation).get(), rejected.get(operation).get());
+            }
+        }
+
+        private void print(String label, Latencies values, long failed, long refused) {
+            long requests = values.size() + failed;
+            System.out.printf("%-14s %8d %10.1f %9.1f %9.1f %9.1f %9.1f %7.2f%% %8.2f%%%n", label, requests,
+                    values.size() * 1e9 / elapsedNanos, values.percentile(0.50), values.percentile(0.95),
+                    values.percentile(0.99), values.percentile(1.0),
+                    requests == 0 ? 0 : failed * 100.0 / requests, requests == 0 ? 0 : refused * 100.0 / requests);
+        }
+    }
+
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = value;
+        }
+
+        synchronized void addAll(Latencies other) {
+            synchronized (other) {
+                for (int i = 0; i < other.size; i++) add(other.nanos[i]);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // in Millisekunden
+        synchronized double percentile(double quantile) {
+            if (size == 0) return 0;
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))] / 1e6;
+        }
+    }
+}
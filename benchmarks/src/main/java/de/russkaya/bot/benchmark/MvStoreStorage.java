@@ -0,0 +1,523 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderPlan;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.storage.Created;
+import de.russkaya.bot.storage.Storage;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.MVStoreException;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Storage} auf MVStore (H2): ein eingebetteter, log-strukturierter
+ * Key-Value-Store in einer einzigen Datei, ohne SQL und ohne JDBC. Jede
+ * "Tabelle" ist eine {@link MVMap} mit der id als Schlüssel und der Zeile als
+ * {@code Object[]}. Aktive Pflanzen und Panels liegen getrennt von
+ * abgeschlossenen, die Listen für Index und Start bleiben so kurz. Heiße Seiten
+ * hält der Store im eigenen Cache; Lesen geht ohne Lock direkt auf die Maps.
+ *
+ * Geschrieben wird wie bei SQLite immer nur von einem Ablauf zur Zeit, damit
+ * Änderung und Log-Eintrag zusammenpassen. Auf die Platte geht es per Group
+ * Commit: alle {@code commitMillis} schreibt ein Hintergrund-Thread alles seit
+ * dem letzten Mal in einem Rutsch - nach einem Absturz fehlen höchstens diese
+ * Millisekunden, aber nie ein halber Ablauf. Mit 0 wird nach jedem Ablauf
+ * committet. Scheitert ein Ablauf mittendrin, spielt {@code write} seine
+ * Änderungen rückwärts zurück - {@code rollbackTo} ginge nicht, weil die
+ * offene Version auch die noch nicht committeten Abläufe davor enthält.
+ *
+ * Liegt bei den Benchmarks und nicht im Bot: im Bot läuft {@link de.russkaya.bot.storage.SqliteStorage},
+ * Status, Statistik, Export und Archiv lesen dort direkt per SQL.
+ */
+public class MvStoreStorage implements Storage {
+
+    // Spalten der aktiven Pflanzen, abgeschlossene haben dahinter noch HARVESTED_*
+    private static final int GUILD = 0, USER_ID = 1, USERNAME = 2, LOCATION = 3, CREATED_AT = 4;
+    private static final int FERTILIZED_BY = 5, FERTILIZED_AT = 6, PLANT_MESSAGE = 7, PLANT_COLUMNS = 8;
+    // Spalten der aktiven Panels, die ersten fünf wie bei den Pflanzen
+    private static final int REPAIRS = 5, REPAIRED_BY = 6, REPAIRED_AT = 7, REPAIR_MESSAGE = 8, SOLAR_MESSAGE = 9, SOLAR_COLUMNS = 10;
+    // Erinnerungen
+    private static final int R_GUILD = 0, R_TYPE = 1, R_ENTITY = 2, R_CHANNEL = 3, R_DUE_AT = 4, R_INTERVAL = 5;
+    // Aktivitäts-Log
+    private static final int A_GUILD = 0, A_AT = 1, A_ACTION = 2, A_ENTITY = 3, A_USER_ID = 4, A_USERNAME = 5, A_LOCATION = 6, A_CAR = 7;
+
+    private static final Comparator<Plant> PLANTS_NEWEST_FIRST =
+            Comparator.comparing(Plant::plantedAt).thenComparingInt(Plant::id).reversed();
+    private static final Comparator<SolarPanel> PANELS_NEWEST_FIRST =
+            Comparator.comparing(SolarPanel::placedAt).thenComparingInt(SolarPanel::id).reversed();
+
+    private final Path file;
+    private final long commitMillis;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private MVStore store;
+    private MVMap<Integer, Object[]> plants;
+    private MVMap<Integer, Object[]> harvested;
+    private MVMap<Integer, Object[]> panels;
+    private MVMap<Integer, Object[]> collected;
+    private MVMap<Long, Object[]> reminders;
+    private MVMap<Long, Object[]> activity;
+    private MVMap<String, Long> sequences;
+
+    // Erinnerungen pro Entität, damit Ernten nicht alle Erinnerungen durchsucht - nur unter writeLock
+    private final Map<EntityKey, Set<Long>> remindersByEntity = new HashMap<>();
+    // Alte Werte des laufenden Ablaufs, zum Zurückspielen wenn er scheitert - nur unter writeLock
+    private final List<Runnable> undo = new ArrayList<>();
+    private ScheduledExecutorService committer;
+
+    /**
+     * @param commitMillis Abstand der Commits auf die Platte, 0 = nach jedem Ablauf
+     */
+    public MvStoreStorage(Path file, long commitMillis) {
+        this.file = file;
+        this.commitMillis = commitMillis;
+    }
+
+    public void open() throws SQLException {
+        try {
+            store = new MVStore.Builder().fileName(file.toString()).autoCommitDisabled().open();
+            plants = store.openMap("plants");
+            harvested = store.openMap("plants_harvested");
+            panels = store.openMap("solar_panels");
+            collected = store.openMap("solar_panels_collected");
+            reminders = store.openMap("reminders");
+            activity = store.openMap("activity_events");
+            sequences = store.openMap("sequences");
+        } catch (MVStoreException e) {
+            throw new SQLException("MVStore " + file + " konnte nicht geöffnet werden: " + e.getMessage(), e);
+        }
+
+        indexReminders();
+
+        if (commitMillis > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mvstore-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(this::commit, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Created<Plant> sow(long guildId, String userId, String username, String location, List<ReminderPlan> reminders)
+            throws SQLException {
+        requireOwner(userId);
+        return write(() -> {
+            int id = (int) next("plants");
+            long now = System.currentTimeMillis();
+            Object[] row = new Object[PLANT_COLUMNS];
+            row[GUILD] = guildId;
+            row[USER_ID] = userId;
+            row[USERNAME] = username;
+            row[LOCATION] = location;
+            row[CREATED_AT] = now;
+            put(plants, id, row);
+            record(guildId, now, ActivityAction.SOW, id, userId, username, location, null);
+            return new Created<>(plant(id, row), putReminders(guildId, id, reminders));
+        });
+    }
+
+    @Override
+    public Optional<Plant> fertilize(long guildId, int plantId, String userId, String username) throws SQLException {
+        return write(() -> fertilize(guildId, plantId, userId, username, false));
+    }
+
+    @Override
+    public Optional<Plant> fertilizeIfPending(long guildId, int plantId, String userId, String username) throws SQLException {
+        return write(() -> fertilize(guildId, plantId, userId, username, true));
+    }
+
+    @Override
+    public Optional<Plant> harvest(long guildId, int plantId, String userId, String username, String car) throws SQLException {
+        return write(() -> {
+            Object[] row = plants.get(plantId);
+            if (!inGuild(row, guildId)) return Optional.empty();
+
+            long now = System.currentTimeMillis();
+            put(harvested, plantId, finished(row, username, now, car));
+            remove(plants, plantId);
+            record(guildId, now, ActivityAction.HARVEST, plantId, userId, username, (String) row[LOCATION], car);
+            return Optional.of(plant(plantId, row));
+        });
+    }
+
+    @Override
+    public List<Plant> activePlants(ShardRange shards) throws SQLException {
+        return read(() -> {
+            List<Plant> active = new ArrayList<>();
+            for (Map.Entry<Integer, Object[]> entry : plants.entrySet()) {
+                if (shards.contains((Long) entry.getValue()[GUILD])) active.add(plant(entry.getKey(), entry.getValue()));
+            }
+            active.sort(PLANTS_NEWEST_FIRST);
+            return active;
+        });
+    }
+
+    @Override
+    public Created<SolarPanel> placeSolar(long guildId, String userId, String username, String location,
+                                          List<ReminderPlan> reminders) throws SQLException {
+        requireOwner(userId);
+        return write(() -> {
+            int id = (int) next("solar_panels");
+            long now = System.currentTimeMillis();
+            Object[] row = new Object[SOLAR_COLUMNS];
+            row[GUILD] = guildId;
+            row[USER_ID] = userId;
+            row[USERNAME] = username;
+            row[LOCATION] = location;
+            row[CREATED_AT] = now;
+            row[REPAIRS] = 0;
+            put(panels, id, row);
+            record(guildId, now, ActivityAction.PLACE, id, userId, username, location, null);
+            return new Created<>(panel(id, row), putReminders(guildId, id, reminders));
+        });
+    }
+
+    @Override
+    public Optional<SolarPanel> repair(long guildId, int solarId, String userId, String username, long messageId) throws SQLException {
+        return write(() -> {
+            Object[] row = panels.get(solarId);
+            if (!inGuild(row, guildId) || Long.valueOf(messageId).equals(row[REPAIR_MESSAGE])) return Optional.empty();
+
+            long now = System.currentTimeMillis();
+            Object[] repaired = row.clone();
+            repaired[REPAIRS] = (Integer) row[REPAIRS] + 1;
+            repaired[REPAIRED_BY] = username;
+            repaired[REPAIRED_AT] = now;
+            repaired[REPAIR_MESSAGE] = messageId;
+            put(panels, solarId, repaired);
+            record(guildId, now, ActivityAction.REPAIR, solarId, userId, username, (String) row[LOCATION], null);
+            return Optional.of(panel(solarId, repaired));
+        });
+    }
+
+    @Override
+    public Optional<SolarPanel> collectSolar(long guildId, int solarId, String userId, String username, String car) throws SQLException {
+        return write(() -> {
+            Object[] row = panels.get(solarId);
+            if (!inGuild(row, guildId)) return Optional.empty();
+
+            long now = System.currentTimeMillis();
+            put(collected, solarId, finished(row, username, now, car));
+            remove(panels, solarId);
+            record(guildId, now, ActivityAction.COLLECT, solarId, userId, username, (String) row[LOCATION], car);
+            return Optional.of(panel(solarId, row));
+        });
+    }
+
+    @Override
+    public List<SolarPanel> activePanels(ShardRange shards) throws SQLException {
+        return read(() -> {
+            List<SolarPanel> active = new ArrayList<>();
+            for (Map.Entry<Integer, Object[]> entry : panels.entrySet()) {
+                if (shards.contains((Long) entry.getValue()[GUILD])) active.add(panel(entry.getKey(), entry.getValue()));
+            }
+            active.sort(PANELS_NEWEST_FIRST);
+            return active;
+        });
+    }
+
+    @Override
+    public Reminder insertReminder(long guildId, ReminderType type, long entityId, long channelId, long dueAt,
+                                   long intervalMillis) throws SQLException {
+        return write(() -> putReminder(guildId, type, entityId, channelId, dueAt, intervalMillis));
+    }
+
+    @Override
+    public List<Reminder> pendingReminders(ShardRange shards) throws SQLException {
+        return read(() -> {
+            List<Reminder> pending = new ArrayList<>();
+            for (Map.Entry<Long, Object[]> entry : reminders.entrySet()) {
+                Object[] row = entry.getValue();
+                if (!shards.contains((Long) row[R_GUILD])) continue;
+                pending.add(new Reminder(entry.getKey(), ReminderType.valueOf((String) row[R_TYPE]), (Long) row[R_ENTITY],
+                        (Long) row[R_CHANNEL], (Long) row[R_DUE_AT], (Long) row[R_INTERVAL]));
+            }
+            return pending;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveReminder(long reminderId, long dueAt) {
+        // Ein Ablauf dauert hier Mikrosekunden - direkt ausführen statt einen Thread zu bemühen
+        return async(() -> {
+            Object[] row = reminders.get(reminderId);
+            if (row == null) return false;
+            Object[] moved = row.clone();
+            moved[R_DUE_AT] = dueAt;
+            put(reminders, reminderId, moved);
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteReminders(Collection<Long> reminderIds) {
+        return async(() -> {
+            for (long reminderId : reminderIds) {
+                Object[] row = remove(reminders, reminderId);
+                if (row == null) continue;
+                EntityKey key = new EntityKey(ReminderType.valueOf((String) row[R_TYPE]).getEntityType(), (Long) row[R_ENTITY]);
+                Set<Long> ids = remindersByEntity.get(key);
+                if (ids != null && ids.remove(reminderId) && ids.isEmpty()) remindersByEntity.remove(key);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteReminders(EntityType entityType, long entityId) {
+        return async(() -> {
+            Set<Long> ids = remindersByEntity.remove(new EntityKey(entityType, entityId));
+            if (ids == null) return 0;
+            for (Long id : ids) {
+                remove(reminders, id);
+            }
+            return ids.size();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> setReminderMessage(long messageId, List<ReminderMessageIndex.Ref> fields) {
+        return async(() -> {
+            for (ReminderMessageIndex.Ref ref : fields) {
+                switch (ref.type()) {
+                    case PLANT_FERTILIZE -> setColumn(plants, ref.entityId(), PLANT_MESSAGE, messageId);
+                    case SOLAR_REPAIR -> setColumn(panels, ref.entityId(), SOLAR_MESSAGE, messageId);
+                    case SOLAR_COLLECT -> { } // ohne Reaktion, nichts zu merken
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Integer, Long> reminderMessages(EntityType entityType, ShardRange shards) throws SQLException {
+        MVMap<Integer, Object[]> map = entityType == EntityType.PLANT ? plants : panels;
+        int column = entityType == EntityType.PLANT ? PLANT_MESSAGE : SOLAR_MESSAGE;
+        return read(() -> {
+            Map<Integer, Long> messages = new HashMap<>();
+            for (Map.Entry<Integer, Object[]> entry : map.entrySet()) {
+                Object[] row = entry.getValue();
+                if (row[column] != null && shards.contains((Long) row[GUILD])) messages.put(entry.getKey(), (Long) row[column]);
+            }
+            return messages;
+        });
+    }
+
+    @Override
+    public List<ActivityEvent> activity(long guildId, Long beforeId, int limit) throws SQLException {
+        return read(() -> {
+            List<ActivityEvent> events = new ArrayList<>(limit);
+            Iterator<Long> ids = activity.keyIteratorReverse(beforeId == null ? null : beforeId - 1);
+            while (ids.hasNext() && events.size() < limit) {
+                long id = ids.next();
+                Object[] row = activity.get(id);
+                if ((Long) row[A_GUILD] != guildId) continue;
+                events.add(new ActivityEvent(id, guildId, Instant.ofEpochMilli((Long) row[A_AT]),
+                        ActivityAction.valueOf((String) row[A_ACTION]), (Long) row[A_ENTITY], (String) row[A_USER_ID],
+                        (String) row[A_USERNAME], (String) row[A_LOCATION], (String) row[A_CAR]));
+            }
+            return events;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (committer != null) committer.shutdownNow();
+        if (store == null || store.isClosed()) return;
+        writeLock.lock();
+        try {
+            store.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Optional<Plant> fertilize(long guildId, int plantId, String userId, String username, boolean onlyIfPending) {
+        Object[] row = plants.get(plantId);
+        if (!inGuild(row, guildId) || (onlyIfPending && row[FERTILIZED_BY] != null)) return Optional.empty();
+
+        long now = System.currentTimeMillis();
+        Object[] fertilized = row.clone();
+        fertilized[FERTILIZED_BY] = username;
+        fertilized[FERTILIZED_AT] = now;
+        put(plants, plantId, fertilized);
+        record(guildId, now, ActivityAction.FERTILIZE, plantId, userId, username, (String) row[LOCATION], null);
+        return Optional.of(plant(plantId, fertilized));
+    }
+
+    private List<Reminder> putReminders(long guildId, long entityId, List<ReminderPlan> plans) {
+        List<Reminder> put = new ArrayList<>(plans.size());
+        for (ReminderPlan plan : plans) {
+            put.add(putReminder(guildId, plan.type(), entityId, plan.channelId(), plan.dueAt(), plan.intervalMillis()));
+        }
+        return put;
+    }
+
+    private Reminder putReminder(long guildId, ReminderType type, long entityId, long channelId, long dueAt, long intervalMillis) {
+        long id = next("reminders");
+        put(reminders, id, new Object[] {guildId, type.name(), entityId, channelId, dueAt, intervalMillis});
+        remindersByEntity.computeIfAbsent(new EntityKey(type.getEntityType(), entityId), k -> new HashSet<>()).add(id);
+        return new Reminder(id, type, entityId, channelId, dueAt, intervalMillis);
+    }
+
+    private void record(long guildId, long at, ActivityAction action, long entityId, String userId, String username,
+                        String location, String car) {
+        put(activity, next("activity_events"), new Object[] {guildId, at, action.name(), entityId, userId, username, location, car});
+    }
+
+    private long next(String sequence) {
+        long id = sequences.getOrDefault(sequence, 0L) + 1;
+        put(sequences, sequence, id);
+        return id;
+    }
+
+    private void setColumn(MVMap<Integer, Object[]> map, int id, int column, Object value) {
+        Object[] row = map.get(id);
+        if (row == null) return;
+        Object[] updated = row.clone();
+        updated[column] = value;
+        put(map, id, updated);
+    }
+
+    private <K, V> void put(MVMap<K, V> map, K key, V value) {
+        V old = map.put(key, value);
+        undo.add(() -> restore(map, key, old));
+    }
+
+    private <K, V> V remove(MVMap<K, V> map, K key) {
+        V old = map.remove(key);
+        if (old != null) undo.add(() -> map.put(key, old));
+        return old;
+    }
+
+    private static <K, V> void restore(MVMap<K, V> map, K key, V old) {
+        if (old == null) map.remove(key);
+        else map.put(key, old);
+    }
+
+    private void indexReminders() {
+        remindersByEntity.clear();
+        for (Map.Entry<Long, Object[]> entry : reminders.entrySet()) {
+            Object[] row = entry.getValue();
+            EntityType type = ReminderType.valueOf((String) row[R_TYPE]).getEntityType();
+            remindersByEntity.computeIfAbsent(new EntityKey(type, (Long) row[R_ENTITY]), k -> new HashSet<>()).add(entry.getKey());
+        }
+    }
+
+    private static boolean inGuild(Object[] row, long guildId) {
+        return row != null && (Long) row[GUILD] == guildId;
+    }
+
+    // Aktive Zeile plus wer, wann und in welches Auto
+    private static Object[] finished(Object[] row, String username, long at, String car) {
+        Object[] done = new Object[row.length + 3];
+        System.arraycopy(row, 0, done, 0, row.length);
+        done[row.length] = username;
+        done[row.length + 1] = at;
+        done[row.length + 2] = car;
+        return done;
+    }
+
+    private static Plant plant(int id, Object[] row) {
+        return new Plant(id, (String) row[USER_ID], (String) row[USERNAME], (String) row[LOCATION],
+                Instant.ofEpochMilli((Long) row[CREATED_AT]), (String) row[FERTILIZED_BY]);
+    }
+
+    private static SolarPanel panel(int id, Object[] row) {
+        return new SolarPanel(id, (String) row[USER_ID], (String) row[USERNAME], (String) row[LOCATION],
+                Instant.ofEpochMilli((Long) row[CREATED_AT]), (Integer) row[REPAIRS]);
+    }
+
+    /**
+     * Wie {@code user_id TEXT NOT NULL} in SQLite: Pflanzen und Panels haben immer einen Besitzer.
+     */
+    private static void requireOwner(String userId) throws SQLException {
+        if (userId == null) throw new SQLException("MVStore: user_id darf nicht null sein");
+    }
+
+    private <T> T write(Work<T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            T result = work.run();
+            if (commitMillis == 0) store.commit();
+            return result;
+        } catch (RuntimeException e) {
+            // Wie der Savepoint bei SQLite: der Ablauf gilt ganz oder gar nicht
+            rollback();
+            throw new SQLException("MVStore: " + e.getMessage(), e);
+        } finally {
+            undo.clear();
+            writeLock.unlock();
+        }
+    }
+
+    private void rollback() {
+        for (int i = undo.size() - 1; i >= 0; i--) {
+            undo.get(i).run();
+        }
+        // Der Index wurde unterwegs mit angepasst - aus den zurückgespielten Erinnerungen neu aufbauen
+        indexReminders();
+    }
+
+    private <T> T read(Work<T> work) throws SQLException {
+        try {
+            return work.run();
+        } catch (MVStoreException e) {
+            throw new SQLException("MVStore: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> CompletableFuture<T> async(Work<T> work) {
+        try {
+            return CompletableFuture.completedFuture(write(work));
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void commit() {
+        writeLock.lock();
+        try {
+            if (store.hasUnsavedChanges()) store.commit();
+        } catch (MVStoreException e) {
+            System.err.println("❌ MVStore Commit fehlgeschlagen: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work<T> {
+        T run();
+    }
+
+    private record EntityKey(EntityType type, long id) {}
+}
@@ -0,0 +1,67 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.status.StatusMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latenz der lesenden Commands. Die Statusseiten kommen per Keyset aus SQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Benchmark
+    public long plantsStatus(BotState bot) throws SQLException {
+        return bot.plantsStatus(bot.newReply());
+    }
+
+    @Benchmark
+    public void solarStatus(BotState bot) throws SQLException {
+        bot.solarStatus(bot.newReply());
+    }
+
+    // Drei Seiten weiter - jede Seite startet am gemerkten Cursor, nicht von vorne
+    @Benchmark
+    public StatusMessage plantsStatusThirdPage(BotState bot) throws SQLException {
+        long sessionId = bot.plantsStatus(bot.newReply());
+        bot.plantsStatusClick(sessionId, "next", null, null);
+        return bot.plantsStatusClick(sessionId, "next", null, null);
+    }
+
+    @Benchmark
+    public StatusMessage plantsStatusMine(BotState bot, Caller caller) throws SQLException {
+        long sessionId = bot.plantsStatus(bot.newReply());
+        int user = caller.user();
+        return bot.plantsStatusClick(sessionId, "mine", SeededDatabase.userId(user), SeededDatabase.user(user));
+    }
+
+    @Benchmark
+    public void logsFirstPage(BotState bot) throws SQLException {
+        bot.logs(null, bot.newReply());
+    }
+
+    // Irgendeine Seite mitten im Log - per Cursor soll sie so viel kosten wie die erste
+    @Benchmark
+    public void logsDeepPage(BotState bot, Caller caller) throws SQLException {
+        long beforeId = 1 + caller.random.nextLong(Math.max(1, bot.maxEventId));
+        bot.logs(beforeId, bot.newReply());
+    }
+
+    // Fünf Ranglisten aus den Zählern - soll unabhängig von der Historie gleich viel kosten
+    @Benchmark
+    public void statsOverview(BotState bot) throws SQLException {
+        bot.statsOverview(bot.newReply());
+    }
+}
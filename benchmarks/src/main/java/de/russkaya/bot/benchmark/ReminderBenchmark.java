@@ -0,0 +1,67 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.HashedTimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten eines Erinnerungs-Ticks: Rad eine Sekunde weiterdrehen und für jede
+ * fällige Erinnerung im In-Memory Index prüfen, ob die Pflanze noch gedüngt
+ * werden muss - wie {@code sendPlantReminder}. Fällige Erinnerungen werden
+ * eine Stunde später neu eingeplant, damit das Rad gleich voll bleibt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ReminderBenchmark {
+
+    private static final long TICK_MS = 1000;
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    @State(Scope.Thread)
+    public static class Wheel {
+
+        HashedTimingWheel<Integer> wheel;
+        long now;
+
+        // Eine Erinnerung pro 10 Zeilen, verteilt über eine Stunde; viele davon zeigen auf geerntete Pflanzen
+        @Setup(Level.Trial)
+        public void setUp(BotState bot) {
+            SplittableRandom random = new SplittableRandom(7);
+            wheel = new HashedTimingWheel<>(TICK_MS, 4096, now);
+            for (int i = 0; i < bot.rows / 10; i++) {
+                wheel.schedule(now + TICK_MS + random.nextLong(HOUR_MS), 1 + random.nextInt(bot.rows));
+            }
+        }
+    }
+
+    @Benchmark
+    public int dueReminderCheck(BotState bot, Wheel state) {
+        state.now += TICK_MS;
+        List<Integer> due = state.wheel.advance(state.now);
+        int send = 0;
+        for (Integer plantId : due) {
+            Optional<Plant> plant = bot.activePlants.get(plantId);
+            if (plant.isPresent() && !plant.get().isFertilized()) send++;
+            state.wheel.schedule(state.now + HOUR_MS, plantId);
+        }
+        return send;
+    }
+}
@@ -0,0 +1,199 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.db.migration.MigrationRunner;
+import de.russkaya.bot.guild.LegacyData;
+import de.russkaya.bot.db.migration.Migrations;
+import de.russkaya.bot.stats.StatsRebuilder;
+import de.russkaya.bot.stats.StatsRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+
+/**
+ * Dateibasierte SQLite-Datenbank mit realistischem Bestand für die
+ * Benchmarks. Pro Zeilenzahl wird einmal eine Vorlage unter
+ * {@code target/bench-db} erzeugt; jeder Lauf arbeitet auf einer Kopie,
+ * damit Schreib-Benchmarks sich nicht gegenseitig beeinflussen.
+ *
+ * Etwa 1% der Pflanzen/Panels sind aktiv, der Rest ist geerntet bzw.
+ * eingesammelt - so wie nach einigen Wochen Betrieb.
+ */
+final class SeededDatabase {
+
+    static final int READERS = 4;
+    static final double ACTIVE_SHARE = 0.01;
+
+    static final String[] LOCATIONS = {
+        "Paleto Bay", "Sandy Shores", "Grapeseed", "Mount Chiliad", "Vinewood Hills", "Chumash", "Harmony",
+        "Alamo Sea", "Great Chaparral", "Tataviam", "Davis", "Vespucci", "Del Perro", "Mirror Park", "La Mesa",
+        "Cypress Flats", "Elysian Island", "Zancudo", "Braddock Pass", "Raton Canyon"
+    };
+    static final String[] CARS = {
+        "Bison", "Sandking", "Rebel", "Mesa", "Kamacho", "Bodhi", "Riata", "Yosemite", "Dubsta", "Granger",
+        "Baller", "Patriot", "Contender", "Guardian", "Bobcat"
+    };
+    static final int USERS = 200;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int BATCH = 10_000;
+
+    private SeededDatabase() {
+    }
+
+    /**
+     * Öffnet eine frische Kopie der Vorlage für {@code rows} Pflanzen und {@code rows} Panels.
+     */
+    static Database open(int rows) throws IOException, SQLException {
+        Path template = template(rows);
+        Path copy = Files.createTempFile("russkaya-bench-", ".db");
+        Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+        copy.toFile().deleteOnExit();
+
+        Database database = new Database("jdbc:sqlite:" + copy, READERS);
+        database.open();
+        // Vorlagen aus älteren Versionen auf das aktuelle Schema bringen
+        new MigrationRunner(database).migrate(Migrations.ALL);
+        LegacyData.adopt(database, BotState.GUILD_ID);
+        return database;
+    }
+
+    static String user(int index) {
+        return "Spieler" + index;
+    }
+
+    static String userId(int index) {
+        return Long.toString(100_000_000_000_000_000L + index);
+    }
+
+    private static synchronized Path template(int rows) throws IOException, SQLException {
+        Path directory = Path.of("target", "bench-db");
+        Files.createDirectories(directory);
+        Path template = directory.resolve("seed-" + rows + ".db");
+        if (Files.exists(template)) return template;
+
+        long started = System.currentTimeMillis();
+        Path building = directory.resolve("seed-" + rows + ".db.tmp");
+        Files.deleteIfExists(building);
+        try (Database database = new Database("jdbc:sqlite:" + building, 1)) {
+            database.open();
+            new MigrationRunner(database).migrate(Migrations.ALL);
+            database.write(connection -> {
+                seed(connection, rows);
+                return null;
+            });
+            ActivityRepository activity = new ActivityRepository(database);
+            new StatsRebuilder(database, activity, new StatsRepository(database, ZoneId.systemDefault())).rebuild();
+        }
+        // WAL zurückschreiben, damit die Vorlage eine einzelne kopierbare Datei ist
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + building);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=DELETE");
+        }
+        Files.move(building, template, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("✅ Vorlage mit " + rows + " Pflanzen/Panels in "
+                + (System.currentTimeMillis() - started) + " ms erzeugt: " + template);
+        return template;
+    }
+
+    // Direkt per Batch statt über die Repositories - sonst dauert 1M Zeilen zu lange
+    private static void seed(Connection connection, int rows) throws SQLException {
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        int active = Math.max(1, (int) (rows * ACTIVE_SHARE));
+
+        String plantSql = "INSERT INTO plants (user_id, username, planted_at, location, status, fertilized_by, fertilized_at, "
+                + "harvested_by, harvested_at, car_stored, guild_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String solarSql = "INSERT INTO solar_panels (user_id, username, placed_at, location, status, collected_by, collected_at, "
+                + "car_stored, repairs, guild_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String eventSql = "INSERT INTO activity_events (occurred_at, entity_type, entity_id, action, user_id, username, location, car, guild_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement plants = connection.prepareStatement(plantSql);
+             PreparedStatement panels = connection.prepareStatement(solarSql);
+             PreparedStatement events = connection.prepareStatement(eventSql)) {
+
+            // Älteste zuerst, damit IDs und Zeitstempel wie im Betrieb zusammen steigen
+            for (int i = 1; i <= rows; i++) {
+                boolean isActive = i > rows - active;
+                long plantedAt = now - (long) ((rows - i) / (double) rows * 30 * DAY_MS) - random.nextInt(60_000);
+                int owner = random.nextInt(USERS);
+                String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+                boolean fertilized = !isActive || random.nextBoolean();
+                int fertilizer = random.nextInt(USERS);
+                int harvester = random.nextInt(USERS);
+                String car = CARS[random.nextInt(CARS.length)];
+
+                plants.setString(1, userId(owner));
+                plants.setString(2, user(owner));
+                plants.setLong(3, plantedAt);
+                plants.setString(4, location);
+                plants.setString(5, isActive ? "planted" : "harvested");
+                plants.setString(6, fertilized ? user(fertilizer) : null);
+                if (fertilized) plants.setLong(7, plantedAt + 40 * 60_000); else plants.setNull(7, Types.INTEGER);
+                plants.setString(8, isActive ? null : user(harvester));
+                if (isActive) plants.setNull(9, Types.INTEGER); else plants.setLong(9, plantedAt + 4 * 60 * 60_000);
+                plants.setString(10, isActive ? null : car);
+                plants.setLong(11, BotState.GUILD_ID);
+                plants.addBatch();
+
+                event(events, plantedAt, "plant", i, "SOW", userId(owner), user(owner), location, null);
+                if (fertilized) event(events, plantedAt + 40 * 60_000, "plant", i, "FERTILIZE", userId(fertilizer), user(fertilizer), location, null);
+                if (!isActive) event(events, plantedAt + 4 * 60 * 60_000, "plant", i, "HARVEST", userId(harvester), user(harvester), location, car);
+
+                int placer = random.nextInt(USERS);
+                int collector = random.nextInt(USERS);
+                String panelLocation = LOCATIONS[random.nextInt(LOCATIONS.length)];
+                long placedAt = plantedAt + random.nextInt(60_000);
+                panels.setString(1, userId(placer));
+                panels.setString(2, user(placer));
+                panels.setLong(3, placedAt);
+                panels.setString(4, panelLocation);
+                panels.setString(5, isActive ? "active" : "collected");
+                panels.setString(6, isActive ? null : user(collector));
+                if (isActive) panels.setNull(7, Types.INTEGER); else panels.setLong(7, placedAt + 2 * 60 * 60_000);
+                panels.setString(8, isActive ? null : car);
+                panels.setInt(9, random.nextInt(5));
+                panels.setLong(10, BotState.GUILD_ID);
+                panels.addBatch();
+
+                event(events, placedAt, "solar", i, "PLACE", userId(placer), user(placer), panelLocation, null);
+                if (!isActive) event(events, placedAt + 2 * 60 * 60_000, "solar", i, "COLLECT", userId(collector), user(collector), panelLocation, car);
+
+                if (i % BATCH == 0) {
+                    plants.executeBatch();
+                    panels.executeBatch();
+                    events.executeBatch();
+                }
+            }
+            plants.executeBatch();
+            panels.executeBatch();
+            events.executeBatch();
+        }
+    }
+
+    private static void event(PreparedStatement events, long occurredAt, String entityType, int entityId, String action,
+                              String userId, String username, String location, String car) throws SQLException {
+        events.setLong(1, occurredAt);
+        events.setString(2, entityType);
+        events.setInt(3, entityId);
+        events.setString(4, action);
+        events.setString(5, userId);
+        events.setString(6, username);
+        events.setString(7, location);
+        events.setString(8, car);
+        events.setLong(9, BotState.GUILD_ID);
+        events.addBatch();
+    }
+}
@@ -0,0 +1,58 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.storage.SqliteStorage;
+import de.russkaya.bot.storage.Storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Öffnet ein Storage-Backend per Name in einem Verzeichnis - für
+ * {@link StorageConformance} und {@link StorageBenchmark}.
+ *
+ * <ul>
+ *   <li>{@code sqlite} - wie im Bot: WAL, Group Commit über den Writer-Thread</li>
+ *   <li>{@code mvstore} - Commit nach jedem Ablauf, übersteht wie SQLite einen Absturz des Prozesses</li>
+ *   <li>{@code mvstore-<n>ms} - Commit alle n ms, bei einem Absturz fehlen höchstens diese n ms</li>
+ * </ul>
+ */
+final class StorageBackends {
+
+    static final List<String> ALL = List.of("sqlite", "mvstore", "mvstore-100ms");
+
+    private StorageBackends() {
+    }
+
+    /**
+     * Öffnet bzw. legt an; ein zweites Öffnen im selben Verzeichnis sieht die Daten des ersten.
+     */
+    static Storage open(String backend, Path dir) throws SQLException {
+        if (backend.equals("sqlite")) {
+            return SqliteStorage.open("jdbc:sqlite:" + dir.resolve("russkaya.db"), SeededDatabase.READERS, ZoneId.systemDefault());
+        }
+        if (backend.equals("mvstore") || backend.matches("mvstore-\\d+ms")) {
+            long commitMillis = backend.equals("mvstore") ? 0 : Long.parseLong(backend.substring("mvstore-".length(), backend.length() - 2));
+            MvStoreStorage storage = new MvStoreStorage(dir.resolve("russkaya.mv.db"), commitMillis);
+            storage.open();
+            return storage;
+        }
+        throw new IllegalArgumentException("Unbekanntes Backend: " + backend + " (" + String.join(", ", ALL) + ")");
+    }
+
+    /**
+     * Löscht das Verzeichnis samt Datenbankdateien.
+     */
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
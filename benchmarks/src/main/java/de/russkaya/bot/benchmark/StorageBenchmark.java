@@ -0,0 +1,99 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.storage.Storage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dieselben Abläufe auf den Storage-Backends aus {@link StorageBackends} -
+ * ohne Discord, Index und Embeds, nur der Speicher. Jeder Durchlauf beginnt
+ * mit einem leeren Verzeichnis; das Log wird vorab gefüllt, damit das Blättern
+ * nicht auf einer leeren Tabelle gemessen wird.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final long GUILD_ID = 2L << 22;
+    private static final int PRELOADED_PLANTS = 5_000;
+    private static final int LOG_LIMIT = 25;
+
+    @State(Scope.Benchmark)
+    public static class Backend {
+
+        @Param({"sqlite", "mvstore", "mvstore-100ms"})
+        String backend;
+
+        Storage storage;
+        private Path dir;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, SQLException {
+            dir = Files.createTempDirectory("russkaya-storage-bench-");
+            storage = StorageBackends.open(backend, dir);
+            Caller caller = new Caller();
+            for (int i = 0; i < PRELOADED_PLANTS; i++) {
+                int user = caller.user();
+                storage.sow(GUILD_ID, SeededDatabase.userId(user), SeededDatabase.user(user), caller.location());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            storage.close();
+            StorageBackends.delete(dir);
+        }
+    }
+
+    @Benchmark
+    public Optional<Plant> sowFertilizeHarvest(Backend state, Caller caller) throws SQLException {
+        int user = caller.user();
+        String userId = SeededDatabase.userId(user);
+        String username = SeededDatabase.user(user);
+        Plant plant = state.storage.sow(GUILD_ID, userId, username, caller.location());
+        state.storage.fertilize(GUILD_ID, plant.id(), userId, username);
+        return state.storage.harvest(GUILD_ID, plant.id(), userId, username, caller.car());
+    }
+
+    @Benchmark
+    public int reminderInsertAndDelete(Backend state, Caller caller) throws SQLException {
+        int entityId = caller.random.nextInt(Integer.MAX_VALUE);
+        Reminder reminder = state.storage.insertReminder(GUILD_ID, ReminderType.PLANT_FERTILIZE, entityId,
+                BotState.CHANNEL_ID, System.currentTimeMillis() + 60_000, 0);
+        return state.storage.deleteReminders(EntityType.PLANT, reminder.entityId()).join();
+    }
+
+    @Benchmark
+    public List<ActivityEvent> activityPage(Backend state) throws SQLException {
+        return state.storage.activity(GUILD_ID, null, LOG_LIMIT);
+    }
+}
@@ -0,0 +1,429 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderPlan;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.storage.Created;
+import de.russkaya.bot.storage.Storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Prüft, ob sich alle Storage-Backends gleich verhalten: dieselben Abläufe
+ * gegen jedes Backend, jeweils in einem frischen Verzeichnis, dazu parallele
+ * Zugriffe auf dieselbe Entität und ein Neustart mit anschließendem Vergleich.
+ * Ein neues Backend muss hier durchlaufen, bevor es im Bot laufen darf.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar de.russkaya.bot.benchmark.StorageConformance [backends]
+ * java -cp target/benchmarks.jar de.russkaya.bot.benchmark.StorageConformance sqlite,mvstore
+ * </pre>
+ *
+ * Beendet sich mit Code 1, sobald eine Prüfung fehlschlägt.
+ */
+public final class StorageConformance {
+
+    private static final String USER_ID = "100000000000000001";
+    private static final int RACERS = 32;
+    // Jede Prüfung bekommt eigene Server, damit sie sich nicht in die Quere kommen (alle auf Shard 0 von 2)
+    private static final long FIRST_GUILD = 2;
+
+    private final Storage storage;
+    private long nextGuild = FIRST_GUILD;
+
+    private StorageConformance(Storage storage) {
+        this.storage = storage;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> backends = args.length > 0 ? List.of(args[0].split(",")) : StorageBackends.ALL;
+        int failed = 0;
+        for (String backend : backends) {
+            failed += run(backend.trim());
+        }
+        System.out.println(failed == 0 ? "✅ Alle Backends verhalten sich gleich" : "❌ " + failed + " Prüfungen fehlgeschlagen");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    private static int run(String backend) throws Exception {
+        System.out.println("🧪 " + backend);
+        Path dir = Files.createTempDirectory("russkaya-storage-");
+        int failed = 0;
+        try {
+            Snapshot before;
+            try (Storage storage = StorageBackends.open(backend, dir)) {
+                StorageConformance suite = new StorageConformance(storage);
+                failed += suite.check("Säen vergibt neue IDs, Pflanze ist aktiv", suite::sow);
+                failed += suite.check("Düngen setzt und überschreibt den Namen", suite::fertilize);
+                failed += suite.check("Düngen per Reaktion nur, solange niemand gedüngt hat", suite::fertilizeIfPending);
+                failed += suite.check("Einträge eines anderen Servers bleiben unverändert", suite::otherGuild);
+                failed += suite.check("Ernten genau einmal", suite::harvest);
+                failed += suite.check("Reparatur höchstens einmal pro Nachricht", suite::repair);
+                failed += suite.check("Einsammeln genau einmal", suite::collect);
+                failed += suite.check("Erinnerungen anlegen, verschieben, löschen", suite::reminders);
+                failed += suite.check("Säen und Aufstellen legen ihre Erinnerungen mit an", suite::createdWithReminders);
+                failed += suite.check("Scheitert ein Ablauf mittendrin, bleibt nichts davon übrig", suite::failedMidway);
+                failed += suite.check("Erinnerungsnachrichten nur für aktive Einträge", suite::reminderMessages);
+                failed += suite.check("Log neueste zuerst, pro Server, mit Cursor", suite::activity);
+                failed += suite.check("Nur Server der eigenen Shards", suite::shards);
+                failed += suite.check("Paralleles Ernten: genau einer gewinnt", suite::racingHarvest);
+                failed += suite.check("Paralleles Düngen per Reaktion: genau einer gewinnt", suite::racingFertilize);
+                failed += suite.check("Paralleles Säen: keine doppelten IDs", suite::racingSow);
+                before = Snapshot.of(storage);
+            }
+            try (Storage reopened = StorageBackends.open(backend, dir)) {
+                failed += new StorageConformance(reopened).check("Nach dem Neustart unverändert",
+                        () -> expectEquals(before, Snapshot.of(reopened), "Stand nach dem Neustart"));
+            }
+        } finally {
+            StorageBackends.delete(dir);
+        }
+        return failed;
+    }
+
+    private int check(String name, Check check) {
+        try {
+            check.run();
+            System.out.println("  ✅ " + name);
+            return 0;
+        } catch (AssertionError | Exception e) {
+            System.out.println("  ❌ " + name + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void sow() throws Exception {
+        long guild = guild();
+        Plant first = storage.sow(guild, USER_ID, "Anna", "Paleto Bay");
+        Plant second = storage.sow(guild, USER_ID, "Boris", "Grapeseed");
+        expect(second.id() > first.id(), "IDs steigen nicht: " + first.id() + ", " + second.id());
+        expectEquals(new Plant(first.id(), USER_ID, "Anna", "Paleto Bay", first.plantedAt(), null), first, "gesäte Pflanze");
+        expectEquals(Optional.of(first), activePlant(first.id()), "aktive Pflanze");
+        expectEquals(Optional.of(second), activePlant(second.id()), "zweite Pflanze");
+        expect(rejected(() -> storage.sow(guild, null, "Boris", "Grapeseed")), "Pflanze ohne Besitzer angenommen");
+        expect(rejected(() -> storage.placeSolar(guild, null, "Boris", "Grapeseed")), "Panel ohne Besitzer angenommen");
+    }
+
+    private void fertilize() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Sandy Shores");
+        expectEquals(Optional.of("Boris"), storage.fertilize(guild, plant.id(), USER_ID, "Boris").map(Plant::fertilizedBy), "erstes Düngen");
+        expectEquals(Optional.of("Clara"), storage.fertilize(guild, plant.id(), USER_ID, "Clara").map(Plant::fertilizedBy), "zweites Düngen");
+        expectEquals("Clara", activePlant(plant.id()).map(Plant::fertilizedBy).orElse(null), "gedüngt laut Liste");
+    }
+
+    private void fertilizeIfPending() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Harmony");
+        expect(storage.fertilizeIfPending(guild, plant.id(), USER_ID, "Boris").isPresent(), "erste Reaktion zählt nicht");
+        expect(storage.fertilizeIfPending(guild, plant.id(), USER_ID, "Clara").isEmpty(), "zweite Reaktion überschreibt");
+        expectEquals("Boris", activePlant(plant.id()).map(Plant::fertilizedBy).orElse(null), "gedüngt laut Liste");
+    }
+
+    private void otherGuild() throws Exception {
+        long guild = guild();
+        long other = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Chumash");
+        SolarPanel panel = storage.placeSolar(guild, USER_ID, "Anna", "Chumash");
+        expect(storage.fertilize(other, plant.id(), USER_ID, "Boris").isEmpty(), "Düngen über fremden Server");
+        expect(storage.harvest(other, plant.id(), USER_ID, "Boris", "Bison").isEmpty(), "Ernten über fremden Server");
+        expect(storage.repair(other, panel.id(), USER_ID, "Boris", 1).isEmpty(), "Reparatur über fremden Server");
+        expect(storage.collectSolar(other, panel.id(), USER_ID, "Boris", "Bison").isEmpty(), "Einsammeln über fremden Server");
+        expectEquals(Optional.of(plant), activePlant(plant.id()), "Pflanze");
+        expectEquals(Optional.of(panel), activePanel(panel.id()), "Panel");
+        expect(storage.activity(other, null, 10).isEmpty(), "Log des fremden Servers nicht leer");
+    }
+
+    private void harvest() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Davis");
+        storage.fertilize(guild, plant.id(), USER_ID, "Boris");
+        Optional<Plant> harvested = storage.harvest(guild, plant.id(), USER_ID, "Clara", "Rebel");
+        expectEquals(Optional.of("Davis"), harvested.map(Plant::location), "geerntete Pflanze");
+        expectEquals(Optional.of("Boris"), harvested.map(Plant::fertilizedBy), "gedüngt von");
+        expect(storage.harvest(guild, plant.id(), USER_ID, "Clara", "Rebel").isEmpty(), "zweites Ernten");
+        expect(storage.fertilize(guild, plant.id(), USER_ID, "Boris").isEmpty(), "Düngen nach dem Ernten");
+        expect(activePlant(plant.id()).isEmpty(), "geerntete Pflanze noch aktiv");
+    }
+
+    private void repair() throws Exception {
+        long guild = guild();
+        SolarPanel panel = storage.placeSolar(guild, USER_ID, "Anna", "Zancudo");
+        expectEquals(0, panel.repairs(), "Reparaturen neu");
+        expectEquals(Optional.of(1), storage.repair(guild, panel.id(), USER_ID, "Boris", 1001).map(SolarPanel::repairs), "erste Reparatur");
+        expect(storage.repair(guild, panel.id(), USER_ID, "Clara", 1001).isEmpty(), "zweite Reparatur über dieselbe Nachricht");
+        expectEquals(Optional.of(2), storage.repair(guild, panel.id(), USER_ID, "Clara", 1002).map(SolarPanel::repairs), "Reparatur über neue Nachricht");
+        expectEquals(Optional.of(2), activePanel(panel.id()).map(SolarPanel::repairs), "Reparaturen laut Liste");
+    }
+
+    private void collect() throws Exception {
+        long guild = guild();
+        SolarPanel panel = storage.placeSolar(guild, USER_ID, "Anna", "La Mesa");
+        expectEquals(Optional.of(panel), storage.collectSolar(guild, panel.id(), USER_ID, "Boris", "Mesa"), "eingesammeltes Panel");
+        expect(storage.collectSolar(guild, panel.id(), USER_ID, "Boris", "Mesa").isEmpty(), "zweites Einsammeln");
+        expect(storage.repair(guild, panel.id(), USER_ID, "Boris", 1).isEmpty(), "Reparatur nach dem Einsammeln");
+        expect(activePanel(panel.id()).isEmpty(), "eingesammeltes Panel noch aktiv");
+    }
+
+    private void reminders() throws Exception {
+        long guild = guild();
+        // Pflanze und Panel mit derselben Nummer - Löschen darf nur die eigene Art treffen
+        int entityId = 900_000 + (int) guild;
+        Reminder first = storage.insertReminder(guild, ReminderType.PLANT_FERTILIZE, entityId, 11, 1_000, 0);
+        Reminder second = storage.insertReminder(guild, ReminderType.PLANT_FERTILIZE, entityId, 11, 2_000, 0);
+        Reminder solar = storage.insertReminder(guild, ReminderType.SOLAR_COLLECT, entityId, 12, 3_000, 7_200_000);
+        expect(first.id() != second.id() && second.id() != solar.id(), "doppelte IDs");
+        expectEquals(new Reminder(solar.id(), ReminderType.SOLAR_COLLECT, entityId, 12, 3_000, 7_200_000), solar, "angelegte Erinnerung");
+        expectEquals(Optional.of(first), pending(first.id()), "offene Erinnerung");
+
+        expect(storage.moveReminder(solar.id(), 9_000).join(), "Verschieben meldet Fehlschlag");
+        expectEquals(Optional.of(solar.withDueAt(9_000)), pending(solar.id()), "verschobene Erinnerung");
+
+        expectEquals(2, storage.deleteReminders(EntityType.PLANT, entityId).join(), "gelöschte Erinnerungen der Pflanze");
+        expect(pending(first.id()).isEmpty() && pending(second.id()).isEmpty(), "Erinnerungen der Pflanze noch offen");
+        expect(pending(solar.id()).isPresent(), "Erinnerung des Panels mitgelöscht");
+        expect(!storage.moveReminder(first.id(), 5_000).join(), "gelöschte Erinnerung verschoben");
+
+        storage.deleteReminders(List.of(solar.id())).join();
+        expect(pending(solar.id()).isEmpty(), "einzeln gelöschte Erinnerung noch offen");
+        expectEquals(0, storage.deleteReminders(EntityType.SOLAR, entityId).join(), "nichts mehr zu löschen");
+    }
+
+    private void createdWithReminders() throws Exception {
+        long guild = guild();
+        Created<Plant> plant = storage.sow(guild, USER_ID, "Anna", "Great Chaparral",
+                List.of(new ReminderPlan(ReminderType.PLANT_FERTILIZE, 11, 1_000, 0), new ReminderPlan(ReminderType.PLANT_FERTILIZE, 11, 2_000, 0)));
+        Created<SolarPanel> panel = storage.placeSolar(guild, USER_ID, "Anna", "Great Chaparral",
+                List.of(new ReminderPlan(ReminderType.SOLAR_COLLECT, 12, 3_000, 7_200_000)));
+        expectEquals(2, plant.reminders().size(), "Erinnerungen der Pflanze");
+        for (Reminder reminder : plant.reminders()) {
+            expectEquals((long) plant.entity().id(), reminder.entityId(), "Pflanze der Erinnerung");
+            expectEquals(Optional.of(reminder), pending(reminder.id()), "gespeicherte Erinnerung der Pflanze");
+        }
+        Reminder solar = panel.reminders().get(0);
+        expectEquals(new Reminder(solar.id(), ReminderType.SOLAR_COLLECT, panel.entity().id(), 12, 3_000, 7_200_000), solar,
+                "Erinnerung des Panels");
+        expectEquals(Optional.of(solar), pending(solar.id()), "gespeicherte Erinnerung des Panels");
+
+        // Scheitert die Pflanze, bleibt auch keine Erinnerung zurück
+        int pending = storage.pendingReminders(ShardRange.all(1)).size();
+        expect(rejected(() -> storage.sow(guild, null, "Anna", "Great Chaparral",
+                List.of(new ReminderPlan(ReminderType.PLANT_FERTILIZE, 11, 1_000, 0)))), "Pflanze ohne Besitzer angenommen");
+        expectEquals(pending, storage.pendingReminders(ShardRange.all(1)).size(), "offene Erinnerungen nach abgelehntem Säen");
+    }
+
+    private void failedMidway() throws Exception {
+        long guild = guild();
+        Plant kept = storage.sow(guild, USER_ID, "Anna", "Sandy Shores");
+        Snapshot before = Snapshot.of(storage);
+        List<ActivityEvent> log = storage.activity(guild, null, 10);
+
+        // Pflanze, Log-Eintrag und die erste Erinnerung sind schon geschrieben, wenn die zweite scheitert
+        expect(rejected(() -> storage.sow(guild, USER_ID, "Boris", "Sandy Shores",
+                List.of(new ReminderPlan(ReminderType.PLANT_FERTILIZE, 11, 1_000, 0), new ReminderPlan(null, 11, 2_000, 0)))),
+                "Erinnerung ohne Typ angenommen");
+        expect(rejected(() -> storage.placeSolar(guild, USER_ID, "Boris", "Sandy Shores",
+                List.of(new ReminderPlan(null, 12, 3_000, 0)))), "Erinnerung ohne Typ angenommen");
+        expectEquals(before, Snapshot.of(storage), "Stand nach den gescheiterten Abläufen");
+        expectEquals(log, storage.activity(guild, null, 10), "Log nach den gescheiterten Abläufen");
+
+        // Danach geht es normal weiter
+        Plant next = storage.sow(guild, USER_ID, "Boris", "Sandy Shores");
+        expect(next.id() > kept.id(), "IDs steigen nicht: " + kept.id() + ", " + next.id());
+        expectEquals(Optional.of(next), activePlant(next.id()), "Pflanze nach dem gescheiterten Ablauf");
+    }
+
+    private void reminderMessages() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Vespucci");
+        SolarPanel panel = storage.placeSolar(guild, USER_ID, "Anna", "Vespucci");
+        storage.setReminderMessage(5001, List.of(
+                new ReminderMessageIndex.Ref(ReminderType.PLANT_FERTILIZE, plant.id()),
+                new ReminderMessageIndex.Ref(ReminderType.SOLAR_REPAIR, panel.id()),
+                new ReminderMessageIndex.Ref(ReminderType.SOLAR_COLLECT, panel.id()))).join();
+        expectEquals(5001L, storage.reminderMessages(EntityType.PLANT, ShardRange.all(1)).get(plant.id()), "Nachricht der Pflanze");
+        expectEquals(5001L, storage.reminderMessages(EntityType.SOLAR, ShardRange.all(1)).get(panel.id()), "Nachricht des Panels");
+
+        storage.harvest(guild, plant.id(), USER_ID, "Anna", "Bison");
+        expect(!storage.reminderMessages(EntityType.PLANT, ShardRange.all(1)).containsKey(plant.id()), "Nachricht einer geernteten Pflanze");
+    }
+
+    private void activity() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Mirror Park");
+        storage.fertilize(guild, plant.id(), USER_ID, "Boris");
+        storage.harvest(guild, plant.id(), null, "Clara", "Riata");
+        storage.sow(guild(), USER_ID, "Anna", "Mirror Park");
+
+        List<ActivityEvent> events = storage.activity(guild, null, 10);
+        expectEquals(List.of(ActivityAction.HARVEST, ActivityAction.FERTILIZE, ActivityAction.SOW),
+                events.stream().map(ActivityEvent::action).toList(), "Aktionen");
+        ActivityEvent harvest = events.get(0);
+        expectEquals(List.of((long) plant.id(), guild, "Clara", "Mirror Park", "Riata"),
+                List.of(harvest.entityId(), harvest.guildId(), harvest.username(), harvest.location(), harvest.car()), "Ernte im Log");
+        expect(harvest.userId() == null, "Discord-ID erfunden");
+        expectEquals(USER_ID, events.get(1).userId(), "Discord-ID beim Düngen");
+
+        List<ActivityEvent> page = storage.activity(guild, null, 2);
+        expectEquals(events.subList(0, 2), page, "erste Seite");
+        expectEquals(events.subList(2, 3), storage.activity(guild, page.get(1).id(), 2), "zweite Seite");
+    }
+
+    private void shards() throws Exception {
+        ShardRange shardZero = new ShardRange(2, 0, 0);
+        long own = guild();
+        long foreign = (1L << 22) * 1_000_001; // Shard 1 von 2
+        expect(ShardRange.shardOf(foreign, 2) == 1, "Testdaten: falscher Shard");
+
+        Plant ownPlant = storage.sow(own, USER_ID, "Anna", "Tataviam");
+        Plant foreignPlant = storage.sow(foreign, USER_ID, "Anna", "Tataviam");
+        SolarPanel foreignPanel = storage.placeSolar(foreign, USER_ID, "Anna", "Tataviam");
+        Reminder foreignReminder = storage.insertReminder(foreign, ReminderType.PLANT_FERTILIZE, foreignPlant.id(), 1, 1_000, 0);
+        storage.setReminderMessage(6001, List.of(new ReminderMessageIndex.Ref(ReminderType.PLANT_FERTILIZE, foreignPlant.id()))).join();
+
+        Set<Integer> plants = ids(storage.activePlants(shardZero), Plant::id);
+        expect(plants.contains(ownPlant.id()), "eigene Pflanze fehlt");
+        expect(!plants.contains(foreignPlant.id()), "Pflanze von Shard 1 geliefert");
+        expect(!ids(storage.activePanels(shardZero), SolarPanel::id).contains(foreignPanel.id()), "Panel von Shard 1 geliefert");
+        expect(storage.pendingReminders(shardZero).stream().noneMatch(r -> r.id() == foreignReminder.id()), "Erinnerung von Shard 1 geliefert");
+        expect(!storage.reminderMessages(EntityType.PLANT, shardZero).containsKey(foreignPlant.id()), "Nachricht von Shard 1 geliefert");
+        expect(storage.pendingReminders(ShardRange.all(1)).stream().anyMatch(r -> r.id() == foreignReminder.id()), "Erinnerung fehlt ganz");
+    }
+
+    private void racingHarvest() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Alamo Sea");
+        List<Boolean> results = race(i -> storage.harvest(guild, plant.id(), USER_ID, "Spieler" + i, "Bodhi").isPresent());
+        expectEquals(1L, results.stream().filter(won -> won).count(), "erfolgreiche Ernten");
+        expectEquals(1L, storage.activity(guild, null, 100).stream()
+                .filter(event -> event.action() == ActivityAction.HARVEST).count(), "Ernten im Log");
+    }
+
+    private void racingFertilize() throws Exception {
+        long guild = guild();
+        Plant plant = storage.sow(guild, USER_ID, "Anna", "Raton Canyon");
+        List<Boolean> results = race(i -> storage.fertilizeIfPending(guild, plant.id(), USER_ID, "Spieler" + i).isPresent());
+        expectEquals(1L, results.stream().filter(won -> won).count(), "erfolgreiche Reaktionen");
+        expectEquals(1L, storage.activity(guild, null, 100).stream()
+                .filter(event -> event.action() == ActivityAction.FERTILIZE).count(), "Düngen im Log");
+    }
+
+    private void racingSow() throws Exception {
+        long guild = guild();
+        List<Integer> ids = race(i -> storage.sow(guild, USER_ID, "Spieler" + i, "Braddock Pass").id());
+        expectEquals(ids.size(), Set.copyOf(ids).size(), "verschiedene IDs");
+    }
+
+    // Alle Teilnehmer starten gleichzeitig auf virtuellen Threads
+    private <T> List<T> race(Racer<T> racer) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < RACERS; i++) {
+                int index = i;
+                Callable<T> task = () -> {
+                    start.await();
+                    return racer.run(index);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private long guild() {
+        return guildId(nextGuild++);
+    }
+
+    private static long guildId(long index) {
+        return (1L << 22) * 2 * index;
+    }
+
+    private Optional<Plant> activePlant(int id) throws Exception {
+        return storage.activePlants(ShardRange.all(1)).stream().filter(plant -> plant.id() == id).findFirst();
+    }
+
+    private Optional<SolarPanel> activePanel(int id) throws Exception {
+        return storage.activePanels(ShardRange.all(1)).stream().filter(panel -> panel.id() == id).findFirst();
+    }
+
+    private Optional<Reminder> pending(long id) throws Exception {
+        return storage.pendingReminders(ShardRange.all(1)).stream().filter(reminder -> reminder.id() == id).findFirst();
+    }
+
+    private static <T> Set<Integer> ids(List<T> entities, ToIntFunction<T> idOf) {
+        Set<Integer> ids = new HashSet<>();
+        entities.forEach(entity -> ids.add(idOf.applyAsInt(entity)));
+        return ids;
+    }
+
+    // Abgelehnt heißt: der Aufruf wirft eine SQLException
+    private static boolean rejected(Callable<?> write) throws Exception {
+        try {
+            write.call();
+            return false;
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    private static void expectEquals(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) throw new AssertionError(what + ": erwartet " + expected + ", war " + actual);
+    }
+
+    // Alles, was ein Neustart überstehen muss - das Log am Beispiel des ersten Servers
+    private record Snapshot(List<Plant> plants, List<SolarPanel> panels, List<Reminder> reminders,
+                            Map<Integer, Long> plantMessages, Map<Integer, Long> solarMessages, List<ActivityEvent> activity) {
+
+        static Snapshot of(Storage storage) throws Exception {
+            ShardRange all = ShardRange.all(1);
+            List<Reminder> reminders = new ArrayList<>(storage.pendingReminders(all));
+            reminders.sort(Comparator.comparingLong(Reminder::id));
+            return new Snapshot(storage.activePlants(all), storage.activePanels(all), reminders,
+                    storage.reminderMessages(EntityType.PLANT, all), storage.reminderMessages(EntityType.SOLAR, all),
+                    storage.activity(guildId(FIRST_GUILD), null, 100));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Racer<T> {
+        T run(int index) throws Exception;
+    }
+}
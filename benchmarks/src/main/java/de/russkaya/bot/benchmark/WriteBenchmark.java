@@ -0,0 +1,44 @@
+package de.russkaya.bot.benchmark;
+
+import de.russkaya.bot.plant.Plant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz der schreibenden Commands. Mehrere Threads, weil Commands im
+ * Betrieb parallel auf virtuellen Threads laufen und der Writer sie per
+ * Group-Commit bündelt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Benchmark
+    public Plant sow(BotState bot, Caller caller) throws SQLException {
+        int user = caller.user();
+        return bot.sow(SeededDatabase.userId(user), SeededDatabase.user(user), caller.location(), bot.newReply());
+    }
+
+    @Benchmark
+    public Optional<Plant> sowAndHarvest(BotState bot, Caller caller) throws SQLException {
+        int user = caller.user();
+        String userId = SeededDatabase.userId(user);
+        String username = SeededDatabase.user(user);
+        Plant plant = bot.sow(userId, username, caller.location(), bot.newReply());
+        return bot.harvest(plant.id(), userId, username, caller.car(), bot.newReply());
+    }
+}
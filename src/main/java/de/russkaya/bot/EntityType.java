@@ -0,0 +1,27 @@
+package de.russkaya.bot;
+
+/**
+ * Die beiden Arten von Entitäten, die der Bot verwaltet. Der Schlüssel wird
+ * so in der Datenbank gespeichert.
+ */
+public enum EntityType {
+    PLANT("plant"),
+    SOLAR("solar");
+
+    private final String key;
+
+    EntityType(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static EntityType fromKey(String key) {
+        for (EntityType type : values()) {
+            if (type.key.equals(key)) return type;
+        }
+        throw new IllegalArgumentException("Unbekannter Entitätstyp: " + key);
+    }
+}
@@ -1,45 +1,215 @@
 package de.russkaya.bot;
 
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
-import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.autocomplete.AutocompleteField;
+import de.russkaya.bot.autocomplete.AutocompleteIndex;
+import de.russkaya.bot.autocomplete.AutocompleteLoader;
+import de.russkaya.bot.autocomplete.AutocompleteRepository;
+import de.russkaya.bot.cache.ActiveEntityIndex;
+import de.russkaya.bot.command.CommandDispatcher;
+import de.russkaya.bot.command.CommandRegistration;
+import de.russkaya.bot.command.CommandReply;
+import de.russkaya.bot.command.ComponentReply;
+import de.russkaya.bot.core.Actor;
+import de.russkaya.bot.core.CommandCore;
+import de.russkaya.bot.core.EntityLocks;
+import de.russkaya.bot.core.FertilizeRequest;
+import de.russkaya.bot.core.HarvestRequest;
+import de.russkaya.bot.core.LogsRequest;
+import de.russkaya.bot.core.PlaceRequest;
+import de.russkaya.bot.core.ReactionRequest;
+import de.russkaya.bot.core.StatsRequest;
+import de.russkaya.bot.core.StatusRequest;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.db.migration.MigrationRunner;
+import de.russkaya.bot.db.migration.Migrations;
+import de.russkaya.bot.embed.ActionEmbeds;
+import de.russkaya.bot.embed.StatusEmbeds;
+import de.russkaya.bot.embed.Texts;
+import de.russkaya.bot.export.ExportFormat;
+import de.russkaya.bot.export.HistoryExporter;
+import de.russkaya.bot.gateway.GatewayProfile;
+import de.russkaya.bot.guild.GuildSettings;
+import de.russkaya.bot.guild.GuildSettingsCache;
+import de.russkaya.bot.guild.GuildSettingsRepository;
+import de.russkaya.bot.guild.LegacyData;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.metrics.JvmMetrics;
+import de.russkaya.bot.metrics.MetricsServer;
+import de.russkaya.bot.metrics.PrometheusWriter;
+import de.russkaya.bot.metrics.StartupTimeline;
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.plant.PlantRepository;
+import de.russkaya.bot.plant.PlantStatusSource;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderDigest;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderRepository;
+import de.russkaya.bot.reminder.ReminderService;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.retention.ArchiveReader;
+import de.russkaya.bot.retention.ArchiveTable;
+import de.russkaya.bot.retention.RetentionEngine;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.stats.StatDimension;
+import de.russkaya.bot.stats.StatPeriod;
+import de.russkaya.bot.stats.StatsRebuilder;
+import de.russkaya.bot.stats.StatsRepository;
+import de.russkaya.bot.solar.SolarPanelRepository;
+import de.russkaya.bot.solar.SolarPanelStatusSource;
+import de.russkaya.bot.status.StatusMessage;
+import de.russkaya.bot.status.StatusPages;
+import de.russkaya.bot.storage.SqliteStorage;
+import de.russkaya.bot.storage.Storage;
 
-import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class RusskayaBot extends ListenerAdapter {
     
-    private JDA jda;
-    private Connection database;
-    private Timer reminderTimer;
-    private ScheduledExecutorService scheduler;
+    private ShardManager shardManager;
+    private ShardRange shards;
+    private Database database;
+    private PlantRepository plants;
+    private SolarPanelRepository solarPanels;
+    private ActivityRepository activity;
+    private StatsRepository stats;
+    
+    // Pflanzen, Panels, Erinnerungen und Log hinter der Storage-Schnittstelle - im Bot immer SQLite,
+    // weil Status, Statistik, Export und Archiv dieselbe Datenbank per SQL lesen
+    private Storage storage;
+    
+    // Kanäle und Zeiten pro Server, gelesen bei jedem Command
+    private GuildSettingsCache guildSettings;
+    
+    // Aktive Pflanzen/Panels im Speicher - Lookups per ID und Erinnerungen lesen nur hier
+    private final ActiveEntityIndex<Plant> activePlants = new ActiveEntityIndex<>("plants", Plant::id);
+    private final ActiveEntityIndex<SolarPanel> activePanels = new ActiveEntityIndex<>("solar_panels", SolarPanel::id);
+    
+    // Vorschläge beim Tippen (Standorte, Autos, aktive IDs) - nie eine Datenbankabfrage pro Tastendruck
+    private final AutocompleteIndex autocomplete = new AutocompleteIndex();
+    private ScheduledThreadPoolExecutor scheduler;
+    private ReminderService reminders;
+    private ReminderDigest reminderDigest;
+    
+    // Pflanzen- und Solar-Abläufe ohne Discord; dieser Listener übersetzt nur Events in Requests
+    private CommandCore core;
+    
+    // Ein Lock pro Pflanze/Panel (gestreift) - Commands auf verschiedene Einträge laufen parallel
+    private final EntityLocks entityLocks = new EntityLocks(ENTITY_LOCK_STRIPES);
+    private RetentionEngine retention;
+    private HistoryExporter exporter;
+    private final Semaphore exportSlots = new Semaphore(MAX_PARALLEL_EXPORTS);
+    
+    // Blätterbare Status-Commands, Seiten kommen per Keyset direkt aus SQL
+    private StatusPages<Plant> plantPages;
+    private StatusPages<SolarPanel> solarPages;
+    
+    // Erinnerungsnachricht -> Pflanzen/Panels, damit Reaktionen ohne REST-Abruf zugeordnet werden
+    private final ReminderMessageIndex reminderMessages = new ReminderMessageIndex();
+    
+    // Alle ausgehenden Discord-Aufrufe, nach Priorität und Rate-Limit sortiert
+    private final OutboundQueue outbound = new OutboundQueue();
+    private final CommandDispatcher commands = new CommandDispatcher(outbound);
+    
+    // /metrics für Prometheus und / als Health-Check
+    private final MetricsServer metrics = new MetricsServer();
+    private final StartupTimeline timeline = new StartupTimeline();
+    
+    // Hash der Slash Commands, damit nur Änderungen hochgeladen werden
+    private CommandRegistration commandRegistration;
     
     // Konfiguration - Diese Werte müssen angepasst werden
     private static final String BOT_TOKEN = System.getenv("BOT_TOKEN");
     private static final String DATABASE_URL = System.getenv("DATABASE_URL");
-    private static final long PLANT_CHANNEL_ID = Long.parseLong(System.getenv("PLANT_CHANNEL_ID"));
-    private static final long SOLAR_CHANNEL_ID = Long.parseLong(System.getenv("SOLAR_CHANNEL_ID"));
     
-    // Zeitkonstanten (in Stunden)
-    private static final int PLANT_GROWTH_TIME = 4; // Pflanzen brauchen 4 Stunden
-    private static final int SOLAR_BATTERY_TIME = 2; // Solarpanels alle 2 Stunden
+    // Sharding: ohne SHARD_TOTAL gilt die Empfehlung von Discord. Teilen sich mehrere Prozesse
+    // die Shards, bekommt jeder seinen Bereich per SHARDS (z.B. "0-3") - dann ist SHARD_TOTAL Pflicht.
+    private static final int SHARD_TOTAL = Integer.parseInt(System.getenv().getOrDefault("SHARD_TOTAL", "-1"));
+    private static final String SHARDS = System.getenv("SHARDS");
+    
+    // lean (Standard): nur Reaktionen als Intent, kaum Cache - default: JDAs Voreinstellungen wie bisher
+    private static final GatewayProfile GATEWAY_PROFILE = GatewayProfile.parse(System.getenv("JDA_PROFILE"));
+    
+    // Commands auch ohne Änderung hochladen, z.B. nachdem sie im Developer Portal gelöscht wurden
+    private static final boolean FORCE_COMMAND_SYNC = Boolean.parseBoolean(System.getenv().getOrDefault("FORCE_COMMAND_SYNC", "false"));
+    
+    // Daten aus der Zeit mit nur einem Server gehören LEGACY_GUILD_ID; die alten
+    // Kanal-Variablen werden beim ersten Start zu dessen Einstellungen
+    private static final long LEGACY_GUILD_ID = Long.parseLong(System.getenv().getOrDefault("LEGACY_GUILD_ID", "0"));
+    private static final long PLANT_CHANNEL_ID = Long.parseLong(System.getenv().getOrDefault("PLANT_CHANNEL_ID", "0"));
+    private static final long SOLAR_CHANNEL_ID = Long.parseLong(System.getenv().getOrDefault("SOLAR_CHANNEL_ID", "0"));
+    
+    private static final int METRICS_PORT = Integer.parseInt(System.getenv().getOrDefault("PORT", "8080"));
+    
+    // Aufbewahrung: abgeschlossene Einträge nach RETENTION_DAYS ins Archiv (auf Railway als Volume mounten)
+    private static final int RETENTION_DAYS = Integer.parseInt(System.getenv().getOrDefault("RETENTION_DAYS", "7"));
+    private static final Path ARCHIVE_DIR = Path.of(System.getenv().getOrDefault("ARCHIVE_DIR", "archive"));
+    private static final long RETENTION_MAX_LOCK_MS = Long.parseLong(System.getenv().getOrDefault("RETENTION_MAX_LOCK_MS", "50"));
+    private static final ArchiveTable PLANT_HISTORY = new ArchiveTable("plants", "status = 'harvested'", "harvested_at");
+    private static final ArchiveTable SOLAR_HISTORY = new ArchiveTable("solar_panels", "status = 'collected'", "collected_at");
+    
+    // Exporte laufen parallel zu Commands, aber nicht beliebig viele gleichzeitig
+    private static final int MAX_PARALLEL_EXPORTS = 2;
+    private static final DateTimeFormatter EXPORT_DATE = DateTimeFormatter.ofPattern("d.M.uuuu");
+    
+    // Locks für Pflanzen/Panels - deutlich mehr als gleichzeitig laufende Commands, damit Kollisionen selten sind
+    private static final int ENTITY_LOCK_STRIPES = 1024;
+    
+    // Anzahl paralleler Leseverbindungen (Schreiben läuft immer über einen Thread)
+    private static final int DATABASE_READERS = 4;
+    
+    // Einträge pro Seite der Status-Commands
+    private static final int STATUS_PAGE_SIZE = 10;
+    
+    // Grenzen für /einstellungen - Dünger-Erinnerungen kommen nach 35 und 55 Minuten, Reparaturen nach 30 und 50
+    private static final int MIN_GROWTH_MINUTES = 60;
+    private static final int MIN_BATTERY_MINUTES = 30;
+    private static final int MAX_TIMER_MINUTES = 24 * 60;
     
     public static void main(String[] args) {
         new RusskayaBot().start();
@@ -47,575 +217,673 @@ public class RusskayaBot extends ListenerAdapter {
     
     public void start() {
         try {
-            // Datenbank initialisieren
-            initDatabase();
+            // Metriken zuerst, damit der Health-Check schon während des Starts antwortet
+            startMetrics();
+            timeline.mark("Metriken");
+            
+            // Welche Server dieser Prozess bedient - bestimmt, was in den Speicher geladen wird
+            shards = localShards();
+            
+            // Datenbank und Migrationen laufen parallel zum Gateway-Login - beides dauert, hängt aber nicht voneinander ab
+            CompletableFuture<Void> databaseReady = CompletableFuture.runAsync(() -> {
+                try {
+                    initDatabase();
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, runnable -> new Thread(runnable, "startup-database").start());
             
-            // Bot starten
-            jda = JDABuilder.createDefault(BOT_TOKEN)
+            // Bot starten - ein Shard pro Gateway-Verbindung, alle in diesem Prozess teilen sich Listener und Datenbank.
+            // Der Listener kommt erst dazu, wenn Datenbank und Erinnerungen bereit sind.
+            DefaultShardManagerBuilder builder = GATEWAY_PROFILE.builder(BOT_TOKEN)
                     .setActivity(Activity.watching("Russkaya Familie 🇷🇺"))
-                    .addEventListeners(this)
-                    .enableIntents(GatewayIntent.MESSAGE_CONTENT, GatewayIntent.GUILD_MESSAGE_REACTIONS)
-                    .build();
+                    .setShardsTotal(SHARD_TOTAL);
+            if (!shards.isAll()) {
+                builder.setShards(shards.first(), shards.last());
+            }
+            shardManager = builder.build();
             
-            jda.awaitReady();
+            for (JDA shard : shardManager.getShards()) {
+                shard.awaitReady();
+            }
+            timeline.mark("Gateway");
+            System.out.println("✅ Gateway-Profil " + GATEWAY_PROFILE.describe());
             
-            // Slash Commands registrieren
-            registerCommands();
+            databaseReady.join();
             
-            // Timer für Erinnerungen starten
+            // Erinnerungen starten (vor den Commands, damit neue Pflanzen sofort geplant werden können)
             startReminderSystem();
+            timeline.mark("Erinnerungen");
+            
+            // Ab hier werden Commands beantwortet
+            registerHandlers();
+            shardManager.addEventListener(this);
+            timeline.mark("Commands bereit");
+            
+            // Slash Commands nur bei Änderungen neu registrieren (läuft im Hintergrund weiter)
+            registerCommands();
             
-            System.out.println("✅ Russkaya Bot ist online! 🇷🇺");
+            System.out.println("✅ Russkaya Bot ist online! 🇷🇺 (Shards " + (SHARDS != null && !SHARDS.isBlank() ? shards
+                    : "alle " + shardManager.getShardsTotal()) + ", " + shardManager.getGuildCache().size() + " Server)");
+            System.out.println("⏱️ Start: " + timeline.summary());
             
         } catch (Exception e) {
-            System.err.println("❌ Fehler beim Starten des Bots: " + e.getMessage());
-            e.printStackTrace();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("❌ Fehler beim Starten des Bots: " + cause.getMessage());
+            cause.printStackTrace();
+            // Ohne Datenbank soll der Gateway den Prozess nicht am Leben halten
+            if (shardManager != null) shardManager.shutdown();
+        }
+    }
+    
+    private static ShardRange localShards() {
+        if (SHARDS == null || SHARDS.isBlank()) {
+            // Alle Shards hier - die Anzahl spielt dann für die Zuordnung keine Rolle
+            return ShardRange.all(Math.max(SHARD_TOTAL, 1));
+        }
+        if (SHARD_TOTAL < 1) {
+            throw new IllegalStateException("SHARDS=" + SHARDS + " braucht SHARD_TOTAL");
         }
+        return ShardRange.parse(SHARDS, SHARD_TOTAL);
+    }
+    
+    private void startMetrics() throws IOException {
+        metrics.register(new JvmMetrics());
+        metrics.register(timeline);
+        metrics.register(commands);
+        metrics.register(outbound);
+        metrics.start(METRICS_PORT);
+        System.out.println("✅ Metriken unter http://localhost:" + METRICS_PORT + "/metrics");
     }
     
     private void initDatabase() throws SQLException {
-        database = DriverManager.getConnection(DATABASE_URL);
-        
-        // Tabellen erstellen
-        String createPlantsTable = """
-            CREATE TABLE IF NOT EXISTS plants (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                user_id TEXT NOT NULL,
-                username TEXT NOT NULL,
-                planted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                location TEXT NOT NULL,
-                status TEXT DEFAULT 'planted',
-                fertilized_by TEXT,
-                fertilized_at TIMESTAMP,
-                harvested_by TEXT,
-                harvested_at TIMESTAMP,
-                car_stored TEXT,
-                reminder_message_id TEXT
-            )
-        """;
-        
-        String createSolarTable = """
-            CREATE TABLE IF NOT EXISTS solar_panels (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                user_id TEXT NOT NULL,
-                username TEXT NOT NULL,
-                placed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                location TEXT NOT NULL,
-                status TEXT DEFAULT 'active',
-                collected_by TEXT,
-                collected_at TIMESTAMP,
-                car_stored TEXT,
-                reminder_message_id TEXT
-            )
-        """;
-        
-        try (Statement stmt = database.createStatement()) {
-            stmt.executeUpdate(createPlantsTable);
-            stmt.executeUpdate(createSolarTable);
+        database = new Database(DATABASE_URL, DATABASE_READERS);
+        database.open();
+        plants = new PlantRepository(database);
+        solarPanels = new SolarPanelRepository(database);
+        activity = new ActivityRepository(database);
+        stats = new StatsRepository(database, ZoneId.systemDefault());
+        storage = new SqliteStorage(database, plants, solarPanels, activity, stats, new ReminderRepository(database));
+        guildSettings = new GuildSettingsCache(database, new GuildSettingsRepository(database));
+        plantPages = new StatusPages<>("pflanzen-status", STATUS_PAGE_SIZE, new PlantStatusSource(database, plants));
+        solarPages = new StatusPages<>("solar-status", STATUS_PAGE_SIZE, new SolarPanelStatusSource(database, solarPanels));
+        exporter = new HistoryExporter(database, new ArchiveReader(ARCHIVE_DIR), LEGACY_GUILD_ID);
+        metrics.register(database);
+        metrics.register(exporter);
+        metrics.register(guildSettings);
+        
+        // Schema auf den neuesten Stand bringen
+        int applied = new MigrationRunner(database).migrate(Migrations.ALL);
+        commandRegistration = new CommandRegistration(database);
+        
+        // Einmalig auf inkrementelles Vacuum umstellen - volles VACUUM, daher bevor Commands angenommen werden
+        long vacuumStarted = System.currentTimeMillis();
+        if (RetentionEngine.enableIncrementalVacuum(database)) {
+            System.out.println("✅ Datenbank auf auto_vacuum=INCREMENTAL umgestellt ("
+                    + (System.currentTimeMillis() - vacuumStarted) + " ms)");
+        }
+        timeline.mark("Migrationen");
+        
+        // Altdaten aus der Zeit mit nur einem Server zuordnen, danach alle Einstellungen laden
+        adoptLegacyData();
+        int configured = guildSettings.load();
+        
+        // Zähler für /stats beim ersten Start aus dem Aktivitätslog füllen (für alle Server)
+        if (shards.isPrimary()) {
+            new StatsRebuilder(database, activity, stats).rebuildIfEmpty();
         }
         
-        System.out.println("✅ Datenbank initialisiert");
+        // Aktive Einträge der eigenen Shards in den Speicher laden
+        activePlants.load(storage.activePlants(shards));
+        activePanels.load(storage.activePanels(shards));
+        
+        // Vorschläge: aktive IDs sofort, Standorte und Autos aus dem Log im Hintergrund
+        AutocompleteLoader suggestions = new AutocompleteLoader(database, activity, new AutocompleteRepository(database), autocomplete);
+        suggestions.loadActive(shards);
+        long lastLogId = suggestions.lastLogId();
+        Thread.startVirtualThread(() -> {
+            try {
+                suggestions.loadHistory(shards, lastLogId);
+            } catch (SQLException e) {
+                System.err.println("❌ Autocomplete konnte das Log nicht laden: " + e.getMessage());
+            }
+        });
+        
+        // Letzte Erinnerungsnachrichten, damit Reaktionen auch nach einem Neustart wirken
+        reminderMessages.load(ReminderType.PLANT_FERTILIZE, storage.reminderMessages(EntityType.PLANT, shards));
+        reminderMessages.load(ReminderType.SOLAR_REPAIR, storage.reminderMessages(EntityType.SOLAR, shards));
+        
+        timeline.mark("Datenbank");
+        System.out.println("✅ Datenbank initialisiert (" + applied + " Migrationen eingespielt, "
+                + activePlants.size() + " Pflanzen und " + activePanels.size() + " Solarpanels aktiv, "
+                + configured + " Server mit Einstellungen)");
     }
     
-    private void registerCommands() {
-        jda.updateCommands().addCommands(
+    private void adoptLegacyData() throws SQLException {
+        if (LEGACY_GUILD_ID == 0) {
+            long unassigned = LegacyData.count(database);
+            if (unassigned > 0) {
+                System.err.println("⚠️ " + unassigned + " Einträge ohne Server - LEGACY_GUILD_ID setzen, um sie zu übernehmen");
+            }
+            return;
+        }
+        
+        long adopted = LegacyData.adopt(database, LEGACY_GUILD_ID);
+        if (adopted > 0) {
+            System.out.println("✅ " + adopted + " Einträge aus der Zeit vor mehreren Servern " + LEGACY_GUILD_ID + " zugeordnet");
+        }
+        if ((PLANT_CHANNEL_ID != 0 || SOLAR_CHANNEL_ID != 0) && guildSettings.initialize(GuildSettings.defaults(LEGACY_GUILD_ID)
+                .withPlantChannel(PLANT_CHANNEL_ID).withSolarChannel(SOLAR_CHANNEL_ID))) {
+            System.out.println("✅ PLANT_CHANNEL_ID/SOLAR_CHANNEL_ID als Einstellungen für " + LEGACY_GUILD_ID + " übernommen");
+        }
+    }
+    
+    private void registerHandlers() {
+        // Schreibende Commands warten immer auf den Writer-Thread, daher sofort deferren
+        commands.register("pflanze-säen", true, this::handlePlantSeed);
+        commands.register("pflanze-düngen", true, this::handlePlantFertilize);
+        commands.register("pflanze-ernten", true, this::handlePlantHarvest);
+        commands.register("pflanzen-status", false, this::handlePlantsStatus);
+        commands.register("solar-aufstellen", true, this::handleSolarPlace);
+        commands.register("solar-sammeln", true, this::handleSolarCollect);
+        commands.register("solar-status", false, this::handleSolarStatus);
+        commands.register("logs", false, this::handleLogs);
+        commands.register("stats", false, this::handleStats);
+        commands.register("export", true, this::handleExport);
+        commands.register("einstellungen", true, this::handleSettings);
+        
+        // Vorschläge beim Tippen
+        commands.registerAutocomplete("pflanze-säen", "location", event -> termChoices(event, AutocompleteField.PLANT_LOCATION));
+        commands.registerAutocomplete("pflanze-düngen", "id", event -> idChoices(event, EntityType.PLANT));
+        commands.registerAutocomplete("pflanze-ernten", "id", event -> idChoices(event, EntityType.PLANT));
+        commands.registerAutocomplete("pflanze-ernten", "car", event -> termChoices(event, AutocompleteField.CAR));
+        commands.registerAutocomplete("solar-aufstellen", "location", event -> termChoices(event, AutocompleteField.SOLAR_LOCATION));
+        commands.registerAutocomplete("solar-sammeln", "id", event -> idChoices(event, EntityType.SOLAR));
+        commands.registerAutocomplete("solar-sammeln", "car", event -> termChoices(event, AutocompleteField.CAR));
+        
+        // Blättern und Filtern in den Status-Nachrichten
+        commands.registerComponent(plantPages.getPrefix(), (event, reply) -> handleStatusComponent(plantPages, event, reply));
+        commands.registerComponent(solarPages.getPrefix(), (event, reply) -> handleStatusComponent(solarPages, event, reply));
+    }
+    
+    private void registerCommands() throws SQLException {
+        List<SlashCommandData> definitions = List.of(
             // Pflanzen Commands
             Commands.slash("pflanze-säen", "Eine neue Pflanze säen")
-                    .addOption(OptionType.STRING, "location", "Wo wurde die Pflanze gesät?", true),
+                    .addOption(OptionType.STRING, "location", "Wo wurde die Pflanze gesät?", true, true),
             
             Commands.slash("pflanze-düngen", "Eine Pflanze düngen")
-                    .addOption(OptionType.INTEGER, "id", "ID der Pflanze", true),
+                    .addOption(OptionType.INTEGER, "id", "ID der Pflanze", true, true),
             
             Commands.slash("pflanze-ernten", "Eine Pflanze ernten")
-                    .addOption(OptionType.INTEGER, "id", "ID der Pflanze", true)
-                    .addOption(OptionType.STRING, "car", "In welches Auto wurde es gelegt?", true),
+                    .addOption(OptionType.INTEGER, "id", "ID der Pflanze", true, true)
+                    .addOption(OptionType.STRING, "car", "In welches Auto wurde es gelegt?", true, true),
             
             Commands.slash("pflanzen-status", "Alle aktiven Pflanzen anzeigen"),
             
             // Solar Commands
             Commands.slash("solar-aufstellen", "Ein Solarpanel aufstellen")
-                    .addOption(OptionType.STRING, "location", "Wo wurde das Panel aufgestellt?", true),
+                    .addOption(OptionType.STRING, "location", "Wo wurde das Panel aufgestellt?", true, true),
             
             Commands.slash("solar-sammeln", "Batterie von Solarpanel sammeln")
-                    .addOption(OptionType.INTEGER, "id", "ID des Solarpanels", true)
-                    .addOption(OptionType.STRING, "car", "In welches Auto wurde die Batterie gelegt?", true),
+                    .addOption(OptionType.INTEGER, "id", "ID des Solarpanels", true, true)
+                    .addOption(OptionType.STRING, "car", "In welches Auto wurde die Batterie gelegt?", true, true),
             
             Commands.slash("solar-status", "Alle aktiven Solarpanels anzeigen"),
             
             // Allgemeine Commands
             Commands.slash("logs", "Letzte Aktivitäten anzeigen")
                     .addOption(OptionType.INTEGER, "anzahl", "Anzahl der Logs (Standard: 10)", false)
-        ).queue();
-        
-        System.out.println("✅ Slash Commands registriert");
+                    .addOption(OptionType.INTEGER, "vor", "Nur Einträge vor dieser Log-ID (zum Weiterblättern)", false),
+            
+            Commands.slash("stats", "Ranglisten für Ernten, Düngen und Batterien")
+                    .addOptions(new OptionData(OptionType.STRING, "zeitraum", "Zeitraum (Standard: diese Woche)", false)
+                                    .addChoice("Heute", StatPeriod.DAY.getKey())
+                                    .addChoice("Diese Woche", StatPeriod.WEEK.getKey())
+                                    .addChoice("Gesamt", StatPeriod.ALL.getKey()),
+                            new OptionData(OptionType.STRING, "kategorie", "Nur eine Kategorie, dafür ausführlich", false)
+                                    .addChoice("Ernten", ActivityAction.HARVEST.name())
+                                    .addChoice("Düngen", ActivityAction.FERTILIZE.name())
+                                    .addChoice("Batterien", ActivityAction.COLLECT.name()),
+                            new OptionData(OptionType.STRING, "nach", "Wonach gruppieren (Standard: Spieler)", false)
+                                    .addChoice("Spieler", StatDimension.USER.getKey())
+                                    .addChoice("Standort", StatDimension.LOCATION.getKey())
+                                    .addChoice("Auto", StatDimension.CAR.getKey())),
+            
+            Commands.slash("export", "Ernten und Batterien als Datei exportieren (inkl. Archiv)")
+                    .addOptions(new OptionData(OptionType.STRING, "typ", "Was exportieren? (Standard: alles)", false)
+                                    .addChoice("Alles", "alle")
+                                    .addChoice("Pflanzen", "pflanzen")
+                                    .addChoice("Solarpanels", "solar"),
+                            new OptionData(OptionType.STRING, "format", "Dateiformat (Standard: JSON Lines)", false)
+                                    .addChoice("JSON Lines", "jsonl")
+                                    .addChoice("CSV", "csv"),
+                            new OptionData(OptionType.STRING, "von", "Ab diesem Tag, z.B. 01.05.2024 (Standard: alles)", false),
+                            new OptionData(OptionType.STRING, "bis", "Bis einschließlich diesem Tag (Standard: heute)", false))
+                    // Auszahlungsdaten - standardmäßig nur für die Leitung, im Server anpassbar
+                    .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER)),
+            
+            Commands.slash("einstellungen", "Kanäle und Zeiten für diesen Server anzeigen oder ändern")
+                    .addOptions(new OptionData(OptionType.CHANNEL, "pflanzen-kanal", "Kanal für Pflanzen-Erinnerungen", false)
+                                    .setChannelTypes(ChannelType.TEXT),
+                            new OptionData(OptionType.CHANNEL, "solar-kanal", "Kanal für Solar-Erinnerungen", false)
+                                    .setChannelTypes(ChannelType.TEXT),
+                            new OptionData(OptionType.INTEGER, "wachstum", "Wachstumszeit der Pflanzen in Minuten", false)
+                                    .setRequiredRange(MIN_GROWTH_MINUTES, MAX_TIMER_MINUTES),
+                            new OptionData(OptionType.INTEGER, "batterie", "Batteriezeit der Solarpanels in Minuten", false)
+                                    .setRequiredRange(MIN_BATTERY_MINUTES, MAX_TIMER_MINUTES),
+                            new OptionData(OptionType.BOOLEAN, "kanäle-zurücksetzen", "Erinnerungen wieder im Kanal des Commands", false))
+                    .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER))
+        );
+        
+        // Alle Daten gehören zu einem Server - in DMs gibt es nichts zu tun
+        definitions.forEach(command -> command.setGuildOnly(true));
+        
+        // Globale Commands gelten für alle Server - das erledigt der Prozess mit Shard 0
+        if (!shards.isPrimary()) return;
+        
+        // Unveränderte Commands nicht erneut hochladen: spart Rate-Limit und Zeit bei jedem Redeploy
+        commandRegistration.sync(shardManager.getShardById(0), definitions, FORCE_COMMAND_SYNC).whenComplete((uploaded, error) -> {
+            if (error != null) {
+                System.err.println("❌ Slash Commands konnten nicht registriert werden: " + error.getMessage());
+            } else if (uploaded) {
+                timeline.mark("Commands registriert");
+                System.out.println("✅ " + definitions.size() + " Slash Commands geändert - neu registriert");
+            } else {
+                System.out.println("✅ Slash Commands unverändert - keine Registrierung nötig");
+            }
+        });
     }
     
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        String command = event.getName();
-        
-        try {
-            switch (command) {
-                case "pflanze-säen" -> handlePlantSeed(event);
-                case "pflanze-düngen" -> handlePlantFertilize(event);
-                case "pflanze-ernten" -> handlePlantHarvest(event);
-                case "pflanzen-status" -> handlePlantsStatus(event);
-                case "solar-aufstellen" -> handleSolarPlace(event);
-                case "solar-sammeln" -> handleSolarCollect(event);
-                case "solar-status" -> handleSolarStatus(event);
-                case "logs" -> handleLogs(event);
-                default -> event.reply("❌ Unbekannter Command!").setEphemeral(true).queue();
-            }
-        } catch (Exception e) {
-            event.reply("❌ Ein Fehler ist aufgetreten: " + e.getMessage()).setEphemeral(true).queue();
-            e.printStackTrace();
+        // Kehrt sofort zurück - die Arbeit passiert auf einem virtuellen Thread
+        commands.dispatch(event);
+    }
+    
+    @Override
+    public void onCommandAutoCompleteInteraction(CommandAutoCompleteInteractionEvent event) {
+        // Antwortet direkt aus dem Speicher, ohne virtuellen Thread
+        commands.dispatchAutocomplete(event);
+    }
+    
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        commands.dispatchComponent(event);
+    }
+    
+    @Override
+    public void onStringSelectInteraction(StringSelectInteractionEvent event) {
+        commands.dispatchComponent(event);
+    }
+    
+    private void handlePlantSeed(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.sow(new PlaceRequest(actor(event), event.getOption("location").getAsString()), reply);
+    }
+    
+    private void handlePlantFertilize(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.fertilize(new FertilizeRequest(actor(event), event.getOption("id").getAsInt()), reply);
+    }
+    
+    private void handlePlantHarvest(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.harvest(new HarvestRequest(actor(event), event.getOption("id").getAsInt(), event.getOption("car").getAsString()), reply);
+    }
+    
+    private void handleSolarPlace(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.placeSolar(new PlaceRequest(actor(event), event.getOption("location").getAsString()), reply);
+    }
+    
+    private void handleSolarCollect(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.collectSolar(new HarvestRequest(actor(event), event.getOption("id").getAsInt(), event.getOption("car").getAsString()), reply);
+    }
+    
+    private void handlePlantsStatus(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.plantsStatus(new StatusRequest(actor(event), event.getIdLong()), reply);
+    }
+    
+    private void handleSolarStatus(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        core.solarStatus(new StatusRequest(actor(event), event.getIdLong()), reply);
+    }
+    
+    // Zu lange Werte lässt Discord als Vorschlag nicht zu - die bleiben zum Selbertippen
+    private List<Command.Choice> termChoices(CommandAutoCompleteInteractionEvent event, AutocompleteField field) {
+        List<Command.Choice> choices = new ArrayList<>();
+        for (String term : autocomplete.terms(event.getGuild().getIdLong(), field, event.getFocusedOption().getValue())) {
+            if (term.length() <= OptionData.MAX_CHOICE_VALUE_LENGTH) choices.add(new Command.Choice(term, term));
         }
+        return choices;
     }
     
-    private void handlePlantSeed(SlashCommandInteractionEvent event) throws SQLException {
-        String location = event.getOption("location").getAsString();
-        String userId = event.getUser().getId();
-        String username = event.getUser().getName();
-        
-        String sql = "INSERT INTO plants (user_id, username, location) VALUES (?, ?, ?)";
-        PreparedStatement stmt = database.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-        stmt.setString(1, userId);
-        stmt.setString(2, username);
-        stmt.setString(3, location);
-        stmt.executeUpdate();
-        
-        ResultSet keys = stmt.getGeneratedKeys();
-        int plantId = keys.next() ? keys.getInt(1) : 0;
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("🌱 Pflanze gesät!")
-                .setDescription("**Spieler:** " + username + "\n" +
-                               "**Standort:** " + location + "\n" +
-                               "**ID:** #" + plantId + "\n" +
-                               "**Wachstumszeit:** " + PLANT_GROWTH_TIME + " Stunden")
-                .setColor(Color.GREEN)
-                .setTimestamp(LocalDateTime.now());
-        
-        event.replyEmbeds(embed.build()).queue(response -> {
-            // Erinnerung für diese Pflanze planen
-            schedulePlantReminder(plantId, username, location, response.retrieveOriginal().complete());
-        });
-        
-        stmt.close();
+    private List<Command.Choice> idChoices(CommandAutoCompleteInteractionEvent event, EntityType type) {
+        List<Command.Choice> choices = new ArrayList<>();
+        for (AutocompleteIndex.Active active : autocomplete.active(event.getGuild().getIdLong(), type, event.getFocusedOption().getValue())) {
+            String name = Texts.activeChoice(active.id(), active.location(), active.username());
+            if (name.length() > OptionData.MAX_CHOICE_NAME_LENGTH) name = name.substring(0, OptionData.MAX_CHOICE_NAME_LENGTH - 1) + "…";
+            choices.add(new Command.Choice(name, active.id()));
+        }
+        return choices;
     }
     
-    private void handlePlantFertilize(SlashCommandInteractionEvent event) throws SQLException {
-        int plantId = event.getOption("id").getAsInt();
-        String userId = event.getUser().getId();
-        String username = event.getUser().getName();
-        
-        String checkSql = "SELECT * FROM plants WHERE id = ? AND status = 'planted'";
-        PreparedStatement checkStmt = database.prepareStatement(checkSql);
-        checkStmt.setInt(1, plantId);
-        ResultSet result = checkStmt.executeQuery();
-        
-        if (!result.next()) {
-            event.reply("❌ Pflanze #" + plantId + " nicht gefunden oder bereits geerntet!").setEphemeral(true).queue();
+    // Alles, was der Kern von einem Slash-Command braucht
+    private static Actor actor(SlashCommandInteractionEvent event) {
+        return new Actor(event.getGuild().getIdLong(), event.getChannel().getIdLong(), event.getUser().getId(), event.getUser().getName());
+    }
+    
+    private void handleStatusComponent(StatusPages<?> pages, GenericComponentInteractionCreateEvent event, ComponentReply reply) throws SQLException {
+        List<String> values = event instanceof StringSelectInteractionEvent select ? select.getValues() : List.of();
+        StatusMessage page = pages.handle(event.getComponentId(), event.getUser().getId(), event.getUser().getName(), values);
+        if (page == null) {
+            reply.error("⌛ Diese Ansicht ist abgelaufen - bitte /" + pages.getPrefix() + " neu ausführen.");
             return;
         }
-        
-        String updateSql = "UPDATE plants SET fertilized_by = ?, fertilized_at = CURRENT_TIMESTAMP WHERE id = ?";
-        PreparedStatement updateStmt = database.prepareStatement(updateSql);
-        updateStmt.setString(1, username);
-        updateStmt.setInt(2, plantId);
-        updateStmt.executeUpdate();
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("💚 Pflanze gedüngt!")
-                .setDescription("**Spieler:** " + username + "\n" +
-                               "**Pflanze:** #" + plantId + "\n" +
-                               "**Standort:** " + result.getString("location"))
-                .setColor(Color.decode("#32CD32"))
-                .setTimestamp(LocalDateTime.now());
-        
-        event.replyEmbeds(embed.build()).queue();
-        
-        checkStmt.close();
-        updateStmt.close();
+        reply.edit(page.embed(), page.components());
     }
     
-    private void handlePlantHarvest(SlashCommandInteractionEvent event) throws SQLException {
-        int plantId = event.getOption("id").getAsInt();
-        String car = event.getOption("car").getAsString();
-        String username = event.getUser().getName();
-        
-        String updateSql = "UPDATE plants SET status = 'harvested', harvested_by = ?, harvested_at = CURRENT_TIMESTAMP, car_stored = ? WHERE id = ? AND status = 'planted'";
-        PreparedStatement updateStmt = database.prepareStatement(updateSql);
-        updateStmt.setString(1, username);
-        updateStmt.setString(2, car);
-        updateStmt.setInt(3, plantId);
-        
-        int affected = updateStmt.executeUpdate();
-        
-        if (affected == 0) {
-            event.reply("❌ Pflanze #" + plantId + " nicht gefunden oder bereits geerntet!").setEphemeral(true).queue();
-            return;
+    private void handleLogs(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        int requested = event.getOption("anzahl") != null ? event.getOption("anzahl").getAsInt() : 10;
+        Long beforeId = event.getOption("vor") != null ? event.getOption("vor").getAsLong() : null;
+        core.logs(new LogsRequest(actor(event), beforeId, requested), reply);
+    }
+    
+    private void handleStats(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        StatPeriod period = option(event, "zeitraum", StatPeriod.values(), StatPeriod::getKey, StatPeriod.WEEK);
+        StatDimension dimension = option(event, "nach", StatDimension.values(), StatDimension::getKey, StatDimension.USER);
+        ActivityAction only = option(event, "kategorie", ActivityAction.values(), ActivityAction::name, null);
+        core.stats(new StatsRequest(actor(event), period, dimension, only), reply);
+    }
+    
+    private static <T> T option(SlashCommandInteractionEvent event, String name, T[] values, Function<T, String> key, T fallback) {
+        if (event.getOption(name) == null) return fallback;
+        String value = event.getOption(name).getAsString();
+        for (T candidate : values) {
+            if (key.apply(candidate).equals(value)) return candidate;
         }
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("🌿 Pflanze geerntet!")
-                .setDescription("**Spieler:** " + username + "\n" +
-                               "**Pflanze:** #" + plantId + "\n" +
-                               "**Auto:** " + car)
-                .setColor(Color.decode("#228B22"))
-                .setTimestamp(LocalDateTime.now());
-        
-        event.replyEmbeds(embed.build()).queue();
-        updateStmt.close();
-    }
-    
-    private void handleSolarPlace(SlashCommandInteractionEvent event) throws SQLException {
-        String location = event.getOption("location").getAsString();
-        String userId = event.getUser().getId();
-        String username = event.getUser().getName();
-        
-        String sql = "INSERT INTO solar_panels (user_id, username, location) VALUES (?, ?, ?)";
-        PreparedStatement stmt = database.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-        stmt.setString(1, userId);
-        stmt.setString(2, username);
-        stmt.setString(3, location);
-        stmt.executeUpdate();
-        
-        ResultSet keys = stmt.getGeneratedKeys();
-        int solarId = keys.next() ? keys.getInt(1) : 0;
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("☀️ Solarpanel aufgestellt!")
-                .setDescription("**Spieler:** " + username + "\n" +
-                               "**Standort:** " + location + "\n" +
-                               "**ID:** #" + solarId + "\n" +
-                               "**Batteriezeit:** " + SOLAR_BATTERY_TIME + " Stunden")
-                .setColor(Color.YELLOW)
-                .setTimestamp(LocalDateTime.now());
-        
-        event.replyEmbeds(embed.build()).queue(response -> {
-            // Erinnerung für dieses Solarpanel planen
-            scheduleSolarReminder(solarId, username, location, response.retrieveOriginal().complete());
-        });
-        
-        stmt.close();
+        return fallback;
     }
     
-    private void handleSolarCollect(SlashCommandInteractionEvent event) throws SQLException {
-        int solarId = event.getOption("id").getAsInt();
-        String car = event.getOption("car").getAsString();
-        String username = event.getUser().getName();
-        
-        String updateSql = "UPDATE solar_panels SET status = 'collected', collected_by = ?, collected_at = CURRENT_TIMESTAMP, car_stored = ? WHERE id = ? AND status = 'active'";
-        PreparedStatement updateStmt = database.prepareStatement(updateSql);
-        updateStmt.setString(1, username);
-        updateStmt.setString(2, car);
-        updateStmt.setInt(3, solarId);
-        
-        int affected = updateStmt.executeUpdate();
-        
-        if (affected == 0) {
-            event.reply("❌ Solarpanel #" + solarId + " nicht gefunden oder bereits eingesammelt!").setEphemeral(true).queue();
+    private void handleExport(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException, IOException {
+        String type = event.getOption("typ") != null ? event.getOption("typ").getAsString() : "alle";
+        ExportFormat format = event.getOption("format") != null && event.getOption("format").getAsString().equals("csv")
+                ? ExportFormat.CSV : ExportFormat.JSONL;
+        LocalDate since;
+        LocalDate until;
+        try {
+            since = event.getOption("von") != null ? LocalDate.parse(event.getOption("von").getAsString().trim(), EXPORT_DATE) : null;
+            until = event.getOption("bis") != null ? LocalDate.parse(event.getOption("bis").getAsString().trim(), EXPORT_DATE) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            reply.error("❌ Ungültiges Datum - bitte im Format TT.MM.JJJJ angeben.");
             return;
         }
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("🔋 Batterie eingesammelt!")
-                .setDescription("**Spieler:** " + username + "\n" +
-                               "**Solarpanel:** #" + solarId + "\n" +
-                               "**Auto:** " + car)
-                .setColor(Color.ORANGE)
-                .setTimestamp(LocalDateTime.now());
-        
-        event.replyEmbeds(embed.build()).queue();
-        updateStmt.close();
-    }
-    
-    private void handlePlantsStatus(SlashCommandInteractionEvent event) throws SQLException {
-        String sql = "SELECT * FROM plants WHERE status = 'planted' ORDER BY planted_at DESC";
-        PreparedStatement stmt = database.prepareStatement(sql);
-        ResultSet result = stmt.executeQuery();
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("🌱 Aktive Pflanzen")
-                .setColor(Color.GREEN);
-        
-        int count = 0;
-        while (result.next() && count < 10) {
-            String plantInfo = String.format(
-                "**ID:** #%d\n**Gesät von:** %s\n**Standort:** %s\n**Gedüngt:** %s\n",
-                result.getInt("id"),
-                result.getString("username"),
-                result.getString("location"),
-                result.getString("fertilized_by") != null ? "✅ von " + result.getString("fertilized_by") : "❌ Nicht gedüngt"
-            );
-            embed.addField("Pflanze #" + result.getInt("id"), plantInfo, true);
-            count++;
-        }
-        
-        if (count == 0) {
-            embed.setDescription("Keine aktiven Pflanzen vorhanden.");
+        if (since != null && since.isAfter(until)) {
+            reply.error("❌ \"von\" liegt nach \"bis\".");
+            return;
         }
+        long guildId = event.getGuild().getIdLong();
         
-        event.replyEmbeds(embed.build()).queue();
-        stmt.close();
-    }
-    
-    private void handleSolarStatus(SlashCommandInteractionEvent event) throws SQLException {
-        String sql = "SELECT * FROM solar_panels WHERE status = 'active' ORDER BY placed_at DESC";
-        PreparedStatement stmt = database.prepareStatement(sql);
-        ResultSet result = stmt.executeQuery();
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("☀️ Aktive Solarpanels")
-                .setColor(Color.YELLOW);
-        
-        int count = 0;
-        while (result.next() && count < 10) {
-            String solarInfo = String.format(
-                "**ID:** #%d\n**Aufgestellt von:** %s\n**Standort:** %s\n**Aufgestellt:** %s\n",
-                result.getInt("id"),
-                result.getString("username"),
-                result.getString("location"),
-                result.getTimestamp("placed_at").toLocalDateTime().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"))
-            );
-            embed.addField("Panel #" + result.getInt("id"), solarInfo, true);
-            count++;
+        if (!exportSlots.tryAcquire()) {
+            reply.error("⏳ Es laufen gerade zu viele Exporte - bitte gleich nochmal versuchen.");
+            return;
         }
-        
-        if (count == 0) {
-            embed.setDescription("Keine aktiven Solarpanels vorhanden.");
+        List<Path> files = new ArrayList<>();
+        boolean handedOver = false;
+        try {
+            long from = since != null ? since.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+            long to = until.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            String range = (since != null ? since + "_" : "bis_") + until;
+            
+            List<FileUpload> uploads = new ArrayList<>();
+            StringBuilder summary = new StringBuilder("📦 **Export** ")
+                    .append(since != null ? since.format(EXPORT_DATE) + " - " : "bis ")
+                    .append(until.format(EXPORT_DATE)).append(":");
+            long size = 0;
+            for (ArchiveTable table : type.equals("pflanzen") ? List.of(PLANT_HISTORY)
+                    : type.equals("solar") ? List.of(SOLAR_HISTORY) : List.of(PLANT_HISTORY, SOLAR_HISTORY)) {
+                String label = table == PLANT_HISTORY ? "pflanzen" : "solar";
+                Path file = Files.createTempFile("russkaya-export-", ".gz");
+                files.add(file);
+                long rows = exporter.export(table, guildId, from, to, format, file);
+                size += Files.size(file);
+                uploads.add(FileUpload.fromData(file, label + "_" + range + "." + format.getExtension() + ".gz"));
+                summary.append("\n").append(table == PLANT_HISTORY ? "🌱 " : "☀️ ").append(rows)
+                        .append(table == PLANT_HISTORY ? " Ernten" : " Batterien");
+            }
+            
+            if (size > event.getGuild().getMaxFileSize()) {
+                reply.error("❌ Export ist zu groß (" + size / (1024 * 1024) + " MB) - bitte einen kürzeren Zeitraum wählen.");
+                return;
+            }
+            
+            // Dateien erst löschen, wenn Discord sie hat
+            reply.files(summary.toString(), uploads, () -> deleteQuietly(files));
+            handedOver = true;
+        } finally {
+            exportSlots.release();
+            if (!handedOver) deleteQuietly(files);
         }
-        
-        event.replyEmbeds(embed.build()).queue();
-        stmt.close();
-    }
-    
-    private void handleLogs(SlashCommandInteractionEvent event) throws SQLException {
-        int limit = event.getOption("anzahl") != null ? event.getOption("anzahl").getAsInt() : 10;
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("📋 Letzte Aktivitäten")
-                .setColor(Color.BLUE);
-        
-        // Pflanzen-Logs
-        String plantSql = "SELECT 'PFLANZE' as type, username, 'gesät' as action, location, planted_at as timestamp FROM plants UNION ALL " +
-                         "SELECT 'PFLANZE' as type, fertilized_by as username, 'gedüngt' as action, location, fertilized_at as timestamp FROM plants WHERE fertilized_by IS NOT NULL UNION ALL " +
-                         "SELECT 'PFLANZE' as type, harvested_by as username, 'geerntet' as action, location, harvested_at as timestamp FROM plants WHERE harvested_by IS NOT NULL " +
-                         "ORDER BY timestamp DESC LIMIT ?";
-        
-        PreparedStatement stmt = database.prepareStatement(plantSql);
-        stmt.setInt(1, limit);
-        ResultSet result = stmt.executeQuery();
-        
-        int count = 0;
-        while (result.next() && count < limit) {
-            String logEntry = String.format("**%s** %s eine %s bei *%s*\n🕐 %s",
-                result.getString("username"),
-                result.getString("action"),
-                result.getString("type").toLowerCase(),
-                result.getString("location"),
-                result.getTimestamp("timestamp").toLocalDateTime().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"))
-            );
-            embed.addField("", logEntry, false);
-            count++;
+    }
+    
+    private void handleSettings(SlashCommandInteractionEvent event, CommandReply reply) throws SQLException {
+        long guildId = event.getGuild().getIdLong();
+        OptionMapping plantChannel = event.getOption("pflanzen-kanal");
+        OptionMapping solarChannel = event.getOption("solar-kanal");
+        OptionMapping growth = event.getOption("wachstum");
+        OptionMapping battery = event.getOption("batterie");
+        boolean resetChannels = event.getOption("kanäle-zurücksetzen") != null && event.getOption("kanäle-zurücksetzen").getAsBoolean();
+        
+        // Ohne Optionen nur anzeigen
+        GuildSettings settings;
+        if (event.getOptions().isEmpty()) {
+            settings = guildSettings.get(guildId);
+        } else {
+            settings = guildSettings.update(guildId, current -> {
+                GuildSettings next = resetChannels ? current.withPlantChannel(0).withSolarChannel(0) : current;
+                if (plantChannel != null) next = next.withPlantChannel(plantChannel.getAsLong());
+                if (solarChannel != null) next = next.withSolarChannel(solarChannel.getAsLong());
+                if (growth != null) next = next.withPlantGrowth(growth.getAsInt());
+                if (battery != null) next = next.withSolarBattery(battery.getAsInt());
+                return next;
+            });
         }
         
-        if (count == 0) {
-            embed.setDescription("Keine Logs vorhanden.");
+        reply.embed(ActionEmbeds.settings(settings));
+    }
+    
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("❌ Temporäre Datei " + file + " konnte nicht gelöscht werden: " + e.getMessage());
+            }
         }
-        
-        event.replyEmbeds(embed.build()).queue();
-        stmt.close();
     }
     
-    private void startReminderSystem() {
-        scheduler = Executors.newScheduledThreadPool(2);
+    private void startReminderSystem() throws SQLException {
+        scheduler = new ScheduledThreadPoolExecutor(2);
+        
+        reminderDigest = new ReminderDigest(shardManager, scheduler, outbound, this::isReminderCurrent, this::onReminderMessageSent);
+        
+        // Offene Erinnerungen der eigenen Shards aus der Datenbank laden - überleben so jeden Redeploy
+        reminders = new ReminderService(storage, scheduler, shards, this::fireReminder);
+        core = new CommandCore(storage, database, stats, guildSettings, activePlants, activePanels,
+                plantPages, solarPages, reminders, reminderMessages, entityLocks, autocomplete);
+        int loaded = reminders.start();
+        metrics.register(reminders);
+        metrics.register(entityLocks);
+        metrics.register(autocomplete);
+        metrics.register(this::collectMetrics);
+        
+        // Abgeschlossene Einträge täglich in kleinen Batches archivieren und löschen - betrifft alle
+        // Server und dieselbe Archivdatei, daher nur im Prozess mit Shard 0
+        if (shards.isPrimary()) {
+            retention = new RetentionEngine(database, scheduler, ARCHIVE_DIR, Duration.ofDays(RETENTION_DAYS), RETENTION_MAX_LOCK_MS,
+                    List.of(PLANT_HISTORY, SOLAR_HISTORY));
+            retention.start();
+            metrics.register(retention);
+        }
         
-        // Jeden Tag um 00:00 alte Erinnerungen bereinigen
-        scheduler.scheduleAtFixedRate(this::cleanupOldReminders, 0, 24, TimeUnit.HOURS);
+        // Stündlich prüfen ob der In-Memory Index noch zur Datenbank passt
+        scheduler.scheduleAtFixedRate(this::verifyActiveCache, 1, 1, TimeUnit.HOURS);
         
-        System.out.println("✅ Erinnerungssystem gestartet");
+        System.out.println("✅ Erinnerungssystem gestartet (" + loaded + " offene Erinnerungen geladen)");
     }
     
-    private void schedulePlantReminder(int plantId, String planter, String location, Message originalMessage) {
-        scheduler.schedule(() -> {
-            try {
-                sendPlantReminder(plantId, planter, location, originalMessage.getChannel().asTextChannel());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, 35, TimeUnit.MINUTES); // Erste Erinnerung nach 35 Minuten
+    // Alles, was nur der Bot selbst kennt: Scheduler, Caches, Sammelnachrichten, Reaktionen
+    private void collectMetrics(PrometheusWriter out) {
+        out.single("russkaya_scheduler_queue_depth", "gauge", "Geplante Tasks im Scheduler", scheduler.getQueue().size());
+        out.single("russkaya_scheduler_active_threads", "gauge", "Gerade laufende Scheduler-Tasks", scheduler.getActiveCount());
+        
+        out.family("russkaya_cache_entries", "gauge", "Aktive Einträge im Speicher");
+        out.sample("russkaya_cache_entries", "cache", "plants", activePlants.size());
+        out.sample("russkaya_cache_entries", "cache", "solar_panels", activePanels.size());
+        out.family("russkaya_cache_hits_total", "counter", "Treffer im Speicher");
+        out.sample("russkaya_cache_hits_total", "cache", "plants", activePlants.getHits());
+        out.sample("russkaya_cache_hits_total", "cache", "solar_panels", activePanels.getHits());
+        out.family("russkaya_cache_misses_total", "counter", "Fehlgriffe im Speicher");
+        out.sample("russkaya_cache_misses_total", "cache", "plants", activePlants.getMisses());
+        out.sample("russkaya_cache_misses_total", "cache", "solar_panels", activePanels.getMisses());
+        
+        out.single("russkaya_digest_entries_sent_total", "counter", "Verschickte Erinnerungen in Sammelnachrichten", reminderDigest.getEntriesSent());
+        out.single("russkaya_digest_rest_calls_total", "counter", "REST-Aufrufe für Sammelnachrichten und Reaktionen", reminderDigest.getRestCalls());
+        out.single("russkaya_digest_dropped_total", "counter", "Beim Senden schon veraltete Erinnerungen", reminderDigest.getDropped());
+        
+        out.single("russkaya_reactions_resolved_total", "counter", "Reaktionen, die einer Erinnerung zugeordnet wurden", reminderMessages.getResolved());
+        out.single("russkaya_reactions_ignored_total", "counter", "Reaktionen, die ohne REST-Aufruf verworfen wurden", reminderMessages.getIgnored());
+        out.single("russkaya_reminder_messages_tracked", "gauge", "Erinnerungsnachrichten im Index", reminderMessages.size());
+        
+        out.family("russkaya_shard_status", "gauge", "1 wenn der Shard mit dem Gateway verbunden ist");
+        for (JDA shard : shardManager.getShards()) {
+            out.sample("russkaya_shard_status", "shard", Integer.toString(shard.getShardInfo().getShardId()),
+                    shard.getStatus() == JDA.Status.CONNECTED ? 1 : 0);
+        }
+        out.family("russkaya_shard_guilds", "gauge", "Server pro Shard");
+        for (JDA shard : shardManager.getShards()) {
+            out.sample("russkaya_shard_guilds", "shard", Integer.toString(shard.getShardInfo().getShardId()), shard.getGuildCache().size());
+        }
         
-        scheduler.schedule(() -> {
-            try {
-                sendPlantReminder(plantId, planter, location, originalMessage.getChannel().asTextChannel());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, 55, TimeUnit.MINUTES); // Zweite Erinnerung nach 55 Minuten
+        out.family("russkaya_status_sessions", "gauge", "Blätterbare Statusnachrichten im Cursor-Cache");
+        out.sample("russkaya_status_sessions", "view", plantPages.getPrefix(), plantPages.size());
+        out.sample("russkaya_status_sessions", "view", solarPages.getPrefix(), solarPages.size());
+        out.family("russkaya_status_pages_total", "counter", "Gerenderte Statusseiten");
+        out.sample("russkaya_status_pages_total", "view", plantPages.getPrefix(), plantPages.getPages());
+        out.sample("russkaya_status_pages_total", "view", solarPages.getPrefix(), solarPages.getPages());
+        out.family("russkaya_status_expired_total", "counter", "Klicks auf abgelaufene Statusansichten");
+        out.sample("russkaya_status_expired_total", "view", plantPages.getPrefix(), plantPages.getExpired());
+        out.sample("russkaya_status_expired_total", "view", solarPages.getPrefix(), solarPages.getExpired());
     }
     
-    private void scheduleSolarReminder(int solarId, String placer, String location, Message originalMessage) {
-        scheduler.schedule(() -> {
-            try {
-                sendSolarReminder(solarId, placer, location, originalMessage.getChannel().asTextChannel());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, 30, TimeUnit.MINUTES); // Erste Erinnerung nach 30 Minuten
-        
-        scheduler.schedule(() -> {
-            try {
-                sendSolarReminder(solarId, placer, location, originalMessage.getChannel().asTextChannel());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, 50, TimeUnit.MINUTES); // Zweite Erinnerung nach 50 Minuten
-        
-        // Für Solar: Alle 2 Stunden erinnern
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                sendSolarCollectionReminder(solarId, placer, location, originalMessage.getChannel().asTextChannel());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, SOLAR_BATTERY_TIME, SOLAR_BATTERY_TIME, TimeUnit.HOURS);
+    // Wird vom ReminderService aufgerufen - false heißt Entität ist nicht mehr aktiv
+    private boolean fireReminder(Reminder reminder) {
+        int entityId = (int) reminder.entityId();
+        return switch (reminder.type()) {
+            case PLANT_FERTILIZE -> sendPlantReminder(entityId, reminder.channelId());
+            case SOLAR_REPAIR -> sendSolarReminder(entityId, reminder.channelId());
+            case SOLAR_COLLECT -> sendSolarCollectionReminder(entityId, reminder.channelId());
+        };
     }
     
-    private void sendPlantReminder(int plantId, String planter, String location, TextChannel channel) throws SQLException {
+    // Erinnerungen landen gesammelt im Digest statt einzeln im Kanal
+    private boolean sendPlantReminder(int plantId, long channelId) {
         // Prüfen ob Pflanze noch aktiv ist
-        String checkSql = "SELECT * FROM plants WHERE id = ? AND status = 'planted'";
-        PreparedStatement stmt = database.prepareStatement(checkSql);
-        stmt.setInt(1, plantId);
-        ResultSet result = stmt.executeQuery();
-        
-        if (!result.next()) {
-            stmt.close();
-            return; // Pflanze bereits geerntet
-        }
+        Optional<Plant> plant = activePlants.get(plantId);
         
-        boolean isFertilized = result.getString("fertilized_by") != null;
-        stmt.close();
+        if (plant.isEmpty()) {
+            return false; // Pflanze bereits geerntet
+        }
         
-        if (!isFertilized) {
-            EmbedBuilder embed = new EmbedBuilder()
-                    .setTitle("⚠️ Dünger-Erinnerung!")
-                    .setDescription("Die Pflanze #" + plantId + " von **" + planter + "** bei *" + location + "* muss gedüngt werden!")
-                    .addField("Befehl", "`/pflanze-düngen id:" + plantId + "`", false)
-                    .setColor(Color.RED)
-                    .setTimestamp(LocalDateTime.now());
-            
-            channel.sendMessageEmbeds(embed.build()).queue(message -> {
-                message.addReaction(net.dv8tion.jda.api.entities.emoji.Emoji.fromUnicode("✅")).queue(); // Reaktion für "erledigt"
-            });
+        if (!plant.get().isFertilized()) {
+            reminderDigest.add(channelId, ReminderType.PLANT_FERTILIZE, plantId, Texts.FERTILIZE_REMINDER,
+                    Texts.fertilizeReminder(plant.get()));
         }
+        return true;
     }
     
-    private void sendSolarReminder(int solarId, String placer, String location, TextChannel channel) throws SQLException {
+    private boolean sendSolarReminder(int solarId, long channelId) {
         // Ähnlich wie Plant Reminder, aber für Solar
-        String checkSql = "SELECT * FROM solar_panels WHERE id = ? AND status = 'active'";
-        PreparedStatement stmt = database.prepareStatement(checkSql);
-        stmt.setInt(1, solarId);
-        ResultSet result = stmt.executeQuery();
-        
-        if (!result.next()) {
-            stmt.close();
-            return; // Panel bereits eingesammelt
+        Optional<SolarPanel> panel = activePanels.get(solarId);
+        if (panel.isEmpty()) {
+            return false; // Panel bereits eingesammelt
         }
-        stmt.close();
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("⚠️ Solarpanel-Erinnerung!")
-                .setDescription("Das Solarpanel #" + solarId + " von **" + placer + "** bei *" + location + "* kann repariert werden!")
-                .addField("Info", "Nach 4 Reparaturen kann eine Batterie eingesammelt werden", false)
-                .setColor(Color.ORANGE)
-                .setTimestamp(LocalDateTime.now());
-        
-        channel.sendMessageEmbeds(embed.build()).queue(message -> {
-            message.addReaction(net.dv8tion.jda.api.entities.emoji.Emoji.fromUnicode("🔧")).queue(); // Reaktion für "repariert"
-        });
+        reminderDigest.add(channelId, ReminderType.SOLAR_REPAIR, solarId, Texts.REPAIR_REMINDER,
+                Texts.repairReminder(panel.get()));
+        return true;
     }
     
-    private void sendSolarCollectionReminder(int solarId, String placer, String location, TextChannel channel) throws SQLException {
-        String checkSql = "SELECT * FROM solar_panels WHERE id = ? AND status = 'active'";
-        PreparedStatement stmt = database.prepareStatement(checkSql);
-        stmt.setInt(1, solarId);
-        ResultSet result = stmt.executeQuery();
-        
-        if (!result.next()) {
-            stmt.close();
-            return;
+    private boolean sendSolarCollectionReminder(int solarId, long channelId) {
+        Optional<SolarPanel> panel = activePanels.get(solarId);
+        if (panel.isEmpty()) {
+            return false;
         }
-        stmt.close();
-        
-        EmbedBuilder embed = new EmbedBuilder()
-                .setTitle("🔋 Batterie bereit!")
-                .setDescription("Das Solarpanel #" + solarId + " von **" + placer + "** bei *" + location + "* hat eine Batterie bereit!")
-                .addField("Befehl", "`/solar-sammeln id:" + solarId + " car:[Auto]`", false)
-                .setColor(Color.GREEN)
-                .setTimestamp(LocalDateTime.now());
-        
-        channel.sendMessageEmbeds(embed.build()).queue();
+        reminderDigest.add(channelId, ReminderType.SOLAR_COLLECT, solarId, Texts.COLLECT_REMINDER,
+                Texts.collectReminder(panel.get()));
+        return true;
     }
     
-    private void cleanupOldReminders() {
-        try (Statement stmt = database.createStatement()) {
-            // Alte abgeschlossene Einträge löschen (älter als 7 Tage)
-            String cleanupSql = "DELETE FROM plants WHERE status = 'harvested' AND harvested_at < datetime('now', '-7 days')";
-            stmt.executeUpdate(cleanupSql);
-            
-            cleanupSql = "DELETE FROM solar_panels WHERE status = 'collected' AND collected_at < datetime('now', '-7 days')";
-            stmt.executeUpdate(cleanupSql);
+    // Vom Digest direkt vor dem Senden - geerntete/eingesammelte oder schon gedüngte Einträge fallen raus
+    private boolean isReminderCurrent(ReminderMessageIndex.Ref ref) {
+        return switch (ref.type()) {
+            case PLANT_FERTILIZE -> activePlants.get(ref.entityId()).filter(plant -> !plant.isFertilized()).isPresent();
+            case SOLAR_REPAIR, SOLAR_COLLECT -> activePanels.get(ref.entityId()).isPresent();
+        };
+    }
+    
+    // Vom Digest nach dem Versenden - Index sofort, Datenbank asynchron über den Writer
+    private void onReminderMessageSent(long messageId, MessageEmbed embed, List<ReminderMessageIndex.Ref> fields) {
+        core.reminderSent(messageId, embed, fields);
+    }
+    
+    private void verifyActiveCache() {
+        try {
+            // Läuft auf dem Writer-Thread, damit kein Commit zwischen Lesen und Vergleichen passiert
+            int mismatches = database.write(connection ->
+                    activePlants.reconcile(plants.listAllActive(connection, shards))
+                    + activePanels.reconcile(solarPanels.listAllActive(connection, shards)));
             
-            System.out.println("✅ Alte Einträge bereinigt");
+            System.out.println("✅ Cache geprüft (" + mismatches + " Abweichungen, Pflanzen "
+                    + activePlants.getHits() + "/" + activePlants.getMisses() + ", Solar "
+                    + activePanels.getHits() + "/" + activePanels.getMisses() + " Treffer/Fehlgriffe)");
+            System.out.println("📨 Erinnerungen: " + reminderDigest.getEntriesSent() + " verschickt mit "
+                    + reminderDigest.getRestCalls() + " REST-Aufrufen (" + reminderDigest.getRestCallsSaved() + " eingespart, "
+                    + reminderDigest.getDropped() + " veraltet verworfen)");
+            System.out.println("📤 Ausgang (" + outbound.getQueueDepth() + " wartend): " + outbound.summary());
+            System.out.println("👍 Reaktionen: " + reminderMessages.getResolved() + " zugeordnet, "
+                    + reminderMessages.getIgnored() + " ohne REST-Aufruf verworfen (" + reminderMessages.size() + " Nachrichten im Index)");
+            System.out.println("📊 Commands (" + commands.getQueueDepth() + " in Arbeit): " + commands.getStats().summary());
         } catch (SQLException e) {
-            System.err.println("❌ Fehler beim Bereinigen: " + e.getMessage());
+            System.err.println("❌ Fehler beim Prüfen des Caches: " + e.getMessage());
         }
     }
     
     @Override
     public void onMessageReactionAdd(MessageReactionAddEvent event) {
-        if (event.getUser().isBot()) return;
-        
-        // Sicherere Emoji-Behandlung für JDA 5.x
-        String emoji = null;
-        if (event.getReaction().getEmoji().getType() == net.dv8tion.jda.api.entities.emoji.Emoji.Type.UNICODE) {
-            emoji = event.getReaction().getEmoji().asUnicode().getName();
-        }
-        
-        if (emoji == null) return;
-        
-        // Reaktion auf Dünger-Erinnerungen
-        if ("✅".equals(emoji)) {
-            // Hier könnte man automatisch den Dünger-Status updaten
-            // Für jetzt nur die Nachricht bearbeiten
-            event.getChannel().retrieveMessageById(event.getMessageId()).queue(message -> {
-                if (message.getEmbeds().size() > 0) {
-                    MessageEmbed embed = message.getEmbeds().get(0);
-                    if (embed.getTitle() != null && embed.getTitle().contains("Dünger-Erinnerung")) {
-                        EmbedBuilder newEmbed = new EmbedBuilder(embed)
-                                .setTitle("✅ Erinnerung erledigt!")
-                                .setColor(Color.GREEN);
-                        message.editMessageEmbeds(newEmbed.build()).queue();
-                    }
-                }
-            });
-        }
-        
-        // Reaktion auf Solar-Erinnerungen
-        if ("🔧".equals(emoji)) {
-            event.getChannel().retrieveMessageById(event.getMessageId()).queue(message -> {
-                if (message.getEmbeds().size() > 0) {
-                    MessageEmbed embed = message.getEmbeds().get(0);
-                    if (embed.getTitle() != null && embed.getTitle().contains("Solarpanel-Erinnerung")) {
-                        EmbedBuilder newEmbed = new EmbedBuilder(embed)
-                                .setTitle("🔧 Repariert!")
-                                .setColor(Color.GREEN);
-                        message.editMessageEmbeds(newEmbed.build()).queue();
-                    }
+        if (!event.isFromGuild()) return;
+        if (event.getUserIdLong() == event.getJDA().getSelfUser().getIdLong()) return;
+        if (event.getUser() != null && event.getUser().isBot()) return;
+        if (event.getEmoji().getType() != net.dv8tion.jda.api.entities.emoji.Emoji.Type.UNICODE) return;
+        
+        // Nur Reaktionen auf eigene Erinnerungen - alles andere ohne REST-Aufruf verwerfen
+        long messageId = event.getMessageIdLong();
+        List<ReminderMessageIndex.Ref> open = core.openReminders(messageId, event.getEmoji().getName());
+        if (open.isEmpty()) return;
+        
+        Member member = event.getMember();
+        String userId = event.getUserId();
+        String username = member != null ? member.getUser().getName() : userId;
+        long channelId = event.getChannel().getIdLong();
+        ReactionRequest request = new ReactionRequest(new Actor(event.getGuild().getIdLong(), channelId, userId, username), messageId, open);
+        
+        // Schreibt in die Datenbank, daher nicht auf dem Event-Thread
+        Thread.startVirtualThread(() -> {
+            try {
+                MessageEmbed updated = core.react(request);
+                if (updated != null) {
+                    // Schnelle Reaktionen hintereinander ergeben nur eine Bearbeitung mit dem neuesten Stand
+                    outbound.submitCoalescing(SendPriority.EDIT, Route.messageEdits(channelId), "edit:" + messageId,
+                            () -> event.getChannel().editMessageEmbedsById(messageId, updated));
                 }
-            });
-        }
+            } catch (SQLException e) {
+                System.err.println("❌ Fehler bei Reaktion auf Erinnerung " + messageId + ": " + e.getMessage());
+            }
+        });
     }
 }
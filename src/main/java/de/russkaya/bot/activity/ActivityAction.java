@@ -0,0 +1,37 @@
+package de.russkaya.bot.activity;
+
+import de.russkaya.bot.EntityType;
+
+/**
+ * Alles was im Aktivitätslog landet, mit dem Text für {@code /logs}.
+ */
+public enum ActivityAction {
+    SOW(EntityType.PLANT, "gesät", "eine pflanze"),
+    FERTILIZE(EntityType.PLANT, "gedüngt", "eine pflanze"),
+    HARVEST(EntityType.PLANT, "geerntet", "eine pflanze"),
+    PLACE(EntityType.SOLAR, "aufgestellt", "ein solarpanel"),
+    COLLECT(EntityType.SOLAR, "eingesammelt", "eine batterie"),
+    REPAIR(EntityType.SOLAR, "repariert", "ein solarpanel");
+
+    private final EntityType entityType;
+    private final String verb;
+    private final String object;
+
+    ActivityAction(EntityType entityType, String verb, String object) {
+        this.entityType = entityType;
+        this.verb = verb;
+        this.object = object;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public String getVerb() {
+        return verb;
+    }
+
+    public String getObject() {
+        return object;
+    }
+}
@@ -0,0 +1,11 @@
+package de.russkaya.bot.activity;
+
+import java.time.Instant;
+
+/**
+ * Eine Zeile aus {@code activity_events}. {@code car} ist nur beim Ernten und
+ * Einsammeln gesetzt.
+ */
+public record ActivityEvent(long id, long guildId, Instant occurredAt, ActivityAction action, long entityId,
+                            String userId, String username, String location, String car) {
+}
@@ -0,0 +1,114 @@
+package de.russkaya.bot.activity;
+
+import de.russkaya.bot.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only Log aller Zustandsänderungen. {@link #record} muss in derselben
+ * {@link Database#write} Transaktion wie die Änderung selbst aufgerufen werden.
+ *
+ * Gelesen wird per Keyset-Pagination über die monoton steigende id, daher
+ * kostet jede Seite gleich viel - egal wie lang die Historie ist.
+ */
+public class ActivityRepository {
+
+    private static final String COLUMNS = "id, guild_id, occurred_at, action, entity_id, user_id, username, location, car";
+
+    private static final String INSERT = "INSERT INTO activity_events (guild_id, occurred_at, entity_type, entity_id, action, user_id, username, location, car) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String LATEST = "SELECT " + COLUMNS + " FROM activity_events WHERE guild_id = ? ORDER BY id DESC LIMIT ?";
+    private static final String BEFORE = "SELECT " + COLUMNS + " FROM activity_events WHERE guild_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String AFTER = "SELECT " + COLUMNS + " FROM activity_events WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String MAX_ID = "SELECT COALESCE(MAX(id), 0) FROM activity_events";
+    private static final String KNOWN_USERS = "SELECT username, MAX(user_id) AS user_id FROM activity_events"
+            + " WHERE user_id IS NOT NULL GROUP BY username";
+
+    private final Database database;
+
+    public ActivityRepository(Database database) {
+        this.database = database;
+    }
+
+    public void record(Connection connection, long guildId, ActivityAction action, long entityId, String userId,
+                       String username, String location, String car) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, INSERT);
+        stmt.setLong(1, guildId);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setString(3, action.getEntityType().getKey());
+        stmt.setLong(4, entityId);
+        stmt.setString(5, action.name());
+        stmt.setString(6, userId);
+        stmt.setString(7, username);
+        stmt.setString(8, location);
+        stmt.setString(9, car);
+        database.update(stmt);
+    }
+
+    /**
+     * Neueste Einträge des Servers zuerst. {@code beforeId} ist der Cursor der
+     * vorherigen Seite (die kleinste angezeigte id) oder {@code null} für die erste Seite.
+     */
+    public List<ActivityEvent> page(Connection connection, long guildId, Long beforeId, int limit) throws SQLException {
+        PreparedStatement stmt;
+        if (beforeId == null) {
+            stmt = database.prepare(connection, LATEST);
+            stmt.setLong(1, guildId);
+            stmt.setInt(2, limit);
+        } else {
+            stmt = database.prepare(connection, BEFORE);
+            stmt.setLong(1, guildId);
+            stmt.setLong(2, beforeId);
+            stmt.setInt(3, limit);
+        }
+
+        return database.queryList(stmt, ActivityRepository::map);
+    }
+
+    /**
+     * Älteste zuerst, nach dem Cursor {@code afterId} - zum Durchlaufen der ganzen Historie aller Server.
+     */
+    public List<ActivityEvent> after(Connection connection, long afterId, int limit) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, AFTER);
+        stmt.setLong(1, afterId);
+        stmt.setInt(2, limit);
+        return database.queryList(stmt, ActivityRepository::map);
+    }
+
+    public long maxId(Connection connection) throws SQLException {
+        return database.querySingle(database.prepare(connection, MAX_ID), result -> result.getLong(1)).orElse(0L);
+    }
+
+    /**
+     * Name zu Discord-ID für alle Spieler, von denen schon ein Eintrag mit ID
+     * existiert. Aus alten Zeilen nachgefüllte Einträge haben nur den Namen.
+     */
+    public Map<String, String> knownUserIds(Connection connection) throws SQLException {
+        Map<String, String> userIds = new HashMap<>();
+        for (Map.Entry<String, String> row : database.queryList(database.prepare(connection, KNOWN_USERS),
+                result -> Map.entry(result.getString("username"), result.getString("user_id")))) {
+            userIds.put(row.getKey(), row.getValue());
+        }
+        return userIds;
+    }
+
+    private static ActivityEvent map(ResultSet result) throws SQLException {
+        return new ActivityEvent(
+            result.getLong("id"),
+            result.getLong("guild_id"),
+            Instant.ofEpochMilli(result.getLong("occurred_at")),
+            ActivityAction.valueOf(result.getString("action")),
+            result.getLong("entity_id"),
+            result.getString("user_id"),
+            result.getString("username"),
+            result.getString("location"),
+            result.getString("car")
+        );
+    }
+}
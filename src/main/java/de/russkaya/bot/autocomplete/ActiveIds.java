@@ -0,0 +1,67 @@
+package de.russkaya.bot.autocomplete;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Aktive Pflanzen bzw. Panels eines Servers für die {@code id}-Optionen,
+ * höchste ID zuerst - IDs werden aufsteigend vergeben, das ist also auch das
+ * zuletzt Angelegte.
+ *
+ * Ein getipptes Präfix p trifft genau die Bereiche p·10^k bis (p+1)·10^k - 1
+ * ("12" trifft 12, 120-129, 1200-1299, ...). Die werden vom längsten her
+ * absteigend gelesen, bis genug Vorschläge da sind - eine Anfrage kostet so
+ * nur wenige Schritte in der sortierten Map, egal wie viele Einträge aktiv sind.
+ */
+final class ActiveIds {
+
+    private final TreeMap<Integer, AutocompleteIndex.Active> byId = new TreeMap<>();
+
+    synchronized void put(AutocompleteIndex.Active active) {
+        byId.put(active.id(), active);
+    }
+
+    synchronized void remove(int id) {
+        byId.remove(id);
+    }
+
+    synchronized List<AutocompleteIndex.Active> suggest(String typed, int limit) {
+        List<AutocompleteIndex.Active> result = new ArrayList<>(limit);
+        String prefix = typed == null ? "" : typed.strip();
+        if (prefix.isEmpty()) {
+            addDescending(byId, result, limit);
+            return result;
+        }
+        // IDs beginnen nie mit 0; Discord lässt in Zahlen-Optionen ohnehin nur Ziffern zu
+        if (byId.isEmpty() || prefix.charAt(0) == '0' || prefix.length() > 10 || !prefix.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return result;
+        }
+
+        long from = Long.parseLong(prefix);
+        int longest = Integer.toString(byId.lastKey()).length();
+        long scale = 1;
+        for (int i = prefix.length(); i < longest; i++) {
+            scale *= 10;
+        }
+        for (; scale >= 1 && result.size() < limit; scale /= 10) {
+            long low = from * scale;
+            long high = Math.min((from + 1) * scale - 1, Integer.MAX_VALUE);
+            if (low > Integer.MAX_VALUE) continue;
+            addDescending(byId.subMap((int) low, true, (int) high, true), result, limit);
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    private static void addDescending(NavigableMap<Integer, AutocompleteIndex.Active> range, List<AutocompleteIndex.Active> result, int limit) {
+        for (AutocompleteIndex.Active active : range.descendingMap().values()) {
+            if (result.size() >= limit) return;
+            result.add(active);
+        }
+    }
+}
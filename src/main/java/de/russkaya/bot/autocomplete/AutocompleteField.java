@@ -0,0 +1,25 @@
+package de.russkaya.bot.autocomplete;
+
+import de.russkaya.bot.activity.ActivityAction;
+
+/**
+ * Freitext-Optionen mit Vorschlägen. Standorte von Pflanzen und Panels werden
+ * getrennt geführt, Autos sind für Ernte und Batterie dieselben.
+ */
+public enum AutocompleteField {
+    PLANT_LOCATION,
+    SOLAR_LOCATION,
+    CAR;
+
+    /**
+     * Welches Feld eine Aktion im Log füllt, {@code null} wenn keins.
+     */
+    public static AutocompleteField of(ActivityAction action) {
+        return switch (action) {
+            case SOW -> PLANT_LOCATION;
+            case PLACE -> SOLAR_LOCATION;
+            case HARVEST, COLLECT -> CAR;
+            case FERTILIZE, REPAIR -> null;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package de.russkaya.bot.autocomplete;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vorschläge für die Autocomplete-Optionen: bekannte Standorte und Autos
+ * ({@link TermIndex}) sowie aktive IDs ({@link ActiveIds}), jeweils pro Server.
+ * Wird beim Start einmal aus der Datenbank geladen ({@link AutocompleteLoader})
+ * und danach wie der {@code ActiveEntityIndex} nur noch nach jedem
+ * erfolgreichen Commit fortgeschrieben - eine Anfrage beim Tippen fragt nie
+ * die Datenbank.
+ */
+public class AutocompleteIndex implements MetricsCollector {
+
+    /**
+     * Mehr Vorschläge nimmt Discord nicht an.
+     */
+    public static final int MAX_CHOICES = 25;
+
+    private final Map<TermKey, TermIndex> terms = new ConcurrentHashMap<>();
+    private final Map<IdKey, ActiveIds> active = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestNanos = new LongAdder();
+
+    public void loadActive(Collection<Active> entities) {
+        active.clear();
+        entities.forEach(this::added);
+    }
+
+    /**
+     * Fügt Verwendungen aus dem Log hinzu. Die Reihenfolge spielt keine Rolle,
+     * daher darf das parallel zu {@link #used} laufen.
+     */
+    public void addUsages(Collection<Usage> usages) {
+        for (Usage usage : usages) {
+            termIndex(usage.guildId(), usage.field()).add(usage.text(), usage.count(), usage.at());
+        }
+    }
+
+    /**
+     * Ein Standort bzw. Auto wurde gerade gespeichert.
+     */
+    public void used(long guildId, AutocompleteField field, String text) {
+        termIndex(guildId, field).use(text, System.currentTimeMillis());
+    }
+
+    public void added(Active entity) {
+        active.computeIfAbsent(new IdKey(entity.guildId(), entity.type()), key -> new ActiveIds()).put(entity);
+    }
+
+    public void removed(long guildId, EntityType type, int id) {
+        ActiveIds ids = active.get(new IdKey(guildId, type));
+        if (ids != null) ids.remove(id);
+    }
+
+    /**
+     * Passende Standorte bzw. Autos, die wichtigsten zuerst; leere Eingabe liefert die wichtigsten überhaupt.
+     */
+    public List<String> terms(long guildId, AutocompleteField field, String typed) {
+        long started = System.nanoTime();
+        TermIndex index = terms.get(new TermKey(guildId, field));
+        List<String> result = index == null ? List.of() : index.suggest(typed, System.currentTimeMillis(), MAX_CHOICES);
+        record(started);
+        return result;
+    }
+
+    /**
+     * Aktive Einträge, deren ID mit {@code typed} beginnt, neueste zuerst.
+     */
+    public List<Active> active(long guildId, EntityType type, String typed) {
+        long started = System.nanoTime();
+        ActiveIds ids = active.get(new IdKey(guildId, type));
+        List<Active> result = ids == null ? List.of() : ids.suggest(typed, MAX_CHOICES);
+        record(started);
+        return result;
+    }
+
+    public int termCount() {
+        int count = 0;
+        for (TermIndex index : terms.values()) count += index.size();
+        return count;
+    }
+
+    public int activeCount() {
+        int count = 0;
+        for (ActiveIds ids : active.values()) count += ids.size();
+        return count;
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.single("russkaya_autocomplete_requests_total", "counter", "Beantwortete Autocomplete-Anfragen", requests.sum());
+        out.single("russkaya_autocomplete_seconds_total", "counter", "Rechenzeit aller Autocomplete-Anfragen",
+                requestNanos.sum() / 1_000_000_000.0);
+        out.single("russkaya_autocomplete_terms", "gauge", "Bekannte Standorte und Autos aller Server", termCount());
+        out.single("russkaya_autocomplete_active_ids", "gauge", "Aktive IDs im Autocomplete-Index", activeCount());
+    }
+
+    private TermIndex termIndex(long guildId, AutocompleteField field) {
+        return terms.computeIfAbsent(new TermKey(guildId, field), key -> new TermIndex());
+    }
+
+    private void record(long started) {
+        requests.increment();
+        requestNanos.add(System.nanoTime() - started);
+    }
+
+    /**
+     * {@code count} Verwendungen von {@code text}, zuletzt bzw. gesammelt um {@code at}.
+     */
+    public record Usage(long guildId, AutocompleteField field, String text, long count, long at) {}
+
+    public record Active(long guildId, EntityType type, int id, String location, String username, long createdAt) {}
+
+    private record TermKey(long guildId, AutocompleteField field) {}
+
+    private record IdKey(long guildId, EntityType type) {}
+}
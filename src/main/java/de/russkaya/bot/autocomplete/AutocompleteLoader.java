@@ -0,0 +1,66 @@
+package de.russkaya.bot.autocomplete;
+
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.ShardRange;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Füllt den {@link AutocompleteIndex} beim Start. Die aktiven IDs sind schnell
+ * gelesen und kommen sofort; Standorte und Autos stehen im ganzen
+ * Aktivitätslog und werden in ID-Bereichen nachgeladen, während der Bot
+ * schon Commands annimmt - bis dahin gibt es eben weniger Vorschläge.
+ *
+ * Was Commands währenddessen speichern, tragen sie selbst ein. Doppelt
+ * gezählt wird nichts: das Nachladen endet bei der letzten Log-ID von vor dem
+ * Start ({@link #lastLogId}).
+ */
+public class AutocompleteLoader {
+
+    private static final long CHUNK = 100_000;
+
+    private final Database database;
+    private final ActivityRepository activity;
+    private final AutocompleteRepository repository;
+    private final AutocompleteIndex index;
+
+    public AutocompleteLoader(Database database, ActivityRepository activity, AutocompleteRepository repository,
+                              AutocompleteIndex index) {
+        this.database = database;
+        this.activity = activity;
+        this.repository = repository;
+        this.index = index;
+    }
+
+    /**
+     * @return Anzahl aktiver Einträge
+     */
+    public int loadActive(ShardRange shards) throws SQLException {
+        List<AutocompleteIndex.Active> active = database.read(connection -> repository.active(connection, shards));
+        index.loadActive(active);
+        return active.size();
+    }
+
+    /**
+     * Muss gelesen werden, bevor Commands angenommen werden.
+     */
+    public long lastLogId() throws SQLException {
+        return database.read(activity::maxId);
+    }
+
+    /**
+     * Liest das Log bis einschließlich {@code untilId}, in kurzen Lesezugriffen.
+     */
+    public void loadHistory(ShardRange shards, long untilId) throws SQLException {
+        long started = System.currentTimeMillis();
+        for (long afterId = 0; afterId < untilId; afterId += CHUNK) {
+            long from = afterId;
+            long until = Math.min(afterId + CHUNK, untilId);
+            index.addUsages(database.read(connection -> repository.usages(connection, shards, from, until)));
+        }
+        System.out.println("✅ Autocomplete: " + index.termCount() + " Standorte und Autos aus dem Log geladen ("
+                + (System.currentTimeMillis() - started) + " ms)");
+    }
+}
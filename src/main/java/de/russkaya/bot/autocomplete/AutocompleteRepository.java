@@ -0,0 +1,66 @@
+package de.russkaya.bot.autocomplete;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.ShardRange;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Liest den Startzustand des {@link AutocompleteIndex}: Standorte und Autos
+ * aus dem Aktivitätslog, aktive IDs aus den Tabellen - nur für die Server der
+ * eigenen Shards. Im Betrieb wird nichts mehr von hier gelesen.
+ */
+public class AutocompleteRepository {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    // Ein ID-Bereich des Logs, pro Tag zusammengefasst: hält das Ergebnis klein, die Gewichtung nach Alter bleibt tagesgenau
+    private static final String USAGES = "SELECT guild_id, action, term, COUNT(*) AS uses, MAX(occurred_at) AS last_used FROM ("
+            + "SELECT guild_id, action, occurred_at, CASE WHEN action IN ('HARVEST', 'COLLECT') THEN car ELSE location END AS term"
+            + " FROM activity_events WHERE id > ? AND id <= ? AND action IN ('SOW', 'PLACE', 'HARVEST', 'COLLECT')"
+            + " AND " + ShardRange.sqlFilter("guild_id")
+            + ") WHERE term IS NOT NULL GROUP BY guild_id, action, term, occurred_at / " + DAY_MS;
+    private static final String ACTIVE = "SELECT 'plant' AS type, guild_id, id, location, username, planted_at AS created_at"
+            + " FROM plants WHERE status = 'planted' AND " + ShardRange.sqlFilter("guild_id")
+            + " UNION ALL SELECT 'solar', guild_id, id, location, username, placed_at"
+            + " FROM solar_panels WHERE status = 'active' AND " + ShardRange.sqlFilter("guild_id");
+
+    private final Database database;
+
+    public AutocompleteRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Verwendungen aus den Log-Einträgen mit {@code afterId < id <= untilId}.
+     */
+    public List<AutocompleteIndex.Usage> usages(Connection connection, ShardRange shards, long afterId, long untilId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, USAGES);
+        stmt.setLong(1, afterId);
+        stmt.setLong(2, untilId);
+        shards.bind(stmt, 3);
+        return database.queryList(stmt, result -> new AutocompleteIndex.Usage(
+                result.getLong("guild_id"),
+                AutocompleteField.of(ActivityAction.valueOf(result.getString("action"))),
+                result.getString("term"),
+                result.getLong("uses"),
+                result.getLong("last_used")));
+    }
+
+    public List<AutocompleteIndex.Active> active(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, ACTIVE);
+        shards.bind(stmt, shards.bind(stmt, 1));
+        return database.queryList(stmt, result -> new AutocompleteIndex.Active(
+                result.getLong("guild_id"),
+                EntityType.fromKey(result.getString("type")),
+                result.getInt("id"),
+                result.getString("location"),
+                result.getString("username"),
+                result.getLong("created_at")));
+    }
+}
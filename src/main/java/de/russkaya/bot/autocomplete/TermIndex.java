@@ -0,0 +1,134 @@
+package de.russkaya.bot.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bekannte Werte eines Feldes auf einem Server (Standorte bzw. Autos) mit
+ * Präfix-Suche über jeden Wortanfang - "bay" findet auch "Paleto Bay".
+ * Groß-/Kleinschreibung und doppelte Leerzeichen zählen nicht: solche
+ * Varianten sind ein Eintrag, angezeigt in der meistbenutzten Schreibweise.
+ *
+ * Rangfolge ist die Häufigkeit mit einer Halbwertszeit von
+ * {@link #HALF_LIFE_MS}: was oft und vor kurzem benutzt wurde, steht oben,
+ * alte Gewohnheiten rutschen langsam nach unten.
+ *
+ * Synchronisiert pro Server und Feld - ein Aufruf dauert Mikrosekunden.
+ */
+final class TermIndex {
+
+    static final long HALF_LIFE_MS = TimeUnit.DAYS.toMillis(7);
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Comparator<Ranked> BEST_FIRST =
+            Comparator.comparingDouble(Ranked::score).reversed().thenComparing(Ranked::label);
+
+    // "<ab Wortanfang>\0<Schlüssel>" -> Schlüssel; alle Treffer eines Präfixes liegen am Stück
+    private final TreeMap<String, String> wordStarts = new TreeMap<>();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    synchronized void use(String text, long at) {
+        add(text, 1, at);
+    }
+
+    /**
+     * {@code count} Verwendungen zum Zeitpunkt {@code at} - beim Laden pro Tag zusammengefasst.
+     */
+    synchronized void add(String text, long count, long at) {
+        String label = clean(text);
+        if (label.isEmpty()) return;
+        String key = label.toLowerCase(Locale.ROOT);
+        Term term = terms.get(key);
+        if (term == null) {
+            term = new Term();
+            terms.put(key, term);
+            for (int start : wordStarts(key)) {
+                wordStarts.put(key.substring(start) + SEPARATOR + key, key);
+            }
+        }
+        term.add(label, count, at);
+    }
+
+    synchronized List<String> suggest(String typed, long now, int limit) {
+        String prefix = clean(typed).toLowerCase(Locale.ROOT);
+        Collection<Term> matches;
+        if (prefix.isEmpty()) {
+            matches = terms.values();
+        } else {
+            // Ein Wert kann über mehrere Wortanfänge passen
+            Set<Term> found = new HashSet<>();
+            for (String key : wordStarts.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                found.add(terms.get(key));
+            }
+            matches = found;
+        }
+
+        List<Ranked> ranked = new ArrayList<>(matches.size());
+        for (Term term : matches) {
+            ranked.add(new Ranked(term.label, term.scoreAt(now)));
+        }
+        ranked.sort(BEST_FIRST);
+        List<String> labels = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && labels.size() < limit; i++) {
+            labels.add(ranked.get(i).label());
+        }
+        return labels;
+    }
+
+    synchronized int size() {
+        return terms.size();
+    }
+
+    private static String clean(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    private static List<Integer> wordStarts(String key) {
+        List<Integer> starts = new ArrayList<>(4);
+        starts.add(0);
+        for (int i = 1; i < key.length(); i++) {
+            if (Character.isLetterOrDigit(key.charAt(i)) && !Character.isLetterOrDigit(key.charAt(i - 1))) starts.add(i);
+        }
+        return starts;
+    }
+
+    private static double decay(long millis) {
+        return Math.pow(0.5, (double) millis / HALF_LIFE_MS);
+    }
+
+    private record Ranked(String label, double score) {}
+
+    private static final class Term {
+
+        private final Map<String, Long> spellings = new HashMap<>(2);
+        private String label;
+        private double weight;
+        private long lastUsed;
+
+        void add(String spelling, long count, long at) {
+            long used = spellings.merge(spelling, count, Long::sum);
+            if (label == null || used > spellings.get(label)) label = spelling;
+
+            // Gewicht bezieht sich immer auf lastUsed; ältere Verwendungen zählen entsprechend weniger
+            if (at >= lastUsed) {
+                weight = weight * decay(at - lastUsed) + count;
+                lastUsed = at;
+            } else {
+                weight += count * decay(lastUsed - at);
+            }
+        }
+
+        double scoreAt(long now) {
+            return weight * decay(Math.max(0, now - lastUsed));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package de.russkaya.bot.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-Memory Index aller aktiven Entitäten (wachsende Pflanzen bzw. aktive
+ * Panels) nach id. Wird beim Start aus der Datenbank geladen und danach nur
+ * noch von unseren eigenen Handlern nach jedem erfolgreichen Commit gepflegt
+ * (Write-Through) - daher ist ein Fehlen im Index gleichbedeutend mit "nicht
+ * mehr aktiv". Die Statusseiten blättern per Keyset in SQL und brauchen den
+ * Index nicht.
+ *
+ * Lesen ist lock-frei, Schreiben ist synchronisiert, damit {@link #reconcile}
+ * einen festen Stand vergleicht.
+ */
+public class ActiveEntityIndex<T> {
+
+    private final String name;
+    private final ToIntFunction<T> idOf;
+
+    private final Map<Integer, T> byId = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ActiveEntityIndex(String name, ToIntFunction<T> idOf) {
+        this.name = name;
+        this.idOf = idOf;
+    }
+
+    public synchronized void load(Collection<T> entities) {
+        byId.clear();
+        entities.forEach(this::put);
+    }
+
+    public synchronized void put(T entity) {
+        byId.put(idOf.applyAsInt(entity), entity);
+    }
+
+    public synchronized void remove(int id) {
+        byId.remove(id);
+    }
+
+    public Optional<T> get(int id) {
+        T entity = byId.get(id);
+        if (entity != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return Optional.ofNullable(entity);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Vergleicht den Index mit dem aktuellen Stand der Datenbank. Bei
+     * Abweichungen wird der Index durch die Datenbank ersetzt.
+     *
+     * @return Anzahl abweichender Einträge (0 = konsistent)
+     */
+    public synchronized int reconcile(Collection<T> fromDatabase) {
+        Map<Integer, T> expected = new HashMap<>();
+        for (T entity : fromDatabase) {
+            expected.put(idOf.applyAsInt(entity), entity);
+        }
+
+        int mismatches = 0;
+        for (Map.Entry<Integer, T> entry : expected.entrySet()) {
+            if (!Objects.equals(byId.get(entry.getKey()), entry.getValue())) mismatches++;
+        }
+        for (Integer id : byId.keySet()) {
+            if (!expected.containsKey(id)) mismatches++;
+        }
+
+        if (mismatches > 0) {
+            System.err.println("⚠️ Cache " + name + ": " + mismatches + " Abweichungen zur Datenbank - wird neu geladen");
+            load(fromDatabase);
+        }
+        return mismatches;
+    }
+}
@@ -0,0 +1,15 @@
+package de.russkaya.bot.command;
+
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+
+import java.util.List;
+
+/**
+ * Vorschläge für eine Option, während getippt wird. Läuft direkt auf dem JDA
+ * Event-Thread und darf daher nicht blockieren - nur aus dem Speicher lesen.
+ */
+@FunctionalInterface
+public interface AutocompleteHandler {
+    List<Command.Choice> complete(CommandAutoCompleteInteractionEvent event);
+}
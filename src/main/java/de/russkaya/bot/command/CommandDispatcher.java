@@ -0,0 +1,200 @@
+package de.russkaya.bot.command;
+
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Nimmt Slash-Commands vom JDA Event-Thread entgegen und führt sie auf einem
+ * virtuellen Thread aus, damit blockierendes JDBC nie den Gateway aufhält.
+ *
+ * Commands die sicher länger dauern (Schreibzugriffe) werden sofort per
+ * {@code deferReply()} bestätigt. Alle anderen bekommen ein Zeitbudget - ist
+ * bis dahin keine Antwort raus, wird ebenfalls deferred, so dass Discords
+ * 3-Sekunden-Frist nie gerissen wird.
+ *
+ * Buttons und Menüs laufen genauso; zugeordnet werden sie über das Präfix
+ * ihrer Komponenten-ID (alles vor dem ersten {@code :}).
+ *
+ * Autocomplete ist die Ausnahme: die Vorschläge kommen aus dem Speicher und
+ * werden direkt auf dem Event-Thread beantwortet, ohne Umweg über einen
+ * virtuellen Thread.
+ *
+ * Jede Interaktions-ID wird nur einmal ausgeführt; erneut zugestellte Events
+ * werden ohne Antwort verworfen (siehe {@link RecentInteractions}).
+ */
+public class CommandDispatcher implements AutoCloseable, MetricsCollector {
+
+    private static final long REPLY_BUDGET_MS = 1500;
+    private static final int RECENT_INTERACTIONS = 10_000;
+
+    private final OutboundQueue outbound;
+    private final Map<String, Registration> commands = new ConcurrentHashMap<>();
+    private final Map<String, ComponentHandler> components = new ConcurrentHashMap<>();
+    private final Map<String, AutocompleteHandler> autocompletes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService deferTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "command-defer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final CommandStats stats = new CommandStats();
+    private final RecentInteractions recent = new RecentInteractions(RECENT_INTERACTIONS);
+
+    public CommandDispatcher(OutboundQueue outbound) {
+        this.outbound = outbound;
+    }
+
+    /**
+     * @param deferImmediately true für Commands, die praktisch immer länger als das Budget brauchen
+     */
+    public void register(String name, boolean deferImmediately, CommandHandler handler) {
+        commands.put(name, new Registration(handler, deferImmediately));
+    }
+
+    public void registerComponent(String prefix, ComponentHandler handler) {
+        components.put(prefix, handler);
+    }
+
+    public void registerAutocomplete(String command, String option, AutocompleteHandler handler) {
+        autocompletes.put(command + " " + option, handler);
+    }
+
+    public void dispatch(SlashCommandInteractionEvent event) {
+        if (isDuplicate(event.getIdLong(), event.getName())) return;
+        long received = System.nanoTime();
+        CommandReply reply = new CommandReply(event, outbound);
+        Registration registration = commands.get(event.getName());
+
+        if (registration == null) {
+            reply.error("❌ Unbekannter Command!");
+            return;
+        }
+
+        execute(event.getName(), received, registration.deferImmediately(), reply::defer, reply::error,
+                () -> registration.handler().handle(event, reply));
+    }
+
+    /**
+     * Button-Klick oder Menüauswahl. In der Statistik erscheint sie als
+     * {@code <präfix>:<aktion>}, also mit dem letzten Teil der Komponenten-ID.
+     */
+    public void dispatchComponent(GenericComponentInteractionCreateEvent event) {
+        if (isDuplicate(event.getIdLong(), event.getComponentId())) return;
+        long received = System.nanoTime();
+        ComponentReply reply = new ComponentReply(event, outbound);
+        String componentId = event.getComponentId();
+        int separator = componentId.indexOf(':');
+        String prefix = separator < 0 ? componentId : componentId.substring(0, separator);
+        ComponentHandler handler = components.get(prefix);
+
+        if (handler == null) {
+            reply.error("❌ Unbekannte Aktion!");
+            return;
+        }
+
+        String name = separator < 0 ? prefix : prefix + componentId.substring(componentId.lastIndexOf(':'));
+        execute(name, received, false, reply::defer, reply::error, () -> handler.handle(event, reply));
+    }
+
+    /**
+     * Vorschläge für die Option, in der gerade getippt wird. Ohne Handler oder
+     * bei einem Fehler gibt es eine leere Liste - der Nutzer kann trotzdem
+     * frei weitertippen.
+     */
+    public void dispatchAutocomplete(CommandAutoCompleteInteractionEvent event) {
+        AutocompleteHandler handler = autocompletes.get(event.getName() + " " + event.getFocusedOption().getName());
+        List<Command.Choice> choices = List.of();
+        if (handler != null) {
+            try {
+                choices = handler.complete(event);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Autocomplete für /" + event.getName() + " fehlgeschlagen: " + e.getMessage());
+            }
+        }
+        List<Command.Choice> reply = choices;
+        outbound.submit(SendPriority.REPLY, Route.interaction(), () -> event.replyChoices(reply));
+    }
+
+    /**
+     * Anzahl der Commands, die angenommen aber noch nicht fertig sind.
+     */
+    public int getQueueDepth() {
+        return inFlight.get();
+    }
+
+    public CommandStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        stats.collect(out);
+        out.single("russkaya_commands_in_flight", "gauge", "Angenommene, noch laufende Commands", inFlight.get());
+        out.single("russkaya_interactions_duplicate_total", "counter", "Erneut zugestellte Interaktionen, nicht ausgeführt", recent.getDuplicates());
+    }
+
+    @Override
+    public void close() {
+        deferTimer.shutdownNow();
+        executor.close();
+    }
+
+    private boolean isDuplicate(long interactionId, String name) {
+        if (recent.firstSeen(interactionId)) return false;
+        System.out.println("⚠️ Interaktion " + interactionId + " (" + name + ") doppelt zugestellt - ignoriert");
+        return true;
+    }
+
+    private void execute(String name, long received, boolean deferImmediately, Runnable defer,
+                         Consumer<String> error, Task task) {
+        ScheduledFuture<?> deferral = null;
+        if (deferImmediately) {
+            defer.run();
+        } else {
+            deferral = deferTimer.schedule(defer, REPLY_BUDGET_MS, TimeUnit.MILLISECONDS);
+        }
+
+        ScheduledFuture<?> pendingDeferral = deferral;
+        inFlight.incrementAndGet();
+        executor.execute(() -> {
+            boolean failed = false;
+            try {
+                task.run();
+            } catch (Exception e) {
+                failed = true;
+                error.accept("❌ Ein Fehler ist aufgetreten: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                if (pendingDeferral != null) pendingDeferral.cancel(false);
+                inFlight.decrementAndGet();
+                stats.record(name, System.nanoTime() - received, failed);
+            }
+        });
+    }
+
+    private record Registration(CommandHandler handler, boolean deferImmediately) {}
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,12 @@
+package de.russkaya.bot.command;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+
+/**
+ * Ein Slash-Command. Läuft auf einem virtuellen Thread und darf blockieren;
+ * geantwortet wird ausschließlich über {@link CommandReply}.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+    void handle(SlashCommandInteractionEvent event, CommandReply reply) throws Exception;
+}
@@ -0,0 +1,98 @@
+package de.russkaya.bot.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.russkaya.bot.db.Database;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lädt die globalen Slash-Commands nur hoch, wenn sie sich geändert haben.
+ *
+ * Verglichen wird ein SHA-256 über das JSON, das JDA an Discord schicken würde
+ * (Schlüssel sortiert, damit die Reihenfolge in JDAs Maps keine Rolle spielt),
+ * zusammen mit der Application-ID. Der Hash steht in {@code bot_state} und wird
+ * erst nach erfolgreichem Upload geschrieben - schlägt der fehl, versucht es
+ * der nächste Start erneut.
+ */
+public class CommandRegistration {
+
+    private static final String STATE_KEY = "commands_hash";
+
+    private static final ObjectMapper CANONICAL = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private final Database database;
+
+    public CommandRegistration(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * @param force auch ohne Änderung hochladen (z.B. wenn Commands im Developer Portal gelöscht wurden)
+     * @return erledigt mit {@code true}, wenn hochgeladen wurde, {@code false} wenn nichts zu tun war
+     */
+    public CompletableFuture<Boolean> sync(JDA shard, List<? extends CommandData> definitions, boolean force) throws SQLException {
+        String hash = hash(shard.getSelfUser().getApplicationIdLong(), definitions);
+        if (!force && hash.equals(database.read(CommandRegistration::storedHash))) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return shard.updateCommands().addCommands(definitions).submit()
+                .thenCompose(commands -> database.submit(connection -> {
+                    storeHash(connection, hash);
+                    return true;
+                }));
+    }
+
+    /**
+     * Stabiler Hash der Command-Definitionen; Reihenfolge der Commands und Optionen zählt.
+     */
+    public static String hash(long applicationId, List<? extends CommandData> definitions) {
+        try {
+            List<Object> canonical = new ArrayList<>(definitions.size());
+            for (CommandData command : definitions) {
+                canonical.add(CANONICAL.readValue(command.toData().toJson(), Object.class));
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Long.toString(applicationId).getBytes(StandardCharsets.US_ASCII));
+            digest.update(CANONICAL.writeValueAsBytes(canonical));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private static String storedHash(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT value FROM bot_state WHERE key = ?")) {
+            stmt.setString(1, STATE_KEY);
+            try (ResultSet result = stmt.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    private static void storeHash(Connection connection, String hash) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO bot_state (key, value) VALUES (?, ?) ON CONFLICT (key) DO UPDATE SET value = excluded.value")) {
+            stmt.setString(1, STATE_KEY);
+            stmt.setString(2, hash);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package de.russkaya.bot.command;
+
+import de.russkaya.bot.core.Reply;
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.utils.FileUpload;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Antwortet auf eine Interaktion - egal ob sie schon per {@link #defer()}
+ * bestätigt wurde oder nicht. Discord verlangt innerhalb von 3 Sekunden eine
+ * Bestätigung; wer zuerst kommt (Antwort oder Defer) gewinnt, danach geht
+ * alles über den InteractionHook. Gesendet wird mit höchster Priorität über
+ * die {@link OutboundQueue}.
+ */
+public class CommandReply implements Reply {
+
+    private final IReplyCallback callback;
+    private final OutboundQueue outbound;
+    private final AtomicBoolean acknowledged = new AtomicBoolean();
+
+    public CommandReply(IReplyCallback callback, OutboundQueue outbound) {
+        this.callback = callback;
+        this.outbound = outbound;
+    }
+
+    /**
+     * Bestätigt die Interaktion sofort ("Bot denkt nach..."). Wirkungslos wenn
+     * bereits geantwortet wurde.
+     */
+    public void defer() {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(callback::deferReply);
+        }
+    }
+
+    @Override
+    public void embed(MessageEmbed embed) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> callback.replyEmbeds(embed));
+        } else {
+            // Der Hook wartet selbst bis das deferReply bei Discord angekommen ist
+            send(() -> callback.getHook().editOriginalEmbeds(embed));
+        }
+    }
+
+    /**
+     * Embed mit Buttons bzw. Menüs darunter.
+     */
+    @Override
+    public void embed(MessageEmbed embed, List<? extends LayoutComponent> components) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> callback.replyEmbeds(embed).setComponents(components));
+        } else {
+            send(() -> callback.getHook().editOriginalEmbeds(embed).setComponents(components));
+        }
+    }
+
+    /**
+     * Nachricht mit Dateianhängen. {@code onSent} läuft, sobald Discord die
+     * Dateien angenommen hat (z.B. um temporäre Dateien zu löschen).
+     */
+    public void files(String message, List<FileUpload> files, Runnable onSent) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> callback.reply(message).setFiles(files), onSent);
+        } else {
+            send(() -> callback.getHook().editOriginal(message).setEmbeds().setFiles(files), onSent);
+        }
+    }
+
+    /**
+     * Fehlermeldung - ephemeral wenn noch möglich, sonst ersetzt sie die
+     * "denkt nach..." Nachricht.
+     */
+    @Override
+    public void error(String message) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> callback.reply(message).setEphemeral(true));
+        } else {
+            send(() -> callback.getHook().editOriginal(message).setEmbeds());
+        }
+    }
+
+    private <T> void send(Supplier<? extends RestAction<T>> action) {
+        outbound.submit(SendPriority.REPLY, Route.interaction(), action);
+    }
+
+    private <T> void send(Supplier<? extends RestAction<T>> action, Runnable onSent) {
+        outbound.submit(SendPriority.REPLY, Route.interaction(), action, result -> onSent.run());
+    }
+}
@@ -0,0 +1,57 @@
+package de.russkaya.bot.command;
+
+import de.russkaya.bot.metrics.Histogram;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeiten pro Command seit dem Start - als Histogramm für {@code /metrics}
+ * und zusammengefasst (Anzahl, Durchschnitt, Maximum) fürs Log.
+ */
+public class CommandStats implements MetricsCollector {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public void record(String command, long nanos, boolean failed) {
+        Entry entry = entries.get(command);
+        if (entry == null) entry = entries.computeIfAbsent(command, c -> new Entry());
+        entry.latency.record(nanos);
+        if (failed) entry.failures.increment();
+    }
+
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Entry> e : new TreeMap<>(entries).entrySet()) {
+            Entry entry = e.getValue();
+            long count = entry.latency.count();
+            if (count == 0) continue;
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(e.getKey())
+                    .append(": ").append(count).append("x")
+                    .append(" Ø ").append(entry.latency.sumNanos() / count / 1_000_000).append(" ms")
+                    .append(" max ").append(entry.latency.maxNanos() / 1_000_000).append(" ms");
+            long failures = entry.failures.sum();
+            if (failures > 0) builder.append(" (").append(failures).append(" Fehler)");
+        }
+        return builder.length() == 0 ? "keine Commands" : builder.toString();
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        Map<String, Entry> sorted = new TreeMap<>(entries);
+        out.family("russkaya_command_duration_seconds", "histogram", "Laufzeit pro Slash-Command vom Empfang bis zum Ende des Handlers");
+        sorted.forEach((command, entry) -> out.histogram("russkaya_command_duration_seconds", "command", command, entry.latency));
+        out.family("russkaya_command_failures_total", "counter", "Commands, deren Handler mit einer Exception endete");
+        sorted.forEach((command, entry) -> out.sample("russkaya_command_failures_total", "command", command, entry.failures.sum()));
+    }
+
+    private static final class Entry {
+        final Histogram latency = new Histogram();
+        final LongAdder failures = new LongAdder();
+    }
+}
@@ -0,0 +1,13 @@
+package de.russkaya.bot.command;
+
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
+
+/**
+ * Klick auf einen Button bzw. Auswahl in einem Menü. Läuft wie ein
+ * {@link CommandHandler} auf einem virtuellen Thread; geantwortet wird über
+ * {@link ComponentReply}, das die angeklickte Nachricht bearbeitet.
+ */
+@FunctionalInterface
+public interface ComponentHandler {
+    void handle(GenericComponentInteractionCreateEvent event, ComponentReply reply) throws Exception;
+}
@@ -0,0 +1,59 @@
+package de.russkaya.bot.command;
+
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.ComponentInteraction;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Gegenstück zu {@link CommandReply} für Buttons und Menüs: statt einer neuen
+ * Antwort wird die Nachricht bearbeitet, an der die Komponente hängt.
+ * {@link #defer()} bestätigt den Klick, ohne die Nachricht zu verändern.
+ */
+public class ComponentReply {
+
+    private final ComponentInteraction interaction;
+    private final OutboundQueue outbound;
+    private final AtomicBoolean acknowledged = new AtomicBoolean();
+
+    public ComponentReply(ComponentInteraction interaction, OutboundQueue outbound) {
+        this.interaction = interaction;
+        this.outbound = outbound;
+    }
+
+    public void defer() {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(interaction::deferEdit);
+        }
+    }
+
+    public void edit(MessageEmbed embed, List<? extends LayoutComponent> components) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> interaction.editMessageEmbeds(embed).setComponents(components));
+        } else {
+            send(() -> interaction.getHook().editOriginalEmbeds(embed).setComponents(components));
+        }
+    }
+
+    /**
+     * Fehlermeldung nur für den Klickenden, die Nachricht bleibt unverändert.
+     */
+    public void error(String message) {
+        if (acknowledged.compareAndSet(false, true)) {
+            send(() -> interaction.reply(message).setEphemeral(true));
+        } else {
+            send(() -> interaction.getHook().sendMessage(message).setEphemeral(true));
+        }
+    }
+
+    private <T> void send(Supplier<? extends RestAction<T>> action) {
+        outbound.submit(SendPriority.REPLY, Route.interaction(), action);
+    }
+}
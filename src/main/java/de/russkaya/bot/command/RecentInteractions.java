@@ -0,0 +1,59 @@
+package de.russkaya.bot.command;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merkt sich die zuletzt angenommenen Interaktions-IDs, damit dieselbe
+ * Interaktion nicht zweimal ausgeführt wird - z.B. wenn der Gateway nach
+ * einem Resume Events erneut zustellt oder sich zwei Prozesse beim
+ * Umverteilen der Shards kurz überlappen. Discord nimmt für eine Interaktion
+ * ohnehin nur eine Antwort an; das Duplikat würde nur doppelt schreiben.
+ *
+ * Einträge fallen nach {@link #TTL_NANOS} (so lange ist ein Interaktions-Token
+ * gültig) oder beim Überschreiten der Kapazität heraus, die ältesten zuerst.
+ */
+class RecentInteractions {
+
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Long> seen = new LinkedHashMap<>();
+    private long duplicates;
+
+    RecentInteractions(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return true beim ersten Mal, false für eine bereits angenommene ID
+     */
+    synchronized boolean firstSeen(long interactionId) {
+        long now = System.nanoTime();
+        evict(now);
+        if (seen.putIfAbsent(interactionId, now) != null) {
+            duplicates++;
+            return false;
+        }
+        return true;
+    }
+
+    synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    synchronized int size() {
+        return seen.size();
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<Long, Long>> oldest = seen.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<Long, Long> entry = oldest.next();
+            if (seen.size() < capacity && now - entry.getValue() < TTL_NANOS) break;
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package de.russkaya.bot.core;
+
+/**
+ * Wer eine Anfrage stellt und wo - bei Discord aus der Interaktion bzw.
+ * Reaktion, im Lastgenerator frei erfunden.
+ *
+ * @param channelId Kanal der Anfrage; Erinnerungen landen dort, wenn der Server keinen eigenen Kanal eingestellt hat
+ */
+public record Actor(long guildId, long channelId, String userId, String username) {}
@@ -0,0 +1,367 @@
+package de.russkaya.bot.core;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.autocomplete.AutocompleteField;
+import de.russkaya.bot.autocomplete.AutocompleteIndex;
+import de.russkaya.bot.cache.ActiveEntityIndex;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.embed.ActionEmbeds;
+import de.russkaya.bot.embed.StatusEmbeds;
+import de.russkaya.bot.embed.Texts;
+import de.russkaya.bot.guild.GuildSettings;
+import de.russkaya.bot.guild.GuildSettingsCache;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderPlan;
+import de.russkaya.bot.reminder.ReminderService;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.stats.StatDimension;
+import de.russkaya.bot.stats.StatEntry;
+import de.russkaya.bot.stats.StatsRepository;
+import de.russkaya.bot.status.StatusMessage;
+import de.russkaya.bot.status.StatusPages;
+import de.russkaya.bot.storage.Created;
+import de.russkaya.bot.storage.Storage;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Abläufe für Pflanzen und Solarpanels, unabhängig davon, woher die Anfrage
+ * kommt. Bekommt einfache Request-Objekte und antwortet über {@link Reply};
+ * JDA-Events kennt nur der Adapter in {@code RusskayaBot}. So lässt sich der
+ * Bot ohne Discord unter Last setzen ({@code LoadGenerator} in den Benchmarks).
+ *
+ * Gespeichert wird nur über {@link Storage}, welches Backend dahinter steht,
+ * spielt hier keine Rolle. Nur die Zähler für {@code /stats} liest der Kern
+ * direkt aus der Datenbank ({@link StatsRepository}).
+ *
+ * Alle Methoden dürfen blockieren und laufen beim Bot auf virtuellen Threads.
+ * Was eine bestehende Pflanze oder ein Panel ändert, läuft unter dem Lock der
+ * Entität aus {@link EntityLocks} - vom Update bis zum Index und den
+ * Erinnerungen. Die Updates selbst prüfen ihre Bedingung im {@code WHERE}
+ * (Check-and-Set) und liefern nur bei Erfolg eine Zeile zurück.
+ *
+ * Nach jedem Commit werden die In-Memory Indizes fortgeschrieben: aktive
+ * Einträge und die Autocomplete-Vorschläge (Standorte, Autos, IDs).
+ */
+public class CommandCore {
+
+    // Discord erlaubt maximal 25 Felder pro Embed
+    public static final int MAX_LOG_ENTRIES = 25;
+
+    // Ranglisten in /stats: Übersicht pro Kategorie bzw. ausführlich
+    private static final int STATS_OVERVIEW_SIZE = 5;
+    private static final int STATS_LEADERBOARD_SIZE = 15;
+    private static final List<ActivityAction> STATS_CATEGORIES = List.of(ActivityAction.HARVEST, ActivityAction.FERTILIZE, ActivityAction.COLLECT);
+
+    private final Storage storage;
+    private final Database database;
+    private final StatsRepository stats;
+    private final GuildSettingsCache guildSettings;
+    private final ActiveEntityIndex<Plant> activePlants;
+    private final ActiveEntityIndex<SolarPanel> activePanels;
+    private final StatusPages<Plant> plantPages;
+    private final StatusPages<SolarPanel> solarPages;
+    private final ReminderService reminders;
+    private final ReminderMessageIndex reminderMessages;
+    private final EntityLocks locks;
+    private final AutocompleteIndex autocomplete;
+
+    public CommandCore(Storage storage, Database database, StatsRepository stats, GuildSettingsCache guildSettings,
+                       ActiveEntityIndex<Plant> activePlants, ActiveEntityIndex<SolarPanel> activePanels,
+                       StatusPages<Plant> plantPages, StatusPages<SolarPanel> solarPages,
+                       ReminderService reminders, ReminderMessageIndex reminderMessages, EntityLocks locks,
+                       AutocompleteIndex autocomplete) {
+        this.storage = storage;
+        this.database = database;
+        this.stats = stats;
+        this.guildSettings = guildSettings;
+        this.activePlants = activePlants;
+        this.activePanels = activePanels;
+        this.plantPages = plantPages;
+        this.solarPages = solarPages;
+        this.reminders = reminders;
+        this.reminderMessages = reminderMessages;
+        this.locks = locks;
+        this.autocomplete = autocomplete;
+    }
+
+    public Plant sow(PlaceRequest request, Reply reply) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        GuildSettings settings = guildSettings.get(guildId);
+
+        // Pflanze und Erinnerungen in einem Ablauf - nach einem Neustart fehlt keine
+        Created<Plant> created = storage.sow(guildId, actor.userId(), actor.username(), request.location(),
+                plantReminders(settings.plantChannel(actor.channelId())));
+        Plant plant = created.entity();
+        // Ein schnelles Ernten derselben ID darf Index und Erinnerungen nicht vor uns aufräumen
+        locks.withLock(EntityType.PLANT, plant.id(), () -> {
+            activePlants.put(plant);
+            autocomplete.used(guildId, AutocompleteField.PLANT_LOCATION, request.location());
+            autocomplete.added(new AutocompleteIndex.Active(guildId, EntityType.PLANT, plant.id(), plant.location(),
+                    plant.username(), plant.plantedAt().toEpochMilli()));
+            reminders.arm(created.reminders());
+            return null;
+        });
+
+        reply.embed(ActionEmbeds.plantSeeded(actor.username(), request.location(), plant.id(), settings.plantGrowthMinutes()));
+        return plant;
+    }
+
+    public Optional<Plant> fertilize(FertilizeRequest request, Reply reply) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        int plantId = request.plantId();
+
+        Optional<Plant> plant = locks.withLock(EntityType.PLANT, plantId, () -> {
+            Optional<Plant> fertilized = storage.fertilize(guildId, plantId, actor.userId(), actor.username());
+            fertilized.ifPresent(activePlants::put);
+            return fertilized;
+        });
+
+        if (plant.isEmpty()) {
+            reply.error(Texts.plantNotFound(plantId));
+            return plant;
+        }
+
+        reply.embed(ActionEmbeds.plantFertilized(actor.username(), plantId, plant.get().location()));
+        return plant;
+    }
+
+    public Optional<Plant> harvest(HarvestRequest request, Reply reply) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        int plantId = request.id();
+        String car = request.car();
+
+        Optional<Plant> harvested = locks.withLock(EntityType.PLANT, plantId, () -> {
+            Optional<Plant> result = storage.harvest(guildId, plantId, actor.userId(), actor.username(), car);
+
+            if (result.isPresent()) {
+                activePlants.remove(plantId);
+                autocomplete.removed(guildId, EntityType.PLANT, plantId);
+                autocomplete.used(guildId, AutocompleteField.CAR, car);
+                reminderMessages.removeEntity(EntityType.PLANT, plantId);
+
+                // Offene Erinnerungen sofort abbrechen
+                reminders.cancelAll(EntityType.PLANT, plantId);
+            }
+            return result;
+        });
+
+        if (harvested.isEmpty()) {
+            reply.error(Texts.plantNotFound(plantId));
+            return harvested;
+        }
+
+        reply.embed(ActionEmbeds.plantHarvested(actor.username(), plantId, car));
+        return harvested;
+    }
+
+    public SolarPanel placeSolar(PlaceRequest request, Reply reply) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        GuildSettings settings = guildSettings.get(guildId);
+
+        Created<SolarPanel> created = storage.placeSolar(guildId, actor.userId(), actor.username(), request.location(),
+                solarReminders(settings.solarChannel(actor.channelId()), settings.solarBatteryMinutes()));
+        SolarPanel panel = created.entity();
+        locks.withLock(EntityType.SOLAR, panel.id(), () -> {
+            activePanels.put(panel);
+            autocomplete.used(guildId, AutocompleteField.SOLAR_LOCATION, request.location());
+            autocomplete.added(new AutocompleteIndex.Active(guildId, EntityType.SOLAR, panel.id(), panel.location(),
+                    panel.username(), panel.placedAt().toEpochMilli()));
+            reminders.arm(created.reminders());
+            return null;
+        });
+
+        reply.embed(ActionEmbeds.solarPlaced(actor.username(), request.location(), panel.id(), settings.solarBatteryMinutes()));
+        return panel;
+    }
+
+    public Optional<SolarPanel> collectSolar(HarvestRequest request, Reply reply) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        int solarId = request.id();
+        String car = request.car();
+
+        Optional<SolarPanel> collected = locks.withLock(EntityType.SOLAR, solarId, () -> {
+            Optional<SolarPanel> result = storage.collectSolar(guildId, solarId, actor.userId(), actor.username(), car);
+
+            if (result.isPresent()) {
+                activePanels.remove(solarId);
+                autocomplete.removed(guildId, EntityType.SOLAR, solarId);
+                autocomplete.used(guildId, AutocompleteField.CAR, car);
+                reminderMessages.removeEntity(EntityType.SOLAR, solarId);
+
+                // Offene Erinnerungen sofort abbrechen
+                reminders.cancelAll(EntityType.SOLAR, solarId);
+            }
+            return result;
+        });
+
+        if (collected.isEmpty()) {
+            reply.error(Texts.solarNotFound(solarId));
+            return collected;
+        }
+
+        reply.embed(ActionEmbeds.batteryCollected(actor.username(), solarId, car));
+        return collected;
+    }
+
+    public void plantsStatus(StatusRequest request, Reply reply) throws SQLException {
+        StatusMessage page = plantPages.open(request.sessionId(), request.actor().guildId());
+        reply.embed(page.embed(), page.components());
+    }
+
+    public void solarStatus(StatusRequest request, Reply reply) throws SQLException {
+        StatusMessage page = solarPages.open(request.sessionId(), request.actor().guildId());
+        reply.embed(page.embed(), page.components());
+    }
+
+    public void logs(LogsRequest request, Reply reply) throws SQLException {
+        int limit = Math.max(1, Math.min(request.limit(), MAX_LOG_ENTRIES));
+
+        // Neueste zuerst, per Cursor statt OFFSET - jede Seite kostet gleich viel
+        List<ActivityEvent> events = storage.activity(request.actor().guildId(), request.beforeId(), limit);
+        reply.embed(StatusEmbeds.logs(events, limit));
+    }
+
+    public void stats(StatsRequest request, Reply reply) throws SQLException {
+        long guildId = request.actor().guildId();
+        StatDimension dimension = request.dimension();
+        ActivityAction only = request.category();
+        Instant now = Instant.now();
+
+        if (only != null) {
+            if (only == ActivityAction.FERTILIZE && dimension == StatDimension.CAR) {
+                reply.error("❌ Beim Düngen wird kein Auto erfasst.");
+                return;
+            }
+            List<StatEntry> top = database.read(connection -> stats.top(connection, guildId, request.period(), now, only, dimension, STATS_LEADERBOARD_SIZE));
+            reply.embed(StatusEmbeds.leaderboard("📊 " + statsTitle(only) + " nach " + dimension.getLabel()
+                    + " - " + request.period().getLabel(), top));
+            return;
+        }
+
+        // Übersicht: jede Kategorie kurz, bei Spielern/Standorten zusätzlich die Autos
+        Map<String, List<StatEntry>> sections = database.read(connection -> {
+            Map<String, List<StatEntry>> result = new LinkedHashMap<>();
+            for (ActivityAction category : STATS_CATEGORIES) {
+                if (category == ActivityAction.FERTILIZE && dimension == StatDimension.CAR) continue;
+                result.put(statsTitle(category), stats.top(connection, guildId, request.period(), now, category, dimension, STATS_OVERVIEW_SIZE));
+            }
+            if (dimension != StatDimension.CAR) {
+                result.put("🚗 Autos (Ernten)", stats.top(connection, guildId, request.period(), now, ActivityAction.HARVEST, StatDimension.CAR, STATS_OVERVIEW_SIZE));
+                result.put("🚗 Autos (Batterien)", stats.top(connection, guildId, request.period(), now, ActivityAction.COLLECT, StatDimension.CAR, STATS_OVERVIEW_SIZE));
+            }
+            return result;
+        });
+        reply.embed(StatusEmbeds.stats("📊 Statistik nach " + dimension.getLabel() + " - " + request.period().getLabel(), sections));
+    }
+
+    /**
+     * Nur Reaktionen auf eigene Erinnerungen zählen - reiner Speicherzugriff,
+     * darf daher auf dem Event-Thread laufen.
+     *
+     * @return offene Einträge der Nachricht zu diesem Emoji, leer wenn nichts zu tun ist
+     */
+    public List<ReminderMessageIndex.Ref> openReminders(long messageId, String emoji) {
+        return reminderMessages.resolve(messageId, emoji);
+    }
+
+    /**
+     * ✅ düngt, 🔧 repariert - jeder Eintrag wie bei den Commands samt Log-Eintrag.
+     *
+     * @return das angepasste Embed der Erinnerungsnachricht oder {@code null}, wenn sich nichts geändert hat
+     */
+    public MessageEmbed react(ReactionRequest request) throws SQLException {
+        Actor actor = request.actor();
+        List<Plant> fertilized = new ArrayList<>();
+        List<SolarPanel> repaired = new ArrayList<>();
+        List<EntityLocks.Key> keys = new ArrayList<>(request.open().size());
+        for (ReminderMessageIndex.Ref ref : request.open()) {
+            keys.add(new EntityLocks.Key(ref.type().getEntityType(), ref.entityId()));
+        }
+
+        locks.withLockAll(keys, () -> {
+            reactLocked(request, fertilized, repaired);
+            return null;
+        });
+
+        Map<ReminderMessageIndex.Ref, String> labels = new HashMap<>();
+        for (Plant plant : fertilized) {
+            labels.put(new ReminderMessageIndex.Ref(ReminderType.PLANT_FERTILIZE, plant.id()), Texts.fertilizedBy(actor.username()));
+        }
+        for (SolarPanel panel : repaired) {
+            labels.put(new ReminderMessageIndex.Ref(ReminderType.SOLAR_REPAIR, panel.id()),
+                    Texts.repairedBy(actor.username(), panel.repairs()));
+        }
+        // Embed aus dem Index anpassen statt die Nachricht neu zu laden
+        return reminderMessages.markDone(request.messageId(), request.open(), labels);
+    }
+
+    private void reactLocked(ReactionRequest request, List<Plant> fertilized, List<SolarPanel> repaired) throws SQLException {
+        Actor actor = request.actor();
+        long guildId = actor.guildId();
+        for (ReminderMessageIndex.Ref ref : request.open()) {
+            if (ref.type() == ReminderType.PLANT_FERTILIZE) {
+                Optional<Plant> plant = storage.fertilizeIfPending(guildId, ref.entityId(), actor.userId(), actor.username());
+                plant.ifPresent(activePlants::put);
+                plant.ifPresent(fertilized::add);
+            } else if (ref.type() == ReminderType.SOLAR_REPAIR) {
+                Optional<SolarPanel> panel = storage.repair(guildId, ref.entityId(), actor.userId(), actor.username(), request.messageId());
+                panel.ifPresent(activePanels::put);
+                panel.ifPresent(repaired::add);
+            }
+        }
+    }
+
+    /**
+     * Eine Erinnerungsnachricht ist verschickt - Index sofort, Speicher asynchron.
+     */
+    public void reminderSent(long messageId, MessageEmbed embed, List<ReminderMessageIndex.Ref> fields) {
+        reminderMessages.register(messageId, embed, fields);
+        storage.setReminderMessage(messageId, fields).whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("❌ Nachrichten-ID " + messageId + " konnte nicht gespeichert werden: " + error.getMessage());
+            }
+        });
+    }
+
+    private static String statsTitle(ActivityAction action) {
+        return switch (action) {
+            case HARVEST -> "🌾 Ernten";
+            case FERTILIZE -> "💚 Düngungen";
+            case COLLECT -> "🔋 Batterien";
+            default -> action.name();
+        };
+    }
+
+    private static List<ReminderPlan> plantReminders(long channelId) {
+        return List.of(
+                ReminderPlan.after(ReminderType.PLANT_FERTILIZE, channelId, 35, 0, TimeUnit.MINUTES), // Erste Erinnerung nach 35 Minuten
+                ReminderPlan.after(ReminderType.PLANT_FERTILIZE, channelId, 55, 0, TimeUnit.MINUTES)); // Zweite Erinnerung nach 55 Minuten
+    }
+
+    private static List<ReminderPlan> solarReminders(long channelId, int batteryMinutes) {
+        return List.of(
+                ReminderPlan.after(ReminderType.SOLAR_REPAIR, channelId, 30, 0, TimeUnit.MINUTES), // Erste Erinnerung nach 30 Minuten
+                ReminderPlan.after(ReminderType.SOLAR_REPAIR, channelId, 50, 0, TimeUnit.MINUTES), // Zweite Erinnerung nach 50 Minuten
+                // Für Solar: Nach jeder Batteriezeit erinnern (Standard 2 Stunden, pro Server einstellbar)
+                ReminderPlan.after(ReminderType.SOLAR_COLLECT, channelId, batteryMinutes, batteryMinutes, TimeUnit.MINUTES));
+    }
+}
@@ -0,0 +1,114 @@
+package de.russkaya.bot.core;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialisiert alles, was eine einzelne Pflanze bzw. ein einzelnes Solarpanel
+ * ändert: Datenbank-Update, In-Memory Index und Erinnerungen laufen für eine
+ * Entität nie gleichzeitig. Sonst kann z.B. ein Düngen, das kurz vor dem
+ * Ernten committet hat, die Pflanze nach dem Ernten wieder in den Index
+ * schreiben.
+ *
+ * Statt einem Lock pro id gibt es eine feste Tabelle von Locks (Striping);
+ * verschiedene Entitäten landen fast immer auf verschiedenen Locks und laufen
+ * parallel. {@link ReentrantLock} statt {@code synchronized}, damit wartende
+ * virtuelle Threads ihren Träger-Thread freigeben.
+ */
+public class EntityLocks implements MetricsCollector {
+
+    private final ReentrantLock[] stripes;
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    /**
+     * @param stripes Anzahl der Locks, wird auf die nächste Zweierpotenz aufgerundet
+     */
+    public EntityLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Führt {@code work} unter dem Lock einer Entität aus.
+     */
+    public <T, E extends Exception> T withLock(EntityType type, int id, Locked<T, E> work) throws E {
+        int stripe = stripeOf(type, id);
+        acquire(stripe);
+        try {
+            return work.run();
+        } finally {
+            stripes[stripe].unlock();
+        }
+    }
+
+    /**
+     * Wie {@link #withLock}, aber für mehrere Entitäten auf einmal (Reaktion auf
+     * eine Sammelnachricht). Die Locks werden immer in aufsteigender Reihenfolge
+     * genommen, damit sich zwei solcher Aufrufe nicht gegenseitig blockieren können.
+     */
+    public <T, E extends Exception> T withLockAll(Collection<Key> keys, Locked<T, E> work) throws E {
+        int[] order = keys.stream().mapToInt(key -> stripeOf(key.type(), key.id())).distinct().sorted().toArray();
+        for (int stripe : order) {
+            acquire(stripe);
+        }
+        try {
+            return work.run();
+        } finally {
+            for (int i = order.length - 1; i >= 0; i--) {
+                stripes[order[i]].unlock();
+            }
+        }
+    }
+
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    public long getContended() {
+        return contended.get();
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.single("russkaya_entity_locks_acquired_total", "counter", "Genommene Entitäts-Locks", acquired.get());
+        out.single("russkaya_entity_locks_contended_total", "counter", "Entitäts-Locks, auf die gewartet werden musste", contended.get());
+        out.single("russkaya_entity_locks_wait_seconds_total", "counter", "Wartezeit auf Entitäts-Locks", waitNanos.get() / 1e9);
+    }
+
+    private void acquire(int stripe) {
+        ReentrantLock lock = stripes[stripe];
+        acquired.incrementAndGet();
+        if (lock.tryLock()) return;
+
+        contended.incrementAndGet();
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private int stripeOf(EntityType type, int id) {
+        // ids sind fortlaufend - mischen, damit Pflanze #n und Panel #n nicht denselben Lock teilen
+        int hash = id * 0x9E3779B9 + type.ordinal();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    public record Key(EntityType type, int id) {}
+
+    /**
+     * Arbeit unter einem Lock; darf die Ausnahmen des Aufrufers werfen.
+     */
+    @FunctionalInterface
+    public interface Locked<T, E extends Exception> {
+        T run() throws E;
+    }
+}
@@ -0,0 +1,3 @@
+package de.russkaya.bot.core;
+
+public record FertilizeRequest(Actor actor, int plantId) {}
@@ -0,0 +1,9 @@
+package de.russkaya.bot.core;
+
+/**
+ * Pflanze ernten bzw. Batterie einsammeln.
+ *
+ * @param id  Pflanze bzw. Solarpanel
+ * @param car Auto, in das die Ernte bzw. Batterie gelegt wurde
+ */
+public record HarvestRequest(Actor actor, int id, String car) {}
@@ -0,0 +1,9 @@
+package de.russkaya.bot.core;
+
+/**
+ * Eine Seite des Aktivitäts-Logs.
+ *
+ * @param beforeId Cursor der vorherigen Seite, {@code null} = neueste Einträge
+ * @param limit    gewünschte Anzahl, wird auf {@link CommandCore#MAX_LOG_ENTRIES} begrenzt
+ */
+public record LogsRequest(Actor actor, Long beforeId, int limit) {}
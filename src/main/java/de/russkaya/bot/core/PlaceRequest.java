@@ -0,0 +1,6 @@
+package de.russkaya.bot.core;
+
+/**
+ * Pflanze säen bzw. Solarpanel aufstellen.
+ */
+public record PlaceRequest(Actor actor, String location) {}
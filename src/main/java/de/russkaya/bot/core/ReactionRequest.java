@@ -0,0 +1,12 @@
+package de.russkaya.bot.core;
+
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+
+import java.util.List;
+
+/**
+ * Reaktion auf eine Erinnerungsnachricht.
+ *
+ * @param open noch offene Einträge der Nachricht zu dieser Reaktion, siehe {@link CommandCore#openReminders}
+ */
+public record ReactionRequest(Actor actor, long messageId, List<ReminderMessageIndex.Ref> open) {}
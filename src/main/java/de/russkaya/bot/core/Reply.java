@@ -0,0 +1,23 @@
+package de.russkaya.bot.core;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+
+import java.util.List;
+
+/**
+ * Antwortweg einer Anfrage. Embeds und Komponenten sind reine Daten; wie und
+ * wohin sie gehen, entscheidet der Adapter (Discord-Interaktion oder
+ * Lastgenerator).
+ */
+public interface Reply {
+
+    void embed(MessageEmbed embed);
+
+    /**
+     * Embed mit Buttons bzw. Menüs darunter.
+     */
+    void embed(MessageEmbed embed, List<? extends LayoutComponent> components);
+
+    void error(String message);
+}
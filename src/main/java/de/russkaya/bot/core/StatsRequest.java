@@ -0,0 +1,12 @@
+package de.russkaya.bot.core;
+
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.stats.StatDimension;
+import de.russkaya.bot.stats.StatPeriod;
+
+/**
+ * Ranglisten für {@code /stats}.
+ *
+ * @param category nur diese Kategorie ausführlich, {@code null} = Übersicht aller Kategorien
+ */
+public record StatsRequest(Actor actor, StatPeriod period, StatDimension dimension, ActivityAction category) {}
@@ -0,0 +1,6 @@
+package de.russkaya.bot.core;
+
+/**
+ * @param sessionId Schlüssel der blätterbaren Ansicht (bei Discord die Interaktions-ID)
+ */
+public record StatusRequest(Actor actor, long sessionId) {}
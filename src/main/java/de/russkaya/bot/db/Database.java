@@ -0,0 +1,447 @@
+package de.russkaya.bot.db;
+
+import de.russkaya.bot.metrics.Histogram;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zugriffsschicht für SQLite: genau ein Writer-Thread besitzt die einzige
+ * schreibende Verbindung und arbeitet eine Queue von Mutationen ab. Alles was
+ * beim Aufwachen in der Queue liegt wird in einer Transaktion committet
+ * (Group Commit), jede Mutation in ihrem eigenen Savepoint - schlägt eine
+ * fehl, betrifft das nur ihren eigenen Future.
+ *
+ * Lesezugriffe laufen über einen kleinen Pool eigener Verbindungen. Dank
+ * WAL-Modus blockieren Leser und der Writer sich gegenseitig nicht.
+ *
+ * PreparedStatements werden über {@link #prepare} pro Verbindung gecacht und
+ * über {@link #queryList}, {@link #querySingle} bzw. {@link #update}
+ * ausgeführt - dabei werden Laufzeit und Zeilen pro Statement gezählt.
+ */
+public class Database implements AutoCloseable, MetricsCollector {
+
+    private static final int MAX_BATCH = 256;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final String url;
+    private final BlockingQueue<WriteTask<?>> writeQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Connection> readers;
+    private final int readerCount;
+    private final StatementCache statements = new StatementCache();
+
+    private Connection writer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Statistik
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+    private final QueryStats otherQueries = new QueryStats("other");
+    private final Histogram writeWait = new Histogram();
+    private final Histogram transactionTime = new Histogram();
+    private final Histogram readWait = new Histogram();
+
+    public Database(String url, int readerCount) {
+        this.url = url;
+        this.readerCount = readerCount;
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+    }
+
+    public void open() throws SQLException {
+        writer = DriverManager.getConnection(url);
+        configure(writer);
+        try (Statement stmt = writer.createStatement()) {
+            // WAL erlaubt gleichzeitiges Lesen während geschrieben wird
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+        }
+        writer.setAutoCommit(false);
+
+        for (int i = 0; i < readerCount; i++) {
+            Connection reader = DriverManager.getConnection(url);
+            configure(reader);
+            readers.add(reader);
+        }
+
+        running = true;
+        writerThread = new Thread(this::writerLoop, "db-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static void configure(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * Reiht eine Mutation für den Writer-Thread ein. Der Future wird erst nach
+     * dem Commit der Transaktion abgeschlossen.
+     */
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        return enqueue(new WriteTask<>(work));
+    }
+
+    private <T> CompletableFuture<T> enqueue(WriteTask<T> task) {
+        if (!running) {
+            task.future.completeExceptionally(new SQLException("Datenbank ist geschlossen"));
+            return task.future;
+        }
+        writeQueue.add(task);
+        return task.future;
+    }
+
+    /**
+     * Wie {@link #submit}, wartet aber auf den Commit.
+     */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        return await(submit(work));
+    }
+
+    /**
+     * Führt Wartungsarbeiten (z.B. {@code VACUUM}) auf einer eigenen Verbindung
+     * im Autocommit-Modus aus. Läuft im Writer-Thread als eigener Batch: was
+     * vorher eingereiht wurde, ist schon committet, und nichts wird mit der
+     * Wartung zusammengefasst - der Writer hält in der Zeit also keine Sperre.
+     * Leser können weiterlaufen.
+     */
+    public <T> T maintenance(SqlWork<T> work) throws SQLException {
+        WriteTask<T> task = new WriteTask<>(ignored -> {
+            try (Connection connection = DriverManager.getConnection(url)) {
+                configure(connection);
+                return work.run(connection);
+            }
+        }, true);
+        return await(enqueue(task));
+    }
+
+    /**
+     * Führt eine Leseoperation auf einer Verbindung aus dem Lese-Pool aus.
+     */
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        Connection connection;
+        long waitStarted = System.nanoTime();
+        try {
+            connection = readers.take();
+            readWait.record(System.nanoTime() - waitStarted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Unterbrochen beim Warten auf eine Leseverbindung", e);
+        }
+        try {
+            return work.run(connection);
+        } finally {
+            readers.add(connection);
+        }
+    }
+
+    /**
+     * Liefert ein gecachtes PreparedStatement für die Verbindung. Nicht schließen -
+     * nur das ResultSet.
+     */
+    public PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return statements.get(connection, sql);
+    }
+
+    /**
+     * Führt eine Abfrage aus und liefert alle Zeilen.
+     */
+    public <T> List<T> queryList(PreparedStatement stmt, RowMapper<T> mapper) throws SQLException {
+        long started = System.nanoTime();
+        List<T> rows = new ArrayList<>();
+        boolean failed = true;
+        try (ResultSet result = stmt.executeQuery()) {
+            while (result.next()) {
+                rows.add(mapper.map(result));
+            }
+            failed = false;
+        } finally {
+            statsOf(stmt).record(System.nanoTime() - started, rows.size(), failed);
+        }
+        return rows;
+    }
+
+    /**
+     * Führt eine Abfrage aus und liefert die erste Zeile, falls es eine gibt.
+     * Auch für {@code UPDATE ... RETURNING}.
+     */
+    public <T> Optional<T> querySingle(PreparedStatement stmt, RowMapper<T> mapper) throws SQLException {
+        long started = System.nanoTime();
+        int rows = 0;
+        boolean failed = true;
+        try (ResultSet result = stmt.executeQuery()) {
+            Optional<T> row = Optional.empty();
+            if (result.next()) {
+                rows = 1;
+                row = Optional.of(mapper.map(result));
+            }
+            failed = false;
+            return row;
+        } finally {
+            statsOf(stmt).record(System.nanoTime() - started, rows, failed);
+        }
+    }
+
+    /**
+     * Führt ein INSERT/UPDATE/DELETE ohne Ergebnis aus.
+     *
+     * @return Anzahl der geänderten Zeilen
+     */
+    public int update(PreparedStatement stmt) throws SQLException {
+        long started = System.nanoTime();
+        int rows = 0;
+        boolean failed = true;
+        try {
+            rows = stmt.executeUpdate();
+            failed = false;
+            return rows;
+        } finally {
+            statsOf(stmt).record(System.nanoTime() - started, rows, failed);
+        }
+    }
+
+    private QueryStats statsOf(PreparedStatement stmt) {
+        String sql = statements.sqlOf(stmt);
+        if (sql == null) return otherQueries;
+        QueryStats stats = queries.get(sql);
+        return stats != null ? stats : queries.computeIfAbsent(sql, QueryStats::new);
+    }
+
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Unterbrochen beim Warten auf den Commit", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static SQLException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        return new SQLException(cause.getMessage(), cause);
+    }
+
+    private void writerLoop() {
+        List<WriteTask<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !writeQueue.isEmpty()) {
+            try {
+                WriteTask<?> first = writeQueue.take();
+                if (first.exclusive) {
+                    runExclusive(first);
+                    continue;
+                }
+                batch.add(first);
+                // Bis zur nächsten Wartung sammeln; die bekommt ihren eigenen Durchlauf
+                WriteTask<?> next;
+                while (batch.size() < MAX_BATCH && (next = writeQueue.peek()) != null && !next.exclusive) {
+                    batch.add(writeQueue.poll());
+                }
+                runBatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void runBatch(List<WriteTask<?>> batch) {
+        long started = System.nanoTime();
+        try {
+            runTransaction(batch, started);
+        } finally {
+            transactionTime.record(System.nanoTime() - started);
+        }
+    }
+
+    // Ohne Savepoint und Commit: die Arbeit läuft auf ihrer eigenen Verbindung
+    private void runExclusive(WriteTask<?> task) {
+        long started = System.nanoTime();
+        writeWait.record(started - task.enqueuedNanos);
+        try {
+            task.execute(writer);
+            committedWrites.incrementAndGet();
+            task.complete();
+        } catch (Exception e) {
+            failedWrites.incrementAndGet();
+            task.future.completeExceptionally(e);
+        } finally {
+            transactionTime.record(System.nanoTime() - started);
+        }
+    }
+
+    private void runTransaction(List<WriteTask<?>> batch, long started) {
+        List<WriteTask<?>> succeeded = new ArrayList<>(batch.size());
+        for (WriteTask<?> task : batch) {
+            if (task == POISON) continue;
+            writeWait.record(started - task.enqueuedNanos);
+            Savepoint savepoint = null;
+            try {
+                savepoint = writer.setSavepoint();
+                task.execute(writer);
+                writer.releaseSavepoint(savepoint);
+                succeeded.add(task);
+            } catch (Exception e) {
+                failedWrites.incrementAndGet();
+                rollbackTo(savepoint);
+                task.future.completeExceptionally(e);
+            }
+        }
+
+        if (succeeded.isEmpty()) {
+            rollbackQuietly();
+            return;
+        }
+
+        try {
+            writer.commit();
+            commits.incrementAndGet();
+            committedWrites.addAndGet(succeeded.size());
+            for (WriteTask<?> task : succeeded) {
+                task.complete();
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Commit fehlgeschlagen: " + e.getMessage());
+            rollbackQuietly();
+            failedWrites.addAndGet(succeeded.size());
+            for (WriteTask<?> task : succeeded) {
+                task.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void rollbackTo(Savepoint savepoint) {
+        if (savepoint == null) return;
+        try {
+            writer.rollback(savepoint);
+        } catch (SQLException e) {
+            System.err.println("❌ Rollback auf Savepoint fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            writer.rollback();
+        } catch (SQLException e) {
+            System.err.println("❌ Rollback fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.family("russkaya_db_query_duration_seconds", "histogram", "Laufzeit pro SQL-Statement inkl. Lesen der Zeilen");
+        for (QueryStats stats : allQueryStats()) {
+            out.histogram("russkaya_db_query_duration_seconds", "query", stats.label, stats.latency);
+        }
+        out.family("russkaya_db_query_rows_total", "counter", "Gelesene bzw. geänderte Zeilen pro SQL-Statement");
+        for (QueryStats stats : allQueryStats()) {
+            out.sample("russkaya_db_query_rows_total", "query", stats.label, stats.rows.sum());
+        }
+        out.family("russkaya_db_query_errors_total", "counter", "Fehlgeschlagene Ausführungen pro SQL-Statement");
+        for (QueryStats stats : allQueryStats()) {
+            out.sample("russkaya_db_query_errors_total", "query", stats.label, stats.errors.sum());
+        }
+
+        out.single("russkaya_db_write_queue_depth", "gauge", "Mutationen, die auf den Writer-Thread warten", writeQueue.size());
+        out.family("russkaya_db_write_wait_seconds", "histogram", "Wartezeit einer Mutation bis der Writer sie ausführt")
+                .histogram("russkaya_db_write_wait_seconds", null, null, writeWait);
+        out.family("russkaya_db_transaction_duration_seconds", "histogram", "Dauer einer Group-Commit-Transaktion inkl. Commit")
+                .histogram("russkaya_db_transaction_duration_seconds", null, null, transactionTime);
+        out.family("russkaya_db_read_wait_seconds", "histogram", "Wartezeit auf eine freie Leseverbindung")
+                .histogram("russkaya_db_read_wait_seconds", null, null, readWait);
+        out.single("russkaya_db_commits_total", "counter", "Commits des Writer-Threads", commits.get());
+        out.single("russkaya_db_writes_committed_total", "counter", "Erfolgreich committete Mutationen", committedWrites.get());
+        out.single("russkaya_db_writes_failed_total", "counter", "Fehlgeschlagene Mutationen", failedWrites.get());
+        out.single("russkaya_db_cached_statements", "gauge", "Offene PreparedStatements im Cache", statements.size());
+    }
+
+    private List<QueryStats> allQueryStats() {
+        List<QueryStats> all = new ArrayList<>(queries.values());
+        if (otherQueries.latency.count() > 0) all.add(otherQueries);
+        return all;
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        writeQueue.add(POISON);
+        try {
+            writerThread.join(BUSY_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly(writer);
+        Connection reader;
+        while ((reader = readers.poll()) != null) {
+            closeQuietly(reader);
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        statements.close(connection);
+        try {
+            if (connection != null) connection.close();
+        } catch (SQLException e) {
+            System.err.println("❌ Fehler beim Schließen der Verbindung: " + e.getMessage());
+        }
+    }
+
+    // Weckt den Writer beim Schließen auf
+    private static final WriteTask<Void> POISON = new WriteTask<>(connection -> null);
+
+    private static final class WriteTask<T> {
+        private final SqlWork<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+        private final boolean exclusive;
+        private T result;
+
+        WriteTask(SqlWork<T> work) {
+            this(work, false);
+        }
+
+        WriteTask(SqlWork<T> work, boolean exclusive) {
+            this.work = work;
+            this.exclusive = exclusive;
+        }
+
+        void execute(Connection connection) throws SQLException {
+            result = work.run(connection);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+}
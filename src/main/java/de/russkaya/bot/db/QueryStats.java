@@ -0,0 +1,26 @@
+package de.russkaya.bot.db;
+
+import de.russkaya.bot.metrics.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeit, Zeilen und Fehler eines SQL-Statements über alle Verbindungen.
+ */
+final class QueryStats {
+
+    final String label;
+    final Histogram latency = new Histogram();
+    final LongAdder rows = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    QueryStats(String sql) {
+        this.label = sql.strip().replaceAll("\\s+", " ");
+    }
+
+    void record(long nanos, int rowCount, boolean failed) {
+        latency.record(nanos);
+        rows.add(rowCount);
+        if (failed) errors.increment();
+    }
+}
@@ -0,0 +1,13 @@
+package de.russkaya.bot.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Macht aus der aktuellen Zeile eines ResultSets ein Objekt.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet result) throws SQLException;
+}
@@ -0,0 +1,14 @@
+package de.russkaya.bot.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Eine Einheit Datenbankarbeit, die auf einer vom {@link Database} verwalteten
+ * Verbindung ausgeführt wird. Die Verbindung darf nicht gespeichert oder
+ * geschlossen werden.
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run(Connection connection) throws SQLException;
+}
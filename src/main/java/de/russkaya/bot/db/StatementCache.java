@@ -0,0 +1,62 @@
+package de.russkaya.bot.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hält pro Verbindung einmal kompilierte PreparedStatements vor. Da jede
+ * Verbindung des {@link Database} immer nur von einem Thread gleichzeitig
+ * benutzt wird, kann ein Statement gefahrlos wiederverwendet werden.
+ *
+ * Statements aus dem Cache dürfen vom Aufrufer nicht geschlossen werden -
+ * ihre ResultSets aber schon.
+ */
+final class StatementCache {
+
+    private final Map<Connection, Map<String, PreparedStatement>> statements = new ConcurrentHashMap<>();
+    private final Map<PreparedStatement, String> sqlByStatement = new ConcurrentHashMap<>();
+
+    PreparedStatement get(Connection connection, String sql) throws SQLException {
+        Map<String, PreparedStatement> perConnection = statements.computeIfAbsent(connection, c -> new ConcurrentHashMap<>());
+        PreparedStatement stmt = perConnection.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql);
+            perConnection.put(sql, stmt);
+            sqlByStatement.put(stmt, sql);
+        } else {
+            stmt.clearParameters();
+        }
+        return stmt;
+    }
+
+    /**
+     * SQL eines Statements aus dem Cache, {@code null} für fremde Statements.
+     */
+    String sqlOf(PreparedStatement stmt) {
+        return sqlByStatement.get(stmt);
+    }
+
+    int size() {
+        int open = 0;
+        for (Map<String, PreparedStatement> perConnection : statements.values()) {
+            open += perConnection.size();
+        }
+        return open;
+    }
+
+    void close(Connection connection) {
+        Map<String, PreparedStatement> perConnection = statements.remove(connection);
+        if (perConnection == null) return;
+        for (PreparedStatement stmt : perConnection.values()) {
+            sqlByStatement.remove(stmt);
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                System.err.println("❌ Fehler beim Schließen eines Statements: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.russkaya.bot.db.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Eine Schemaänderung. Bereits ausgerollte Migrationen dürfen nie mehr
+ * verändert werden - die Prüfsumme über die Statements fällt sonst beim
+ * nächsten Start auf.
+ */
+public record Migration(int version, String description, List<String> statements) {
+
+    public Migration(int version, String description, String... statements) {
+        this(version, description, List.of(statements));
+    }
+
+    public String checksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String statement : statements) {
+                // Einrückung und Zeilenumbrüche sollen die Prüfsumme nicht ändern
+                digest.update(statement.strip().replaceAll("\\s+", " ").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ';');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
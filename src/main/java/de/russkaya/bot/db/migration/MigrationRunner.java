@@ -0,0 +1,98 @@
+package de.russkaya.bot.db.migration;
+
+import de.russkaya.bot.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spielt ausstehende {@link Migration}en in Reihenfolge ein und merkt sich
+ * Version und Prüfsumme in {@code schema_version}. Jede Migration läuft in
+ * ihrer eigenen Transaktion; schlägt sie fehl, bleibt die Datei auf dem
+ * vorherigen Stand und der Start wird abgebrochen.
+ */
+public class MigrationRunner {
+
+    private final Database database;
+
+    public MigrationRunner(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * @return Anzahl der neu eingespielten Migrationen
+     */
+    public int migrate(List<Migration> migrations) throws SQLException {
+        Map<Integer, String> applied = database.write(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        checksum TEXT NOT NULL,
+                        applied_at INTEGER NOT NULL
+                    )
+                """);
+            }
+            return loadApplied(connection);
+        });
+
+        int previous = 0;
+        int count = 0;
+        for (Migration migration : migrations) {
+            if (migration.version() <= previous) {
+                throw new IllegalStateException("Migrationen nicht aufsteigend sortiert: " + migration.version());
+            }
+            previous = migration.version();
+
+            String checksum = migration.checksum();
+            String appliedChecksum = applied.get(migration.version());
+            if (appliedChecksum != null) {
+                if (!appliedChecksum.equals(checksum)) {
+                    throw new SQLException("Prüfsumme von Migration " + migration.version()
+                            + " (" + migration.description() + ") passt nicht zur Datenbank - wurde sie nachträglich geändert?");
+                }
+                continue;
+            }
+
+            long started = System.currentTimeMillis();
+            database.write(connection -> {
+                try (Statement stmt = connection.createStatement()) {
+                    for (String sql : migration.statements()) {
+                        stmt.executeUpdate(sql);
+                    }
+                }
+                String insert = "INSERT INTO schema_version (version, description, checksum, applied_at) VALUES (?, ?, ?, ?)";
+                try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+                    stmt.setInt(1, migration.version());
+                    stmt.setString(2, migration.description());
+                    stmt.setString(3, checksum);
+                    stmt.setLong(4, System.currentTimeMillis());
+                    stmt.executeUpdate();
+                }
+                return null;
+            });
+            count++;
+            System.out.println("✅ Migration " + migration.version() + " (" + migration.description() + ") in "
+                    + (System.currentTimeMillis() - started) + " ms eingespielt");
+        }
+        return count;
+    }
+
+    private static Map<Integer, String> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet result = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (result.next()) {
+                applied.put(result.getInt("version"), result.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,266 @@
+package de.russkaya.bot.db.migration;
+
+import java.util.List;
+
+/**
+ * Alle Schema-Migrationen in Reihenfolge. Neue Migrationen nur hinten
+ * anhängen, bestehende nie ändern.
+ */
+public final class Migrations {
+
+    // Aktuelle Zeit in Epoch-Millis, funktioniert auch mit älteren SQLite-Versionen
+    private static final String NOW_MILLIS = "(CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER))";
+
+    private Migrations() {
+    }
+
+    public static final List<Migration> ALL = List.of(
+        // Ausgangsschema - entspricht dem alten initDatabase, daher auf bestehenden Dateien ein No-Op
+        new Migration(1, "Ausgangsschema",
+            """
+            CREATE TABLE IF NOT EXISTS plants (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id TEXT NOT NULL,
+                username TEXT NOT NULL,
+                planted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                location TEXT NOT NULL,
+                status TEXT DEFAULT 'planted',
+                fertilized_by TEXT,
+                fertilized_at TIMESTAMP,
+                harvested_by TEXT,
+                harvested_at TIMESTAMP,
+                car_stored TEXT,
+                reminder_message_id TEXT
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS solar_panels (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id TEXT NOT NULL,
+                username TEXT NOT NULL,
+                placed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                location TEXT NOT NULL,
+                status TEXT DEFAULT 'active',
+                collected_by TEXT,
+                collected_at TIMESTAMP,
+                car_stored TEXT,
+                reminder_message_id TEXT
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS reminders (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                type TEXT NOT NULL,
+                entity_type TEXT NOT NULL,
+                entity_id INTEGER NOT NULL,
+                channel_id TEXT NOT NULL,
+                due_at INTEGER NOT NULL,
+                interval_ms INTEGER NOT NULL DEFAULT 0
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_reminders_entity ON reminders (entity_type, entity_id)"
+        ),
+
+        // TEXT-Zeitstempel (CURRENT_TIMESTAMP, UTC) in INTEGER Epoch-Millis umwandeln.
+        // SQLite kann Spaltentypen nicht ändern, daher werden die Tabellen neu aufgebaut.
+        new Migration(2, "Zeitstempel als Epoch-Millis",
+            """
+            CREATE TABLE plants_v2 (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id TEXT NOT NULL,
+                username TEXT NOT NULL,
+                planted_at INTEGER NOT NULL DEFAULT %s,
+                location TEXT NOT NULL,
+                status TEXT NOT NULL DEFAULT 'planted',
+                fertilized_by TEXT,
+                fertilized_at INTEGER,
+                harvested_by TEXT,
+                harvested_at INTEGER,
+                car_stored TEXT,
+                reminder_message_id TEXT
+            )
+            """.formatted(NOW_MILLIS),
+            """
+            INSERT INTO plants_v2 (id, user_id, username, planted_at, location, status, fertilized_by, fertilized_at,
+                                   harvested_by, harvested_at, car_stored, reminder_message_id)
+            SELECT id, user_id, username, %s, location, COALESCE(status, 'planted'), fertilized_by, %s,
+                   harvested_by, %s, car_stored, reminder_message_id
+            FROM plants
+            """.formatted(toMillis("planted_at", true), toMillis("fertilized_at", false), toMillis("harvested_at", false)),
+            // Die Sequenz der alten Tabelle übernehmen - auch wenn plants_v2 noch keine Zeile in sqlite_sequence hat
+            "DELETE FROM sqlite_sequence WHERE name = 'plants_v2'",
+            "INSERT INTO sqlite_sequence (name, seq) SELECT 'plants_v2', MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'plants'), 0), COALESCE((SELECT MAX(id) FROM plants_v2), 0))",
+            "DROP TABLE plants",
+            "ALTER TABLE plants_v2 RENAME TO plants",
+
+            """
+            CREATE TABLE solar_panels_v2 (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id TEXT NOT NULL,
+                username TEXT NOT NULL,
+                placed_at INTEGER NOT NULL DEFAULT %s,
+                location TEXT NOT NULL,
+                status TEXT NOT NULL DEFAULT 'active',
+                collected_by TEXT,
+                collected_at INTEGER,
+                car_stored TEXT,
+                reminder_message_id TEXT
+            )
+            """.formatted(NOW_MILLIS),
+            """
+            INSERT INTO solar_panels_v2 (id, user_id, username, placed_at, location, status, collected_by, collected_at,
+                                         car_stored, reminder_message_id)
+            SELECT id, user_id, username, %s, location, COALESCE(status, 'active'), collected_by, %s,
+                   car_stored, reminder_message_id
+            FROM solar_panels
+            """.formatted(toMillis("placed_at", true), toMillis("collected_at", false)),
+            "DELETE FROM sqlite_sequence WHERE name = 'solar_panels_v2'",
+            "INSERT INTO sqlite_sequence (name, seq) SELECT 'solar_panels_v2', MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'solar_panels'), 0), COALESCE((SELECT MAX(id) FROM solar_panels_v2), 0))",
+            "DROP TABLE solar_panels",
+            "ALTER TABLE solar_panels_v2 RENAME TO solar_panels"
+        ),
+
+        // Indizes passend zu den Status-Abfragen, Sortierungen und der Bereinigung
+        new Migration(3, "Indizes für Status und Zeitstempel",
+            "CREATE INDEX IF NOT EXISTS idx_plants_status_planted ON plants (status, planted_at)",
+            "CREATE INDEX IF NOT EXISTS idx_plants_status_harvested ON plants (status, harvested_at)",
+            "CREATE INDEX IF NOT EXISTS idx_solar_status_placed ON solar_panels (status, placed_at)",
+            "CREATE INDEX IF NOT EXISTS idx_solar_status_collected ON solar_panels (status, collected_at)"
+        ),
+
+        // Append-only Aktivitätslog, aus den bestehenden Zeilen nachgefüllt
+        new Migration(4, "Aktivitätslog",
+            """
+            CREATE TABLE activity_events (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                occurred_at INTEGER NOT NULL,
+                entity_type TEXT NOT NULL,
+                entity_id INTEGER NOT NULL,
+                action TEXT NOT NULL,
+                user_id TEXT,
+                username TEXT NOT NULL,
+                location TEXT,
+                car TEXT
+            )
+            """,
+            "CREATE INDEX idx_activity_entity ON activity_events (entity_type, entity_id)",
+            """
+            INSERT INTO activity_events (occurred_at, entity_type, entity_id, action, user_id, username, location, car)
+            SELECT occurred_at, entity_type, entity_id, action, user_id, username, location, car FROM (
+                SELECT planted_at AS occurred_at, 'plant' AS entity_type, id AS entity_id, 'SOW' AS action,
+                       user_id, username, location, NULL AS car FROM plants
+                UNION ALL
+                SELECT COALESCE(fertilized_at, planted_at), 'plant', id, 'FERTILIZE', NULL, fertilized_by, location, NULL
+                FROM plants WHERE fertilized_by IS NOT NULL
+                UNION ALL
+                SELECT COALESCE(harvested_at, planted_at), 'plant', id, 'HARVEST', NULL, harvested_by, location, car_stored
+                FROM plants WHERE harvested_by IS NOT NULL
+                UNION ALL
+                SELECT placed_at, 'solar', id, 'PLACE', user_id, username, location, NULL FROM solar_panels
+                UNION ALL
+                SELECT COALESCE(collected_at, placed_at), 'solar', id, 'COLLECT', NULL, collected_by, location, car_stored
+                FROM solar_panels WHERE collected_by IS NOT NULL
+            )
+            ORDER BY occurred_at, entity_id
+            """
+        ),
+
+        // Reparaturen an Solarpanels zählen (per Reaktion auf die Erinnerung)
+        new Migration(5, "Reparaturzähler für Solarpanels",
+            "ALTER TABLE solar_panels ADD COLUMN repairs INTEGER NOT NULL DEFAULT 0",
+            "ALTER TABLE solar_panels ADD COLUMN last_repaired_by TEXT",
+            "ALTER TABLE solar_panels ADD COLUMN last_repaired_at INTEGER",
+            "ALTER TABLE solar_panels ADD COLUMN last_repair_message_id TEXT"
+        ),
+
+        // Statusseiten gefiltert nach Spieler bzw. Standort, per Keyset über die Erstellzeit
+        new Migration(6, "Indizes für gefilterte Statusseiten",
+            "CREATE INDEX IF NOT EXISTS idx_plants_status_user_planted ON plants (status, user_id, planted_at)",
+            "CREATE INDEX IF NOT EXISTS idx_plants_status_location_planted ON plants (status, location, planted_at)",
+            "CREATE INDEX IF NOT EXISTS idx_solar_status_user_placed ON solar_panels (status, user_id, placed_at)",
+            "CREATE INDEX IF NOT EXISTS idx_solar_status_location_placed ON solar_panels (status, location, placed_at)"
+        ),
+
+        // Zähler für /stats, pro Zeitraum-Bucket - gefüllt vom StatsRebuilder beim Start
+        new Migration(7, "Statistik-Zähler",
+            """
+            CREATE TABLE stat_counters (
+                period TEXT NOT NULL,
+                bucket INTEGER NOT NULL,
+                action TEXT NOT NULL,
+                dimension TEXT NOT NULL,
+                key TEXT NOT NULL,
+                label TEXT NOT NULL,
+                count INTEGER NOT NULL,
+                PRIMARY KEY (period, bucket, action, dimension, key)
+            ) WITHOUT ROWID
+            """,
+            "CREATE INDEX idx_stat_counters_top ON stat_counters (period, bucket, action, dimension, count DESC)"
+        ),
+
+        // Mehrere Server in einem Prozess: guild_id als Partitionsschlüssel, 0 = Altdaten ohne Gilde
+        // (werden per LEGACY_GUILD_ID übernommen). Globale Indizes bleiben nur für Abfragen über alle
+        // Gilden (Start, Cache-Abgleich, Archivierung).
+        new Migration(8, "Mehrere Server",
+            "ALTER TABLE plants ADD COLUMN guild_id INTEGER NOT NULL DEFAULT 0",
+            "ALTER TABLE solar_panels ADD COLUMN guild_id INTEGER NOT NULL DEFAULT 0",
+            "ALTER TABLE reminders ADD COLUMN guild_id INTEGER NOT NULL DEFAULT 0",
+            "ALTER TABLE activity_events ADD COLUMN guild_id INTEGER NOT NULL DEFAULT 0",
+
+            "DROP INDEX idx_plants_status_user_planted",
+            "DROP INDEX idx_plants_status_location_planted",
+            "CREATE INDEX idx_plants_guild_status_planted ON plants (guild_id, status, planted_at)",
+            "CREATE INDEX idx_plants_guild_status_user_planted ON plants (guild_id, status, user_id, planted_at)",
+            "CREATE INDEX idx_plants_guild_status_location_planted ON plants (guild_id, status, location, planted_at)",
+            "CREATE INDEX idx_plants_guild_status_harvested ON plants (guild_id, status, harvested_at)",
+
+            "DROP INDEX idx_solar_status_user_placed",
+            "DROP INDEX idx_solar_status_location_placed",
+            "CREATE INDEX idx_solar_guild_status_placed ON solar_panels (guild_id, status, placed_at)",
+            "CREATE INDEX idx_solar_guild_status_user_placed ON solar_panels (guild_id, status, user_id, placed_at)",
+            "CREATE INDEX idx_solar_guild_status_location_placed ON solar_panels (guild_id, status, location, placed_at)",
+            "CREATE INDEX idx_solar_guild_status_collected ON solar_panels (guild_id, status, collected_at)",
+
+            "CREATE INDEX idx_activity_guild ON activity_events (guild_id, id)",
+
+            // Primärschlüssel lässt sich nicht ändern - Zähler baut der StatsRebuilder beim Start neu auf
+            "DROP TABLE stat_counters",
+            """
+            CREATE TABLE stat_counters (
+                guild_id INTEGER NOT NULL,
+                period TEXT NOT NULL,
+                bucket INTEGER NOT NULL,
+                action TEXT NOT NULL,
+                dimension TEXT NOT NULL,
+                key TEXT NOT NULL,
+                label TEXT NOT NULL,
+                count INTEGER NOT NULL,
+                PRIMARY KEY (guild_id, period, bucket, action, dimension, key)
+            ) WITHOUT ROWID
+            """,
+            "CREATE INDEX idx_stat_counters_top ON stat_counters (guild_id, period, bucket, action, dimension, count DESC)",
+
+            // Kanäle und Zeiten pro Server, 0 = Kanal des Commands
+            """
+            CREATE TABLE guild_settings (
+                guild_id INTEGER PRIMARY KEY,
+                plant_channel_id INTEGER NOT NULL DEFAULT 0,
+                solar_channel_id INTEGER NOT NULL DEFAULT 0,
+                plant_growth_minutes INTEGER NOT NULL DEFAULT 240,
+                solar_battery_minutes INTEGER NOT NULL DEFAULT 120
+            )
+            """
+        ),
+        new Migration(9, "Bot-Zustand",
+            // Kleine Schlüssel/Wert-Paare, z.B. der Hash der zuletzt registrierten Commands
+            "CREATE TABLE bot_state (key TEXT PRIMARY KEY, value TEXT NOT NULL) WITHOUT ROWID"
+        )
+    );
+
+    // Alte Werte sind TEXT ('YYYY-MM-DD HH:MM:SS', UTC); bereits numerische Werte bleiben unverändert
+    private static String toMillis(String column, boolean required) {
+        String converted = "CASE WHEN typeof(" + column + ") = 'integer' THEN " + column
+                + " ELSE CAST(strftime('%s', " + column + ") AS INTEGER) * 1000 END";
+        return required ? "COALESCE(" + converted + ", " + NOW_MILLIS + ")" : converted;
+    }
+}
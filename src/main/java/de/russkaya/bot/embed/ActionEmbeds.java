@@ -0,0 +1,83 @@
+package de.russkaya.bot.embed;
+
+import de.russkaya.bot.guild.GuildSettings;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.awt.Color;
+import java.time.Instant;
+
+/**
+ * Antworten auf Säen, Düngen, Ernten, Aufstellen, Einsammeln und die Einstellungen.
+ */
+public final class ActionEmbeds {
+
+    private ActionEmbeds() {
+    }
+
+    public static MessageEmbed plantSeeded(String username, String location, int plantId, int growthMinutes) {
+        StringBuilder text = new StringBuilder(128)
+                .append(Texts.PLAYER).append(username).append('\n')
+                .append(Texts.LOCATION).append(location).append('\n')
+                .append(Texts.ID).append(plantId).append('\n')
+                .append(Texts.GROWTH_TIME).append(Texts.minutes(growthMinutes));
+        return build(Texts.PLANT_SEEDED, text, EmbedStyle.PLANT);
+    }
+
+    public static MessageEmbed plantFertilized(String username, int plantId, String location) {
+        StringBuilder text = new StringBuilder(96)
+                .append(Texts.PLAYER).append(username).append('\n')
+                .append(Texts.PLANT).append(plantId).append('\n')
+                .append(Texts.LOCATION).append(location);
+        return build(Texts.PLANT_FERTILIZED, text, EmbedStyle.FERTILIZED);
+    }
+
+    public static MessageEmbed plantHarvested(String username, int plantId, String car) {
+        StringBuilder text = new StringBuilder(96)
+                .append(Texts.PLAYER).append(username).append('\n')
+                .append(Texts.PLANT).append(plantId).append('\n')
+                .append(Texts.CAR).append(car);
+        return build(Texts.PLANT_HARVESTED, text, EmbedStyle.HARVESTED);
+    }
+
+    public static MessageEmbed solarPlaced(String username, String location, int solarId, int batteryMinutes) {
+        StringBuilder text = new StringBuilder(128)
+                .append(Texts.PLAYER).append(username).append('\n')
+                .append(Texts.LOCATION).append(location).append('\n')
+                .append(Texts.ID).append(solarId).append('\n')
+                .append(Texts.BATTERY_TIME).append(Texts.minutes(batteryMinutes));
+        return build(Texts.SOLAR_PLACED, text, EmbedStyle.SOLAR);
+    }
+
+    public static MessageEmbed batteryCollected(String username, int solarId, String car) {
+        StringBuilder text = new StringBuilder(96)
+                .append(Texts.PLAYER).append(username).append('\n')
+                .append(Texts.SOLAR).append(solarId).append('\n')
+                .append(Texts.CAR).append(car);
+        return build(Texts.BATTERY_COLLECTED, text, EmbedStyle.BATTERY);
+    }
+
+    public static MessageEmbed settings(GuildSettings settings) {
+        StringBuilder text = new StringBuilder(160)
+                .append(Texts.PLANT_CHANNEL).append(Texts.channel(settings.plantChannelId())).append('\n')
+                .append(Texts.SOLAR_CHANNEL).append(Texts.channel(settings.solarChannelId())).append('\n')
+                .append(Texts.GROWTH_TIME).append(Texts.minutes(settings.plantGrowthMinutes())).append('\n')
+                .append(Texts.BATTERY_TIME).append(Texts.minutes(settings.solarBatteryMinutes()));
+        return new EmbedBuilder()
+                .setTitle(Texts.SETTINGS)
+                .setDescription(text)
+                .setColor(EmbedStyle.SETTINGS)
+                .setFooter(Texts.SETTINGS_FOOTER)
+                .setTimestamp(Instant.now())
+                .build();
+    }
+
+    private static MessageEmbed build(String title, CharSequence description, Color color) {
+        return new EmbedBuilder()
+                .setTitle(title)
+                .setDescription(description)
+                .setColor(color)
+                .setTimestamp(Instant.now())
+                .build();
+    }
+}
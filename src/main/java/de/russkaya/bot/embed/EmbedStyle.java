@@ -0,0 +1,34 @@
+package de.russkaya.bot.embed;
+
+import java.awt.Color;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Farben und Datumsformat aller Embeds. Einmal angelegt und unveränderlich -
+ * vorher wurde {@code Color.decode} bzw. {@code DateTimeFormatter.ofPattern}
+ * bei jeder Antwort bzw. jeder Zeile neu ausgewertet.
+ */
+public final class EmbedStyle {
+
+    public static final Color PLANT = Color.GREEN;
+    public static final Color FERTILIZED = new Color(0x32CD32);
+    public static final Color HARVESTED = new Color(0x228B22);
+    public static final Color SOLAR = Color.YELLOW;
+    public static final Color BATTERY = Color.ORANGE;
+    public static final Color LOGS = Color.BLUE;
+    public static final Color STATS = Color.MAGENTA;
+    public static final Color SETTINGS = Color.GRAY;
+    public static final Color REMINDER = Color.ORANGE;
+    public static final Color DONE = Color.GREEN;
+
+    /**
+     * Zeitpunkte in der Zeitzone des Servers; formatiert {@code Instant}s direkt
+     * in einen {@code StringBuilder} ({@code formatTo}), ohne Zwischen-String.
+     */
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")
+            .withZone(ZoneId.systemDefault());
+
+    private EmbedStyle() {
+    }
+}
@@ -0,0 +1,28 @@
+package de.russkaya.bot.embed;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+
+import java.time.Instant;
+
+/**
+ * Sammelnachricht der Erinnerungen; die Texte der Einträge stehen in {@link Texts}.
+ */
+public final class ReminderEmbeds {
+
+    private ReminderEmbeds() {
+    }
+
+    /**
+     * Kopf der Sammelnachricht; die Einträge hängt der Digest als Felder an.
+     */
+    public static EmbedBuilder digest(int entries) {
+        return new EmbedBuilder()
+                .setTitle(Texts.REMINDERS + entries + ")")
+                .setColor(EmbedStyle.REMINDER)
+                .setTimestamp(Instant.now());
+    }
+
+    public static EmbedBuilder markAllDone(EmbedBuilder embed) {
+        return embed.setTitle(Texts.REMINDERS_DONE).setColor(EmbedStyle.DONE);
+    }
+}
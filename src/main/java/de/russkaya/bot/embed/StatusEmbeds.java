@@ -0,0 +1,169 @@
+package de.russkaya.bot.embed;
+
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.stats.StatEntry;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baut die Embeds der Status-, Log- und Statistik-Commands. Ohne JDA-Event, damit die
+ * Benchmarks genau denselben Code messen wie der Bot. Pro Embed wird ein
+ * {@code StringBuilder} für alle Felder wiederverwendet.
+ */
+public final class StatusEmbeds {
+
+    private static final String[] MEDALS = {"🥇", "🥈", "🥉"};
+
+    private StatusEmbeds() {
+    }
+
+    public static MessageEmbed plants(List<Plant> active) {
+        return plants(active, null);
+    }
+
+    /**
+     * @param footer Seite und Filter der Statusansicht oder {@code null}
+     */
+    public static MessageEmbed plants(List<Plant> active, String footer) {
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle(Texts.PLANTS_ACTIVE)
+                .setColor(EmbedStyle.PLANT);
+
+        StringBuilder plantInfo = new StringBuilder(160);
+        for (Plant plant : active) {
+            plantInfo.setLength(0);
+            plantInfo.append(Texts.ID).append(plant.id()).append('\n')
+                    .append(Texts.SOWN_BY).append(plant.username()).append('\n')
+                    .append(Texts.LOCATION).append(plant.location()).append('\n')
+                    .append(Texts.FERTILIZED);
+            if (plant.isFertilized()) {
+                plantInfo.append(Texts.FERTILIZED_BY).append(plant.fertilizedBy());
+            } else {
+                plantInfo.append(Texts.NOT_FERTILIZED);
+            }
+            embed.addField(Texts.PLANT_FIELD + plant.id(), plantInfo.append('\n').toString(), true);
+        }
+
+        if (active.isEmpty()) {
+            embed.setDescription(Texts.PLANTS_NONE);
+        }
+        if (footer != null) {
+            embed.setFooter(footer);
+        }
+
+        return embed.build();
+    }
+
+    public static MessageEmbed solarPanels(List<SolarPanel> active) {
+        return solarPanels(active, null);
+    }
+
+    /**
+     * @param footer Seite und Filter der Statusansicht oder {@code null}
+     */
+    public static MessageEmbed solarPanels(List<SolarPanel> active, String footer) {
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle(Texts.SOLAR_ACTIVE)
+                .setColor(EmbedStyle.SOLAR);
+
+        StringBuilder solarInfo = new StringBuilder(192);
+        for (SolarPanel panel : active) {
+            solarInfo.setLength(0);
+            solarInfo.append(Texts.ID).append(panel.id()).append('\n')
+                    .append(Texts.PLACED_BY).append(panel.username()).append('\n')
+                    .append(Texts.LOCATION).append(panel.location()).append('\n')
+                    .append(Texts.PLACED_AT);
+            EmbedStyle.DATE_TIME.formatTo(panel.placedAt(), solarInfo);
+            solarInfo.append('\n')
+                    .append(Texts.REPAIRS).append(panel.repairs()).append('/').append(SolarPanel.REPAIRS_PER_BATTERY).append('\n');
+            embed.addField(Texts.SOLAR_FIELD + panel.id(), solarInfo.toString(), true);
+        }
+
+        if (active.isEmpty()) {
+            embed.setDescription(Texts.SOLAR_NONE);
+        }
+        if (footer != null) {
+            embed.setFooter(footer);
+        }
+
+        return embed.build();
+    }
+
+    /**
+     * @param limit angefragte Seitengröße - ist die Seite voll, gibt es einen Hinweis zum Weiterblättern
+     */
+    public static MessageEmbed logs(List<ActivityEvent> events, int limit) {
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle(Texts.LOGS)
+                .setColor(EmbedStyle.LOGS);
+
+        StringBuilder logEntry = new StringBuilder(128);
+        for (ActivityEvent entry : events) {
+            logEntry.setLength(0);
+            logEntry.append("**").append(entry.username()).append("** ")
+                    .append(entry.action().getVerb()).append(' ')
+                    .append(entry.action().getObject()).append(Texts.LOG_AT)
+                    .append(entry.location()).append("*\n")
+                    .append(Texts.LOG_TIME);
+            EmbedStyle.DATE_TIME.formatTo(entry.occurredAt(), logEntry);
+            logEntry.append(Texts.LOG_ID).append(entry.id());
+            embed.addField("", logEntry.toString(), false);
+        }
+
+        if (events.isEmpty()) {
+            embed.setDescription(Texts.LOGS_NONE);
+        } else if (events.size() == limit) {
+            embed.setFooter(Texts.LOGS_OLDER + events.get(events.size() - 1).id());
+        }
+
+        return embed.build();
+    }
+
+    /**
+     * Mehrere kurze Ranglisten nebeneinander.
+     *
+     * @param sections Feldtitel zu Rangliste, in Anzeigereihenfolge
+     */
+    public static MessageEmbed stats(String title, Map<String, List<StatEntry>> sections) {
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle(title)
+                .setColor(EmbedStyle.STATS);
+
+        for (Map.Entry<String, List<StatEntry>> section : sections.entrySet()) {
+            embed.addField(section.getKey(), section.getValue().isEmpty() ? "-" : ranking(section.getValue()), true);
+        }
+
+        return embed.build();
+    }
+
+    /**
+     * Eine lange Rangliste.
+     */
+    public static MessageEmbed leaderboard(String title, List<StatEntry> entries) {
+        return new EmbedBuilder()
+                .setTitle(title)
+                .setColor(EmbedStyle.STATS)
+                .setDescription(entries.isEmpty() ? Texts.LEADERBOARD_NONE : ranking(entries))
+                .build();
+    }
+
+    private static String ranking(List<StatEntry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < entries.size(); i++) {
+            StatEntry entry = entries.get(i);
+            if (i > 0) text.append('\n');
+            if (i < MEDALS.length) {
+                text.append(MEDALS[i]);
+            } else {
+                text.append("**").append(i + 1).append(".**");
+            }
+            text.append(' ').append(entry.label()).append(" - ").append(entry.count());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package de.russkaya.bot.embed;
+
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.solar.SolarPanel;
+
+/**
+ * Alle deutschen Texte der Embeds an einer Stelle. Zeilen mit Platzhaltern sind
+ * in ihre festen Teile zerlegt, die Builder hängen nur noch die Werte dazwischen
+ * an - kein {@code String.format}, das das Muster bei jedem Aufruf neu parst.
+ */
+public final class Texts {
+
+    // Titel der Command-Antworten
+    public static final String PLANT_SEEDED = "🌱 Pflanze gesät!";
+    public static final String PLANT_FERTILIZED = "💚 Pflanze gedüngt!";
+    public static final String PLANT_HARVESTED = "🌿 Pflanze geerntet!";
+    public static final String SOLAR_PLACED = "☀️ Solarpanel aufgestellt!";
+    public static final String BATTERY_COLLECTED = "🔋 Batterie eingesammelt!";
+    public static final String SETTINGS = "⚙️ Einstellungen";
+    public static final String SETTINGS_FOOTER = "Gilt für neue Pflanzen und Solarpanels";
+
+    // Status, Logs und Statistik
+    public static final String PLANTS_ACTIVE = "🌱 Aktive Pflanzen";
+    public static final String PLANTS_NONE = "Keine aktiven Pflanzen vorhanden.";
+    public static final String PLANT_FIELD = "Pflanze #";
+    public static final String SOLAR_ACTIVE = "☀️ Aktive Solarpanels";
+    public static final String SOLAR_NONE = "Keine aktiven Solarpanels vorhanden.";
+    public static final String SOLAR_FIELD = "Panel #";
+    public static final String LOGS = "📋 Letzte Aktivitäten";
+    public static final String LOGS_NONE = "Keine Logs vorhanden.";
+    public static final String LOGS_OLDER = "Ältere Einträge: /logs vor:";
+    public static final String LOG_AT = " bei *";
+    public static final String LOG_TIME = "🕐 ";
+    public static final String LOG_ID = " · Log #";
+    public static final String LEADERBOARD_NONE = "Noch keine Einträge in diesem Zeitraum.";
+
+    // Zeilen "**Bezeichnung:** Wert"
+    public static final String PLAYER = "**Spieler:** ";
+    public static final String LOCATION = "**Standort:** ";
+    public static final String ID = "**ID:** #";
+    public static final String PLANT = "**Pflanze:** #";
+    public static final String SOLAR = "**Solarpanel:** #";
+    public static final String CAR = "**Auto:** ";
+    public static final String GROWTH_TIME = "**Wachstumszeit:** ";
+    public static final String BATTERY_TIME = "**Batteriezeit:** ";
+    public static final String SOWN_BY = "**Gesät von:** ";
+    public static final String FERTILIZED = "**Gedüngt:** ";
+    public static final String FERTILIZED_BY = "✅ von ";
+    public static final String NOT_FERTILIZED = "❌ Nicht gedüngt";
+    public static final String PLACED_BY = "**Aufgestellt von:** ";
+    public static final String PLACED_AT = "**Aufgestellt:** ";
+    public static final String REPAIRS = "**Reparaturen:** ";
+    public static final String PLANT_CHANNEL = "**Pflanzen-Kanal:** ";
+    public static final String SOLAR_CHANNEL = "**Solar-Kanal:** ";
+    public static final String COMMAND_CHANNEL = "Kanal des Commands";
+
+    // Erinnerungen
+    public static final String REMINDERS = "🔔 Erinnerungen (";
+    public static final String REMINDERS_DONE = "✅ Erinnerungen erledigt!";
+    public static final String FERTILIZE_REMINDER = "⚠️ Dünger-Erinnerung!";
+    public static final String REPAIR_REMINDER = "⚠️ Solarpanel-Erinnerung!";
+    public static final String COLLECT_REMINDER = "🔋 Batterie bereit!";
+    public static final String DONE_FERTILIZED = "✅ Gedüngt von ";
+    public static final String DONE_REPAIRED = "🔧 Repariert von ";
+
+    private Texts() {
+    }
+
+    public static String plantNotFound(int plantId) {
+        return "❌ Pflanze #" + plantId + " nicht gefunden oder bereits geerntet!";
+    }
+
+    public static String solarNotFound(int solarId) {
+        return "❌ Solarpanel #" + solarId + " nicht gefunden oder bereits eingesammelt!";
+    }
+
+    /**
+     * Vorschlag in den {@code id}-Optionen, z.B. "#12 · Paleto Bay · Anna".
+     */
+    public static String activeChoice(int id, String location, String username) {
+        return "#" + id + " · " + location + " · " + username;
+    }
+
+    public static String minutes(int minutes) {
+        if (minutes % 60 != 0) return minutes + " Minuten";
+        int hours = minutes / 60;
+        return hours == 1 ? "1 Stunde" : hours + " Stunden";
+    }
+
+    public static String channel(long channelId) {
+        return channelId != 0 ? "<#" + channelId + ">" : COMMAND_CHANNEL;
+    }
+
+    public static String fertilizeReminder(Plant plant) {
+        return new StringBuilder(160)
+                .append("Die Pflanze #").append(plant.id())
+                .append(" von **").append(plant.username())
+                .append("** bei *").append(plant.location()).append("* muss gedüngt werden!\n")
+                .append("`/pflanze-düngen id:").append(plant.id()).append("` oder mit ✅ reagieren")
+                .toString();
+    }
+
+    public static String repairReminder(SolarPanel panel) {
+        return new StringBuilder(200)
+                .append("Das Solarpanel #").append(panel.id())
+                .append(" von **").append(panel.username())
+                .append("** bei *").append(panel.location()).append("* kann repariert werden!\n")
+                .append("Nach ").append(SolarPanel.REPAIRS_PER_BATTERY)
+                .append(" Reparaturen kann eine Batterie eingesammelt werden (bisher ")
+                .append(panel.repairs()).append(", mit 🔧 reagieren)")
+                .toString();
+    }
+
+    public static String collectReminder(SolarPanel panel) {
+        return new StringBuilder(160)
+                .append("Das Solarpanel #").append(panel.id())
+                .append(" von **").append(panel.username())
+                .append("** bei *").append(panel.location()).append("* hat eine Batterie bereit!\n")
+                .append("`/solar-sammeln id:").append(panel.id()).append(" car:[Auto]`")
+                .toString();
+    }
+
+    /**
+     * Neuer Feldname, nachdem jemand per Reaktion gedüngt hat.
+     */
+    public static String fertilizedBy(String username) {
+        return DONE_FERTILIZED + username;
+    }
+
+    public static String repairedBy(String username, int repairs) {
+        return DONE_REPAIRED + username + " (" + repairs + "/" + SolarPanel.REPAIRS_PER_BATTERY + ")";
+    }
+}
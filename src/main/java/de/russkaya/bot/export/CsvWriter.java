@@ -0,0 +1,75 @@
+package de.russkaya.bot.export;
+
+import de.russkaya.bot.retention.ArchivedRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CSV nach RFC 4180 mit Kopfzeile. Die Spalten der ersten Zeile legen die
+ * Kopfzeile fest; ältere Archivzeilen mit anderem Schema werden per Name
+ * zugeordnet, fehlende Spalten bleiben leer.
+ */
+final class CsvWriter implements RowWriter {
+
+    private final Writer out;
+    private String[] header;
+
+    CsvWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(ArchivedRow row) throws IOException {
+        if (header == null) {
+            header = row.columns();
+            // BOM, damit Excel Umlaute richtig erkennt
+            out.write('\uFEFF');
+            for (int i = 0; i < header.length; i++) {
+                if (i > 0) out.write(',');
+                field(header[i]);
+            }
+            out.write("\r\n");
+        }
+
+        boolean sameColumns = Arrays.equals(header, row.columns());
+        for (int i = 0; i < header.length; i++) {
+            if (i > 0) out.write(',');
+            Object value = sameColumns ? row.values()[i] : valueOf(row, header[i]);
+            if (value != null) field(value);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void field(Object value) throws IOException {
+        String text = value.toString();
+        // Formeln in Namen o.ä. nicht von der Tabellenkalkulation ausführen lassen
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static Object valueOf(ArchivedRow row, String column) {
+        for (int i = 0; i < row.columns().length; i++) {
+            if (row.columns()[i].equals(column)) return row.values()[i];
+        }
+        return null;
+    }
+}
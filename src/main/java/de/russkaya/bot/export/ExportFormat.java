@@ -0,0 +1,37 @@
+package de.russkaya.bot.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Dateiformate für {@code /export}. Beide werden gzip-komprimiert verschickt.
+ */
+public enum ExportFormat {
+    JSONL("jsonl") {
+        @Override
+        RowWriter open(OutputStream out) throws IOException {
+            return new JsonLinesWriter(out);
+        }
+    },
+    CSV("csv") {
+        @Override
+        RowWriter open(OutputStream out) {
+            return new CsvWriter(out);
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Dateiendung ohne ".gz".
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract RowWriter open(OutputStream out) throws IOException;
+}
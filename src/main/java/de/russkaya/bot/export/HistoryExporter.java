@@ -0,0 +1,130 @@
+package de.russkaya.bot.export;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+import de.russkaya.bot.retention.ArchiveReader;
+import de.russkaya.bot.retention.ArchiveTable;
+import de.russkaya.bot.retention.ArchivedRow;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportiert abgeschlossene Einträge eines Servers aus einer Tabelle - aus der
+ * Datenbank und aus dem Archiv - als gzip-komprimierte Datei.
+ *
+ * Aus der Datenbank wird per Keyset-Cursor in Portionen von {@value #CHUNK}
+ * Zeilen gelesen, jede Portion auf einer eigenen Leseverbindung; zwischen zwei
+ * Portionen ist die Verbindung wieder frei für Commands. Danach folgt das
+ * Archiv, das Zeile für Zeile gestreamt wird. Der Speicherbedarf hängt also
+ * nicht vom Zeitraum ab - bis auf ein Bit pro ID, mit dem Zeilen übersprungen
+ * werden, die während des Exports archiviert oder doppelt archiviert wurden.
+ */
+public class HistoryExporter implements MetricsCollector {
+
+    static final int CHUNK = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Database database;
+    private final ArchiveReader archive;
+    private final long legacyGuildId;
+
+    // Statistik
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong exports = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * @param legacyGuildId Server, dem archivierte Zeilen ohne {@code guild_id} gehören (0 = keinem)
+     */
+    public HistoryExporter(Database database, ArchiveReader archive, long legacyGuildId) {
+        this.database = database;
+        this.archive = archive;
+        this.legacyGuildId = legacyGuildId;
+    }
+
+    /**
+     * Schreibt alle Einträge des Servers mit {@code from <= Abschlusszeit < to} nach {@code file}.
+     *
+     * @return Anzahl der exportierten Zeilen
+     */
+    public long export(ArchiveTable table, long guildId, long from, long to, ExportFormat format, Path file)
+            throws SQLException, IOException {
+        running.incrementAndGet();
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE)) {
+            RowWriter writer = format.open(out);
+            BitSet seen = new BitSet();
+            exportDatabase(table, guildId, from, to, writer, seen);
+            archive.read(table, from, to, row -> {
+                // Archivdateien enthalten alle Server
+                long rowGuild = row.guildId();
+                if (rowGuild != guildId && (rowGuild != 0 || guildId != legacyGuildId)) return;
+                if (seen.get(row.id())) return;
+                seen.set(row.id());
+                writer.write(row);
+            });
+            writer.finish();
+
+            // Jede geschriebene Zeile hat genau ein Bit gesetzt
+            long count = seen.cardinality();
+            exports.incrementAndGet();
+            rows.addAndGet(count);
+            return count;
+        } finally {
+            bytes.addAndGet(Files.exists(file) ? Files.size(file) : 0);
+            running.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.single("russkaya_export_running", "gauge", "Laufende Exporte", running.get());
+        out.single("russkaya_export_total", "counter", "Abgeschlossene Exporte", exports.get());
+        out.single("russkaya_export_rows_total", "counter", "Exportierte Zeilen", rows.get());
+        out.single("russkaya_export_bytes_total", "counter", "Geschriebene Exportdaten (komprimiert)", bytes.get());
+    }
+
+    private void exportDatabase(ArchiveTable table, long guildId, long from, long to, RowWriter writer, BitSet seen)
+            throws SQLException, IOException {
+        String sql = "SELECT * FROM " + table.name() + " WHERE guild_id = ? AND " + table.finished()
+                + " AND (" + table.timeColumn() + ", id) > (?, ?) AND " + table.timeColumn() + " < ?"
+                + " ORDER BY " + table.timeColumn() + ", id LIMIT ?";
+        long afterTime = from;
+        int afterId = 0; // IDs beginnen bei 1, (from, 0) schließt also from selbst ein
+        while (true) {
+            long cursorTime = afterTime;
+            int cursorId = afterId;
+            List<ArchivedRow> chunk = database.read(connection -> {
+                PreparedStatement stmt = database.prepare(connection, sql);
+                stmt.setLong(1, guildId);
+                stmt.setLong(2, cursorTime);
+                stmt.setInt(3, cursorId);
+                stmt.setLong(4, to);
+                stmt.setInt(5, CHUNK);
+                return database.queryList(stmt, result -> ArchivedRow.read(result, table.timeColumn()));
+            });
+            // Geschrieben wird erst nach dem Zurückgeben der Leseverbindung
+            for (ArchivedRow row : chunk) {
+                writer.write(row);
+                seen.set(row.id());
+            }
+            if (chunk.size() < CHUNK) return;
+
+            ArchivedRow last = chunk.get(chunk.size() - 1);
+            afterTime = last.time();
+            afterId = last.id();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.russkaya.bot.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import de.russkaya.bot.retention.ArchivedRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Ein JSON-Objekt pro Zeile, Spaltennamen wie in der Datenbank.
+ */
+final class JsonLinesWriter implements RowWriter {
+
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator("") // Zeilenumbruch nach jedem Objekt schreiben wir selbst
+            .build();
+
+    private final JsonGenerator generator;
+
+    JsonLinesWriter(OutputStream out) throws IOException {
+        this.generator = JSON.createGenerator(out);
+    }
+
+    @Override
+    public void write(ArchivedRow row) throws IOException {
+        row.writeJson(generator);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+}
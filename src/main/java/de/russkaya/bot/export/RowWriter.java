@@ -0,0 +1,18 @@
+package de.russkaya.bot.export;
+
+import de.russkaya.bot.retention.ArchivedRow;
+
+import java.io.IOException;
+
+/**
+ * Schreibt Zeilen einzeln in einen Stream - nichts wird gesammelt.
+ */
+interface RowWriter {
+
+    void write(ArchivedRow row) throws IOException;
+
+    /**
+     * Leert Puffer, schließt aber den Stream nicht.
+     */
+    void finish() throws IOException;
+}
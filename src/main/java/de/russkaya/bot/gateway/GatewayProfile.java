@@ -0,0 +1,133 @@
+package de.russkaya.bot.gateway;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wie viel JDA vom Gateway empfängt und im Speicher hält.
+ *
+ * Der Bot braucht nur Server und Kanäle (für Erinnerungen und Dateigrößen) und
+ * Reaktionen - Commands und Buttons kommen als Interaktionen und brauchen weder
+ * Intents noch Cache. Mitglieder, Emojis, Sticker, Sprachkanäle und Events
+ * liest der Code nie. Gemessen mit {@code JdaFootprint} aus den Benchmarks.
+ */
+public enum GatewayProfile {
+
+    /**
+     * JDAs Voreinstellungen plus Nachrichteninhalt - so lief der Bot bisher.
+     */
+    DEFAULT(withDefaults(GatewayIntent.MESSAGE_CONTENT, GatewayIntent.GUILD_MESSAGE_REACTIONS),
+            EnumSet.complementOf(CacheFlag.getPrivileged()), MemberCachePolicy.DEFAULT, 250),
+
+    /**
+     * Nur Reaktionen als Intent (Server und Kanäle schickt Discord immer), kein
+     * Cache außer Servern und Kanälen, keine Mitglieder, kein Chunking.
+     */
+    LEAN(EnumSet.of(GatewayIntent.GUILD_MESSAGE_REACTIONS), EnumSet.noneOf(CacheFlag.class), MemberCachePolicy.NONE, 50);
+
+    // Thread-Pools für LEAN: JDA legt sonst pro Shard eigene an bzw. nutzt den Common-Pool
+    private static final int RATE_LIMIT_THREADS = 2;
+    private static final int REST_THREADS = 4;
+    private static final int GATEWAY_THREADS = 2;
+    private static final int CALLBACK_THREADS = 2;
+
+    private final EnumSet<GatewayIntent> intents;
+    private final EnumSet<CacheFlag> cacheFlags;
+    private final MemberCachePolicy memberCachePolicy;
+    private final int largeThreshold;
+
+    GatewayProfile(EnumSet<GatewayIntent> intents, EnumSet<CacheFlag> cacheFlags, MemberCachePolicy memberCachePolicy, int largeThreshold) {
+        this.intents = intents;
+        this.cacheFlags = cacheFlags;
+        this.memberCachePolicy = memberCachePolicy;
+        this.largeThreshold = largeThreshold;
+    }
+
+    /**
+     * Liest {@code JDA_PROFILE}; leer heißt {@link #LEAN}.
+     */
+    public static GatewayProfile parse(String value) {
+        if (value == null || value.isBlank()) return LEAN;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekanntes JDA_PROFILE \"" + value + "\" - erlaubt sind lean und default");
+        }
+    }
+
+    public DefaultShardManagerBuilder builder(String token) {
+        DefaultShardManagerBuilder builder = DefaultShardManagerBuilder.create(token, intents)
+                .disableCache(EnumSet.allOf(CacheFlag.class))
+                .enableCache(cacheFlags)
+                .setMemberCachePolicy(memberCachePolicy)
+                // Mitgliederlisten nie nachladen - bei großen Servern der mit Abstand größte Posten
+                .setChunkingFilter(ChunkingFilter.NONE)
+                .setLargeThreshold(largeThreshold);
+        if (this == LEAN) {
+            // Ein Satz Pools für alle Shards; Events laufen weiter auf dem Gateway-Thread,
+            // weil der CommandDispatcher sofort auf virtuelle Threads abgibt
+            builder.setRateLimitScheduler(scheduler("jda-ratelimit", RATE_LIMIT_THREADS), true)
+                    .setRateLimitElastic(pool("jda-rest", REST_THREADS), true)
+                    .setGatewayPool(scheduler("jda-gateway", GATEWAY_THREADS), true)
+                    .setCallbackPool(pool("jda-callback", CALLBACK_THREADS), true);
+        }
+        return builder;
+    }
+
+    public EnumSet<GatewayIntent> intents() {
+        return EnumSet.copyOf(intents);
+    }
+
+    public EnumSet<CacheFlag> cacheFlags() {
+        return cacheFlags.isEmpty() ? EnumSet.noneOf(CacheFlag.class) : EnumSet.copyOf(cacheFlags);
+    }
+
+    public MemberCachePolicy memberCachePolicy() {
+        return memberCachePolicy;
+    }
+
+    public String describe() {
+        return name().toLowerCase(Locale.ROOT) + " (Intents " + intents + ", Cache " + cacheFlags + ")";
+    }
+
+    private static EnumSet<GatewayIntent> withDefaults(GatewayIntent... extra) {
+        EnumSet<GatewayIntent> intents = GatewayIntent.getIntents(GatewayIntent.DEFAULT);
+        Collections.addAll(intents, extra);
+        return intents;
+    }
+
+    private static ScheduledThreadPoolExecutor scheduler(String name, int threads) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(threads, daemon(name));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static ExecutorService pool(String name, int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemon(name));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package de.russkaya.bot.guild;
+
+/**
+ * Einstellungen eines Servers aus {@code guild_settings}. Ein Kanal von
+ * {@code 0} heißt: Erinnerungen gehen in den Kanal, in dem der Command lief.
+ */
+public record GuildSettings(long guildId, long plantChannelId, long solarChannelId,
+                            int plantGrowthMinutes, int solarBatteryMinutes) {
+
+    public static final int DEFAULT_PLANT_GROWTH_MINUTES = 4 * 60; // Pflanzen brauchen 4 Stunden
+    public static final int DEFAULT_SOLAR_BATTERY_MINUTES = 2 * 60; // Solarpanels alle 2 Stunden
+
+    public static GuildSettings defaults(long guildId) {
+        return new GuildSettings(guildId, 0, 0, DEFAULT_PLANT_GROWTH_MINUTES, DEFAULT_SOLAR_BATTERY_MINUTES);
+    }
+
+    /**
+     * Kanal für Pflanzen-Erinnerungen, sonst {@code fallback}.
+     */
+    public long plantChannel(long fallback) {
+        return plantChannelId != 0 ? plantChannelId : fallback;
+    }
+
+    /**
+     * Kanal für Solar-Erinnerungen, sonst {@code fallback}.
+     */
+    public long solarChannel(long fallback) {
+        return solarChannelId != 0 ? solarChannelId : fallback;
+    }
+
+    public GuildSettings withPlantChannel(long channelId) {
+        return new GuildSettings(guildId, channelId, solarChannelId, plantGrowthMinutes, solarBatteryMinutes);
+    }
+
+    public GuildSettings withSolarChannel(long channelId) {
+        return new GuildSettings(guildId, plantChannelId, channelId, plantGrowthMinutes, solarBatteryMinutes);
+    }
+
+    public GuildSettings withPlantGrowth(int minutes) {
+        return new GuildSettings(guildId, plantChannelId, solarChannelId, minutes, solarBatteryMinutes);
+    }
+
+    public GuildSettings withSolarBattery(int minutes) {
+        return new GuildSettings(guildId, plantChannelId, solarChannelId, plantGrowthMinutes, minutes);
+    }
+}
@@ -0,0 +1,92 @@
+package de.russkaya.bot.guild;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Einstellungen aller Server im Speicher. Jeder Command braucht sie, ändern
+ * tun sie sich fast nie - daher wird nur beim ersten Zugriff auf einen Server
+ * gelesen und danach nur noch über {@link #update} geschrieben (Write-Through).
+ * Server ohne Zeile bekommen die Standardwerte, ebenfalls gecacht.
+ */
+public class GuildSettingsCache implements MetricsCollector {
+
+    private final Database database;
+    private final GuildSettingsRepository repository;
+    private final Map<Long, GuildSettings> byGuild = new ConcurrentHashMap<>();
+
+    // Statistik
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GuildSettingsCache(Database database, GuildSettingsRepository repository) {
+        this.database = database;
+        this.repository = repository;
+    }
+
+    /**
+     * Lädt alle gespeicherten Einstellungen auf einmal (beim Start).
+     */
+    public int load() throws SQLException {
+        for (GuildSettings settings : database.read(repository::listAll)) {
+            byGuild.put(settings.guildId(), settings);
+        }
+        return byGuild.size();
+    }
+
+    public GuildSettings get(long guildId) throws SQLException {
+        GuildSettings cached = byGuild.get(guildId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        GuildSettings loaded = database.read(connection -> repository.find(connection, guildId))
+                .orElseGet(() -> GuildSettings.defaults(guildId));
+        // Ein paralleles update gewinnt gegen den gerade gelesenen Stand
+        GuildSettings previous = byGuild.putIfAbsent(guildId, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    /**
+     * Ändert die Einstellungen eines Servers. Gelesen und geschrieben wird in
+     * einer Transaktion, damit zwei Änderungen sich nicht überschreiben.
+     */
+    public synchronized GuildSettings update(long guildId, UnaryOperator<GuildSettings> change) throws SQLException {
+        GuildSettings updated = database.write(connection -> {
+            GuildSettings current = repository.find(connection, guildId).orElseGet(() -> GuildSettings.defaults(guildId));
+            GuildSettings next = change.apply(current);
+            repository.save(connection, next);
+            return next;
+        });
+        byGuild.put(guildId, updated);
+        return updated;
+    }
+
+    /**
+     * Legt Einstellungen an, falls der Server noch keine hat (z.B. aus alten Umgebungsvariablen).
+     */
+    public synchronized boolean initialize(GuildSettings settings) throws SQLException {
+        boolean created = database.write(connection -> repository.insertIfAbsent(connection, settings));
+        if (created) byGuild.put(settings.guildId(), settings);
+        return created;
+    }
+
+    public int size() {
+        return byGuild.size();
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.single("russkaya_guild_settings_cached", "gauge", "Server mit Einstellungen im Speicher", byGuild.size());
+        out.single("russkaya_guild_settings_hits_total", "counter", "Einstellungen aus dem Speicher", hits.get());
+        out.single("russkaya_guild_settings_misses_total", "counter", "Einstellungen aus der Datenbank nachgeladen", misses.get());
+    }
+}
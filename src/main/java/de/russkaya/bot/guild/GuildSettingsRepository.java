@@ -0,0 +1,75 @@
+package de.russkaya.bot.guild;
+
+import de.russkaya.bot.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQL für {@code guild_settings}. Gleiche Konventionen wie {@link de.russkaya.bot.plant.PlantRepository}.
+ */
+public class GuildSettingsRepository {
+
+    private static final String COLUMNS = "guild_id, plant_channel_id, solar_channel_id, plant_growth_minutes, solar_battery_minutes";
+
+    private static final String FIND = "SELECT " + COLUMNS + " FROM guild_settings WHERE guild_id = ?";
+    private static final String ALL = "SELECT " + COLUMNS + " FROM guild_settings";
+    private static final String SAVE = "INSERT INTO guild_settings (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)"
+            + " ON CONFLICT (guild_id) DO UPDATE SET plant_channel_id = excluded.plant_channel_id,"
+            + " solar_channel_id = excluded.solar_channel_id, plant_growth_minutes = excluded.plant_growth_minutes,"
+            + " solar_battery_minutes = excluded.solar_battery_minutes";
+    private static final String INSERT_IF_ABSENT = "INSERT INTO guild_settings (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)"
+            + " ON CONFLICT (guild_id) DO NOTHING";
+
+    private final Database database;
+
+    public GuildSettingsRepository(Database database) {
+        this.database = database;
+    }
+
+    public Optional<GuildSettings> find(Connection connection, long guildId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, FIND);
+        stmt.setLong(1, guildId);
+        return database.querySingle(stmt, GuildSettingsRepository::map);
+    }
+
+    public List<GuildSettings> listAll(Connection connection) throws SQLException {
+        return database.queryList(database.prepare(connection, ALL), GuildSettingsRepository::map);
+    }
+
+    public void save(Connection connection, GuildSettings settings) throws SQLException {
+        database.update(bind(database.prepare(connection, SAVE), settings));
+    }
+
+    /**
+     * Legt die Einstellungen nur an, wenn es für den Server noch keine gibt.
+     *
+     * @return {@code true}, wenn angelegt wurde
+     */
+    public boolean insertIfAbsent(Connection connection, GuildSettings settings) throws SQLException {
+        return database.update(bind(database.prepare(connection, INSERT_IF_ABSENT), settings)) > 0;
+    }
+
+    private static PreparedStatement bind(PreparedStatement stmt, GuildSettings settings) throws SQLException {
+        stmt.setLong(1, settings.guildId());
+        stmt.setLong(2, settings.plantChannelId());
+        stmt.setLong(3, settings.solarChannelId());
+        stmt.setInt(4, settings.plantGrowthMinutes());
+        stmt.setInt(5, settings.solarBatteryMinutes());
+        return stmt;
+    }
+
+    private static GuildSettings map(ResultSet result) throws SQLException {
+        return new GuildSettings(
+            result.getLong("guild_id"),
+            result.getLong("plant_channel_id"),
+            result.getLong("solar_channel_id"),
+            result.getInt("plant_growth_minutes"),
+            result.getInt("solar_battery_minutes")
+        );
+    }
+}
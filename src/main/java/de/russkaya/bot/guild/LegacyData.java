@@ -0,0 +1,80 @@
+package de.russkaya.bot.guild;
+
+import de.russkaya.bot.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Zeilen aus der Zeit vor Migration 8 haben {@code guild_id = 0}. Sie gehörten
+ * alle zu dem einen Server, für den der Bot damals lief, und werden einmalig
+ * diesem Server zugeordnet ({@code LEGACY_GUILD_ID}).
+ */
+public final class LegacyData {
+
+    private static final String[] TABLES = {"plants", "solar_panels", "reminders", "activity_events"};
+
+    // Zähler können für den Server schon existieren - addieren statt umschreiben
+    private static final String MERGE_COUNTERS = "INSERT INTO stat_counters (guild_id, period, bucket, action, dimension, key, label, count)"
+            + " SELECT ?, period, bucket, action, dimension, key, label, count FROM stat_counters WHERE guild_id = 0 AND true"
+            + " ON CONFLICT (guild_id, period, bucket, action, dimension, key) DO UPDATE SET count = count + excluded.count";
+
+    private LegacyData() {
+    }
+
+    /**
+     * @return Anzahl der Zeilen ohne Server
+     */
+    public static long count(Database database) throws SQLException {
+        return database.read(LegacyData::count);
+    }
+
+    /**
+     * Ordnet alle Zeilen ohne Server {@code guildId} zu, in einer Transaktion.
+     *
+     * @return Anzahl der übernommenen Zeilen (ohne Statistik-Zähler)
+     */
+    public static long adopt(Database database, long guildId) throws SQLException {
+        if (guildId == 0) throw new IllegalArgumentException("guildId darf nicht 0 sein");
+        return database.write(connection -> {
+            if (count(connection) == 0 && !hasCounters(connection)) return 0L;
+
+            long adopted = 0;
+            for (String table : TABLES) {
+                try (PreparedStatement stmt = connection.prepareStatement("UPDATE " + table + " SET guild_id = ? WHERE guild_id = 0")) {
+                    stmt.setLong(1, guildId);
+                    adopted += stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(MERGE_COUNTERS)) {
+                stmt.setLong(1, guildId);
+                stmt.executeUpdate();
+            }
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("DELETE FROM stat_counters WHERE guild_id = 0");
+            }
+            return adopted;
+        });
+    }
+
+    private static long count(Connection connection) throws SQLException {
+        long total = 0;
+        for (String table : TABLES) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet result = stmt.executeQuery("SELECT COUNT(*) FROM " + table + " WHERE guild_id = 0")) {
+                if (result.next()) total += result.getLong(1);
+            }
+        }
+        return total;
+    }
+
+    private static boolean hasCounters(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet result = stmt.executeQuery("SELECT 1 FROM stat_counters WHERE guild_id = 0 LIMIT 1")) {
+            return result.next();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.russkaya.bot.guild;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Die Shards, die dieser Prozess bedient: {@code first} bis einschließlich
+ * {@code last} von {@code total}. Discord ordnet jeden Server über seine ID
+ * fest einem Shard zu - damit lässt sich auch in SQL ausrechnen, welche
+ * Zeilen (z.B. offene Erinnerungen) zu diesem Prozess gehören.
+ */
+public record ShardRange(int total, int first, int last) {
+
+    public ShardRange {
+        if (total < 1 || first < 0 || last < first || last >= total) {
+            throw new IllegalArgumentException("Ungültiger Shard-Bereich " + first + "-" + last + " von " + total);
+        }
+    }
+
+    /**
+     * Alle Shards in einem Prozess.
+     */
+    public static ShardRange all(int total) {
+        return new ShardRange(total, 0, total - 1);
+    }
+
+    /**
+     * Liest {@code "3"} oder {@code "0-3"}; leer heißt alle.
+     */
+    public static ShardRange parse(String spec, int total) {
+        if (spec == null || spec.isBlank()) return all(total);
+        String[] parts = spec.trim().split("-", 2);
+        int first = Integer.parseInt(parts[0].trim());
+        int last = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : first;
+        return new ShardRange(total, first, last);
+    }
+
+    /**
+     * Formel aus der Discord-Doku: {@code (guild_id >> 22) % num_shards}.
+     */
+    public static int shardOf(long guildId, int total) {
+        return (int) ((guildId >>> 22) % total);
+    }
+
+    /**
+     * Bedingung "Zeile gehört zu diesen Shards" über {@code column}, mit drei
+     * Parametern - siehe {@link #bind}.
+     */
+    public static String sqlFilter(String column) {
+        return "((" + column + " >> 22) % ?) BETWEEN ? AND ?";
+    }
+
+    /**
+     * Setzt die Parameter von {@link #sqlFilter} ab {@code index}.
+     *
+     * @return der nächste freie Index
+     */
+    public int bind(PreparedStatement stmt, int index) throws SQLException {
+        stmt.setInt(index, total);
+        stmt.setInt(index + 1, first);
+        stmt.setInt(index + 2, last);
+        return index + 3;
+    }
+
+    public boolean contains(long guildId) {
+        int shard = shardOf(guildId, total);
+        return shard >= first && shard <= last;
+    }
+
+    public boolean isAll() {
+        return first == 0 && last == total - 1;
+    }
+
+    /**
+     * Der Prozess mit Shard 0 übernimmt Aufgaben, die alle Server betreffen.
+     */
+    public boolean isPrimary() {
+        return first == 0;
+    }
+
+    @Override
+    public String toString() {
+        return (first == last ? Integer.toString(first) : first + "-" + last) + " von " + total;
+    }
+}
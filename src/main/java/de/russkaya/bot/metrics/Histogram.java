@@ -0,0 +1,81 @@
+package de.russkaya.bot.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latenz-Histogramm mit festen Buckets (Prometheus-Stil). {@link #record}
+ * allokiert nichts: ein linearer Suchlauf über 14 Grenzen und zwei
+ * {@link LongAdder}-Inkremente.
+ */
+public final class Histogram {
+
+    // Obergrenzen in Sekunden, von 0,5 ms bis 10 s
+    private static final double[] BOUNDS_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+    private static final String[] BOUND_LABELS = new String[BOUNDS_SECONDS.length + 1];
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * 1_000_000_000L);
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS_SECONDS[i]).stripTrailingZeros().toPlainString();
+        }
+        BOUND_LABELS[BOUNDS_SECONDS.length] = "+Inf";
+    }
+
+    // Letzter Bucket = +Inf
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Schreibt {@code name_bucket}, {@code name_sum} und {@code name_count}.
+     * Kopfzeilen (HELP/TYPE) schreibt der Aufrufer einmal pro Familie.
+     *
+     * @param labelName {@code null} für ein Histogramm ohne Label
+     */
+    void write(PrometheusWriter out, String name, String labelName, String labelValue) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            out.bucket(name, labelName, labelValue, BOUND_LABELS[i], cumulative);
+        }
+        out.sample(name + "_sum", labelName, labelValue, sumNanos.sum() / 1e9);
+        out.sample(name + "_count", labelName, labelValue, cumulative);
+    }
+}
@@ -0,0 +1,39 @@
+package de.russkaya.bot.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Speicher, GC, Threads und Laufzeit der JVM.
+ */
+public final class JvmMetrics implements MetricsCollector {
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+
+        out.family("jvm_memory_used_bytes", "gauge", "Belegter Speicher");
+        out.sample("jvm_memory_used_bytes", "area", "heap", heap.getUsed());
+        out.sample("jvm_memory_used_bytes", "area", "nonheap", nonHeap.getUsed());
+        out.family("jvm_memory_committed_bytes", "gauge", "Vom Betriebssystem zugesagter Speicher");
+        out.sample("jvm_memory_committed_bytes", "area", "heap", heap.getCommitted());
+        out.sample("jvm_memory_committed_bytes", "area", "nonheap", nonHeap.getCommitted());
+        out.single("jvm_memory_max_bytes", "gauge", "Maximaler Heap (-Xmx)", heap.getMax());
+
+        out.family("jvm_gc_collections_total", "counter", "Anzahl GC-Läufe pro Collector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.sample("jvm_gc_collections_total", "gc", gc.getName(), Math.max(0, gc.getCollectionCount()));
+        }
+        out.family("jvm_gc_collection_seconds_total", "counter", "Zeit in GC-Läufen pro Collector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.sample("jvm_gc_collection_seconds_total", "gc", gc.getName(), Math.max(0, gc.getCollectionTime()) / 1000.0);
+        }
+
+        out.single("jvm_threads_live", "gauge", "Lebende Plattform-Threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        out.single("process_uptime_seconds", "gauge", "Laufzeit seit dem Start", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+}
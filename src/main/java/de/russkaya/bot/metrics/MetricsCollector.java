@@ -0,0 +1,11 @@
+package de.russkaya.bot.metrics;
+
+/**
+ * Liefert beim Abruf von {@code /metrics} die aktuellen Werte einer
+ * Komponente. Gezählt wird in der Komponente selbst - hier wird nur gelesen.
+ */
+@FunctionalInterface
+public interface MetricsCollector {
+
+    void collect(PrometheusWriter out);
+}
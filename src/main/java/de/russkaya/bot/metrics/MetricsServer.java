@@ -0,0 +1,69 @@
+package de.russkaya.bot.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Kleiner HTTP-Server aus dem JDK: {@code /metrics} im Prometheus-Format,
+ * {@code /} als Health-Check für Railway. Werte werden nur beim Abruf
+ * eingesammelt, der Bot selbst zahlt nur fürs Zählen.
+ */
+public class MetricsServer implements AutoCloseable {
+
+    private final List<MetricsCollector> collectors = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    public void register(MetricsCollector collector) {
+        collectors.add(collector);
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4; charset=utf-8", scrape()));
+        server.createContext("/", exchange -> respond(exchange, "text/plain; charset=utf-8", "OK\n"));
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    /**
+     * Alle Werte im Prometheus-Textformat. Ein fehlerhafter Collector
+     * verhindert die übrigen nicht.
+     */
+    public String scrape() {
+        PrometheusWriter out = new PrometheusWriter();
+        for (MetricsCollector collector : collectors) {
+            try {
+                collector.collect(out);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Fehler beim Einsammeln der Metriken: " + e.getMessage());
+            }
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.russkaya.bot.metrics;
+
+/**
+ * Baut die Antwort im Prometheus-Textformat (Version 0.0.4).
+ */
+public final class PrometheusWriter {
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+
+    /**
+     * Kopfzeilen einer Metrik-Familie.
+     *
+     * @param type {@code counter}, {@code gauge} oder {@code histogram}
+     */
+    public PrometheusWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(String name, double value) {
+        return sample(name, null, null, value);
+    }
+
+    public PrometheusWriter sample(String name, String labelName, String labelValue, double value) {
+        out.append(name);
+        if (labelName != null) {
+            out.append('{').append(labelName).append("=\"");
+            escape(labelValue);
+            out.append("\"}");
+        }
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /**
+     * Familie mit Kopfzeilen und einem einzelnen Wert ohne Labels.
+     */
+    public PrometheusWriter single(String name, String type, String help, double value) {
+        return family(name, type, help).sample(name, value);
+    }
+
+    public PrometheusWriter histogram(String name, String labelName, String labelValue, Histogram histogram) {
+        histogram.write(this, name, labelName, labelValue);
+        return this;
+    }
+
+    void bucket(String name, String labelName, String labelValue, String le, long count) {
+        out.append(name).append("_bucket{");
+        if (labelName != null) {
+            out.append(labelName).append("=\"");
+            escape(labelValue);
+            out.append("\",");
+        }
+        out.append("le=\"").append(le).append("\"} ").append(count).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+}
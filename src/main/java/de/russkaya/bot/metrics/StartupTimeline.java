@@ -0,0 +1,48 @@
+package de.russkaya.bot.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zeitpunkte der einzelnen Startphasen, gemessen ab dem Start der JVM (also
+ * inklusive Klassenladen). Phasen können aus mehreren Threads gemeldet werden,
+ * da Datenbank und Gateway-Login parallel laufen. Jede Phase wird sofort
+ * geloggt und bleibt als Metrik abrufbar.
+ */
+public final class StartupTimeline implements MetricsCollector {
+
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new ArrayList<>();
+
+    /**
+     * Meldet eine abgeschlossene Phase.
+     */
+    public synchronized void mark(String phase) {
+        long elapsed = System.currentTimeMillis() - jvmStart;
+        phases.add(new Phase(phase, elapsed));
+        System.out.println("⏱️ +" + elapsed + " ms " + phase + " [" + Thread.currentThread().getName() + "]");
+    }
+
+    public synchronized String summary() {
+        StringBuilder out = new StringBuilder();
+        long previous = 0;
+        for (Phase phase : phases) {
+            if (!out.isEmpty()) out.append(", ");
+            out.append(phase.name()).append(' ').append(phase.elapsedMs() - previous).append(" ms");
+            previous = Math.max(previous, phase.elapsedMs());
+        }
+        return out.append(" (gesamt ").append(previous).append(" ms)").toString();
+    }
+
+    @Override
+    public synchronized void collect(PrometheusWriter out) {
+        out.family("russkaya_startup_phase_seconds", "gauge", "Zeit vom JVM-Start bis zum Ende der Startphase");
+        for (Phase phase : phases) {
+            out.sample("russkaya_startup_phase_seconds", "phase", phase.name(), phase.elapsedMs() / 1000.0);
+        }
+    }
+
+    private record Phase(String name, long elapsedMs) {
+    }
+}
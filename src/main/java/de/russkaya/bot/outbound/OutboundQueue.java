@@ -0,0 +1,274 @@
+package de.russkaya.bot.outbound;
+
+import de.russkaya.bot.metrics.Histogram;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Alle ausgehenden Discord-Aufrufe laufen hier durch, statt direkt per
+ * {@code queue()} in JDAs Warteschlange zu landen. Ein Thread schickt immer
+ * den wichtigsten Aufruf ({@link SendPriority}), dessen {@link Route} gerade
+ * frei ist - ein Schwall Erinnerungen kann so keine Command-Antwort mehr
+ * aufhalten.
+ *
+ * Aufrufe werden erst beim Senden gebaut: liefert der Supplier {@code null},
+ * ist der Aufruf veraltet und wird verworfen. Mehrere Bearbeitungen derselben
+ * Nachricht lassen sich per Schlüssel zu einer zusammenfassen.
+ */
+public class OutboundQueue implements AutoCloseable, MetricsCollector {
+
+    // Discord erlaubt 50 Anfragen pro Sekunde und Bot
+    private static final int GLOBAL_CAPACITY = 50;
+    private static final long GLOBAL_REFILL_MS = 20;
+    // So oft fliegen volle Buckets raus - ein voller Bucket ist von einem neuen nicht zu unterscheiden
+    private static final long BUCKET_SWEEP_MS = 60_000;
+
+    private final Object lock = new Object();
+    // Pro Klasse eine Schlange je Route; leere Schlangen werden entfernt
+    private final Map<SendPriority, Map<String, ArrayDeque<Job>>> queues = new EnumMap<>(SendPriority.class);
+    private final Map<String, Job> coalescing = new HashMap<>();
+    private final Map<String, RouteBucket> buckets = new HashMap<>();
+    private final RouteBucket global = new RouteBucket(GLOBAL_CAPACITY, GLOBAL_REFILL_MS, System.currentTimeMillis());
+    private final Map<SendPriority, ClassStats> stats = new EnumMap<>(SendPriority.class);
+    private final LongAdder rateLimited = new LongAdder();
+    private int depth;
+    private long nextSweep = System.currentTimeMillis() + BUCKET_SWEEP_MS;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public OutboundQueue() {
+        for (SendPriority priority : SendPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            stats.put(priority, new ClassStats());
+        }
+        worker = new Thread(this::run, "outbound");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public <T> void submit(SendPriority priority, Route route, Supplier<? extends RestAction<T>> action) {
+        submit(priority, route, action, null);
+    }
+
+    /**
+     * @param action    baut den Aufruf beim Senden; {@code null} = veraltet, verwerfen
+     * @param onSuccess Ergebnis des Aufrufs oder {@code null}
+     */
+    public <T> void submit(SendPriority priority, Route route, Supplier<? extends RestAction<T>> action, Consumer<? super T> onSuccess) {
+        enqueue(new Job(priority, route, null, new Submission<>(action, onSuccess)));
+    }
+
+    /**
+     * Wie {@link #submit}, aber ein noch wartender Aufruf mit gleichem Schlüssel
+     * wird ersetzt statt ein zweiter eingereiht - er behält seinen Platz.
+     */
+    public <T> void submitCoalescing(SendPriority priority, Route route, String key, Supplier<? extends RestAction<T>> action) {
+        Submission<T> submission = new Submission<>(action, null);
+        // Prüfen und Einreihen unter demselben Lock - sonst reihen zwei gleichzeitige Bearbeitungen beide ein
+        synchronized (lock) {
+            Job pending = coalescing.get(key);
+            if (pending != null && pending.priority == priority) {
+                pending.submission = submission;
+                stats.get(priority).coalesced.increment();
+                return;
+            }
+            enqueueLocked(new Job(priority, route, key, submission));
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return depth;
+        }
+    }
+
+    /**
+     * Wartezeit in der Schlange pro Klasse, dazu verworfene und zusammengefasste Aufrufe.
+     */
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<SendPriority, ClassStats> e : stats.entrySet()) {
+            ClassStats entry = e.getValue();
+            long sent = entry.wait.count();
+            if (sent == 0 && entry.dropped.sum() == 0) continue;
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(e.getKey())
+                    .append(": ").append(sent).append("x")
+                    .append(" Ø ").append(sent == 0 ? 0 : entry.wait.sumNanos() / sent / 1_000_000).append(" ms")
+                    .append(" max ").append(entry.wait.maxNanos() / 1_000_000).append(" ms");
+            long dropped = entry.dropped.sum();
+            long coalesced = entry.coalesced.sum();
+            long failed = entry.failed.sum();
+            if (dropped > 0) builder.append(", ").append(dropped).append(" veraltet");
+            if (coalesced > 0) builder.append(", ").append(coalesced).append(" zusammengefasst");
+            if (failed > 0) builder.append(" (").append(failed).append(" Fehler)");
+        }
+        return builder.length() == 0 ? "nichts gesendet" : builder.toString();
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.family("russkaya_outbound_wait_seconds", "histogram", "Wartezeit gesendeter Discord-Aufrufe in der Schlange");
+        stats.forEach((priority, entry) -> out.histogram("russkaya_outbound_wait_seconds", "class", priority.name(), entry.wait));
+        counter(out, "russkaya_outbound_dropped_total", "Veraltete Aufrufe, die nicht gesendet wurden", entry -> entry.dropped);
+        counter(out, "russkaya_outbound_coalesced_total", "Bearbeitungen, die in einer wartenden aufgegangen sind", entry -> entry.coalesced);
+        counter(out, "russkaya_outbound_failed_total", "Aufrufe, die Discord abgelehnt hat oder die nicht gebaut werden konnten", entry -> entry.failed);
+        out.single("russkaya_outbound_queue_depth", "gauge", "Wartende Discord-Aufrufe", getQueueDepth());
+        out.single("russkaya_outbound_rate_limited_total", "counter",
+                "Wartephasen, in denen Aufrufe anstanden, aber jede Route gesperrt war", rateLimited.sum());
+    }
+
+    private void counter(PrometheusWriter out, String name, String help, Function<ClassStats, LongAdder> value) {
+        out.family(name, "counter", help);
+        stats.forEach((priority, entry) -> out.sample(name, "class", priority.name(), value.apply(entry).sum()));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void enqueue(Job job) {
+        synchronized (lock) {
+            enqueueLocked(job);
+        }
+    }
+
+    private void enqueueLocked(Job job) {
+        queues.get(job.priority).computeIfAbsent(job.route.key(), key -> new ArrayDeque<>()).addLast(job);
+        depth++;
+        if (job.key != null) coalescing.put(job.key, job);
+        lock.notifyAll();
+    }
+
+    private void run() {
+        while (running) {
+            Job job;
+            RouteBucket bucket;
+            try {
+                synchronized (lock) {
+                    long now = System.currentTimeMillis();
+                    long wait = Long.MAX_VALUE;
+                    job = null;
+                    bucket = null;
+                    if (now >= nextSweep) {
+                        buckets.values().removeIf(candidate -> candidate.isFull(now));
+                        nextSweep = now + BUCKET_SWEEP_MS;
+                    }
+                    // Wichtigste Klasse zuerst; innerhalb der Klasse der älteste Aufruf, dessen Route frei ist.
+                    // Pro Route zählt nur der vorderste Aufruf - eine gesperrte Route kostet einen Blick, egal wie viel dort wartet.
+                    for (Map<String, ArrayDeque<Job>> routes : queues.values()) {
+                        ArrayDeque<Job> oldest = null;
+                        for (ArrayDeque<Job> queue : routes.values()) {
+                            Job candidate = queue.peekFirst();
+                            RouteBucket candidateBucket = bucket(candidate.route, now);
+                            long readyIn = Math.max(candidateBucket.readyIn(now),
+                                    candidate.route.global() ? global.readyIn(now) : 0);
+                            if (readyIn > 0) {
+                                wait = Math.min(wait, readyIn);
+                            } else if (job == null || candidate.enqueuedNanos < job.enqueuedNanos) {
+                                job = candidate;
+                                bucket = candidateBucket;
+                                oldest = queue;
+                            }
+                        }
+                        if (job != null) {
+                            oldest.pollFirst();
+                            if (oldest.isEmpty()) routes.remove(job.route.key());
+                            depth--;
+                            break;
+                        }
+                    }
+                    if (job == null) {
+                        if (wait != Long.MAX_VALUE) rateLimited.increment();
+                        lock.wait(wait == Long.MAX_VALUE ? 0 : wait);
+                        continue;
+                    }
+                    // Ein neuerer Aufruf anderer Priorität kann den Schlüssel inzwischen belegen
+                    if (job.key != null) coalescing.remove(job.key, job);
+                    bucket.take(now);
+                    if (job.route.global()) global.take(now);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            send(job, bucket);
+        }
+    }
+
+    private void send(Job job, RouteBucket bucket) {
+        ClassStats classStats = stats.get(job.priority);
+        boolean sent;
+        try {
+            sent = job.submission.send(error -> {
+                classStats.failed.increment();
+                System.err.println("❌ Discord-Aufruf (" + job.priority + ", " + job.route.key() + ") fehlgeschlagen: " + error.getMessage());
+            });
+        } catch (RuntimeException e) {
+            sent = false;
+            classStats.failed.increment();
+            System.err.println("❌ Discord-Aufruf (" + job.priority + ") konnte nicht gebaut werden: " + e.getMessage());
+        }
+
+        if (sent) {
+            classStats.wait.record(System.nanoTime() - job.enqueuedNanos);
+        } else {
+            classStats.dropped.increment();
+            synchronized (lock) {
+                bucket.refund();
+                if (job.route.global()) global.refund();
+            }
+        }
+    }
+
+    private RouteBucket bucket(Route route, long now) {
+        return buckets.computeIfAbsent(route.key(), key -> new RouteBucket(route.capacity(), route.refillMillis(), now));
+    }
+
+    private static final class Job {
+        final SendPriority priority;
+        final Route route;
+        final String key;
+        final long enqueuedNanos = System.nanoTime();
+        Submission<?> submission; // unter dem Lock ersetzbar (Zusammenfassen)
+
+        Job(SendPriority priority, Route route, String key, Submission<?> submission) {
+            this.priority = priority;
+            this.route = route;
+            this.key = key;
+            this.submission = submission;
+        }
+    }
+
+    private record Submission<T>(Supplier<? extends RestAction<T>> action, Consumer<? super T> onSuccess) {
+
+        // false = Aufruf ist veraltet und wurde nicht gesendet
+        boolean send(Consumer<Throwable> onFailure) {
+            RestAction<T> restAction = action.get();
+            if (restAction == null) return false;
+            restAction.queue(result -> {
+                if (onSuccess != null) onSuccess.accept(result);
+            }, onFailure);
+            return true;
+        }
+    }
+
+    private static final class ClassStats {
+        final Histogram wait = new Histogram(); // zählt auch die gesendeten Aufrufe
+        final LongAdder dropped = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,37 @@
+package de.russkaya.bot.outbound;
+
+/**
+ * Ein Discord-Endpunkt mit eigenem Rate-Limit. Die Werte entsprechen den
+ * dokumentierten Limits, damit JDAs eigene Warteschlange kurz bleibt und die
+ * Reihenfolge hier entschieden wird.
+ *
+ * @param capacity     Anfragen, die auf einmal gehen dürfen ({@code 0} = unbegrenzt)
+ * @param refillMillis Abstand, in dem eine weitere Anfrage frei wird
+ * @param global       zählt gegen das globale Limit des Bots
+ */
+public record Route(String key, int capacity, long refillMillis, boolean global) {
+
+    private static final Route INTERACTION = new Route("interaction", 0, 0, false);
+
+    /**
+     * Antworten auf Interaktionen hängen am Token, nicht am Kanal, und zählen
+     * nicht zum globalen Limit.
+     */
+    public static Route interaction() {
+        return INTERACTION;
+    }
+
+    // 5 Nachrichten pro 5 Sekunden und Kanal
+    public static Route channelMessages(long channelId) {
+        return new Route("messages:" + channelId, 5, 1000, true);
+    }
+
+    public static Route messageEdits(long channelId) {
+        return new Route("edits:" + channelId, 5, 1000, true);
+    }
+
+    // Reaktionen: eine pro 250 ms und Kanal
+    public static Route reactions(long channelId) {
+        return new Route("reactions:" + channelId, 1, 250, true);
+    }
+}
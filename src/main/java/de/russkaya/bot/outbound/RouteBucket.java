@@ -0,0 +1,58 @@
+package de.russkaya.bot.outbound;
+
+/**
+ * Token-Bucket für eine {@link Route}. Nicht threadsicher - wird nur unter
+ * dem Lock der {@link OutboundQueue} benutzt.
+ */
+final class RouteBucket {
+
+    private final int capacity;
+    private final long refillMillis;
+    private double tokens;
+    private long updatedAt;
+
+    RouteBucket(int capacity, long refillMillis, long now) {
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+        this.tokens = capacity;
+        this.updatedAt = now;
+    }
+
+    /**
+     * Millisekunden bis eine Anfrage gehen darf, {@code 0} wenn sofort.
+     */
+    long readyIn(long now) {
+        if (capacity == 0) return 0;
+        refill(now);
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) * refillMillis);
+    }
+
+    /**
+     * Voll heißt unbenutzt - der Bucket kann weg und wird bei Bedarf neu angelegt.
+     */
+    boolean isFull(long now) {
+        if (capacity == 0) return true;
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    void take(long now) {
+        if (capacity == 0) return;
+        refill(now);
+        tokens -= 1;
+    }
+
+    // Anfrage wurde doch nicht gesendet (z.B. veraltete Erinnerung)
+    void refund() {
+        if (capacity == 0) return;
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private void refill(long now) {
+        if (now > updatedAt) {
+            tokens = Math.min(capacity, tokens + (double) (now - updatedAt) / refillMillis);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package de.russkaya.bot.outbound;
+
+/**
+ * Reihenfolge, in der die {@link OutboundQueue} wartende Aufrufe abarbeitet.
+ * Interaktionen laufen nach 3 Sekunden ab und gehen daher immer vor.
+ */
+public enum SendPriority {
+    REPLY,     // Antworten und Defers auf Slash-Commands
+    EDIT,      // Nachrichten nach einer Zustandsänderung anpassen
+    REMINDER,  // Erinnerungsnachrichten
+    REACTION   // Reaktionen unter Erinnerungen
+}
@@ -0,0 +1,14 @@
+package de.russkaya.bot.plant;
+
+import java.time.Instant;
+
+/**
+ * Eine Zeile aus {@code plants}. {@code fertilizedBy} ist {@code null}
+ * solange die Pflanze nicht gedüngt wurde.
+ */
+public record Plant(int id, String userId, String username, String location, Instant plantedAt, String fertilizedBy) {
+
+    public boolean isFertilized() {
+        return fertilizedBy != null;
+    }
+}
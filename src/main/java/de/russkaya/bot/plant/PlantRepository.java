@@ -0,0 +1,182 @@
+package de.russkaya.bot.plant;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.status.PageCursor;
+import de.russkaya.bot.status.StatusFilter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SQL für {@code plants}. Alle Methoden bekommen die Verbindung vom Aufrufer,
+ * damit mehrere Schritte in einer {@link Database#write} Transaktion laufen
+ * können. Statements kommen aus dem Cache des {@link Database}.
+ */
+public class PlantRepository {
+
+    private static final String COLUMNS = "id, user_id, username, location, planted_at, fertilized_by";
+
+    private static final String INSERT = "INSERT INTO plants (guild_id, user_id, username, location, planted_at) VALUES (?, ?, ?, ?, ?) RETURNING " + COLUMNS;
+    private static final String ALL_ACTIVE = "SELECT " + COLUMNS + " FROM plants WHERE status = 'planted' AND " + ShardRange.sqlFilter("guild_id") + " ORDER BY planted_at DESC";
+    private static final String FERTILIZE = "UPDATE plants SET fertilized_by = ?, fertilized_at = ? WHERE id = ? AND guild_id = ? AND status = 'planted' RETURNING " + COLUMNS;
+    private static final String FERTILIZE_PENDING = "UPDATE plants SET fertilized_by = ?, fertilized_at = ? WHERE id = ? AND guild_id = ? AND status = 'planted' AND fertilized_by IS NULL RETURNING " + COLUMNS;
+    private static final String SET_REMINDER_MESSAGE = "UPDATE plants SET reminder_message_id = ? WHERE id = ?";
+    private static final String REMINDER_MESSAGES = "SELECT id, reminder_message_id FROM plants WHERE status = 'planted' AND reminder_message_id IS NOT NULL"
+            + " AND " + ShardRange.sqlFilter("guild_id");
+    private static final String HARVEST = "UPDATE plants SET status = 'harvested', harvested_by = ?, harvested_at = ?, car_stored = ? WHERE id = ? AND guild_id = ? AND status = 'planted' RETURNING " + COLUMNS;
+
+    private static final String ACTIVE_LOCATIONS = "SELECT location FROM plants WHERE guild_id = ? AND status = 'planted' GROUP BY location ORDER BY COUNT(*) DESC, location LIMIT ?";
+    // Ein Statement pro Filterkombination, damit SQLite jeweils den passenden Index nimmt
+    private static final String[] PAGE_ACTIVE = pageStatements();
+
+    private final Database database;
+
+    public PlantRepository(Database database) {
+        this.database = database;
+    }
+
+    public Plant insert(Connection connection, long guildId, String userId, String username, String location) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, INSERT);
+        stmt.setLong(1, guildId);
+        stmt.setString(2, userId);
+        stmt.setString(3, username);
+        stmt.setString(4, location);
+        stmt.setLong(5, System.currentTimeMillis());
+        return database.querySingle(stmt, PlantRepository::map).orElseThrow();
+    }
+
+    /**
+     * Alle aktiven Einträge der Server dieses Prozesses - zum Befüllen und Prüfen des In-Memory Index.
+     */
+    public List<Plant> listAllActive(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, ALL_ACTIVE);
+        shards.bind(stmt, 1);
+        return database.queryList(stmt, PlantRepository::map);
+    }
+
+    /**
+     * Eine Seite der Statusansicht per Keyset: neueste zuerst, beginnend nach
+     * {@code after} ({@code null} = erste Seite).
+     */
+    public List<Plant> pageActive(Connection connection, StatusFilter filter, PageCursor after, int limit) throws SQLException {
+        int variant = (filter.ownerId() != null ? 1 : 0) | (filter.location() != null ? 2 : 0) | (after != null ? 4 : 0);
+        PreparedStatement stmt = database.prepare(connection, PAGE_ACTIVE[variant]);
+        int index = 1;
+        stmt.setLong(index++, filter.guildId());
+        if (filter.ownerId() != null) stmt.setString(index++, filter.ownerId());
+        if (filter.location() != null) stmt.setString(index++, filter.location());
+        if (after != null) {
+            stmt.setLong(index++, after.createdAt());
+            stmt.setInt(index++, after.id());
+        }
+        stmt.setInt(index, limit);
+        return database.queryList(stmt, PlantRepository::map);
+    }
+
+    /**
+     * Standorte mit aktiven Einträgen des Servers, die häufigsten zuerst.
+     */
+    public List<String> activeLocations(Connection connection, long guildId, int limit) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, ACTIVE_LOCATIONS);
+        stmt.setLong(1, guildId);
+        stmt.setInt(2, limit);
+        return database.queryList(stmt, result -> result.getString("location"));
+    }
+
+    /**
+     * Düngt die Pflanze, falls sie noch wächst, und liefert sie zurück.
+     */
+    public Optional<Plant> fertilize(Connection connection, long guildId, int id, String username) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, FERTILIZE);
+        stmt.setString(1, username);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setInt(3, id);
+        stmt.setLong(4, guildId);
+        return single(stmt);
+    }
+
+    /**
+     * Wie {@link #fertilize}, aber nur wenn noch niemand gedüngt hat - für
+     * Reaktionen, damit mehrere Haken nicht den ersten Eintrag überschreiben.
+     */
+    public Optional<Plant> fertilizeIfPending(Connection connection, long guildId, int id, String username) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, FERTILIZE_PENDING);
+        stmt.setString(1, username);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setInt(3, id);
+        stmt.setLong(4, guildId);
+        return single(stmt);
+    }
+
+    /**
+     * Merkt sich die letzte Erinnerungsnachricht mit Reaktion zur Pflanze.
+     */
+    public void setReminderMessage(Connection connection, int id, long messageId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, SET_REMINDER_MESSAGE);
+        stmt.setString(1, Long.toString(messageId));
+        stmt.setInt(2, id);
+        database.update(stmt);
+    }
+
+    /**
+     * Pflanzen-ID zu Nachrichten-ID der letzten Erinnerung, nur aktive Pflanzen der eigenen Shards.
+     */
+    public Map<Integer, Long> listReminderMessages(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, REMINDER_MESSAGES);
+        shards.bind(stmt, 1);
+        Map<Integer, Long> messages = new HashMap<>();
+        for (Map.Entry<Integer, Long> row : database.queryList(stmt,
+                result -> Map.entry(result.getInt("id"), Long.parseLong(result.getString("reminder_message_id"))))) {
+            messages.put(row.getKey(), row.getValue());
+        }
+        return messages;
+    }
+
+    /**
+     * Erntet die Pflanze, falls sie noch wächst, und liefert sie zurück.
+     */
+    public Optional<Plant> harvest(Connection connection, long guildId, int id, String username, String car) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, HARVEST);
+        stmt.setString(1, username);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setString(3, car);
+        stmt.setInt(4, id);
+        stmt.setLong(5, guildId);
+        return single(stmt);
+    }
+
+    private Optional<Plant> single(PreparedStatement stmt) throws SQLException {
+        return database.querySingle(stmt, PlantRepository::map);
+    }
+
+    private static String[] pageStatements() {
+        String[] statements = new String[8];
+        for (int variant = 0; variant < statements.length; variant++) {
+            StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM plants WHERE guild_id = ? AND status = 'planted'");
+            if ((variant & 1) != 0) sql.append(" AND user_id = ?");
+            if ((variant & 2) != 0) sql.append(" AND location = ?");
+            if ((variant & 4) != 0) sql.append(" AND (planted_at, id) < (?, ?)");
+            statements[variant] = sql.append(" ORDER BY planted_at DESC, id DESC LIMIT ?").toString();
+        }
+        return statements;
+    }
+
+    private static Plant map(ResultSet result) throws SQLException {
+        return new Plant(
+            result.getInt("id"),
+            result.getString("user_id"),
+            result.getString("username"),
+            result.getString("location"),
+            Instant.ofEpochMilli(result.getLong("planted_at")),
+            result.getString("fertilized_by")
+        );
+    }
+}
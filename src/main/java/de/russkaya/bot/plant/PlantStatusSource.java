@@ -0,0 +1,45 @@
+package de.russkaya.bot.plant;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.embed.StatusEmbeds;
+import de.russkaya.bot.status.PageCursor;
+import de.russkaya.bot.status.StatusFilter;
+import de.russkaya.bot.status.StatusSource;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Seiten für {@code /pflanzen-status} direkt aus SQL (Leseverbindung).
+ */
+public class PlantStatusSource implements StatusSource<Plant> {
+
+    private final Database database;
+    private final PlantRepository plants;
+
+    public PlantStatusSource(Database database, PlantRepository plants) {
+        this.database = database;
+        this.plants = plants;
+    }
+
+    @Override
+    public List<Plant> page(StatusFilter filter, PageCursor after, int limit) throws SQLException {
+        return database.read(connection -> plants.pageActive(connection, filter, after, limit));
+    }
+
+    @Override
+    public PageCursor cursorOf(Plant plant) {
+        return new PageCursor(plant.plantedAt().toEpochMilli(), plant.id());
+    }
+
+    @Override
+    public List<String> locations(long guildId, int limit) throws SQLException {
+        return database.read(connection -> plants.activeLocations(connection, guildId, limit));
+    }
+
+    @Override
+    public MessageEmbed embed(List<Plant> page, String footer) {
+        return StatusEmbeds.plants(page, footer);
+    }
+}
@@ -0,0 +1,160 @@
+package de.russkaya.bot.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed Timing Wheel (Varghese &amp; Lauck): Einfügen und Abbrechen in O(1),
+ * unabhängig davon wie viele Timer offen sind. Jeder Slot ist eine doppelt
+ * verkettete Liste; Timer die weiter als eine Umdrehung entfernt sind bleiben
+ * im Slot liegen, bis ihr absoluter Tick erreicht ist.
+ *
+ * Der Wheel führt selbst keine Tasks aus - {@link #advance(long)} liefert die
+ * fälligen Einträge zurück und der Aufrufer entscheidet wo sie laufen.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Slot<T>[] slots;
+    private final int mask;
+
+    // Letzter bereits abgearbeiteter Tick (absolut seit startMillis)
+    private long lastTick = -1;
+    private int size;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis muss > 0 sein");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize muss eine Zweierpotenz sein");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = newSlots(wheelSize);
+        this.mask = wheelSize - 1;
+    }
+
+    // Generische Arrays gibt es nicht - die Slots selbst sind typsicher
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Slot<T>[] newSlots(int wheelSize) {
+        Slot<T>[] slots = new Slot[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new Slot<>();
+        }
+        return slots;
+    }
+
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        // Aufrunden, damit ein Timer nie vor seiner Deadline feuert
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        long firstOpenTick = lastTick + 1;
+        long targetTick = Math.max(deadlineTick, firstOpenTick);
+
+        Timeout<T> timeout = new Timeout<>(deadlineMillis, targetTick, payload);
+        slots[(int) (targetTick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) return false; // Bereits gefeuert oder abgebrochen
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Dreht den Wheel bis {@code nowMillis} weiter und gibt alle fälligen
+     * Payloads in Reihenfolge ihrer Ticks zurück.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+
+        // Nach langen Pausen reicht eine volle Umdrehung - danach wiederholen sich die Slots nur
+        long from = Math.max(lastTick + 1, nowTick - slots.length + 1);
+
+        for (long tick = from; tick <= nowTick; tick++) {
+            Slot<T> slot = slots[(int) (tick & mask)];
+            Timeout<T> timeout = slot.head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.targetTick <= nowTick) {
+                    slot.remove(timeout);
+                    size--;
+                    expired.add(timeout.payload);
+                }
+                timeout = next;
+            }
+        }
+
+        if (nowTick > lastTick) {
+            lastTick = nowTick;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public static final class Timeout<T> {
+        private final long deadlineMillis;
+        private final long targetTick;
+        private final T payload;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineMillis, long targetTick, T payload) {
+            this.deadlineMillis = deadlineMillis;
+            this.targetTick = targetTick;
+            this.payload = payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+    }
+}
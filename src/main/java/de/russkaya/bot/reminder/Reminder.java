@@ -0,0 +1,16 @@
+package de.russkaya.bot.reminder;
+
+/**
+ * Eine persistierte Erinnerung. {@code intervalMillis == 0} bedeutet einmalig,
+ * sonst wird sie nach dem Feuern um das Intervall verschoben.
+ */
+public record Reminder(long id, ReminderType type, long entityId, long channelId, long dueAt, long intervalMillis) {
+
+    public boolean isRepeating() {
+        return intervalMillis > 0;
+    }
+
+    public Reminder withDueAt(long newDueAt) {
+        return new Reminder(id, type, entityId, channelId, newDueAt, intervalMillis);
+    }
+}
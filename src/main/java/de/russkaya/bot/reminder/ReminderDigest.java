@@ -0,0 +1,196 @@
+package de.russkaya.bot.reminder;
+
+import de.russkaya.bot.embed.ReminderEmbeds;
+import de.russkaya.bot.outbound.OutboundQueue;
+import de.russkaya.bot.outbound.Route;
+import de.russkaya.bot.outbound.SendPriority;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Sammelt fällige Erinnerungen pro Kanal für ein kurzes Zeitfenster und
+ * schickt sie als eine Sammelnachricht. Statt einer Nachricht plus Reaktion
+ * pro Pflanze/Panel gibt es so eine Nachricht pro Kanal (bzw. pro 25 Felder)
+ * und jede Reaktion nur einmal. Die ID jeder verschickten Nachricht geht an
+ * den {@link ReminderMessageListener}, damit Reaktionen später zugeordnet
+ * werden können.
+ *
+ * Verschickt wird über die {@link OutboundQueue}; erst dort wird die Nachricht
+ * gebaut, so dass zwischenzeitlich geerntete Pflanzen nicht mehr auftauchen.
+ */
+public class ReminderDigest {
+
+    private static final long WINDOW_MS = 5000;
+
+    // Discord-Limits für Embeds (Gesamtlänge mit Luft für Titel und Zeitstempel)
+    private static final int MAX_FIELDS = 25;
+    private static final int MAX_EMBED_CHARS = MessageEmbed.EMBED_MAX_LENGTH_BOT - 500;
+
+    private final ShardManager shards;
+    private final ScheduledExecutorService scheduler;
+    private final OutboundQueue outbound;
+    private final Predicate<ReminderMessageIndex.Ref> isActive;
+    private final ReminderMessageListener listener;
+    private final Map<Long, List<Entry>> pending = new HashMap<>();
+
+    // Statistik
+    private final AtomicLong entriesSent = new AtomicLong();
+    private final AtomicLong restCalls = new AtomicLong();
+    private final AtomicLong restCallsSaved = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param isActive ob eine Erinnerung beim Senden noch aktuell ist
+     */
+    public ReminderDigest(ShardManager shards, ScheduledExecutorService scheduler, OutboundQueue outbound,
+                          Predicate<ReminderMessageIndex.Ref> isActive, ReminderMessageListener listener) {
+        this.shards = shards;
+        this.scheduler = scheduler;
+        this.outbound = outbound;
+        this.isActive = isActive;
+        this.listener = listener;
+    }
+
+    /**
+     * Reiht eine Erinnerung ein. Die erste Erinnerung eines Kanals startet das
+     * Zeitfenster, danach wird alles Gesammelte zusammen verschickt. Die
+     * Reaktion zum Abhaken ergibt sich aus dem {@link ReminderType}.
+     */
+    public void add(long channelId, ReminderType type, int entityId, String title, String text) {
+        boolean first;
+        synchronized (pending) {
+            List<Entry> entries = pending.computeIfAbsent(channelId, id -> new ArrayList<>());
+            first = entries.isEmpty();
+            entries.add(new Entry(new ReminderMessageIndex.Ref(type, entityId), title, text));
+        }
+        if (first) {
+            scheduler.schedule(() -> flush(channelId), WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public long getEntriesSent() {
+        return entriesSent.get();
+    }
+
+    public long getRestCalls() {
+        return restCalls.get();
+    }
+
+    /**
+     * Erinnerungen, die beim Senden schon veraltet waren.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * REST-Aufrufe, die ohne Sammeln zusätzlich nötig gewesen wären
+     * (eine Nachricht plus ggf. eine Reaktion pro Erinnerung).
+     */
+    public long getRestCallsSaved() {
+        return restCallsSaved.get();
+    }
+
+    private void flush(long channelId) {
+        List<Entry> entries;
+        synchronized (pending) {
+            entries = pending.remove(channelId);
+        }
+        if (entries == null || entries.isEmpty()) return;
+
+        for (List<Entry> chunk : split(entries)) {
+            outbound.submit(SendPriority.REMINDER, Route.channelMessages(channelId),
+                    () -> buildMessage(channelId, chunk),
+                    sent -> {
+                        // Erst gezählt, wenn Discord die Nachricht angenommen hat
+                        entriesSent.addAndGet(sent.fields().size());
+                        restCalls.incrementAndGet();
+                        restCallsSaved.addAndGet(sent.unbatched() - 1 - sent.reactions().size());
+                        listener.sent(sent.message().getIdLong(), sent.embed(), sent.fields());
+                        addReactions(channelId, sent);
+                    });
+        }
+    }
+
+    // Läuft erst beim Senden - Einträge, deren Pflanze/Panel inzwischen weg ist, fallen heraus
+    private RestAction<Sent> buildMessage(long channelId, List<Entry> chunk) {
+        List<Entry> current = new ArrayList<>(chunk.size());
+        for (Entry entry : chunk) {
+            if (isActive.test(entry.ref())) current.add(entry);
+        }
+        dropped.addAndGet(chunk.size() - current.size());
+        if (current.isEmpty()) return null;
+
+        // Sucht in allen Shards dieses Prozesses - der Kanal liegt im Shard seines Servers
+        TextChannel channel = shards.getTextChannelById(channelId);
+        if (channel == null) {
+            System.err.println("❌ Kanal " + channelId + " für " + current.size() + " Erinnerungen nicht gefunden");
+            return null;
+        }
+
+        Set<String> reactions = new LinkedHashSet<>();
+        List<ReminderMessageIndex.Ref> fields = new ArrayList<>(current.size());
+        EmbedBuilder embed = ReminderEmbeds.digest(current.size());
+        long unbatched = 0;
+        for (Entry entry : current) {
+            embed.addField(entry.title(), entry.text(), false);
+            fields.add(entry.ref());
+            String reaction = entry.ref().type().getReaction();
+            unbatched += reaction != null ? 2 : 1;
+            if (reaction != null) reactions.add(reaction);
+        }
+
+        MessageEmbed built = embed.build();
+        long withoutDigest = unbatched;
+        return channel.sendMessageEmbeds(built).map(message -> new Sent(message, built, fields, reactions, withoutDigest));
+    }
+
+    // Reaktionen haben die niedrigste Priorität und ihr eigenes Limit
+    private void addReactions(long channelId, Sent sent) {
+        for (String reaction : sent.reactions()) {
+            outbound.submit(SendPriority.REACTION, Route.reactions(channelId),
+                    () -> sent.message().addReaction(Emoji.fromUnicode(reaction)),
+                    ignored -> restCalls.incrementAndGet());
+        }
+    }
+
+    // Teilt nur auf, wenn Feldanzahl oder Gesamtlänge eines Embeds überschritten würden
+    private static List<List<Entry>> split(List<Entry> entries) {
+        List<List<Entry>> chunks = new ArrayList<>();
+        List<Entry> current = new ArrayList<>();
+        int chars = 0;
+        for (Entry entry : entries) {
+            int length = entry.title().length() + entry.text().length();
+            if (!current.isEmpty() && (current.size() == MAX_FIELDS || chars + length > MAX_EMBED_CHARS)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                chars = 0;
+            }
+            current.add(entry);
+            chars += length;
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+
+    private record Entry(ReminderMessageIndex.Ref ref, String title, String text) {}
+
+    private record Sent(Message message, MessageEmbed embed, List<ReminderMessageIndex.Ref> fields, Set<String> reactions,
+                        long unbatched) {}
+}
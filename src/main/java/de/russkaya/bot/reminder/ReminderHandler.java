@@ -0,0 +1,11 @@
+package de.russkaya.bot.reminder;
+
+/**
+ * Wird vom {@link ReminderService} aufgerufen, sobald eine Erinnerung fällig ist.
+ * Gibt {@code false} zurück, wenn die Entität nicht mehr aktiv ist - dann werden
+ * alle weiteren Erinnerungen dieser Entität verworfen.
+ */
+@FunctionalInterface
+public interface ReminderHandler {
+    boolean fire(Reminder reminder) throws Exception;
+}
@@ -0,0 +1,165 @@
+package de.russkaya.bot.reminder;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.embed.ReminderEmbeds;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merkt sich, welche Erinnerungsnachricht zu welchen Pflanzen/Panels gehört.
+ * Reaktionen lassen sich damit ohne {@code retrieveMessageById} zuordnen -
+ * Reaktionen auf fremde Nachrichten werden sofort verworfen.
+ *
+ * Pro Entität zählt nur die neueste Nachricht; ältere Nachrichten fallen
+ * heraus, sobald keine ihrer Entitäten mehr auf sie zeigt.
+ */
+public class ReminderMessageIndex {
+
+    private final Map<Long, TrackedMessage> byMessage = new HashMap<>();
+    private final Map<Ref, Long> byEntity = new HashMap<>();
+
+    // Statistik
+    private final AtomicLong resolved = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+
+    /**
+     * Trägt eine verschickte Nachricht ein.
+     *
+     * @param embed  das verschickte Embed oder {@code null} (nach einem Neustart)
+     * @param fields eine Ref pro Feld des Embeds, in gleicher Reihenfolge
+     */
+    public synchronized void register(long messageId, MessageEmbed embed, List<Ref> fields) {
+        byMessage.put(messageId, new TrackedMessage(embed, List.copyOf(fields), new HashSet<>()));
+        for (Ref ref : fields) {
+            if (ref.type().getReaction() == null) continue;
+            Long previous = byEntity.put(ref, messageId);
+            if (previous != null && previous != messageId) dropIfUnused(previous);
+        }
+    }
+
+    /**
+     * Lädt gespeicherte Nachrichten-IDs (Entitäts-ID zu Nachrichten-ID) nach
+     * einem Neustart. Das Embed ist dann unbekannt, Zustandsänderungen gehen
+     * trotzdem, nur die Nachricht wird nicht mehr bearbeitet.
+     */
+    public synchronized void load(ReminderType type, Map<Integer, Long> messages) {
+        Map<Long, List<Ref>> grouped = new HashMap<>();
+        messages.forEach((entityId, messageId) ->
+                grouped.computeIfAbsent(messageId, id -> new ArrayList<>()).add(new Ref(type, entityId)));
+        grouped.forEach((messageId, refs) -> {
+            TrackedMessage existing = byMessage.get(messageId);
+            List<Ref> fields = new ArrayList<>(refs);
+            if (existing != null) fields.addAll(existing.fields());
+            byMessage.put(messageId, new TrackedMessage(null, fields, new HashSet<>()));
+            for (Ref ref : refs) byEntity.put(ref, messageId);
+        });
+    }
+
+    /**
+     * Alle noch offenen Einträge der Nachricht, die mit diesem Emoji abgehakt
+     * werden. Leer, wenn die Nachricht keine bekannte Erinnerung ist.
+     */
+    public synchronized List<Ref> resolve(long messageId, String emoji) {
+        TrackedMessage message = byMessage.get(messageId);
+        if (message == null) {
+            ignored.incrementAndGet();
+            return List.of();
+        }
+        List<Ref> open = new ArrayList<>();
+        for (Ref ref : message.fields()) {
+            if (emoji.equals(ref.type().getReaction()) && !message.done().contains(ref)
+                    && Long.valueOf(messageId).equals(byEntity.get(ref))) {
+                open.add(ref);
+            }
+        }
+        if (open.isEmpty()) {
+            ignored.incrementAndGet();
+        } else {
+            resolved.incrementAndGet();
+        }
+        return open;
+    }
+
+    /**
+     * Hakt Einträge ab und liefert das angepasste Embed zum Bearbeiten der
+     * Nachricht, oder {@code null} wenn es nichts zu ändern gibt oder das
+     * Embed nicht bekannt ist.
+     *
+     * @param done   alle bearbeiteten Refs, auch solche ohne Änderung (z.B. schon gedüngt)
+     * @param labels neuer Feldname pro tatsächlich geänderter Ref
+     */
+    public synchronized MessageEmbed markDone(long messageId, List<Ref> done, Map<Ref, String> labels) {
+        TrackedMessage message = byMessage.get(messageId);
+        if (message == null) return null;
+        message.done().addAll(done);
+        if (message.embed() == null || labels.isEmpty()) return null;
+
+        List<MessageEmbed.Field> fields = message.embed().getFields();
+        EmbedBuilder embed = new EmbedBuilder(message.embed()).clearFields();
+        boolean allDone = true;
+        for (int i = 0; i < fields.size(); i++) {
+            MessageEmbed.Field field = fields.get(i);
+            Ref ref = i < message.fields().size() ? message.fields().get(i) : null;
+            String label = ref != null ? labels.get(ref) : null;
+            embed.addField(label != null ? label : field.getName(), field.getValue(), field.isInline());
+            if (ref != null && ref.type().getReaction() != null && !message.done().contains(ref)) allDone = false;
+        }
+        if (allDone) {
+            ReminderEmbeds.markAllDone(embed);
+        }
+
+        MessageEmbed updated = embed.build();
+        byMessage.put(messageId, new TrackedMessage(updated, message.fields(), message.done()));
+        return updated;
+    }
+
+    /**
+     * Entität ist geerntet/eingesammelt - ihre Nachricht wird nicht mehr gebraucht.
+     */
+    public synchronized void removeEntity(EntityType entityType, int entityId) {
+        for (ReminderType type : ReminderType.values()) {
+            if (type.getEntityType() != entityType) continue;
+            Long messageId = byEntity.remove(new Ref(type, entityId));
+            if (messageId != null) dropIfUnused(messageId);
+        }
+    }
+
+    public synchronized int size() {
+        return byMessage.size();
+    }
+
+    public long getResolved() {
+        return resolved.get();
+    }
+
+    /**
+     * Reaktionen, die ohne REST-Aufruf als irrelevant verworfen wurden.
+     */
+    public long getIgnored() {
+        return ignored.get();
+    }
+
+    private void dropIfUnused(long messageId) {
+        TrackedMessage message = byMessage.get(messageId);
+        if (message == null) return;
+        for (Ref ref : message.fields()) {
+            if (Long.valueOf(messageId).equals(byEntity.get(ref))) return;
+        }
+        byMessage.remove(messageId);
+    }
+
+    /**
+     * Eine Erinnerung innerhalb einer Nachricht.
+     */
+    public record Ref(ReminderType type, int entityId) {}
+
+    private record TrackedMessage(MessageEmbed embed, List<Ref> fields, Set<Ref> done) {}
+}
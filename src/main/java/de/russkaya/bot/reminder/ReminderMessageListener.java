@@ -0,0 +1,18 @@
+package de.russkaya.bot.reminder;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.List;
+
+/**
+ * Wird vom {@link ReminderDigest} aufgerufen, sobald Discord eine
+ * Sammelnachricht bestätigt hat und ihre ID bekannt ist.
+ */
+@FunctionalInterface
+public interface ReminderMessageListener {
+
+    /**
+     * @param fields eine Ref pro Feld des Embeds, in gleicher Reihenfolge
+     */
+    void sent(long messageId, MessageEmbed embed, List<ReminderMessageIndex.Ref> fields);
+}
@@ -0,0 +1,17 @@
+package de.russkaya.bot.reminder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eine Erinnerung, die zusammen mit ihrer Pflanze bzw. ihrem Panel angelegt
+ * wird; die Entitäts-ID vergibt erst der Speicher.
+ */
+public record ReminderPlan(ReminderType type, long channelId, long dueAt, long intervalMillis) {
+
+    /**
+     * Fällig {@code delay} nach jetzt, danach alle {@code interval} (0 = einmalig).
+     */
+    public static ReminderPlan after(ReminderType type, long channelId, long delay, long interval, TimeUnit unit) {
+        return new ReminderPlan(type, channelId, System.currentTimeMillis() + unit.toMillis(delay), unit.toMillis(interval));
+    }
+}
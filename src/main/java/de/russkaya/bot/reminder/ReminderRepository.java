@@ -0,0 +1,83 @@
+package de.russkaya.bot.reminder;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.ShardRange;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * SQL für {@code reminders}. Wie die anderen Repositories bekommt jede Methode
+ * die Verbindung vom Aufrufer.
+ */
+public class ReminderRepository {
+
+    private static final String LOAD = "SELECT id, type, entity_id, channel_id, due_at, interval_ms FROM reminders"
+            + " WHERE " + ShardRange.sqlFilter("guild_id");
+    private static final String INSERT = "INSERT INTO reminders (guild_id, type, entity_type, entity_id, channel_id, due_at, interval_ms) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id";
+    private static final String UPDATE_DUE = "UPDATE reminders SET due_at = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM reminders WHERE id = ?";
+    private static final String DELETE_FOR_ENTITY = "DELETE FROM reminders WHERE entity_type = ? AND entity_id = ?";
+
+    private final Database database;
+
+    public ReminderRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Alle offenen Erinnerungen der Server dieses Prozesses.
+     */
+    public List<Reminder> listPending(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, LOAD);
+        shards.bind(stmt, 1);
+        return database.queryList(stmt, result -> new Reminder(
+                result.getLong("id"),
+                ReminderType.valueOf(result.getString("type")),
+                result.getLong("entity_id"),
+                Long.parseLong(result.getString("channel_id")),
+                result.getLong("due_at"),
+                result.getLong("interval_ms")
+            ));
+    }
+
+    public Reminder insert(Connection connection, long guildId, ReminderType type, long entityId, long channelId,
+                           long dueAt, long intervalMillis) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, INSERT);
+        stmt.setLong(1, guildId);
+        stmt.setString(2, type.name());
+        stmt.setString(3, type.getEntityType().getKey());
+        stmt.setLong(4, entityId);
+        stmt.setString(5, Long.toString(channelId));
+        stmt.setLong(6, dueAt);
+        stmt.setLong(7, intervalMillis);
+        long id = database.querySingle(stmt, keys -> keys.getLong(1)).orElse(0L);
+        return new Reminder(id, type, entityId, channelId, dueAt, intervalMillis);
+    }
+
+    /**
+     * @return 0, wenn die Erinnerung inzwischen gelöscht wurde
+     */
+    public int moveDue(Connection connection, long id, long dueAt) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, UPDATE_DUE);
+        stmt.setLong(1, dueAt);
+        stmt.setLong(2, id);
+        return database.update(stmt);
+    }
+
+    public int delete(Connection connection, long id) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, DELETE);
+        stmt.setLong(1, id);
+        return database.update(stmt);
+    }
+
+    public int deleteForEntity(Connection connection, EntityType entityType, long entityId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, DELETE_FOR_ENTITY);
+        stmt.setString(1, entityType.getKey());
+        stmt.setLong(2, entityId);
+        return database.update(stmt);
+    }
+}
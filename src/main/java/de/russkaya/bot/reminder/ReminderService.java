@@ -0,0 +1,203 @@
+package de.russkaya.bot.reminder;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.metrics.Histogram;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+import de.russkaya.bot.storage.Storage;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persistente Erinnerungen: jede Erinnerung steht im {@link Storage} (bei SQLite
+ * in der Tabelle {@code reminders}) und liegt gleichzeitig als Timer im {@link HashedTimingWheel}. Nach einem
+ * Neustart werden alle offenen Erinnerungen wieder geladen; beim Ernten bzw.
+ * Einsammeln werden sie über {@link #cancelAll} sofort entfernt.
+ *
+ * Es gibt nur einen einzigen periodischen Task (den Tick des Wheels) -
+ * unabhängig davon wie viele Erinnerungen offen sind.
+ *
+ * Geladen werden nur Erinnerungen der Server, deren Shards dieser Prozess
+ * bedient ({@link ShardRange}). Laufen mehrere Prozesse mit verschiedenen
+ * Shards, feuert so jede Erinnerung genau einmal.
+ */
+public class ReminderService implements MetricsCollector {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 4096; // ~68 Minuten pro Umdrehung
+
+    private final Storage storage;
+    private final ScheduledExecutorService scheduler;
+    private final ShardRange shards;
+    private final ReminderHandler handler;
+    private final HashedTimingWheel<Reminder> wheel;
+
+    // Offene Timer pro Entität, damit Abbrechen ohne Suche im Wheel klappt
+    private final Map<EntityKey, List<HashedTimingWheel.Timeout<Reminder>>> byEntity = new HashMap<>();
+    private final Object lock = new Object();
+
+    // Statistik
+    private final Histogram tickTime = new Histogram();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private ScheduledFuture<?> tickTask;
+
+    public ReminderService(Storage storage, ScheduledExecutorService scheduler, ShardRange shards, ReminderHandler handler) {
+        this.storage = storage;
+        this.scheduler = scheduler;
+        this.shards = shards;
+        this.handler = handler;
+        this.wheel = new HashedTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Lädt alle offenen Erinnerungen der eigenen Shards aus dem Speicher und
+     * startet den Tick. Überfällige Erinnerungen feuern beim ersten Tick.
+     */
+    public int start() throws SQLException {
+        List<Reminder> pending = storage.pendingReminders(shards);
+        pending.forEach(this::arm);
+
+        tickTask = scheduler.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        return pending.size();
+    }
+
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+        }
+    }
+
+    /**
+     * Legt schon gespeicherte Erinnerungen ins Wheel - angelegt werden sie
+     * zusammen mit ihrer Pflanze bzw. ihrem Panel ({@link ReminderPlan}).
+     */
+    public void arm(List<Reminder> reminders) {
+        reminders.forEach(this::arm);
+    }
+
+    /**
+     * Bricht alle offenen Erinnerungen einer Entität ab (z.B. nach dem Ernten).
+     * Aus dem Wheel sofort, aus dem Speicher asynchron - bleibt dort nach einem
+     * Absturz doch eine übrig, feuert sie nach dem Neustart ins Leere und wird
+     * dann gelöscht.
+     */
+    public int cancelAll(EntityType entityType, long entityId) {
+        int cancelled = 0;
+        synchronized (lock) {
+            List<HashedTimingWheel.Timeout<Reminder>> timeouts = byEntity.remove(new EntityKey(entityType, entityId));
+            if (timeouts != null) {
+                for (HashedTimingWheel.Timeout<Reminder> timeout : timeouts) {
+                    if (wheel.cancel(timeout)) cancelled++;
+                }
+            }
+        }
+
+        storage.deleteReminders(entityType, entityId).whenComplete((deleted, error) -> {
+            if (error != null) {
+                System.err.println("❌ Erinnerungen für " + entityType.getKey() + " #" + entityId + " konnten nicht gelöscht werden: "
+                        + error.getMessage());
+            }
+        });
+        return cancelled;
+    }
+
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    private void arm(Reminder reminder) {
+        synchronized (lock) {
+            HashedTimingWheel.Timeout<Reminder> timeout = wheel.schedule(reminder.dueAt(), reminder);
+            byEntity.computeIfAbsent(EntityKey.of(reminder), k -> new ArrayList<>(3)).add(timeout);
+        }
+    }
+
+    private void disarm(Reminder reminder) {
+        synchronized (lock) {
+            EntityKey key = EntityKey.of(reminder);
+            List<HashedTimingWheel.Timeout<Reminder>> timeouts = byEntity.get(key);
+            if (timeouts == null) return;
+            timeouts.removeIf(timeout -> timeout.getPayload().id() == reminder.id());
+            if (timeouts.isEmpty()) byEntity.remove(key);
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.single("russkaya_reminders_pending", "gauge", "Offene Erinnerungen im Timing Wheel", pendingCount());
+        out.single("russkaya_reminders_fired_total", "counter", "Ausgelöste Erinnerungen", fired.sum());
+        out.single("russkaya_reminders_failed_total", "counter", "Erinnerungen, deren Verarbeitung fehlschlug", failed.sum());
+        out.family("russkaya_reminder_tick_duration_seconds", "histogram", "Dauer eines Ticks inkl. aller fälligen Erinnerungen")
+                .histogram("russkaya_reminder_tick_duration_seconds", null, null, tickTime);
+    }
+
+    private void tick() {
+        long started = System.nanoTime();
+        List<Reminder> due = wheel.advance(System.currentTimeMillis());
+        fired.add(due.size());
+        List<Long> done = new ArrayList<>();
+        for (Reminder reminder : due) {
+            disarm(reminder);
+            try {
+                boolean active = handler.fire(reminder);
+                if (!active) {
+                    cancelAll(reminder.type().getEntityType(), reminder.entityId());
+                } else if (reminder.isRepeating()) {
+                    reschedule(reminder);
+                } else {
+                    done.add(reminder.id());
+                }
+            } catch (Exception e) {
+                failed.increment();
+                System.err.println("❌ Fehler bei Erinnerung #" + reminder.id() + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        // Erledigte in einem Ablauf löschen, ohne auf den Commit zu warten
+        if (!done.isEmpty()) {
+            storage.deleteReminders(done).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    System.err.println("❌ " + done.size() + " erledigte Erinnerungen konnten nicht gelöscht werden: " + error.getMessage());
+                }
+            });
+        }
+        tickTime.record(System.nanoTime() - started);
+    }
+
+    private void reschedule(Reminder reminder) {
+        // Verpasste Intervalle (z.B. nach Downtime) überspringen statt nachzuholen
+        long now = System.currentTimeMillis();
+        long next = reminder.dueAt() + reminder.intervalMillis();
+        if (next <= now) {
+            long missed = (now - next) / reminder.intervalMillis() + 1;
+            next += missed * reminder.intervalMillis();
+        }
+
+        long dueAt = next;
+        // Nicht auf den Commit warten - der Tick soll nie am Writer hängen
+        storage.moveReminder(reminder.id(), dueAt).whenComplete((moved, error) -> {
+            if (error != null) {
+                System.err.println("❌ Erinnerung #" + reminder.id() + " konnte nicht verschoben werden: " + error.getMessage());
+            } else if (moved) { // false = inzwischen abgebrochen
+                arm(reminder.withDueAt(dueAt));
+            }
+        });
+    }
+
+    private record EntityKey(EntityType type, long id) {
+        static EntityKey of(Reminder reminder) {
+            return new EntityKey(reminder.type().getEntityType(), reminder.entityId());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.russkaya.bot.reminder;
+
+import de.russkaya.bot.EntityType;
+
+/**
+ * Arten von Erinnerungen. Jede Art gehört zu genau einer Entität
+ * ({@code plant} oder {@code solar}), damit beim Ernten/Einsammeln alle
+ * offenen Erinnerungen der Entität auf einmal abgebrochen werden können.
+ * Erinnerungen mit Reaktion können direkt im Kanal abgehakt werden.
+ */
+public enum ReminderType {
+    PLANT_FERTILIZE(EntityType.PLANT, "✅"),
+    SOLAR_REPAIR(EntityType.SOLAR, "🔧"),
+    SOLAR_COLLECT(EntityType.SOLAR, null);
+
+    private final EntityType entityType;
+    private final String reaction;
+
+    ReminderType(EntityType entityType, String reaction) {
+        this.entityType = entityType;
+        this.reaction = reaction;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Emoji zum Abhaken oder {@code null}, wenn es nichts abzuhaken gibt.
+     */
+    public String getReaction() {
+        return reaction;
+    }
+}
@@ -0,0 +1,123 @@
+package de.russkaya.bot.retention;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Liest die Tagesdateien des {@link ArchiveWriter} Zeile für Zeile wieder ein.
+ * Es wird immer nur die aktuelle Zeile gehalten - auch Monate an Archiv
+ * lassen sich so mit konstantem Speicher durchlaufen.
+ */
+public class ArchiveReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final JsonFactory json = new JsonFactory();
+
+    public ArchiveReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Ruft {@code consumer} für jede archivierte Zeile mit {@code from <= Zeit < to}
+     * auf, tageweise in Dateireihenfolge. Durch mehrfaches Archivieren kann eine
+     * ID doppelt vorkommen.
+     *
+     * @return Anzahl der gelieferten Zeilen
+     */
+    public long read(ArchiveTable table, long from, long to, RowConsumer consumer) throws IOException {
+        Path tableDirectory = directory.resolve(table.name());
+        if (from >= to || !Files.isDirectory(tableDirectory)) return 0;
+
+        // Dateinamen sind ISO-Daten, sortieren sich also chronologisch
+        LocalDate first = ArchiveWriter.dayOf(from);
+        LocalDate last = ArchiveWriter.dayOf(to - 1);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(tableDirectory)) {
+            files = listing.filter(file -> {
+                LocalDate day = dayOf(file);
+                return day != null && !day.isBefore(first) && !day.isAfter(last);
+            }).sorted().toList();
+        }
+
+        long rows = 0;
+        for (Path file : files) {
+            rows += readFile(file, table, from, to, consumer);
+        }
+        return rows;
+    }
+
+    private long readFile(Path file, ArchiveTable table, long from, long to, RowConsumer consumer) throws IOException {
+        long rows = 0;
+        // GZIPInputStream liest alle Member nacheinander - jeder Batch ist einer
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+             JsonParser parser = json.createParser(in)) {
+            List<String> columns = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                columns.clear();
+                values.clear();
+                long time = 0;
+                int id = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String column = parser.getCurrentName();
+                    Object value = value(parser, parser.nextToken());
+                    columns.add(column);
+                    values.add(value);
+                    if (value instanceof Number number) {
+                        if (column.equals(table.timeColumn())) time = number.longValue();
+                        else if (column.equals("id")) id = number.intValue();
+                    }
+                }
+                if (time < from || time >= to) continue;
+                consumer.accept(new ArchivedRow(time, id, columns.toArray(String[]::new), values.toArray()));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Object value(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE, VALUE_FALSE -> parser.getBooleanValue();
+            case VALUE_STRING -> parser.getText();
+            default -> {
+                // Verschachteltes schreibt der ArchiveWriter nicht - überspringen statt abbrechen
+                parser.skipChildren();
+                yield null;
+            }
+        };
+    }
+
+    private static LocalDate dayOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(ArchiveWriter.SUFFIX)) return null;
+        try {
+            return LocalDate.parse(name.substring(0, name.length() - ArchiveWriter.SUFFIX.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(ArchivedRow row) throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package de.russkaya.bot.retention;
+
+/**
+ * Eine Tabelle, deren abgeschlossene Zeilen nach einer Frist ins Archiv wandern.
+ *
+ * @param finished   SQL-Bedingung für "abgeschlossen", z.B. {@code status = 'harvested'}
+ * @param timeColumn Zeitpunkt des Abschlusses (Epoch-Millis), bestimmt Frist und Archivdatei
+ */
+public record ArchiveTable(String name, String finished, String timeColumn) {
+
+    // Älteste zuerst; passt zu den Indizes (status, <timeColumn>) aus Migration 3
+    String selectSql() {
+        return "SELECT * FROM " + name + " WHERE " + finished + " AND " + timeColumn + " < ?"
+                + " ORDER BY " + timeColumn + ", id LIMIT ?";
+    }
+
+    // Löscht genau den gelesenen Bereich: bis einschließlich der letzten archivierten Zeile
+    String deleteSql() {
+        return "DELETE FROM " + name + " WHERE " + finished + " AND " + timeColumn + " < ?"
+                + " AND (" + timeColumn + ", id) <= (?, ?)";
+    }
+}
@@ -0,0 +1,86 @@
+package de.russkaya.bot.retention;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Schreibt archivierte Zeilen als JSON Lines in gzip-Dateien, eine pro
+ * Tabelle und Tag ({@code <verzeichnis>/<tabelle>/<yyyy-MM-dd>.jsonl.gz},
+ * Tag in UTC). Dateien werden nur angehängt: jeder Batch ist ein eigenes
+ * gzip-Member, {@code zcat} und {@link java.util.zip.GZIPInputStream} lesen
+ * die Datei trotzdem am Stück.
+ *
+ * {@link #append} kehrt erst zurück, wenn die Daten per fsync auf der Platte
+ * sind - erst danach dürfen die Zeilen aus der Datenbank gelöscht werden.
+ */
+class ArchiveWriter {
+
+    static final String SUFFIX = ".jsonl.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final JsonFactory json = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator("") // Zeilenumbruch nach jedem Objekt schreiben wir selbst
+            .build();
+
+    ArchiveWriter(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param rows nach Zeit sortiert, wie sie aus der Datenbank kommen
+     * @return geschriebene Bytes (komprimiert)
+     */
+    long append(String table, List<ArchivedRow> rows) throws IOException {
+        long written = 0;
+        int from = 0;
+        while (from < rows.size()) {
+            LocalDate day = dayOf(rows.get(from).time());
+            int to = from + 1;
+            while (to < rows.size() && dayOf(rows.get(to).time()).equals(day)) to++;
+            written += appendDay(table, day, rows.subList(from, to));
+            from = to;
+        }
+        return written;
+    }
+
+    private long appendDay(String table, LocalDate day, List<ArchivedRow> rows) throws IOException {
+        Path file = directory.resolve(table).resolve(day + SUFFIX);
+        Files.createDirectories(file.getParent());
+        long sizeBefore = Files.exists(file) ? Files.size(file) : 0;
+
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+            OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            GZIPOutputStream gzip = new GZIPOutputStream(buffered, BUFFER_SIZE);
+            try (JsonGenerator generator = json.createGenerator(gzip)) {
+                for (ArchivedRow row : rows) {
+                    row.writeJson(generator);
+                    generator.writeRaw('\n');
+                }
+            }
+            gzip.finish();
+            buffered.flush();
+            out.getFD().sync();
+        }
+        return Files.size(file) - sizeBefore;
+    }
+
+    static LocalDate dayOf(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
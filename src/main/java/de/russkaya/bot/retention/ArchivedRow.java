@@ -0,0 +1,66 @@
+package de.russkaya.bot.retention;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Eine abgeschlossene Zeile mit allen Spalten, so wie SQLite sie liefert -
+ * auf dem Weg ins Archiv oder aus dem Archiv bzw. der Datenbank in einen Export.
+ *
+ * @param time Abschlusszeitpunkt (Epoch-Millis), bestimmt die Archivdatei
+ */
+public record ArchivedRow(long time, int id, String[] columns, Object[] values) {
+
+    /**
+     * Liest die aktuelle Zeile komplett ({@code SELECT *}).
+     */
+    public static ArchivedRow read(ResultSet result, String timeColumn) throws SQLException {
+        ResultSetMetaData meta = result.getMetaData();
+        String[] columns = new String[meta.getColumnCount()];
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = meta.getColumnName(i + 1);
+            values[i] = result.getObject(i + 1);
+        }
+        return new ArchivedRow(result.getLong(timeColumn), result.getInt("id"), columns, values);
+    }
+
+    /**
+     * Server der Zeile; {@code 0} bei Zeilen ohne Server (archiviert vor Migration 8).
+     */
+    public long guildId() {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals("guild_id")) return values[i] instanceof Number number ? number.longValue() : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Schreibt die Zeile als ein JSON-Objekt (ohne Zeilenumbruch).
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Double number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                generator.writeBoolean(flag);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,304 @@
+package de.russkaya.bot.retention;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.metrics.Histogram;
+import de.russkaya.bot.metrics.MetricsCollector;
+import de.russkaya.bot.metrics.PrometheusWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Räumt abgeschlossene Einträge in kleinen Portionen ab, statt einmal am Tag
+ * alles in einem DELETE zu löschen. Pro Batch:
+ * <ol>
+ *   <li>älteste abgeschlossene Zeilen auf einer Leseverbindung holen - ohne
+ *       Schreibsperre, abgeschlossene Zeilen ändern sich nicht mehr,</li>
+ *   <li>ins Archiv schreiben ({@link ArchiveWriter}, mit fsync),</li>
+ *   <li>genau diese Zeilen in einer eigenen kurzen Transaktion löschen.</li>
+ * </ol>
+ * Zwischen zwei Batches gibt der Lauf den Scheduler frei. Die Batchgröße passt
+ * sich an: dauert ein Löschen länger als {@code maxLockMillis}, wird sie
+ * halbiert, bleibt es deutlich darunter, verdoppelt. Zum Schluss gibt
+ * {@code PRAGMA incremental_vacuum} die frei gewordenen Seiten schrittweise
+ * an das Dateisystem zurück.
+ *
+ * Archiviert wird mindestens einmal: scheitert das Löschen nach dem
+ * Archivieren, landen die Zeilen beim nächsten Lauf ein zweites Mal im Archiv
+ * (erkennbar an der gleichen {@code id}).
+ */
+public class RetentionEngine implements MetricsCollector {
+
+    private static final long RUN_INTERVAL_HOURS = 24;
+    // Pause zwischen zwei Batches - Erinnerungen und Commands kommen dazwischen
+    private static final long PAUSE_MS = 200;
+
+    private static final int MIN_BATCH = 50;
+    private static final int MAX_BATCH = 5000;
+    private static final int START_BATCH = 500;
+
+    private static final int MIN_VACUUM_PAGES = 16;
+    private static final int MAX_VACUUM_PAGES = 4096;
+    private static final int START_VACUUM_PAGES = 256;
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final Database database;
+    private final ScheduledExecutorService scheduler;
+    private final ArchiveWriter archive;
+    private final Duration maxAge;
+    private final long maxLockNanos;
+    private final List<ArchiveTable> tables;
+    private final TableStats[] tableStats;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile int batchSize = START_BATCH;
+    private volatile int vacuumPages = START_VACUUM_PAGES;
+
+    // Statistik
+    private final Histogram lockTime = new Histogram();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong pagesFreed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastRunStarted;
+    private volatile long lastRunMillis;
+
+    /**
+     * @param archiveDir    Wurzel des Archivs, ein Unterverzeichnis pro Tabelle
+     * @param maxAge        abgeschlossene Einträge, die älter sind, werden archiviert
+     * @param maxLockMillis Zielwert, wie lange ein einzelnes Löschen bzw. Vacuum die Schreibsperre halten darf
+     */
+    public RetentionEngine(Database database, ScheduledExecutorService scheduler, Path archiveDir,
+                           Duration maxAge, long maxLockMillis, List<ArchiveTable> tables) {
+        this.database = database;
+        this.scheduler = scheduler;
+        this.archive = new ArchiveWriter(archiveDir);
+        this.maxAge = maxAge;
+        this.maxLockNanos = TimeUnit.MILLISECONDS.toNanos(maxLockMillis);
+        this.tables = List.copyOf(tables);
+        this.tableStats = new TableStats[this.tables.size()];
+        for (int i = 0; i < tableStats.length; i++) {
+            tableStats[i] = new TableStats();
+        }
+    }
+
+    /**
+     * Stellt die Datenbank einmalig auf {@code auto_vacuum = INCREMENTAL} um.
+     * Das erfordert ein volles {@code VACUUM} und sollte daher beim Start
+     * laufen, bevor Commands ankommen.
+     *
+     * @return {@code true}, wenn umgestellt wurde
+     */
+    public static boolean enableIncrementalVacuum(Database database) throws SQLException {
+        int mode = database.read(RetentionEngine::autoVacuumMode);
+        if (mode == AUTO_VACUUM_INCREMENTAL) return false;
+        database.maintenance(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+            }
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Erster Lauf sofort, danach täglich.
+     */
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::run, 0, RUN_INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * Startet einen Lauf, falls gerade keiner aktiv ist. Die einzelnen Batches
+     * laufen danach als eigene Scheduler-Tasks.
+     */
+    public void run() {
+        if (!running.compareAndSet(false, true)) return;
+        Run run = new Run(System.currentTimeMillis() - maxAge.toMillis());
+        lastRunStarted = System.currentTimeMillis();
+        run.step();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public void collect(PrometheusWriter out) {
+        out.family("russkaya_retention_rows_archived_total", "counter", "Archivierte und gelöschte Zeilen pro Tabelle");
+        for (int i = 0; i < tables.size(); i++) {
+            out.sample("russkaya_retention_rows_archived_total", "table", tables.get(i).name(), tableStats[i].rows.get());
+        }
+        out.family("russkaya_retention_archive_bytes_total", "counter", "Geschriebene Archivdaten (komprimiert) pro Tabelle");
+        for (int i = 0; i < tables.size(); i++) {
+            out.sample("russkaya_retention_archive_bytes_total", "table", tables.get(i).name(), tableStats[i].bytes.get());
+        }
+        out.single("russkaya_retention_batches_total", "counter", "Verarbeitete Batches", batches.get());
+        out.family("russkaya_retention_lock_seconds", "histogram", "Dauer des Löschens bzw. Vacuums pro Batch unter der Schreibsperre")
+                .histogram("russkaya_retention_lock_seconds", null, null, lockTime);
+        out.single("russkaya_retention_batch_size", "gauge", "Aktuelle Batchgröße", batchSize);
+        out.single("russkaya_retention_vacuum_pages_total", "counter", "Per incremental_vacuum freigegebene Seiten", pagesFreed.get());
+        out.single("russkaya_retention_failures_total", "counter", "Abgebrochene Batches", failures.get());
+        out.single("russkaya_retention_running", "gauge", "1 während eines Laufs", running.get() ? 1 : 0);
+        out.single("russkaya_retention_last_run_timestamp_seconds", "gauge", "Start des letzten Laufs", lastRunStarted / 1000.0);
+        out.single("russkaya_retention_last_run_duration_seconds", "gauge", "Dauer des letzten abgeschlossenen Laufs", lastRunMillis / 1000.0);
+    }
+
+    private static int autoVacuumMode(Connection connection) throws SQLException {
+        return pragma(connection, "PRAGMA auto_vacuum");
+    }
+
+    private static int pragma(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet result = stmt.executeQuery(sql)) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+
+    // Zu langsam → halbieren, deutlich schneller als erlaubt → verdoppeln
+    private int adapt(int current, long nanos, int min, int max) {
+        if (nanos > maxLockNanos) return Math.max(min, current / 2);
+        if (nanos < maxLockNanos / 4) return Math.min(max, current * 2);
+        return current;
+    }
+
+    /**
+     * Zustand eines Laufs; jeder {@link #step} verarbeitet einen Batch und plant den nächsten.
+     */
+    private final class Run {
+        private final long cutoff;
+        private int table;
+        private boolean vacuum;
+        private long maxLock;
+        private long batchCount;
+        private long pages;
+        private final long[] archived = new long[tables.size()];
+
+        Run(long cutoff) {
+            this.cutoff = cutoff;
+        }
+
+        void step() {
+            boolean more;
+            try {
+                more = vacuum ? vacuumStep() : archiveStep();
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                System.err.println("❌ Fehler bei der Archivierung: " + e.getMessage());
+                finish();
+                return;
+            }
+            if (more) {
+                scheduler.schedule(this::step, PAUSE_MS, TimeUnit.MILLISECONDS);
+            } else {
+                finish();
+            }
+        }
+
+        // true = es gibt noch etwas zu tun
+        private boolean archiveStep() throws SQLException, IOException {
+            if (table >= tables.size()) {
+                if (database.read(RetentionEngine::autoVacuumMode) != AUTO_VACUUM_INCREMENTAL) return false;
+                vacuum = true;
+                return true;
+            }
+
+            ArchiveTable current = tables.get(table);
+            int limit = batchSize;
+            List<ArchivedRow> rows = database.read(connection -> {
+                PreparedStatement stmt = database.prepare(connection, current.selectSql());
+                stmt.setLong(1, cutoff);
+                stmt.setInt(2, limit);
+                return database.queryList(stmt, result -> ArchivedRow.read(result, current.timeColumn()));
+            });
+            if (rows.isEmpty()) {
+                table++;
+                return true;
+            }
+
+            long bytes = archive.append(current.name(), rows);
+            tableStats[table].bytes.addAndGet(bytes);
+
+            ArchivedRow last = rows.get(rows.size() - 1);
+            long nanos = database.write(connection -> {
+                long started = System.nanoTime();
+                PreparedStatement stmt = database.prepare(connection, current.deleteSql());
+                stmt.setLong(1, cutoff);
+                stmt.setLong(2, last.time());
+                stmt.setInt(3, last.id());
+                int deleted = database.update(stmt);
+                if (deleted != rows.size()) {
+                    // Savepoint wird zurückgerollt, die Zeilen bleiben für den nächsten Lauf
+                    throw new SQLException(current.name() + ": " + deleted + " statt " + rows.size() + " Zeilen gelöscht");
+                }
+                return System.nanoTime() - started;
+            });
+
+            record(nanos);
+            batches.incrementAndGet();
+            tableStats[table].rows.addAndGet(rows.size());
+            archived[table] += rows.size();
+            batchSize = adapt(limit, nanos, MIN_BATCH, MAX_BATCH);
+
+            if (rows.size() < limit) table++;
+            return true;
+        }
+
+        private boolean vacuumStep() throws SQLException {
+            int free = database.read(connection -> pragma(connection, "PRAGMA freelist_count"));
+            if (free == 0) return false;
+
+            int step = Math.min(free, vacuumPages);
+            long nanos = database.write(connection -> {
+                long started = System.nanoTime();
+                try (Statement stmt = connection.createStatement()) {
+                    // executeUpdate läuft das Pragma komplett durch, execute gibt nur eine Seite frei
+                    stmt.executeUpdate("PRAGMA incremental_vacuum(" + step + ")");
+                }
+                return System.nanoTime() - started;
+            });
+
+            record(nanos);
+            pagesFreed.addAndGet(step);
+            pages += step;
+            vacuumPages = adapt(step, nanos, MIN_VACUUM_PAGES, MAX_VACUUM_PAGES);
+            return step < free;
+        }
+
+        private void record(long nanos) {
+            lockTime.record(nanos);
+            maxLock = Math.max(maxLock, nanos);
+            batchCount++;
+        }
+
+        private void finish() {
+            lastRunMillis = System.currentTimeMillis() - lastRunStarted;
+            running.set(false);
+
+            StringBuilder summary = new StringBuilder();
+            for (int i = 0; i < tables.size(); i++) {
+                if (i > 0) summary.append(", ");
+                summary.append(tables.get(i).name()).append(' ').append(archived[i]);
+            }
+            System.out.println("🗄️ Archivierung: " + summary + " Zeilen in " + batchCount + " Schritten, "
+                    + pages + " Seiten freigegeben (längste Sperre " + TimeUnit.NANOSECONDS.toMillis(maxLock)
+                    + " ms, " + lastRunMillis + " ms gesamt)");
+        }
+    }
+
+    private static final class TableStats {
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+}
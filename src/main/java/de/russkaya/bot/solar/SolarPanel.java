@@ -0,0 +1,13 @@
+package de.russkaya.bot.solar;
+
+import java.time.Instant;
+
+/**
+ * Eine Zeile aus {@code solar_panels}. {@code repairs} zählt die Reparaturen
+ * seit dem Aufstellen.
+ */
+public record SolarPanel(int id, String userId, String username, String location, Instant placedAt, int repairs) {
+
+    // Nach so vielen Reparaturen ist eine Batterie fertig
+    public static final int REPAIRS_PER_BATTERY = 4;
+}
@@ -0,0 +1,171 @@
+package de.russkaya.bot.solar;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.status.PageCursor;
+import de.russkaya.bot.status.StatusFilter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SQL für {@code solar_panels}. Gleiche Konventionen wie {@link de.russkaya.bot.plant.PlantRepository}.
+ */
+public class SolarPanelRepository {
+
+    private static final String COLUMNS = "id, user_id, username, location, placed_at, repairs";
+
+    private static final String INSERT = "INSERT INTO solar_panels (guild_id, user_id, username, location, placed_at) VALUES (?, ?, ?, ?, ?) RETURNING " + COLUMNS;
+    private static final String ALL_ACTIVE = "SELECT " + COLUMNS + " FROM solar_panels WHERE status = 'active' AND " + ShardRange.sqlFilter("guild_id") + " ORDER BY placed_at DESC";
+    private static final String COLLECT = "UPDATE solar_panels SET status = 'collected', collected_by = ?, collected_at = ?, car_stored = ? WHERE id = ? AND guild_id = ? AND status = 'active' RETURNING " + COLUMNS;
+    // Pro Erinnerungsnachricht zählt nur eine Reparatur, auch wenn mehrere Leute reagieren
+    private static final String REPAIR = "UPDATE solar_panels SET repairs = repairs + 1, last_repaired_by = ?, last_repaired_at = ?, last_repair_message_id = ? "
+            + "WHERE id = ? AND guild_id = ? AND status = 'active' AND (last_repair_message_id IS NULL OR last_repair_message_id <> ?) RETURNING " + COLUMNS;
+    private static final String SET_REMINDER_MESSAGE = "UPDATE solar_panels SET reminder_message_id = ? WHERE id = ?";
+    private static final String REMINDER_MESSAGES = "SELECT id, reminder_message_id FROM solar_panels WHERE status = 'active' AND reminder_message_id IS NOT NULL"
+            + " AND " + ShardRange.sqlFilter("guild_id");
+
+    private static final String ACTIVE_LOCATIONS = "SELECT location FROM solar_panels WHERE guild_id = ? AND status = 'active' GROUP BY location ORDER BY COUNT(*) DESC, location LIMIT ?";
+    // Ein Statement pro Filterkombination, damit SQLite jeweils den passenden Index nimmt
+    private static final String[] PAGE_ACTIVE = pageStatements();
+
+    private final Database database;
+
+    public SolarPanelRepository(Database database) {
+        this.database = database;
+    }
+
+    public SolarPanel insert(Connection connection, long guildId, String userId, String username, String location) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, INSERT);
+        stmt.setLong(1, guildId);
+        stmt.setString(2, userId);
+        stmt.setString(3, username);
+        stmt.setString(4, location);
+        stmt.setLong(5, System.currentTimeMillis());
+        return database.querySingle(stmt, SolarPanelRepository::map).orElseThrow();
+    }
+
+    /**
+     * Alle aktiven Einträge der Server dieses Prozesses - zum Befüllen und Prüfen des In-Memory Index.
+     */
+    public List<SolarPanel> listAllActive(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, ALL_ACTIVE);
+        shards.bind(stmt, 1);
+        return database.queryList(stmt, SolarPanelRepository::map);
+    }
+
+    /**
+     * Eine Seite der Statusansicht per Keyset: neueste zuerst, beginnend nach
+     * {@code after} ({@code null} = erste Seite).
+     */
+    public List<SolarPanel> pageActive(Connection connection, StatusFilter filter, PageCursor after, int limit) throws SQLException {
+        int variant = (filter.ownerId() != null ? 1 : 0) | (filter.location() != null ? 2 : 0) | (after != null ? 4 : 0);
+        PreparedStatement stmt = database.prepare(connection, PAGE_ACTIVE[variant]);
+        int index = 1;
+        stmt.setLong(index++, filter.guildId());
+        if (filter.ownerId() != null) stmt.setString(index++, filter.ownerId());
+        if (filter.location() != null) stmt.setString(index++, filter.location());
+        if (after != null) {
+            stmt.setLong(index++, after.createdAt());
+            stmt.setInt(index++, after.id());
+        }
+        stmt.setInt(index, limit);
+        return database.queryList(stmt, SolarPanelRepository::map);
+    }
+
+    /**
+     * Standorte mit aktiven Einträgen des Servers, die häufigsten zuerst.
+     */
+    public List<String> activeLocations(Connection connection, long guildId, int limit) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, ACTIVE_LOCATIONS);
+        stmt.setLong(1, guildId);
+        stmt.setInt(2, limit);
+        return database.queryList(stmt, result -> result.getString("location"));
+    }
+
+    /**
+     * Sammelt die Batterie ein, falls das Panel noch aktiv ist, und liefert es zurück.
+     */
+    public Optional<SolarPanel> collect(Connection connection, long guildId, int id, String username, String car) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, COLLECT);
+        stmt.setString(1, username);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setString(3, car);
+        stmt.setInt(4, id);
+        stmt.setLong(5, guildId);
+        return single(stmt);
+    }
+
+    /**
+     * Zählt eine Reparatur aus der Reaktion auf {@code messageId}. Leer, wenn das
+     * Panel nicht mehr aktiv ist oder für diese Nachricht schon repariert wurde.
+     */
+    public Optional<SolarPanel> repair(Connection connection, long guildId, int id, String username, long messageId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, REPAIR);
+        stmt.setString(1, username);
+        stmt.setLong(2, System.currentTimeMillis());
+        stmt.setString(3, Long.toString(messageId));
+        stmt.setInt(4, id);
+        stmt.setLong(5, guildId);
+        stmt.setString(6, Long.toString(messageId));
+        return single(stmt);
+    }
+
+    /**
+     * Merkt sich die letzte Erinnerungsnachricht mit Reaktion zum Panel.
+     */
+    public void setReminderMessage(Connection connection, int id, long messageId) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, SET_REMINDER_MESSAGE);
+        stmt.setString(1, Long.toString(messageId));
+        stmt.setInt(2, id);
+        database.update(stmt);
+    }
+
+    /**
+     * Panel-ID zu Nachrichten-ID der letzten Erinnerung, nur aktive Panels der eigenen Shards.
+     */
+    public Map<Integer, Long> listReminderMessages(Connection connection, ShardRange shards) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, REMINDER_MESSAGES);
+        shards.bind(stmt, 1);
+        Map<Integer, Long> messages = new HashMap<>();
+        for (Map.Entry<Integer, Long> row : database.queryList(stmt,
+                result -> Map.entry(result.getInt("id"), Long.parseLong(result.getString("reminder_message_id"))))) {
+            messages.put(row.getKey(), row.getValue());
+        }
+        return messages;
+    }
+
+    private Optional<SolarPanel> single(PreparedStatement stmt) throws SQLException {
+        return database.querySingle(stmt, SolarPanelRepository::map);
+    }
+
+    private static String[] pageStatements() {
+        String[] statements = new String[8];
+        for (int variant = 0; variant < statements.length; variant++) {
+            StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM solar_panels WHERE guild_id = ? AND status = 'active'");
+            if ((variant & 1) != 0) sql.append(" AND user_id = ?");
+            if ((variant & 2) != 0) sql.append(" AND location = ?");
+            if ((variant & 4) != 0) sql.append(" AND (placed_at, id) < (?, ?)");
+            statements[variant] = sql.append(" ORDER BY placed_at DESC, id DESC LIMIT ?").toString();
+        }
+        return statements;
+    }
+
+    private static SolarPanel map(ResultSet result) throws SQLException {
+        return new SolarPanel(
+            result.getInt("id"),
+            result.getString("user_id"),
+            result.getString("username"),
+            result.getString("location"),
+            Instant.ofEpochMilli(result.getLong("placed_at")),
+            result.getInt("repairs")
+        );
+    }
+}
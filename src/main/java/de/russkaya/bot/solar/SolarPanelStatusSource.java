@@ -0,0 +1,45 @@
+package de.russkaya.bot.solar;
+
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.embed.StatusEmbeds;
+import de.russkaya.bot.status.PageCursor;
+import de.russkaya.bot.status.StatusFilter;
+import de.russkaya.bot.status.StatusSource;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Seiten für {@code /solar-status} direkt aus SQL (Leseverbindung).
+ */
+public class SolarPanelStatusSource implements StatusSource<SolarPanel> {
+
+    private final Database database;
+    private final SolarPanelRepository panels;
+
+    public SolarPanelStatusSource(Database database, SolarPanelRepository panels) {
+        this.database = database;
+        this.panels = panels;
+    }
+
+    @Override
+    public List<SolarPanel> page(StatusFilter filter, PageCursor after, int limit) throws SQLException {
+        return database.read(connection -> panels.pageActive(connection, filter, after, limit));
+    }
+
+    @Override
+    public PageCursor cursorOf(SolarPanel panel) {
+        return new PageCursor(panel.placedAt().toEpochMilli(), panel.id());
+    }
+
+    @Override
+    public List<String> locations(long guildId, int limit) throws SQLException {
+        return database.read(connection -> panels.activeLocations(connection, guildId, limit));
+    }
+
+    @Override
+    public MessageEmbed embed(List<SolarPanel> page, String footer) {
+        return StatusEmbeds.solarPanels(page, footer);
+    }
+}
@@ -0,0 +1,26 @@
+package de.russkaya.bot.stats;
+
+/**
+ * Wonach gezählt wird.
+ */
+public enum StatDimension {
+    USER("user", "Spieler"),
+    LOCATION("location", "Standorte"),
+    CAR("car", "Autos");
+
+    private final String key;
+    private final String label;
+
+    StatDimension(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,9 @@
+package de.russkaya.bot.stats;
+
+/**
+ * Ein Platz in einer Rangliste.
+ *
+ * @param key   Spieler-ID, Standort bzw. Auto
+ * @param label Anzeigename (bei Spielern der zuletzt gesehene Name)
+ */
+public record StatEntry(String key, String label, long count) {}
@@ -0,0 +1,45 @@
+package de.russkaya.bot.stats;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Zeitraum eines Zählers. Jeder Zeitraum hat eigene Buckets, damit eine
+ * Rangliste immer aus genau einem Bucket gelesen wird.
+ */
+public enum StatPeriod {
+    DAY("day", "Heute"),
+    WEEK("week", "Diese Woche"),
+    ALL("all", "Gesamt");
+
+    private final String key;
+    private final String label;
+
+    StatPeriod(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Bucket für einen Zeitpunkt: Tag bzw. Montag der Woche als Epoch-Day, 0 für {@link #ALL}.
+     */
+    public long bucket(Instant at, ZoneId zone) {
+        LocalDate day = LocalDate.ofInstant(at, zone);
+        return switch (this) {
+            case DAY -> day.toEpochDay();
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+            case ALL -> 0;
+        };
+    }
+}
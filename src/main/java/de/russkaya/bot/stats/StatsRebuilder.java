@@ -0,0 +1,134 @@
+package de.russkaya.bot.stats;
+
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.db.migration.MigrationRunner;
+import de.russkaya.bot.db.migration.Migrations;
+
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baut {@code stat_counters} aus dem Aktivitätslog neu auf - nach der
+ * Einführung der Zähler oder falls sie einmal nicht mehr stimmen. Läuft auch
+ * eigenständig:
+ * <pre>
+ * DATABASE_URL=... java -cp app.jar de.russkaya.bot.stats.StatsRebuilder
+ * </pre>
+ *
+ * Das Log wird in Portionen gelesen, pro Portion aufsummiert und per Upsert
+ * addiert; der Speicherbedarf hängt also nicht von der Länge der Historie ab.
+ * Aktionen, die während des Neuaufbaus passieren, zählen die Commands selbst:
+ * Leeren und Festlegen der letzten berücksichtigten Log-ID geschehen in
+ * derselben Transaktion.
+ */
+public class StatsRebuilder {
+
+    private static final int CHUNK = 10_000;
+    private static final int WRITE_BATCH = 1000;
+
+    private final Database database;
+    private final ActivityRepository activity;
+    private final StatsRepository stats;
+
+    public StatsRebuilder(Database database, ActivityRepository activity, StatsRepository stats) {
+        this.database = database;
+        this.activity = activity;
+        this.stats = stats;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        try (Database database = new Database(System.getenv("DATABASE_URL"), 1)) {
+            database.open();
+            new MigrationRunner(database).migrate(Migrations.ALL);
+            new StatsRebuilder(database, new ActivityRepository(database), new StatsRepository(database, ZoneId.systemDefault()))
+                    .rebuild();
+        }
+    }
+
+    /**
+     * Baut nur auf, wenn noch keine Zähler existieren.
+     *
+     * @return {@code true}, wenn neu aufgebaut wurde
+     */
+    public boolean rebuildIfEmpty() throws SQLException {
+        if (!database.read(stats::isEmpty)) return false;
+        return rebuild() > 0;
+    }
+
+    /**
+     * @return Anzahl der gezählten Log-Einträge
+     */
+    public long rebuild() throws SQLException {
+        long started = System.currentTimeMillis();
+        Map<String, String> userIds = database.read(activity::knownUserIds);
+        long lastId = database.write(connection -> {
+            stats.clear(connection);
+            return activity.maxId(connection);
+        });
+
+        long counted = 0;
+        long afterId = 0;
+        while (afterId < lastId) {
+            long cursor = afterId;
+            List<ActivityEvent> chunk = database.read(connection -> activity.after(connection, cursor, CHUNK));
+            if (chunk.isEmpty()) break;
+
+            Map<Counter, Tally> tallies = new HashMap<>();
+            for (ActivityEvent event : chunk) {
+                if (event.id() > lastId) break;
+                if (!StatsRepository.COUNTED.contains(event.action())) continue;
+                counted++;
+
+                String userId = event.userId() != null ? event.userId() : userIds.getOrDefault(event.username(), event.username());
+                for (StatPeriod period : StatPeriod.values()) {
+                    long bucket = period.bucket(event.occurredAt(), stats.getZone());
+                    tally(tallies, new Counter(event.guildId(), period, bucket, event.action(), StatDimension.USER, userId), event.username());
+                    if (event.location() != null) {
+                        tally(tallies, new Counter(event.guildId(), period, bucket, event.action(), StatDimension.LOCATION, event.location()), event.location());
+                    }
+                    if (event.car() != null) {
+                        tally(tallies, new Counter(event.guildId(), period, bucket, event.action(), StatDimension.CAR, event.car()), event.car());
+                    }
+                }
+            }
+
+            // In kleinen Transaktionen, damit Commands zwischendurch schreiben können
+            List<Map.Entry<Counter, Tally>> entries = List.copyOf(tallies.entrySet());
+            for (int from = 0; from < entries.size(); from += WRITE_BATCH) {
+                List<Map.Entry<Counter, Tally>> batch = entries.subList(from, Math.min(from + WRITE_BATCH, entries.size()));
+                database.write(connection -> {
+                    for (Map.Entry<Counter, Tally> entry : batch) {
+                        Counter counter = entry.getKey();
+                        stats.add(connection, counter.guildId(), counter.period(), counter.bucket(), counter.action(), counter.dimension(),
+                                counter.key(), entry.getValue().label, entry.getValue().count);
+                    }
+                    return null;
+                });
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+
+        System.out.println("✅ Statistik aus " + counted + " Log-Einträgen neu aufgebaut ("
+                + (System.currentTimeMillis() - started) + " ms)");
+        return counted;
+    }
+
+    private static void tally(Map<Counter, Tally> tallies, Counter counter, String label) {
+        Tally tally = tallies.computeIfAbsent(counter, key -> new Tally());
+        tally.count++;
+        tally.label = label; // Log ist nach ID sortiert - der neueste Name gewinnt
+    }
+
+    private record Counter(long guildId, StatPeriod period, long bucket, ActivityAction action, StatDimension dimension, String key) {}
+
+    private static final class Tally {
+        String label;
+        long count;
+    }
+}
@@ -0,0 +1,136 @@
+package de.russkaya.bot.stats;
+
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vorberechnete Zähler für {@code /stats}, getrennt pro Server. {@link #record}
+ * läuft in derselben {@link Database#write} Transaktion wie die Zustandsänderung
+ * und erhöht Tages-, Wochen- und Gesamtzähler pro Spieler, Standort und Auto mit
+ * einem einzigen Upsert. Eine Rangliste ist damit ein Indexbereich aus einem
+ * Bucket - die ersten N Einträge, ohne GROUP BY über die Historie.
+ */
+public class StatsRepository {
+
+    /**
+     * Aktionen, die gezählt werden.
+     */
+    public static final Set<ActivityAction> COUNTED = Set.of(ActivityAction.FERTILIZE, ActivityAction.HARVEST, ActivityAction.COLLECT);
+
+    private static final String COLUMNS = "(guild_id, period, bucket, action, dimension, key, label, count)";
+    private static final String ON_CONFLICT = " ON CONFLICT (guild_id, period, bucket, action, dimension, key)"
+            + " DO UPDATE SET count = count + excluded.count, label = excluded.label";
+
+    private static final String TOP = "SELECT key, label, count FROM stat_counters"
+            + " WHERE guild_id = ? AND period = ? AND bucket = ? AND action = ? AND dimension = ? ORDER BY count DESC LIMIT ?";
+    private static final String ANY = "SELECT 1 FROM stat_counters LIMIT 1";
+    private static final String CLEAR = "DELETE FROM stat_counters";
+
+    // Upsert für 1..9 Zeilen (3 Zeiträume × bis zu 3 Dimensionen), vorab gebaut
+    private static final String[] UPSERT = upsertStatements(StatPeriod.values().length * StatDimension.values().length);
+
+    private final Database database;
+    private final ZoneId zone;
+
+    /**
+     * @param zone Zeitzone, in der Tage und Wochen beginnen
+     */
+    public StatsRepository(Database database, ZoneId zone) {
+        this.database = database;
+        this.zone = zone;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Zählt eine Aktion. Nicht gezählte Aktionen (säen, aufstellen, reparieren) werden ignoriert.
+     *
+     * @param car nur bei Ernte und Batterie, sonst {@code null}
+     */
+    public void record(Connection connection, long guildId, ActivityAction action, Instant at, String userId, String username,
+                       String location, String car) throws SQLException {
+        if (!COUNTED.contains(action)) return;
+
+        List<Object[]> rows = new ArrayList<>(UPSERT.length - 1);
+        for (StatPeriod period : StatPeriod.values()) {
+            long bucket = period.bucket(at, zone);
+            rows.add(row(guildId, period, bucket, action, StatDimension.USER, userId != null ? userId : username, username, 1));
+            if (location != null) rows.add(row(guildId, period, bucket, action, StatDimension.LOCATION, location, location, 1));
+            if (car != null) rows.add(row(guildId, period, bucket, action, StatDimension.CAR, car, car, 1));
+        }
+
+        PreparedStatement stmt = database.prepare(connection, UPSERT[rows.size()]);
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                stmt.setObject(index++, value);
+            }
+        }
+        database.update(stmt);
+    }
+
+    /**
+     * Addiert einen bereits aufsummierten Zähler (für den Neuaufbau).
+     */
+    void add(Connection connection, long guildId, StatPeriod period, long bucket, ActivityAction action, StatDimension dimension,
+             String key, String label, long count) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, UPSERT[1]);
+        Object[] row = row(guildId, period, bucket, action, dimension, key, label, count);
+        for (int i = 0; i < row.length; i++) {
+            stmt.setObject(i + 1, row[i]);
+        }
+        database.update(stmt);
+    }
+
+    /**
+     * Rangliste des Servers für den Bucket, in den {@code at} fällt.
+     */
+    public List<StatEntry> top(Connection connection, long guildId, StatPeriod period, Instant at, ActivityAction action,
+                               StatDimension dimension, int limit) throws SQLException {
+        PreparedStatement stmt = database.prepare(connection, TOP);
+        stmt.setLong(1, guildId);
+        stmt.setString(2, period.getKey());
+        stmt.setLong(3, period.bucket(at, zone));
+        stmt.setString(4, action.name());
+        stmt.setString(5, dimension.getKey());
+        stmt.setInt(6, limit);
+        return database.queryList(stmt, result -> new StatEntry(result.getString("key"), result.getString("label"), result.getLong("count")));
+    }
+
+    public boolean isEmpty(Connection connection) throws SQLException {
+        return database.querySingle(database.prepare(connection, ANY), result -> true).isEmpty();
+    }
+
+    void clear(Connection connection) throws SQLException {
+        database.update(database.prepare(connection, CLEAR));
+    }
+
+    private static Object[] row(long guildId, StatPeriod period, long bucket, ActivityAction action, StatDimension dimension,
+                                String key, String label, long count) {
+        return new Object[] {guildId, period.getKey(), bucket, action.name(), dimension.getKey(), key, label, count};
+    }
+
+    private static String[] upsertStatements(int maxRows) {
+        String[] statements = new String[maxRows + 1];
+        for (int rows = 1; rows <= maxRows; rows++) {
+            StringBuilder sql = new StringBuilder("INSERT INTO stat_counters ").append(COLUMNS).append(" VALUES ");
+            for (int i = 0; i < rows; i++) {
+                if (i > 0) sql.append(", ");
+                sql.append("(?, ?, ?, ?, ?, ?, ?, ?)");
+            }
+            statements[rows] = sql.append(ON_CONFLICT).toString();
+        }
+        return statements;
+    }
+}
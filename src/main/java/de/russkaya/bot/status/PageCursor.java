@@ -0,0 +1,7 @@
+package de.russkaya.bot.status;
+
+/**
+ * Keyset-Cursor einer Statusseite: Erstellzeit und id des letzten angezeigten
+ * Eintrags. Die nächste Seite beginnt direkt danach (neueste zuerst).
+ */
+public record PageCursor(long createdAt, int id) {}
@@ -0,0 +1,25 @@
+package de.russkaya.bot.status;
+
+/**
+ * Filter einer Statusansicht, immer auf einen Server beschränkt. {@code null}
+ * heißt jeweils "kein Filter".
+ *
+ * @param ownerName nur für die Anzeige
+ */
+public record StatusFilter(long guildId, String ownerId, String ownerName, String location) {
+
+    /**
+     * Alle aktiven Einträge des Servers.
+     */
+    public static StatusFilter of(long guildId) {
+        return new StatusFilter(guildId, null, null, null);
+    }
+
+    public StatusFilter withOwner(String id, String name) {
+        return new StatusFilter(guildId, id, name, location);
+    }
+
+    public StatusFilter withLocation(String value) {
+        return new StatusFilter(guildId, ownerId, ownerName, value);
+    }
+}
@@ -0,0 +1,11 @@
+package de.russkaya.bot.status;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+
+import java.util.List;
+
+/**
+ * Eine gerenderte Statusseite mit Buttons und Standortmenü.
+ */
+public record StatusMessage(MessageEmbed embed, List<LayoutComponent> components) {}
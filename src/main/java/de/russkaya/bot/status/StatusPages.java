@@ -0,0 +1,246 @@
+package de.russkaya.bot.status;
+
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.components.selections.SelectOption;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blätterbare Statusansicht mit Buttons (zurück/weiter, nur meine) und einem
+ * Standortmenü. Jede Statusnachricht hat eine kurzlebige Sitzung mit den
+ * Keyset-Cursorn aller bisher angezeigten Seiten - Zurückblättern nimmt den
+ * gemerkten Cursor, Weiterblättern den letzten Eintrag der aktuellen Seite.
+ * Keine Seite wird per OFFSET oder vom Anfang an gesucht.
+ *
+ * Komponenten-IDs haben die Form {@code <prefix>:<sitzung>:<aktion>}; als
+ * Sitzung dient die ID der Interaktion, die die Nachricht erzeugt hat.
+ */
+public class StatusPages<T> {
+
+    private static final long SESSION_TTL_MS = 15 * 60 * 1000;
+    private static final int MAX_SESSIONS = 500;
+    private static final int MAX_LOCATIONS = 24; // + "Alle Standorte" = Discords Limit von 25 Optionen
+    private static final String ALL_LOCATIONS = "*";
+    // Standortliste ändert sich selten - pro Server für alle neuen Ansichten kurz wiederverwenden
+    private static final long LOCATIONS_TTL_MS = 60 * 1000;
+
+    private final String prefix;
+    private final int pageSize;
+    private final StatusSource<T> source;
+
+    // Zugriffsreihenfolge: bei vollem Cache fällt die am längsten unbenutzte Sitzung heraus
+    private final Map<Long, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Session> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    // Pro Server
+    private final Map<Long, Locations> locations = new HashMap<>();
+
+    // Statistik
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * @param prefix Präfix der Komponenten-IDs, üblicherweise der Command-Name
+     */
+    public StatusPages(String prefix, int pageSize, StatusSource<T> source) {
+        this.prefix = prefix;
+        this.pageSize = pageSize;
+        this.source = source;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Neue Ansicht ab der ersten Seite ohne Filter.
+     *
+     * @param sessionId ID der Interaktion, deren Antwort die Ansicht wird
+     * @param guildId   Server, dessen Einträge angezeigt werden
+     */
+    public StatusMessage open(long sessionId, long guildId) throws SQLException {
+        Session session = new Session(sessionId, guildId);
+        synchronized (sessions) {
+            sessions.put(sessionId, session);
+        }
+        synchronized (session) {
+            session.locations = locations(guildId);
+            return render(session);
+        }
+    }
+
+    /**
+     * Verarbeitet einen Klick bzw. eine Menüauswahl.
+     *
+     * @param values ausgewählte Werte (nur beim Standortmenü)
+     * @return die neue Seite oder {@code null}, wenn die Sitzung abgelaufen ist
+     */
+    public StatusMessage handle(String componentId, String userId, String username, List<String> values) throws SQLException {
+        String[] parts = componentId.split(":");
+        if (parts.length != 3) return null;
+        long sessionId;
+        try {
+            sessionId = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        Session session = session(sessionId);
+        if (session == null) return null;
+
+        // Pro Nachricht nacheinander, damit Doppelklicks nicht zwei Seiten überspringen
+        synchronized (session) {
+            switch (parts[2]) {
+                case "prev" -> {
+                    if (session.page > 0) session.page--;
+                }
+                case "next" -> {
+                    if (session.next != null) {
+                        // Alles hinter der aktuellen Seite kann sich geändert haben - ab hier neu merken
+                        session.starts.subList(session.page + 1, session.starts.size()).clear();
+                        session.starts.add(session.next);
+                        session.page++;
+                    }
+                }
+                case "mine" -> session.reset(session.filter.ownerId() != null
+                        ? session.filter.withOwner(null, null)
+                        : session.filter.withOwner(userId, username));
+                case "loc" -> {
+                    String location = values.isEmpty() || ALL_LOCATIONS.equals(values.get(0)) ? null : values.get(0);
+                    session.reset(session.filter.withLocation(location));
+                }
+                default -> {
+                    return null;
+                }
+            }
+            return render(session);
+        }
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    public long getPages() {
+        return pages.get();
+    }
+
+    /**
+     * Klicks auf Ansichten, deren Sitzung schon abgelaufen war.
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    private synchronized List<String> locations(long guildId) throws SQLException {
+        long now = System.currentTimeMillis();
+        Locations cached = locations.get(guildId);
+        if (cached == null || now - cached.loadedAt() > LOCATIONS_TTL_MS) {
+            // Abgelaufene Listen anderer Server gleich mit aufräumen
+            locations.values().removeIf(entry -> now - entry.loadedAt() > LOCATIONS_TTL_MS);
+            cached = new Locations(List.copyOf(source.locations(guildId, MAX_LOCATIONS)), now);
+            locations.put(guildId, cached);
+        }
+        return cached.names();
+    }
+
+    private Session session(long sessionId) {
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            Session session = sessions.get(sessionId);
+            if (session == null || now - session.lastUsed > SESSION_TTL_MS) {
+                if (session != null) sessions.remove(sessionId);
+                expired.incrementAndGet();
+                return null;
+            }
+            session.lastUsed = now;
+            return session;
+        }
+    }
+
+    // Einen Eintrag mehr laden, um zu wissen ob es eine nächste Seite gibt
+    private StatusMessage render(Session session) throws SQLException {
+        List<T> rows = source.page(session.filter, session.starts.get(session.page), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<T> page = hasNext ? rows.subList(0, pageSize) : rows;
+        session.next = hasNext ? source.cursorOf(page.get(page.size() - 1)) : null;
+        pages.incrementAndGet();
+
+        return new StatusMessage(source.embed(page, footer(session)), components(session, hasNext));
+    }
+
+    private String footer(Session session) {
+        StringBuilder footer = new StringBuilder("Seite ").append(session.page + 1);
+        if (session.filter.ownerName() != null) footer.append(" · 👤 ").append(session.filter.ownerName());
+        if (session.filter.location() != null) footer.append(" · 📍 ").append(session.filter.location());
+        return footer.toString();
+    }
+
+    private List<LayoutComponent> components(Session session, boolean hasNext) {
+        String base = prefix + ":" + session.id + ":";
+        List<LayoutComponent> rows = new ArrayList<>(2);
+        rows.add(ActionRow.of(
+                Button.secondary(base + "prev", "◀ Zurück").withDisabled(session.page == 0),
+                Button.secondary(base + "page", "Seite " + (session.page + 1)).asDisabled(),
+                Button.secondary(base + "next", "Weiter ▶").withDisabled(!hasNext),
+                session.filter.ownerId() != null
+                        ? Button.secondary(base + "mine", "👥 Alle Spieler")
+                        : Button.primary(base + "mine", "👤 Nur meine")));
+
+        if (!session.locations.isEmpty()) {
+            StringSelectMenu.Builder menu = StringSelectMenu.create(base + "loc")
+                    .setPlaceholder("📍 Nach Standort filtern")
+                    .addOption("Alle Standorte", ALL_LOCATIONS);
+            for (String location : session.locations) {
+                if (location.length() <= SelectOption.LABEL_MAX_LENGTH) menu.addOption(location, location);
+            }
+            if (session.filter.location() != null && session.locations.contains(session.filter.location())) {
+                menu.setDefaultValues(session.filter.location());
+            }
+            rows.add(ActionRow.of(menu.build()));
+        }
+        return rows;
+    }
+
+    private record Locations(List<String> names, long loadedAt) {}
+
+    private static final class Session {
+        final long id;
+        // starts.get(i) = Cursor, nach dem Seite i beginnt (null = von vorne)
+        final List<PageCursor> starts = new ArrayList<>();
+        StatusFilter filter;
+        List<String> locations = List.of();
+        int page;
+        PageCursor next;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(long id, long guildId) {
+            this.id = id;
+            this.filter = StatusFilter.of(guildId);
+            starts.add(null);
+        }
+
+        // Neuer Filter = neue Ergebnisliste, also zurück auf Seite 1
+        void reset(StatusFilter newFilter) {
+            filter = newFilter;
+            starts.subList(1, starts.size()).clear();
+            page = 0;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.russkaya.bot.status;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Daten und Embed einer blätterbaren Statusansicht.
+ */
+public interface StatusSource<T> {
+
+    /**
+     * Aktive Einträge, neueste zuerst, beginnend nach {@code after}
+     * ({@code null} = erste Seite).
+     */
+    List<T> page(StatusFilter filter, PageCursor after, int limit) throws SQLException;
+
+    PageCursor cursorOf(T entity);
+
+    /**
+     * Standorte mit aktiven Einträgen des Servers, die häufigsten zuerst - für das Filtermenü.
+     */
+    List<String> locations(long guildId, int limit) throws SQLException;
+
+    MessageEmbed embed(List<T> page, String footer);
+}
@@ -0,0 +1,10 @@
+package de.russkaya.bot.storage;
+
+import de.russkaya.bot.reminder.Reminder;
+
+import java.util.List;
+
+/**
+ * Neue Pflanze bzw. neues Panel samt den Erinnerungen, die im selben Ablauf gespeichert wurden.
+ */
+public record Created<T>(T entity, List<Reminder> reminders) {}
@@ -0,0 +1,244 @@
+package de.russkaya.bot.storage;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityAction;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.activity.ActivityRepository;
+import de.russkaya.bot.db.Database;
+import de.russkaya.bot.db.migration.MigrationRunner;
+import de.russkaya.bot.db.migration.Migrations;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.plant.PlantRepository;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderPlan;
+import de.russkaya.bot.reminder.ReminderRepository;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.solar.SolarPanel;
+import de.russkaya.bot.solar.SolarPanelRepository;
+import de.russkaya.bot.stats.StatsRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link Storage} auf SQLite: jeder Ablauf ist eine {@link Database#write}
+ * Transaktion über die Repositories, Änderung, Log-Eintrag und Statistik-Zähler
+ * committen zusammen.
+ */
+public class SqliteStorage implements Storage {
+
+    private final Database database;
+    private final PlantRepository plants;
+    private final SolarPanelRepository solarPanels;
+    private final ActivityRepository activity;
+    private final StatsRepository stats;
+    private final ReminderRepository reminders;
+    private final boolean ownsDatabase;
+
+    /**
+     * Auf einer Datenbank, die der Aufrufer öffnet und schließt (so im Bot -
+     * Status, Statistik und Export lesen dieselbe Datenbank).
+     */
+    public SqliteStorage(Database database, PlantRepository plants, SolarPanelRepository solarPanels,
+                         ActivityRepository activity, StatsRepository stats, ReminderRepository reminders) {
+        this(database, plants, solarPanels, activity, stats, reminders, false);
+    }
+
+    private SqliteStorage(Database database, PlantRepository plants, SolarPanelRepository solarPanels,
+                          ActivityRepository activity, StatsRepository stats, ReminderRepository reminders,
+                          boolean ownsDatabase) {
+        this.database = database;
+        this.plants = plants;
+        this.solarPanels = solarPanels;
+        this.activity = activity;
+        this.stats = stats;
+        this.reminders = reminders;
+        this.ownsDatabase = ownsDatabase;
+    }
+
+    /**
+     * Öffnet eine eigene Datenbank samt Migrationen; {@link #close} schließt sie wieder.
+     */
+    public static SqliteStorage open(String url, int readers, ZoneId zone) throws SQLException {
+        Database database = new Database(url, readers);
+        database.open();
+        try {
+            new MigrationRunner(database).migrate(Migrations.ALL);
+        } catch (SQLException | RuntimeException e) {
+            database.close();
+            throw e;
+        }
+        return new SqliteStorage(database, new PlantRepository(database), new SolarPanelRepository(database),
+                new ActivityRepository(database), new StatsRepository(database, zone), new ReminderRepository(database), true);
+    }
+
+    @Override
+    public Created<Plant> sow(long guildId, String userId, String username, String location, List<ReminderPlan> reminders)
+            throws SQLException {
+        return database.write(connection -> {
+            Plant planted = plants.insert(connection, guildId, userId, username, location);
+            activity.record(connection, guildId, ActivityAction.SOW, planted.id(), userId, username, location, null);
+            return new Created<>(planted, insertReminders(connection, guildId, planted.id(), reminders));
+        });
+    }
+
+    @Override
+    public Optional<Plant> fertilize(long guildId, int plantId, String userId, String username) throws SQLException {
+        return database.write(connection -> {
+            Optional<Plant> fertilized = plants.fertilize(connection, guildId, plantId, username);
+            if (fertilized.isPresent()) recordFertilize(connection, guildId, fertilized.get(), userId, username);
+            return fertilized;
+        });
+    }
+
+    @Override
+    public Optional<Plant> fertilizeIfPending(long guildId, int plantId, String userId, String username) throws SQLException {
+        return database.write(connection -> {
+            Optional<Plant> fertilized = plants.fertilizeIfPending(connection, guildId, plantId, username);
+            if (fertilized.isPresent()) recordFertilize(connection, guildId, fertilized.get(), userId, username);
+            return fertilized;
+        });
+    }
+
+    @Override
+    public Optional<Plant> harvest(long guildId, int plantId, String userId, String username, String car) throws SQLException {
+        return database.write(connection -> {
+            Optional<Plant> plant = plants.harvest(connection, guildId, plantId, username, car);
+            if (plant.isPresent()) {
+                activity.record(connection, guildId, ActivityAction.HARVEST, plantId, userId, username, plant.get().location(), car);
+                stats.record(connection, guildId, ActivityAction.HARVEST, Instant.now(), userId, username, plant.get().location(), car);
+            }
+            return plant;
+        });
+    }
+
+    @Override
+    public List<Plant> activePlants(ShardRange shards) throws SQLException {
+        return database.read(connection -> plants.listAllActive(connection, shards));
+    }
+
+    @Override
+    public Created<SolarPanel> placeSolar(long guildId, String userId, String username, String location,
+                                          List<ReminderPlan> reminders) throws SQLException {
+        return database.write(connection -> {
+            SolarPanel placed = solarPanels.insert(connection, guildId, userId, username, location);
+            activity.record(connection, guildId, ActivityAction.PLACE, placed.id(), userId, username, location, null);
+            return new Created<>(placed, insertReminders(connection, guildId, placed.id(), reminders));
+        });
+    }
+
+    @Override
+    public Optional<SolarPanel> repair(long guildId, int solarId, String userId, String username, long messageId) throws SQLException {
+        return database.write(connection -> {
+            Optional<SolarPanel> panel = solarPanels.repair(connection, guildId, solarId, username, messageId);
+            if (panel.isPresent()) {
+                activity.record(connection, guildId, ActivityAction.REPAIR, solarId, userId, username, panel.get().location(), null);
+            }
+            return panel;
+        });
+    }
+
+    @Override
+    public Optional<SolarPanel> collectSolar(long guildId, int solarId, String userId, String username, String car) throws SQLException {
+        return database.write(connection -> {
+            Optional<SolarPanel> panel = solarPanels.collect(connection, guildId, solarId, username, car);
+            if (panel.isPresent()) {
+                activity.record(connection, guildId, ActivityAction.COLLECT, solarId, userId, username, panel.get().location(), car);
+                stats.record(connection, guildId, ActivityAction.COLLECT, Instant.now(), userId, username, panel.get().location(), car);
+            }
+            return panel;
+        });
+    }
+
+    @Override
+    public List<SolarPanel> activePanels(ShardRange shards) throws SQLException {
+        return database.read(connection -> solarPanels.listAllActive(connection, shards));
+    }
+
+    @Override
+    public Reminder insertReminder(long guildId, ReminderType type, long entityId, long channelId, long dueAt,
+                                   long intervalMillis) throws SQLException {
+        return database.write(connection -> reminders.insert(connection, guildId, type, entityId, channelId, dueAt, intervalMillis));
+    }
+
+    @Override
+    public List<Reminder> pendingReminders(ShardRange shards) throws SQLException {
+        return database.read(connection -> reminders.listPending(connection, shards));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveReminder(long reminderId, long dueAt) {
+        return database.submit(connection -> reminders.moveDue(connection, reminderId, dueAt) > 0);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteReminders(Collection<Long> reminderIds) {
+        return database.submit(connection -> {
+            for (long reminderId : reminderIds) {
+                reminders.delete(connection, reminderId);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteReminders(EntityType entityType, long entityId) {
+        return database.submit(connection -> reminders.deleteForEntity(connection, entityType, entityId));
+    }
+
+    @Override
+    public CompletableFuture<Void> setReminderMessage(long messageId, List<ReminderMessageIndex.Ref> fields) {
+        return database.submit(connection -> {
+            for (ReminderMessageIndex.Ref ref : fields) {
+                switch (ref.type()) {
+                    case PLANT_FERTILIZE -> plants.setReminderMessage(connection, ref.entityId(), messageId);
+                    case SOLAR_REPAIR -> solarPanels.setReminderMessage(connection, ref.entityId(), messageId);
+                    case SOLAR_COLLECT -> { } // ohne Reaktion, nichts zu merken
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Integer, Long> reminderMessages(EntityType entityType, ShardRange shards) throws SQLException {
+        return database.read(connection -> switch (entityType) {
+            case PLANT -> plants.listReminderMessages(connection, shards);
+            case SOLAR -> solarPanels.listReminderMessages(connection, shards);
+        });
+    }
+
+    @Override
+    public List<ActivityEvent> activity(long guildId, Long beforeId, int limit) throws SQLException {
+        return database.read(connection -> activity.page(connection, guildId, beforeId, limit));
+    }
+
+    @Override
+    public void close() {
+        if (ownsDatabase) database.close();
+    }
+
+    private void recordFertilize(Connection connection, long guildId, Plant plant, String userId, String username) throws SQLException {
+        activity.record(connection, guildId, ActivityAction.FERTILIZE, plant.id(), userId, username, plant.location(), null);
+        stats.record(connection, guildId, ActivityAction.FERTILIZE, Instant.now(), userId, username, plant.location(), null);
+    }
+
+    private List<Reminder> insertReminders(Connection connection, long guildId, long entityId, List<ReminderPlan> plans)
+            throws SQLException {
+        List<Reminder> inserted = new ArrayList<>(plans.size());
+        for (ReminderPlan plan : plans) {
+            inserted.add(reminders.insert(connection, guildId, plan.type(), entityId, plan.channelId(), plan.dueAt(), plan.intervalMillis()));
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,142 @@
+package de.russkaya.bot.storage;
+
+import de.russkaya.bot.EntityType;
+import de.russkaya.bot.activity.ActivityEvent;
+import de.russkaya.bot.guild.ShardRange;
+import de.russkaya.bot.plant.Plant;
+import de.russkaya.bot.reminder.Reminder;
+import de.russkaya.bot.reminder.ReminderMessageIndex;
+import de.russkaya.bot.reminder.ReminderPlan;
+import de.russkaya.bot.reminder.ReminderType;
+import de.russkaya.bot.solar.SolarPanel;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Speicher für Pflanzen, Solarpanels, Erinnerungen und das Aktivitäts-Log.
+ * Jede schreibende Methode ist ein ganzer Ablauf - Änderung plus Log-Eintrag -
+ * und gilt ganz oder gar nicht. Bedingte Änderungen (Düngen, Ernten, ...)
+ * prüfen ihre Bedingung selbst und liefern nur bei Erfolg einen Wert: das ist
+ * der Check-and-Set, auf den sich {@code CommandCore} verlässt.
+ *
+ * Im Bot läuft {@link SqliteStorage}. {@code MvStoreStorage} liegt als
+ * Vergleich bei den Benchmarks; dass sich beide gleich verhalten, prüft
+ * {@code StorageConformance}, was schneller ist, misst {@code StorageBenchmark}.
+ *
+ * Fehler melden alle Backends als {@link SQLException}, so bleiben die Aufrufer gleich.
+ */
+public interface Storage extends AutoCloseable {
+
+    // Pflanzen
+
+    /**
+     * Legt die Pflanze samt ihren Erinnerungen an - nach einem Absturz gibt es
+     * entweder beides oder nichts.
+     *
+     * @param userId Discord-ID des Besitzers, Pflicht (nur im Aktivitäts-Log darf sie fehlen)
+     */
+    Created<Plant> sow(long guildId, String userId, String username, String location, List<ReminderPlan> reminders)
+            throws SQLException;
+
+    /**
+     * Ohne Erinnerungen.
+     */
+    default Plant sow(long guildId, String userId, String username, String location) throws SQLException {
+        return sow(guildId, userId, username, location, List.of()).entity();
+    }
+
+    /**
+     * Düngt, falls die Pflanze noch wächst - auch wenn schon jemand gedüngt hat.
+     */
+    Optional<Plant> fertilize(long guildId, int plantId, String userId, String username) throws SQLException;
+
+    /**
+     * Düngt nur, wenn noch niemand gedüngt hat (Reaktionen).
+     */
+    Optional<Plant> fertilizeIfPending(long guildId, int plantId, String userId, String username) throws SQLException;
+
+    Optional<Plant> harvest(long guildId, int plantId, String userId, String username, String car) throws SQLException;
+
+    /**
+     * Alle wachsenden Pflanzen der Server dieses Prozesses, neueste zuerst.
+     */
+    List<Plant> activePlants(ShardRange shards) throws SQLException;
+
+    // Solarpanels
+
+    /**
+     * Wie {@link #sow(long, String, String, String, List)}.
+     */
+    Created<SolarPanel> placeSolar(long guildId, String userId, String username, String location, List<ReminderPlan> reminders)
+            throws SQLException;
+
+    /**
+     * Ohne Erinnerungen.
+     */
+    default SolarPanel placeSolar(long guildId, String userId, String username, String location) throws SQLException {
+        return placeSolar(guildId, userId, username, location, List.of()).entity();
+    }
+
+    /**
+     * Zählt eine Reparatur, aber höchstens eine pro Erinnerungsnachricht.
+     */
+    Optional<SolarPanel> repair(long guildId, int solarId, String userId, String username, long messageId) throws SQLException;
+
+    Optional<SolarPanel> collectSolar(long guildId, int solarId, String userId, String username, String car) throws SQLException;
+
+    /**
+     * Alle aktiven Panels der Server dieses Prozesses, neueste zuerst.
+     */
+    List<SolarPanel> activePanels(ShardRange shards) throws SQLException;
+
+    // Erinnerungen
+
+    Reminder insertReminder(long guildId, ReminderType type, long entityId, long channelId, long dueAt,
+                            long intervalMillis) throws SQLException;
+
+    List<Reminder> pendingReminders(ShardRange shards) throws SQLException;
+
+    /**
+     * Asynchron, damit der Tick der Erinnerungen nie auf den Speicher wartet.
+     *
+     * @return false, wenn die Erinnerung inzwischen gelöscht wurde
+     */
+    CompletableFuture<Boolean> moveReminder(long reminderId, long dueAt);
+
+    /**
+     * Löscht erledigte Erinnerungen in einem Ablauf (asynchron wie {@link #moveReminder}).
+     */
+    CompletableFuture<Void> deleteReminders(Collection<Long> reminderIds);
+
+    /**
+     * Asynchron wie {@link #moveReminder}.
+     *
+     * @return Anzahl gelöschter Erinnerungen
+     */
+    CompletableFuture<Integer> deleteReminders(EntityType entityType, long entityId);
+
+    /**
+     * Merkt sich die Erinnerungsnachricht zu den Einträgen mit Reaktion (asynchron).
+     */
+    CompletableFuture<Void> setReminderMessage(long messageId, List<ReminderMessageIndex.Ref> fields);
+
+    /**
+     * Entitäts-ID zu Nachrichten-ID der letzten Erinnerung, nur aktive Einträge der eigenen Shards.
+     */
+    Map<Integer, Long> reminderMessages(EntityType entityType, ShardRange shards) throws SQLException;
+
+    // Aktivitäts-Log
+
+    /**
+     * Neueste Einträge des Servers zuerst, {@code beforeId} ist der Cursor der vorherigen Seite.
+     */
+    List<ActivityEvent> activity(long guildId, Long beforeId, int limit) throws SQLException;
+
+    @Override
+    void close();
+}